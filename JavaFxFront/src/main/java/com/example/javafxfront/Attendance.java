@@ -200,6 +200,13 @@ public class Attendance {
     /** Czas oznaczenia/ostatniej zmiany statusu obecności */
     private LocalDateTime markedAt;
 
+    /**
+     * Termin, w którego frekwencji obecność jest aktualnie zapisana
+     * ({@link ClassSchedule#addAttendance(Attendance)}); powiadamiany o zmianie statusu,
+     * aby jego liczniki pozostały aktualne. Może różnić się od {@link #schedule}.
+     */
+    private ClassSchedule owner;
+
     /**
      * Tworzy nową obecność z podstawowymi danymi.
      *
@@ -343,8 +350,30 @@ public class Attendance {
      * @throws IllegalArgumentException jeśli status jest null
      */
     public void setStatus(Status status) {
+        Status previous = this.status;
         this.status = status;
         this.markedAt = LocalDateTime.now(); // Aktualizuj czas gdy zmieniany jest status
+
+        ClassSchedule currentOwner = owner;
+        if (currentOwner != null && previous != status) {
+            currentOwner.onAttendanceStatusChanged(this, previous, status);
+        }
+    }
+
+    /**
+     * Ustawia termin przechowujący tę obecność (wywoływane przez {@link ClassSchedule}).
+     *
+     * @param owner termin lub null po usunięciu obecności
+     */
+    void setOwner(ClassSchedule owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * @return termin przechowujący tę obecność lub null
+     */
+    ClassSchedule getOwner() {
+        return owner;
     }
 
     /**
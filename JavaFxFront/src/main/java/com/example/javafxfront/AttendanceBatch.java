@@ -0,0 +1,159 @@
+package com.example.javafxfront;
+
+import java.util.List;
+
+/**
+ * Wpisy i wyniki zbiorczej operacji na frekwencji.
+ *
+ * <p>Jedno żądanie {@code POST /attendance/batch} może oznaczyć lub wyczyścić
+ * obecność wielu studentów na jednym lub kilku terminach. Każdy wpis dostaje
+ * własny {@link Result}, więc częściowe niepowodzenie nie ukrywa wpisów, które
+ * zostały zapisane.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see AttendanceService#applyBatchAsync(List)
+ */
+public final class AttendanceBatch {
+
+    private AttendanceBatch() {
+    }
+
+    /**
+     * Tworzy wpisy oznaczające wszystkich studentów tym samym statusem na jednym terminie.
+     *
+     * @param students studenci
+     * @param scheduleId ID terminu na serwerze
+     * @param status status obecności
+     * @return lista wpisów w kolejności studentów
+     */
+    public static List<Entry> markAll(List<Student> students, Long scheduleId, Attendance.Status status) {
+        return students.stream().map(student -> Entry.mark(student, scheduleId, status, "")).toList();
+    }
+
+    /**
+     * Tworzy wpisy usuwające oznaczenia podanych studentów na jednym terminie.
+     *
+     * @param students studenci
+     * @param scheduleId ID terminu na serwerze
+     * @return lista wpisów w kolejności studentów
+     */
+    public static List<Entry> clearAll(List<Student> students, Long scheduleId) {
+        return students.stream().map(student -> Entry.clear(student, scheduleId)).toList();
+    }
+
+    /**
+     * Zlicza wpisy zapisane na serwerze.
+     *
+     * @param results wyniki operacji
+     * @return liczba wpisów zakończonych sukcesem
+     */
+    public static long countSucceeded(List<Result> results) {
+        return results.stream().filter(Result::isSuccess).count();
+    }
+
+    /**
+     * Pojedynczy wpis operacji zbiorczej.
+     */
+    public static final class Entry {
+        private final Student student;
+        private final Long scheduleId;
+        private final Attendance.Status status;
+        private final String notes;
+
+        private Entry(Student student, Long scheduleId, Attendance.Status status, String notes) {
+            this.student = student;
+            this.scheduleId = scheduleId;
+            this.status = status;
+            this.notes = notes;
+        }
+
+        /**
+         * Tworzy wpis oznaczający obecność.
+         *
+         * @param student student
+         * @param scheduleId ID terminu
+         * @param status status obecności
+         * @param notes uwagi (może być null)
+         * @return nowy wpis
+         */
+        public static Entry mark(Student student, Long scheduleId, Attendance.Status status, String notes) {
+            return new Entry(student, scheduleId, status, notes);
+        }
+
+        /**
+         * Tworzy wpis usuwający oznaczenie obecności.
+         *
+         * @param student student
+         * @param scheduleId ID terminu
+         * @return nowy wpis
+         */
+        public static Entry clear(Student student, Long scheduleId) {
+            return new Entry(student, scheduleId, null, null);
+        }
+
+        /** @return student */
+        public Student getStudent() {
+            return student;
+        }
+
+        /** @return ID terminu */
+        public Long getScheduleId() {
+            return scheduleId;
+        }
+
+        /** @return status lub null dla usunięcia oznaczenia */
+        public Attendance.Status getStatus() {
+            return status;
+        }
+
+        /** @return uwagi */
+        public String getNotes() {
+            return notes;
+        }
+
+        /** @return true jeśli wpis usuwa oznaczenie */
+        public boolean isClear() {
+            return status == null;
+        }
+    }
+
+    /**
+     * Wynik jednego wpisu.
+     */
+    public static final class Result {
+        private final Entry entry;
+        private final boolean success;
+        private final boolean queued;
+        private final String message;
+
+        Result(Entry entry, boolean success, boolean queued, String message) {
+            this.entry = entry;
+            this.success = success;
+            this.queued = queued;
+            this.message = message;
+        }
+
+        /** @return wpis, którego dotyczy wynik */
+        public Entry getEntry() {
+            return entry;
+        }
+
+        /** @return true jeśli serwer zapisał wpis */
+        public boolean isSuccess() {
+            return success;
+        }
+
+        /** @return true jeśli wpis czeka w kolejce offline */
+        public boolean isQueued() {
+            return queued;
+        }
+
+        /** @return komunikat błędu lub null */
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.javafxfront;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Strumieniowy eksport dziennika obecności do pliku CSV.
+ *
+ * <p>Dane są czytane bezpośrednio z {@link AttendanceMatrix} - wiersz po wierszu,
+ * bez budowania wierszy tabeli ani całego pliku w pamięci. Zapis idzie przez
+ * bufor do kanału {@link FileChannel} w kodowaniu UTF-8 (ze znacznikiem BOM,
+ * żeby Excel poprawnie pokazał polskie znaki).</p>
+ *
+ * <p>Format zgodny z RFC 4180: wiersze kończą się {@code CRLF}, pola zawierające
+ * przecinek, cudzysłów lub znak nowej linii są ujmowane w cudzysłowy, a
+ * cudzysłowy wewnątrz pola są podwajane. Ma to znaczenie m.in. dla statystyk,
+ * które w polskim locale mają przecinek dziesiętny ("85,5% (17/20)").</p>
+ *
+ * <p>Plik jest najpierw zapisywany obok docelowego pod tymczasową nazwą i
+ * przenoszony na miejsce dopiero po zapisaniu ostatniego wiersza - przerwany
+ * lub anulowany eksport nie zostawia niepełnego pliku.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see AttendanceReportController
+ */
+public final class AttendanceCsvExporter {
+
+    /** Rozmiar bufora znaków przed kanałem pliku */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Znacznik kolejności bajtów UTF-8 */
+    private static final char BOM = '\uFEFF';
+
+    private static final String LINE_END = "\r\n";
+
+    private AttendanceCsvExporter() {
+    }
+
+    /**
+     * Eksportuje macierz obecności do pliku CSV.
+     *
+     * @param matrix macierz obecności
+     * @param file plik docelowy (zostanie nadpisany)
+     * @return liczba zapisanych wierszy danych
+     * @throws IOException jeśli zapis się nie powiódł
+     */
+    public static int export(AttendanceMatrix matrix, Path file) throws IOException {
+        return export(matrix, file, () -> false, rows -> { });
+    }
+
+    /**
+     * Eksportuje macierz obecności do pliku CSV z możliwością anulowania.
+     *
+     * @param matrix macierz obecności
+     * @param file plik docelowy (zostanie nadpisany)
+     * @param cancelled sprawdzane przed każdym wierszem; true przerywa eksport
+     * @param rowsWritten wywoływane z liczbą zapisanych dotąd wierszy danych
+     * @return liczba zapisanych wierszy danych
+     * @throws IOException jeśli zapis się nie powiódł
+     * @throws CancellationException jeśli eksport został anulowany (plik docelowy pozostaje bez zmian)
+     */
+    public static int export(AttendanceMatrix matrix, Path file,
+                             BooleanSupplier cancelled, IntConsumer rowsWritten) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+
+        boolean completed = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 Writer writer = new BufferedWriter(
+                         Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+                         BUFFER_SIZE)) {
+
+                writer.write(BOM);
+                writeHeader(writer, matrix);
+
+                for (int row = 0; row < matrix.getRowCount(); row++) {
+                    if (cancelled.getAsBoolean()) {
+                        throw new CancellationException("Eksport CSV został anulowany");
+                    }
+                    writeRow(writer, matrix, row);
+                    rowsWritten.accept(row + 1);
+                }
+            }
+
+            moveIntoPlace(temp, target);
+            completed = true;
+            System.out.println("💾 Wyeksportowano " + matrix.getRowCount() + " wierszy do " + target);
+            return matrix.getRowCount();
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static void writeHeader(Writer writer, AttendanceMatrix matrix) throws IOException {
+        writeField(writer, "Imię i nazwisko");
+        writer.write(',');
+        writeField(writer, "Numer indeksu");
+        for (ClassSchedule schedule : matrix.getSchedules()) {
+            writer.write(',');
+            writeField(writer, schedule.getSubject() + " (" + schedule.getFormattedStartTime() + ")");
+        }
+        writer.write(',');
+        writeField(writer, "Statystyki");
+        writer.write(LINE_END);
+    }
+
+    private static void writeRow(Writer writer, AttendanceMatrix matrix, int row) throws IOException {
+        Student student = matrix.getStudents().get(row);
+        writeField(writer, student.getFullName());
+        writer.write(',');
+        writeField(writer, student.getIndexNumber());
+        for (int column = 0; column < matrix.getColumnCount(); column++) {
+            writer.write(',');
+            writeField(writer, matrix.getDisplayName(row, column));
+        }
+        writer.write(',');
+        writeField(writer, matrix.getRowStatistics(row));
+        writer.write(LINE_END);
+    }
+
+    /**
+     * Zapisuje pole CSV, ujmując je w cudzysłowy tylko gdy jest to wymagane.
+     *
+     * @param writer strumień wyjściowy
+     * @param value wartość pola (null zapisywane jako puste pole)
+     * @throws IOException jeśli zapis się nie powiódł
+     */
+    static void writeField(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (!needsQuoting(value)) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.javafxfront;
+
+import javafx.scene.control.SelectionModel;
+import javafx.scene.input.KeyCode;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Skróty klawiszowe listy obecności w oknie zarządzania terminem.
+ *
+ * <p>Skrót oznacza zaznaczonego studenta i przesuwa zaznaczenie na następnego,
+ * dzięki czemu całą grupę można sprawdzić bez myszy:</p>
+ * <ul>
+ *   <li><strong>O / 1</strong> - obecny</li>
+ *   <li><strong>S / 2</strong> - spóźniony</li>
+ *   <li><strong>N / 3</strong> - nieobecny</li>
+ *   <li><strong>Delete / Backspace / 0</strong> - wyczyszczenie oznaczenia</li>
+ * </ul>
+ *
+ * <p>Logika nie zależy od kontrolek - działa na modelu zaznaczenia listy.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see AttendanceSheetCell
+ * @see GroupDetailController
+ */
+public final class AttendanceKeyboard {
+
+    private AttendanceKeyboard() {
+    }
+
+    /**
+     * Sprawdza, czy klawisz jest skrótem oznaczania obecności.
+     *
+     * @param code naciśnięty klawisz
+     * @return true dla klawiszy obsługiwanych przez {@link #statusForKey}
+     */
+    public static boolean isMarkingKey(KeyCode code) {
+        return switch (code) {
+            case O, DIGIT1, NUMPAD1, S, DIGIT2, NUMPAD2, N, DIGIT3, NUMPAD3,
+                 DELETE, BACK_SPACE, DIGIT0, NUMPAD0 -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Zwraca status przypisany do klawisza.
+     *
+     * @param code naciśnięty klawisz
+     * @return status, null dla klawiszy czyszczących oznaczenie
+     * @throws IllegalArgumentException jeśli klawisz nie jest skrótem (sprawdź {@link #isMarkingKey})
+     */
+    public static Attendance.Status statusForKey(KeyCode code) {
+        return switch (code) {
+            case O, DIGIT1, NUMPAD1 -> Attendance.Status.PRESENT;
+            case S, DIGIT2, NUMPAD2 -> Attendance.Status.LATE;
+            case N, DIGIT3, NUMPAD3 -> Attendance.Status.ABSENT;
+            case DELETE, BACK_SPACE, DIGIT0, NUMPAD0 -> null;
+            default -> throw new IllegalArgumentException("Klawisz nie jest skrótem obecności: " + code);
+        };
+    }
+
+    /**
+     * Obsługuje skrót: oznacza zaznaczonego studenta i zaznacza następny wiersz
+     * (na ostatnim zaznaczenie zostaje).
+     *
+     * @param code naciśnięty klawisz
+     * @param selection model zaznaczenia listy
+     * @param itemCount liczba wierszy listy
+     * @param onMark wywoływane z zaznaczonym studentem; status null oznacza wyczyszczenie
+     * @return true jeśli klawisz został obsłużony (zdarzenie należy skonsumować)
+     */
+    public static boolean handleKey(KeyCode code, SelectionModel<Student> selection, int itemCount,
+                                    BiConsumer<Student, Attendance.Status> onMark) {
+        Student selected = selection.getSelectedItem();
+        if (selected == null || !isMarkingKey(code)) {
+            return false;
+        }
+
+        onMark.accept(selected, statusForKey(code));
+
+        int next = selection.getSelectedIndex() + 1;
+        if (next < itemCount) {
+            selection.select(next);
+        }
+        return true;
+    }
+}
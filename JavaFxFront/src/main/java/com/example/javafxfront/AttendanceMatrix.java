@@ -0,0 +1,531 @@
+package com.example.javafxfront;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Macierz obecności grupy: wiersz na studenta, kolumna na termin.
+ *
+ * <p>Komórki są przechowywane w jednej tablicy {@code byte[]} (wierszami) jako
+ * ordinal {@link Attendance.Status} lub {@link #NOT_MARKED}, gdy obecność nie
+ * została oznaczona. Sumy statusów dla każdego wiersza i każdej kolumny są
+ * liczone w tym samym przebiegu, w którym wypełniane są komórki, więc tabela
+ * raportu, etykiety statystyk i eksport CSV czytają gotowe wartości zamiast
+ * ponownie przeszukiwać obecności i porównywać napisy.</p>
+ *
+ * <p>Macierz jest migawką - zmiana obecności w {@link ClassSchedule} wymaga
+ * zbudowania nowej macierzy przez {@link #build(List, List)}. Budowanie w tle
+ * korzysta z {@link Snapshot} utworzonej na wątku JavaFX ({@link #snapshot(List, List)}),
+ * bo terminy są modyfikowane na tym wątku i nie mogą być czytane równolegle. Duże macierze są
+ * budowane równolegle (fork/join po zakresach wierszy): każdy wiersz zapisuje
+ * tylko własne komórki i sumy, a częściowe sumy kolumn są dodawane przy
+ * łączeniu zadań.</p>
+ *
+ * <p>Po wypełnieniu komórek macierz indeksuje wiersze zbiorami bitów - osobno
+ * dla każdej pary (termin, status) i dla każdego statusu na dowolnym terminie.
+ * Filtry raportu są wtedy iloczynem gotowych zbiorów zamiast przeglądania
+ * wszystkich komórek.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see AttendanceReportController
+ */
+public final class AttendanceMatrix {
+
+    /** Wartość komórki dla nieoznaczonej obecności */
+    public static final byte NOT_MARKED = -1;
+
+    /** Tekst wyświetlany dla nieoznaczonej obecności */
+    public static final String NOT_MARKED_LABEL = "Nie zaznaczono";
+
+    private static final Attendance.Status[] STATUSES = Attendance.Status.values();
+    private static final int STATUS_COUNT = STATUSES.length;
+
+    /** Liczba komórek, poniżej której zakres wierszy nie jest dalej dzielony */
+    private static final int SPLIT_THRESHOLD_CELLS = 4096;
+
+    private final List<Student> students;
+    private final List<ClassSchedule> schedules;
+    private final List<Map<String, Attendance.Status>> statuses;
+    private final int rows;
+    private final int columns;
+
+    /** Komórki wierszami: {@code cells[row * columns + column]} */
+    private final byte[] cells;
+
+    /** Liczniki statusów wierszy: {@code rowTotals[row * STATUS_COUNT + ordinal]} */
+    private final int[] rowTotals;
+
+    /** Liczniki statusów kolumn: {@code columnTotals[column * STATUS_COUNT + ordinal]} */
+    private final int[] columnTotals;
+
+    /** Wiersze z danym statusem na terminie: {@code columnStatusRows[column * STATUS_COUNT + ordinal]} */
+    private final BitSet[] columnStatusRows;
+
+    /** Wiersze z danym statusem na dowolnym terminie: {@code statusRows[ordinal]} */
+    private final BitSet[] statusRows;
+
+    private AttendanceMatrix(Snapshot snapshot) {
+        this.students = snapshot.students;
+        this.schedules = snapshot.schedules;
+        this.statuses = snapshot.statuses;
+        this.rows = this.students.size();
+        this.columns = this.schedules.size();
+        this.cells = new byte[rows * columns];
+        this.rowTotals = new int[rows * STATUS_COUNT];
+        this.columnTotals = new int[columns * STATUS_COUNT];
+        this.columnStatusRows = new BitSet[columns * STATUS_COUNT];
+        this.statusRows = new BitSet[STATUS_COUNT];
+        for (int i = 0; i < columnStatusRows.length; i++) {
+            columnStatusRows[i] = new BitSet(rows);
+        }
+        for (int i = 0; i < STATUS_COUNT; i++) {
+            statusRows[i] = new BitSet(rows);
+        }
+    }
+
+    /**
+     * Tworzy niemodyfikowalną migawkę danych wejściowych macierzy. Wywoływane na wątku,
+     * który modyfikuje terminy (JavaFX), przed przekazaniem budowania do wątku w tle.
+     *
+     * @param students studenci w kolejności wierszy
+     * @param schedules terminy w kolejności kolumn
+     * @return migawka studentów, terminów i statusów obecności
+     */
+    public static Snapshot snapshot(List<Student> students, List<ClassSchedule> schedules) {
+        List<Map<String, Attendance.Status>> statuses = new ArrayList<>(schedules.size());
+        for (ClassSchedule schedule : schedules) {
+            Map<String, Attendance.Status> byIndex = new HashMap<>();
+            for (Attendance attendance : schedule.getAttendances()) {
+                if (attendance.getStatus() != null) {
+                    byIndex.put(attendance.getStudent().getIndexNumber(), attendance.getStatus());
+                }
+            }
+            statuses.add(byIndex);
+        }
+        return new Snapshot(List.copyOf(students), List.copyOf(schedules), List.copyOf(statuses));
+    }
+
+    /**
+     * Buduje macierz dla podanych studentów i terminów w bieżącym wątku.
+     *
+     * <p>Każda komórka jest odczytywana dokładnie raz; w tym samym przebiegu
+     * aktualizowane są liczniki wiersza i kolumny.</p>
+     *
+     * @param students studenci w kolejności wierszy
+     * @param schedules terminy w kolejności kolumn
+     * @return nowa macierz
+     */
+    public static AttendanceMatrix build(List<Student> students, List<ClassSchedule> schedules) {
+        return build(students, schedules, () -> false, rows -> { });
+    }
+
+    /**
+     * Buduje macierz z możliwością anulowania i raportowania postępu.
+     *
+     * <p>Zakresy wierszy są dzielone na zadania fork/join, dopóki liczba komórek
+     * w zakresie przekracza próg. Wywoływane z wątku spoza puli wykonuje część
+     * pracy w wątku wywołującym, a resztę we wspólnej puli. Obecności są najpierw
+     * kopiowane w wątku wywołującym ({@link #snapshot(List, List)}).</p>
+     *
+     * @param students studenci w kolejności wierszy
+     * @param schedules terminy w kolejności kolumn
+     * @param cancelled sprawdzane przed każdym wierszem; true przerywa budowanie
+     * @param rowsCompleted wywoływane (z dowolnego wątku) z liczbą ukończonych wierszy zakresu
+     * @return nowa macierz
+     * @throws CancellationException jeśli budowanie zostało anulowane
+     */
+    public static AttendanceMatrix build(List<Student> students, List<ClassSchedule> schedules,
+                                         BooleanSupplier cancelled, IntConsumer rowsCompleted) {
+        return build(snapshot(students, schedules), cancelled, rowsCompleted);
+    }
+
+    /**
+     * Buduje macierz z migawki - bezpieczne w dowolnym wątku, bo nie czyta terminów.
+     *
+     * @param snapshot migawka utworzona przez {@link #snapshot(List, List)}
+     * @param cancelled sprawdzane przed każdym wierszem; true przerywa budowanie
+     * @param rowsCompleted wywoływane (z dowolnego wątku) z liczbą ukończonych wierszy zakresu
+     * @return nowa macierz
+     * @throws CancellationException jeśli budowanie zostało anulowane
+     */
+    public static AttendanceMatrix build(Snapshot snapshot, BooleanSupplier cancelled, IntConsumer rowsCompleted) {
+        AttendanceMatrix matrix = new AttendanceMatrix(snapshot);
+        if (matrix.rows == 0) {
+            return matrix;
+        }
+
+        int[] columnTotals = new RowRange(matrix, 0, matrix.rows, cancelled, rowsCompleted).invoke();
+        System.arraycopy(columnTotals, 0, matrix.columnTotals, 0, columnTotals.length);
+        matrix.indexRows();
+        return matrix;
+    }
+
+    /**
+     * Wypełnia zbiory bitów wierszy jednym przebiegiem po komórkach.
+     *
+     * <p>{@link BitSet} nie jest bezpieczny dla wielu wątków, dlatego indeks
+     * powstaje po złączeniu zadań fork/join, z gotowej tablicy komórek.</p>
+     */
+    private void indexRows() {
+        for (int row = 0; row < rows; row++) {
+            int offset = row * columns;
+            for (int column = 0; column < columns; column++) {
+                byte cell = cells[offset + column];
+                if (cell != NOT_MARKED) {
+                    columnStatusRows[column * STATUS_COUNT + cell].set(row);
+                    statusRows[cell].set(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Wypełnia komórki i sumy wierszy z zakresu.
+     *
+     * @return częściowe sumy kolumn dla zakresu
+     */
+    private int[] fillRows(int fromRow, int toRow, BooleanSupplier cancelled) {
+        int[] partialColumnTotals = new int[columns * STATUS_COUNT];
+        for (int row = fromRow; row < toRow; row++) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("Budowanie macierzy obecności zostało anulowane");
+            }
+
+            String indexNumber = students.get(row).getIndexNumber();
+            int offset = row * columns;
+            for (int column = 0; column < columns; column++) {
+                Attendance.Status status = statuses.get(column).get(indexNumber);
+                if (status == null) {
+                    cells[offset + column] = NOT_MARKED;
+                    continue;
+                }
+                int ordinal = status.ordinal();
+                cells[offset + column] = (byte) ordinal;
+                rowTotals[row * STATUS_COUNT + ordinal]++;
+                partialColumnTotals[column * STATUS_COUNT + ordinal]++;
+            }
+        }
+        return partialColumnTotals;
+    }
+
+    /**
+     * Niemodyfikowalne dane wejściowe macierzy: studenci, terminy i statusy obecności
+     * każdego terminu (numer indeksu → status), odczytane w chwili utworzenia.
+     *
+     * @see #snapshot(List, List)
+     */
+    public static final class Snapshot {
+        private final List<Student> students;
+        private final List<ClassSchedule> schedules;
+        private final List<Map<String, Attendance.Status>> statuses;
+
+        private Snapshot(List<Student> students, List<ClassSchedule> schedules,
+                         List<Map<String, Attendance.Status>> statuses) {
+            this.students = students;
+            this.schedules = schedules;
+            this.statuses = statuses;
+        }
+
+        /** @return liczba studentów (wierszy) */
+        public int getStudentCount() {
+            return students.size();
+        }
+    }
+
+    /**
+     * Zadanie fork/join budujące zakres wierszy.
+     */
+    private static final class RowRange extends RecursiveTask<int[]> {
+        private final AttendanceMatrix matrix;
+        private final int fromRow;
+        private final int toRow;
+        private final BooleanSupplier cancelled;
+        private final IntConsumer rowsCompleted;
+
+        RowRange(AttendanceMatrix matrix, int fromRow, int toRow,
+                 BooleanSupplier cancelled, IntConsumer rowsCompleted) {
+            this.matrix = matrix;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.cancelled = cancelled;
+            this.rowsCompleted = rowsCompleted;
+        }
+
+        @Override
+        protected int[] compute() {
+            int rowCount = toRow - fromRow;
+            if (rowCount < 2 || (long) rowCount * Math.max(1, matrix.columns) <= SPLIT_THRESHOLD_CELLS) {
+                int[] totals = matrix.fillRows(fromRow, toRow, cancelled);
+                rowsCompleted.accept(rowCount);
+                return totals;
+            }
+
+            int middle = fromRow + rowCount / 2;
+            RowRange left = new RowRange(matrix, fromRow, middle, cancelled, rowsCompleted);
+            RowRange right = new RowRange(matrix, middle, toRow, cancelled, rowsCompleted);
+            left.fork();
+            int[] totals = right.compute();
+            int[] leftTotals = left.join();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += leftTotals[i];
+            }
+            return totals;
+        }
+    }
+
+    /** @return liczba wierszy (studentów) */
+    public int getRowCount() {
+        return rows;
+    }
+
+    /** @return liczba kolumn (terminów) */
+    public int getColumnCount() {
+        return columns;
+    }
+
+    /** @return studenci w kolejności wierszy (lista niemodyfikowalna) */
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    /** @return terminy w kolejności kolumn (lista niemodyfikowalna) */
+    public List<ClassSchedule> getSchedules() {
+        return schedules;
+    }
+
+    /**
+     * Zwraca surową wartość komórki.
+     *
+     * @param row indeks wiersza
+     * @param column indeks kolumny
+     * @return ordinal statusu lub {@link #NOT_MARKED}
+     */
+    public byte getCell(int row, int column) {
+        return cells[index(row, column)];
+    }
+
+    /**
+     * Zwraca status obecności w komórce.
+     *
+     * @param row indeks wiersza
+     * @param column indeks kolumny
+     * @return status lub null, jeśli obecność nie została oznaczona
+     */
+    public Attendance.Status getStatus(int row, int column) {
+        byte cell = cells[index(row, column)];
+        return cell == NOT_MARKED ? null : STATUSES[cell];
+    }
+
+    /**
+     * Zwraca tekst komórki wyświetlany w tabeli i w eksporcie.
+     *
+     * @param row indeks wiersza
+     * @param column indeks kolumny
+     * @return nazwa statusu lub {@link #NOT_MARKED_LABEL}
+     */
+    public String getDisplayName(int row, int column) {
+        Attendance.Status status = getStatus(row, column);
+        return status != null ? status.getDisplayName() : NOT_MARKED_LABEL;
+    }
+
+    /**
+     * Zwraca liczbę komórek wiersza o danym statusie.
+     *
+     * @param row indeks wiersza
+     * @param status status obecności
+     * @return liczba terminów studenta z tym statusem
+     */
+    public int getRowCount(int row, Attendance.Status status) {
+        checkRow(row);
+        return rowTotals[row * STATUS_COUNT + status.ordinal()];
+    }
+
+    /**
+     * Zwraca liczbę komórek kolumny o danym statusie.
+     *
+     * @param column indeks kolumny
+     * @param status status obecności
+     * @return liczba studentów z tym statusem na terminie
+     */
+    public int getColumnCount(int column, Attendance.Status status) {
+        checkColumn(column);
+        return columnTotals[column * STATUS_COUNT + status.ordinal()];
+    }
+
+    /**
+     * Zwraca liczbę oznaczonych komórek wiersza.
+     *
+     * @param row indeks wiersza
+     * @return liczba ocenionych terminów studenta
+     */
+    public int getRowMarked(int row) {
+        checkRow(row);
+        return sum(rowTotals, row * STATUS_COUNT);
+    }
+
+    /**
+     * Zwraca liczbę oznaczonych komórek kolumny.
+     *
+     * @param column indeks kolumny
+     * @return liczba studentów z oznaczoną obecnością na terminie
+     */
+    public int getColumnMarked(int column) {
+        checkColumn(column);
+        return sum(columnTotals, column * STATUS_COUNT);
+    }
+
+    /**
+     * Zwraca procent frekwencji studenta.
+     *
+     * <p>Obecni i spóźnieni liczą się jako obecność, nieoznaczone terminy są pomijane.</p>
+     *
+     * @param row indeks wiersza
+     * @return procent obecności (0.0-100.0), lub 0.0 jeśli brak ocenionych terminów
+     */
+    public double getRowPercentage(int row) {
+        int marked = getRowMarked(row);
+        if (marked == 0) return 0.0;
+        return (double) getRowAttended(row) / marked * 100;
+    }
+
+    /**
+     * Zwraca podsumowanie frekwencji studenta dla kolumny "Statystyki".
+     *
+     * @param row indeks wiersza
+     * @return "X.X% (Y/Z)", "Brak ocen" gdy nic nie oznaczono
+     *         lub "Brak danych" gdy nie ma terminów
+     */
+    public String getRowStatistics(int row) {
+        if (columns == 0) {
+            checkRow(row);
+            return "Brak danych";
+        }
+
+        int marked = getRowMarked(row);
+        if (marked == 0) {
+            return "Brak ocen";
+        }
+        int attended = getRowAttended(row);
+        return String.format("%.1f%% (%d/%d)", (double) attended / marked * 100, attended, marked);
+    }
+
+    /**
+     * Zwraca średni procent frekwencji wszystkich studentów.
+     *
+     * @return średnia z {@link #getRowPercentage(int)} lub 0.0 dla pustej macierzy
+     */
+    public double getAveragePercentage() {
+        if (rows == 0) return 0.0;
+
+        double sum = 0.0;
+        for (int row = 0; row < rows; row++) {
+            sum += getRowPercentage(row);
+        }
+        return sum / rows;
+    }
+
+    /**
+     * Zwraca wiersz z najwyższą frekwencją (przy remisie pierwszy).
+     *
+     * @return indeks wiersza lub -1 dla pustej macierzy
+     */
+    public int getBestRow() {
+        int best = -1;
+        double bestPercentage = 0.0;
+        for (int row = 0; row < rows; row++) {
+            double percentage = getRowPercentage(row);
+            if (best < 0 || percentage > bestPercentage) {
+                best = row;
+                bestPercentage = percentage;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Zwraca wiersz z najniższą frekwencją (przy remisie pierwszy).
+     *
+     * @return indeks wiersza lub -1 dla pustej macierzy
+     */
+    public int getWorstRow() {
+        int worst = -1;
+        double worstPercentage = 0.0;
+        for (int row = 0; row < rows; row++) {
+            double percentage = getRowPercentage(row);
+            if (worst < 0 || percentage < worstPercentage) {
+                worst = row;
+                worstPercentage = percentage;
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * Zwraca wiersze spełniające filtr terminu i statusu.
+     *
+     * <p>Wynik jest iloczynem zbioru wszystkich wierszy i zbioru dla wybranego
+     * statusu (na wybranym terminie lub na dowolnym terminie). Zwracany zbiór
+     * jest nową kopią i może być modyfikowany.</p>
+     *
+     * @param column indeks terminu lub -1 dla wszystkich terminów
+     * @param status status obecności lub null dla wszystkich statusów
+     * @return zbiór indeksów pasujących wierszy
+     */
+    public BitSet getMatchingRows(int column, Attendance.Status status) {
+        BitSet result = new BitSet(rows);
+        result.set(0, rows);
+        if (status == null) {
+            return result;
+        }
+
+        if (column < 0) {
+            result.and(statusRows[status.ordinal()]);
+        } else {
+            checkColumn(column);
+            result.and(columnStatusRows[column * STATUS_COUNT + status.ordinal()]);
+        }
+        return result;
+    }
+
+    private int getRowAttended(int row) {
+        int offset = row * STATUS_COUNT;
+        return rowTotals[offset + Attendance.Status.PRESENT.ordinal()]
+                + rowTotals[offset + Attendance.Status.LATE.ordinal()];
+    }
+
+    private static int sum(int[] totals, int offset) {
+        int sum = 0;
+        for (int i = 0; i < STATUS_COUNT; i++) {
+            sum += totals[offset + i];
+        }
+        return sum;
+    }
+
+    private int index(int row, int column) {
+        checkRow(row);
+        checkColumn(column);
+        return row * columns + column;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Wiersz " + row + " poza zakresem 0.." + (rows - 1));
+        }
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Kolumna " + column + " poza zakresem 0.." + (columns - 1));
+        }
+    }
+}
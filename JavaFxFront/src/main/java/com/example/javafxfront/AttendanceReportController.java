@@ -1,7 +1,9 @@
 package com.example.javafxfront;
 
+import javafx.concurrent.Task;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -10,10 +12,11 @@ import javafx.scene.layout.HBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import java.io.File;
-import java.io.FileWriter;
 import java.time.format.DateTimeFormatter;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -197,6 +200,25 @@ public class AttendanceReportController {
      */
     @FXML private Button refreshButton;
 
+    // Postęp generowania raportu
+
+    /**
+     * Wskaźnik postępu budowania raportu w tle.
+     *
+     * <p>Widoczny tylko podczas działania {@link #reportTask}.</p>
+     */
+    @FXML private ProgressIndicator reportProgressIndicator;
+
+    /**
+     * Label z liczbą przetworzonych wierszy podczas budowania raportu.
+     */
+    @FXML private Label reportProgressLabel;
+
+    /**
+     * Przycisk anulujący budowanie raportu.
+     */
+    @FXML private Button cancelReportButton;
+
     // Filtry
 
     /**
@@ -239,6 +261,26 @@ public class AttendanceReportController {
      */
     private AttendanceService attendanceService;
 
+    /**
+     * Macierz obecności zbudowana w {@link #applyReport(ReportModel)}.
+     *
+     * <p>Wspólne źródło danych dla tabeli, etykiet statystyk i eksportu CSV.</p>
+     */
+    private AttendanceMatrix matrix;
+
+    /**
+     * Zadanie budujące raport w tle; null gdy żadne nie zostało uruchomione.
+     *
+     * <p>Wynik zadania jest stosowany tylko, jeśli jest to nadal bieżące zadanie -
+     * wyniki zadań zastąpionych przez {@link #refreshReport()} są odrzucane.</p>
+     */
+    private Task<ReportModel> reportTask;
+
+    /**
+     * Zadanie eksportu CSV działające w tle; null gdy żadne nie zostało uruchomione.
+     */
+    private Task<Integer> exportTask;
+
     /**
      * Observable lista wierszy raportu związana z tabelą JavaFX.
      *
@@ -247,6 +289,20 @@ public class AttendanceReportController {
      */
     private ObservableList<AttendanceReportRow> reportData;
 
+    /**
+     * Widok {@link #reportData} po zastosowaniu filtrów, wyświetlany w tabeli.
+     *
+     * @see #applyFilters()
+     */
+    private FilteredList<AttendanceReportRow> filteredData;
+
+    /**
+     * Dynamiczne kolumny terminów w kolejności kolumn macierzy.
+     *
+     * <p>Filtr terminu ukrywa kolumny pozostałych terminów.</p>
+     */
+    private final List<TableColumn<AttendanceReportRow, String>> scheduleColumns = new java.util.ArrayList<>();
+
     /**
      * Wyliczenie typów filtrów dla dziennika obecności.
      *
@@ -266,27 +322,41 @@ public class AttendanceReportController {
      */
     public enum AttendanceFilter {
         /** Pokazuje wszystkie wpisy obecności bez filtrowania */
-        ALL("Wszystkie"),
+        ALL("Wszystkie", null),
 
         /** Filtruje tylko studentów obecnych na zajęciach */
-        PRESENT_ONLY("Tylko obecni"),
+        PRESENT_ONLY("Tylko obecni", Attendance.Status.PRESENT),
 
         /** Filtruje tylko studentów nieobecnych na zajęciach */
-        ABSENT_ONLY("Tylko nieobecni"),
+        ABSENT_ONLY("Tylko nieobecni", Attendance.Status.ABSENT),
 
         /** Filtruje tylko studentów spóźnionych na zajęcia */
-        LATE_ONLY("Tylko spóźnieni");
+        LATE_ONLY("Tylko spóźnieni", Attendance.Status.LATE);
 
         /** Nazwa wyświetlana filtru w interfejsie użytkownika */
         private final String displayName;
 
+        /** Status, którego dotyczy filtr (null dla {@link #ALL}) */
+        private final Attendance.Status status;
+
         /**
          * Konstruktor typu filtru.
          *
          * @param displayName nazwa do wyświetlenia w ComboBox
+         * @param status filtrowany status obecności lub null
          */
-        AttendanceFilter(String displayName) {
+        AttendanceFilter(String displayName, Attendance.Status status) {
             this.displayName = displayName;
+            this.status = status;
+        }
+
+        /**
+         * Zwraca status obecności, którego dotyczy filtr.
+         *
+         * @return status lub null, gdy filtr nie zawęża statusów
+         */
+        public Attendance.Status getStatus() {
+            return status;
         }
 
         /**
@@ -337,16 +407,18 @@ public class AttendanceReportController {
     protected void initialize() {
         attendanceService = new AttendanceService();
         reportData = FXCollections.observableArrayList();
+        filteredData = new FilteredList<>(reportData);
 
         setupTableColumns();
         setupFilters();
 
-        attendanceTable.setItems(reportData);
+        attendanceTable.setItems(filteredData);
 
         // Akcje przycisków
         exportCSVButton.setOnAction(e -> exportToCSV());
         closeButton.setOnAction(e -> closeWindow());
         refreshButton.setOnAction(e -> refreshReport());
+        cancelReportButton.setOnAction(e -> cancelReport());
 
         // Filtry
         filterScheduleComboBox.setOnAction(e -> applyFilters());
@@ -365,8 +437,8 @@ public class AttendanceReportController {
      *   <li>Zapisanie referencji do danych wejściowych</li>
      *   <li>Aktualizacja informacji w nagłówku raportu</li>
      *   <li>Konfiguracja filtra terminów</li>
-     *   <li>Generowanie głównej tabeli obecności</li>
-     *   <li>Obliczanie i wyświetlanie statystyk</li>
+     *   <li>Uruchomienie budowania tabeli obecności w tle</li>
+     *   <li>Po zakończeniu - wypełnienie tabeli i obliczenie statystyk</li>
      * </ol>
      *
      * <p>Wymagania danych wejściowych:</p>
@@ -389,7 +461,7 @@ public class AttendanceReportController {
      *     new ArrayList<>(schedules)       // kopia listy terminów
      * );
      *
-     * // Raport jest już gotowy do wyświetlenia
+     * // Raport jest budowany w tle - tabela pojawi się po zakończeniu
      * }
      * </pre>
      *
@@ -400,7 +472,7 @@ public class AttendanceReportController {
      * @throws IllegalArgumentException jeśli którykolwiek z parametrów jest null
      *
      * @see #updateHeader()
-     * @see #generateReport()
+     * @see #generateReport(Runnable)
      * @see #calculateStatistics()
      * @see GroupDetailController#onShowReportClick()
      */
@@ -411,15 +483,14 @@ public class AttendanceReportController {
 
         updateHeader();
         setupScheduleFilter();
-        generateReport();
-        calculateStatistics();
+        generateReport(null);
     }
 
     /**
      * Konfiguruje kolumny tabeli z podstawowymi PropertyValueFactory.
      *
      * <p>Ustawia fabryki wartości dla stałych kolumn tabeli (imię/nazwisko i nr indeksu).
-     * Dynamiczne kolumny dla terminów są dodawane później w {@link #generateReport()}.</p>
+     * Dynamiczne kolumny dla terminów są dodawane później w {@link #applyReport(ReportModel)}.</p>
      *
      * <p>Konfigurowane kolumny:</p>
      * <ul>
@@ -427,7 +498,7 @@ public class AttendanceReportController {
      *   <li><strong>indexColumn</strong> - powiązana z właściwością "indexNumber"</li>
      * </ul>
      *
-     * @see #generateReport()
+     * @see #applyReport(ReportModel)
      * @see AttendanceReportRow#getStudentName()
      * @see AttendanceReportRow#getIndexNumber()
      */
@@ -435,7 +506,7 @@ public class AttendanceReportController {
         studentNameColumn.setCellValueFactory(new PropertyValueFactory<>("studentName"));
         indexColumn.setCellValueFactory(new PropertyValueFactory<>("indexNumber"));
 
-        // Dynamiczne kolumny dla każdego terminu będą dodane w generateReport()
+        // Dynamiczne kolumny dla każdego terminu będą dodane w applyReport()
     }
 
     /**
@@ -505,26 +576,96 @@ public class AttendanceReportController {
     }
 
     /**
-     * Generuje główną tabelę raportu obecności z dynamicznymi kolumnami.
+     * Uruchamia w tle budowanie tabeli raportu obecności.
      *
-     * <p>To kluczowa metoda kontrolera, która tworzy kompletną tabelę obecności
-     * z dynamicznie generowanymi kolumnami dla każdego terminu zajęć. Metoda
-     * czyści istniejące dane, dodaje kolumny dla terminów i wypełnia wiersze
-     * danymi wszystkich studentów.</p>
+     * <p>Macierz obecności i wiersze tabeli są budowane w zadaniu {@link Task}
+     * poza wątkiem JavaFX (wiersze dzielone między wątki fork/join przez
+     * {@link AttendanceMatrix#build(AttendanceMatrix.Snapshot, java.util.function.BooleanSupplier, java.util.function.IntConsumer)}),
+     * więc okno pozostaje responsywne także dla dużych grup. Obecności są wcześniej
+     * kopiowane do {@link AttendanceMatrix.Snapshot} na wątku JavaFX - zadanie nie czyta
+     * terminów, które okno grupy może w tym czasie zmieniać. Do tabeli trafia
+     * dopiero gotowy model - patrz {@link #applyReport(ReportModel)}.</p>
      *
-     * <p>Proces generowania tabeli:</p>
-     * <ol>
-     *   <li>Wyczyszczenie danych i kolumn tabeli</li>
-     *   <li>Dodanie podstawowych kolumn (Imię/Nazwisko, Nr indeksu)</li>
-     *   <li>Dynamiczne tworzenie kolumn dla każdego terminu</li>
-     *   <li>Konfiguracja stylizacji komórek z kolorowaniem statusów</li>
-     *   <li>Dodanie kolumny statystyk</li>
-     *   <li>Wypełnienie wierszy danymi studentów</li>
-     *   <li>Zebranie obecności dla każdego studenta na każdym terminie</li>
-     *   <li>Obliczenie statystyk dla każdego studenta</li>
-     * </ol>
+     * <p>Jeśli poprzednie budowanie jeszcze trwa, zostaje anulowane, a jego wynik
+     * odrzucony. Podczas budowania widoczny jest wskaźnik postępu i przycisk anulowania.</p>
      *
-     * <p>Struktura kolumn w tabeli:</p>
+     * @param onApplied akcja wykonywana w wątku JavaFX po wypełnieniu tabeli (może być null)
+     *
+     * @see #applyReport(ReportModel)
+     * @see #cancelReport()
+     */
+    private void generateReport(Runnable onApplied) {
+        if (reportTask != null && reportTask.isRunning()) {
+            System.out.println("🛑 Anuluję nieaktualne budowanie raportu");
+            reportTask.cancel();
+        }
+
+        // Obecności są odczytywane tutaj, na wątku JavaFX - zadanie w tle nie czyta terminów
+        AttendanceMatrix.Snapshot snapshot = AttendanceMatrix.snapshot(students, schedules);
+        int totalRows = snapshot.getStudentCount();
+
+        Task<ReportModel> task = new Task<>() {
+            @Override
+            protected ReportModel call() {
+                AtomicInteger completedRows = new AtomicInteger();
+                updateMessage("Generowanie raportu: 0/" + totalRows);
+
+                AttendanceMatrix built = AttendanceMatrix.build(snapshot, this::isCancelled, rows -> {
+                    int done = completedRows.addAndGet(rows);
+                    updateProgress(done, totalRows);
+                    updateMessage("Generowanie raportu: " + done + "/" + totalRows);
+                });
+
+                List<AttendanceReportRow> rows = new java.util.ArrayList<>(built.getRowCount());
+                for (int i = 0; i < built.getRowCount(); i++) {
+                    rows.add(new AttendanceReportRow(built, i));
+                }
+                return new ReportModel(built, rows);
+            }
+        };
+
+        reportTask = task;
+        task.setOnSucceeded(e -> {
+            if (reportTask != task) {
+                return;
+            }
+            hideReportProgress();
+            applyReport(task.getValue());
+            if (onApplied != null) {
+                onApplied.run();
+            }
+        });
+        task.setOnCancelled(e -> {
+            if (reportTask == task) {
+                hideReportProgress();
+            }
+        });
+        task.setOnFailed(e -> {
+            if (reportTask != task) {
+                return;
+            }
+            hideReportProgress();
+            Throwable error = task.getException();
+            System.err.println("❌ Błąd generowania raportu: " + error);
+            showAlert("Błąd", "Nie udało się wygenerować raportu:\n" + error.getMessage(),
+                    Alert.AlertType.ERROR);
+        });
+
+        showReportProgress(task);
+
+        Thread thread = new Thread(task, "attendance-report");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Wypełnia tabelę gotowym modelem raportu.
+     *
+     * <p>Wywoływana w wątku JavaFX po zakończeniu {@link #reportTask}. Tworzy
+     * kolumny terminów, podmienia wiersze tabeli jednym wywołaniem i przelicza
+     * statystyki grupy.</p>
+     *
+     * <p>Struktura kolumn tabeli:</p>
      * <ul>
      *   <li><strong>Imię i nazwisko</strong> - 200px szerokości</li>
      *   <li><strong>Nr indeksu</strong> - 100px szerokości</li>
@@ -546,18 +687,20 @@ public class AttendanceReportController {
      * [dd.MM.yyyy HH:mm]
      * </pre>
      *
+     * @param model zbudowana macierz i wiersze tabeli
+     *
      * @see AttendanceReportRow
-     * @see ClassSchedule#getAttendanceForStudent(Student)
      * @see Attendance.Status
      */
-    private void generateReport() {
-        reportData.clear();
+    private void applyReport(ReportModel model) {
+        matrix = model.matrix;
         attendanceTable.getColumns().clear();
+        scheduleColumns.clear();
 
         attendanceTable.getColumns().addAll(studentNameColumn, indexColumn);
 
-        for (int i = 0; i < schedules.size(); i++) {
-            ClassSchedule schedule = schedules.get(i);
+        for (int i = 0; i < model.matrix.getColumnCount(); i++) {
+            ClassSchedule schedule = model.matrix.getSchedules().get(i);
             TableColumn<AttendanceReportRow, String> column = new TableColumn<>(
                     schedule.getSubject() + "\n" + schedule.getFormattedStartTime()
             );
@@ -565,8 +708,7 @@ public class AttendanceReportController {
             final int scheduleIndex = i;
             column.setCellValueFactory(data -> {
                 AttendanceReportRow row = data.getValue();
-                String status = row.getAttendanceForSchedule(scheduleIndex);
-                return new javafx.beans.property.SimpleStringProperty(status);
+                return new javafx.beans.property.SimpleStringProperty(row.getAttendanceForSchedule(scheduleIndex));
             });
 
             column.setCellFactory(col -> new TableCell<AttendanceReportRow, String>() {
@@ -596,6 +738,7 @@ public class AttendanceReportController {
             });
 
             attendanceTable.getColumns().add(column);
+            scheduleColumns.add(column);
         }
 
         // Kolumna statystyk
@@ -603,21 +746,62 @@ public class AttendanceReportController {
         statsColumn.setCellValueFactory(new PropertyValueFactory<>("statistics"));
         attendanceTable.getColumns().add(statsColumn);
 
-        for (Student student : students) {
-            AttendanceReportRow row = new AttendanceReportRow(student);
+        reportData.setAll(model.rows);
+        applyFilters();
+        calculateStatistics();
+        System.out.println("📊 Raport gotowy: " + model.matrix.getRowCount() + " studentów × "
+                + model.matrix.getColumnCount() + " terminów");
+    }
 
-            // zbieranie obecnsoci dla terminu
-            for (ClassSchedule schedule : schedules) {
-                Attendance attendance = schedule.getAttendanceForStudent(student);
-                if (attendance != null) {
-                    row.addAttendance(attendance.getStatus().getDisplayName());
-                } else {
-                    row.addAttendance("Nie zaznaczono");
-                }
-            }
+    /**
+     * Anuluje trwające budowanie raportu i eksport CSV.
+     *
+     * <p>Tabela zachowuje poprzednio wygenerowany raport, a anulowany eksport
+     * nie zostawia pliku.</p>
+     */
+    private void cancelReport() {
+        if (reportTask != null && reportTask.isRunning()) {
+            System.out.println("🛑 Anulowano budowanie raportu");
+            reportTask.cancel();
+        }
+        if (exportTask != null && exportTask.isRunning()) {
+            System.out.println("🛑 Anulowano eksport CSV");
+            exportTask.cancel();
+        }
+    }
+
+    /**
+     * Pokazuje wskaźnik postępu powiązany z zadaniem.
+     */
+    private void showReportProgress(Task<?> task) {
+        reportProgressIndicator.progressProperty().bind(task.progressProperty());
+        reportProgressLabel.textProperty().bind(task.messageProperty());
+        setReportProgressVisible(true);
+    }
+
+    /**
+     * Odpina wskaźnik postępu od zakończonego zadania.
+     *
+     * <p>Jeśli w tle działa jeszcze drugie zadanie (budowanie raportu lub eksport),
+     * wskaźnik przełącza się na nie; w przeciwnym razie jest ukrywany.</p>
+     */
+    private void hideReportProgress() {
+        reportProgressIndicator.progressProperty().unbind();
+        reportProgressLabel.textProperty().unbind();
+
+        if (exportTask != null && exportTask.isRunning()) {
+            showReportProgress(exportTask);
+        } else if (reportTask != null && reportTask.isRunning()) {
+            showReportProgress(reportTask);
+        } else {
+            setReportProgressVisible(false);
+        }
+    }
 
-            row.calculateStatistics();
-            reportData.add(row);
+    private void setReportProgressVisible(boolean visible) {
+        for (javafx.scene.Node node : List.of(reportProgressIndicator, reportProgressLabel, cancelReportButton)) {
+            node.setVisible(visible);
+            node.setManaged(visible);
         }
     }
 
@@ -649,65 +833,77 @@ public class AttendanceReportController {
      * "Najgorsza frekwencja: Anna Nowak (72.1%)"
      * </pre>
      *
-     * @see AttendanceReportRow#getAttendancePercentage()
+     * @see AttendanceMatrix#getAveragePercentage()
      * @see #avgAttendanceLabel
      * @see #bestStudentLabel
      * @see #worstStudentLabel
      */
     private void calculateStatistics() {
-        if (reportData.isEmpty()) {
+        if (matrix == null || matrix.getRowCount() == 0) {
             avgAttendanceLabel.setText("Średnia obecność: 0%");
             bestStudentLabel.setText("Najlepsza frekwencja: Brak danych");
             worstStudentLabel.setText("Najgorsza frekwencja: Brak danych");
             return;
         }
 
-        double avgAttendance = reportData.stream()
-                .mapToDouble(AttendanceReportRow::getAttendancePercentage)
-                .average()
-                .orElse(0.0);
+        avgAttendanceLabel.setText(String.format("Średnia obecność: %.1f%%", matrix.getAveragePercentage()));
 
-        AttendanceReportRow bestStudent = reportData.stream()
-                .max((a, b) -> Double.compare(a.getAttendancePercentage(), b.getAttendancePercentage()))
-                .orElse(null);
+        int best = matrix.getBestRow();
+        bestStudentLabel.setText(String.format("Najlepsza frekwencja: %s (%.1f%%)",
+                matrix.getStudents().get(best).getFullName(), matrix.getRowPercentage(best)));
 
-        AttendanceReportRow worstStudent = reportData.stream()
-                .min((a, b) -> Double.compare(a.getAttendancePercentage(), b.getAttendancePercentage()))
-                .orElse(null);
-
-        avgAttendanceLabel.setText(String.format("Średnia obecność: %.1f%%", avgAttendance));
-
-        if (bestStudent != null) {
-            bestStudentLabel.setText(String.format("Najlepsza frekwencja: %s (%.1f%%)",
-                    bestStudent.getStudentName(), bestStudent.getAttendancePercentage()));
-        }
-
-        if (worstStudent != null) {
-            worstStudentLabel.setText(String.format("Najgorsza frekwencja: %s (%.1f%%)",
-                    worstStudent.getStudentName(), worstStudent.getAttendancePercentage()));
-        }
+        int worst = matrix.getWorstRow();
+        worstStudentLabel.setText(String.format("Najgorsza frekwencja: %s (%.1f%%)",
+                matrix.getStudents().get(worst).getFullName(), matrix.getRowPercentage(worst)));
     }
 
     /**
      * Stosuje filtry do danych raportu na podstawie wybranych opcji.
      *
-     * <p>Metoda filtruje dane w tabeli według wybranych kryteriów w ComboBox-ach.
-     * Implementacja filtrowania zostanie dodana w przyszłej wersji - obecnie
-     * jest to metoda placeholder.</p>
+     * <p>Metoda filtruje wiersze tabeli według wybranych kryteriów w ComboBox-ach.
+     * Zbiory wierszy dla każdego terminu i statusu są liczone raz, podczas
+     * budowania {@link AttendanceMatrix}, więc zmiana filtra to iloczyn gotowych
+     * zbiorów bitów i podmiana predykatu {@link #filteredData} - bez ponownego
+     * przeglądania komórek.</p>
      *
-     * <p>Planowane filtry:</p>
+     * <p>Dostępne filtry:</p>
      * <ul>
-     *   <li><strong>Filtr terminów</strong> - pokazywanie tylko wybranego terminu</li>
-     *   <li><strong>Filtr statusów</strong> - pokazywanie tylko określonych statusów obecności</li>
+     *   <li><strong>Filtr terminów</strong> - pokazywanie tylko kolumny wybranego terminu;
+     *       filtr statusu dotyczy wtedy tylko tego terminu</li>
+     *   <li><strong>Filtr statusów</strong> - pokazywanie tylko studentów z danym statusem
+     *       (na wybranym terminie lub na dowolnym terminie)</li>
      * </ul>
      *
      * @see #filterScheduleComboBox
      * @see #filterTypeComboBox
      * @see AttendanceFilter
+     * @see AttendanceMatrix#getMatchingRows(int, Attendance.Status)
      */
     private void applyFilters() {
-        // TODO: Implementuj filtrowanie danych
-        // Na podstawie wybranego terminu i typu filtru
+        if (matrix == null) {
+            return;
+        }
+
+        // Pozycja 0 to "Wszystkie terminy"
+        int scheduleIndex = filterScheduleComboBox.getSelectionModel().getSelectedIndex() - 1;
+        if (scheduleIndex >= matrix.getColumnCount()) {
+            scheduleIndex = -1;
+        }
+        AttendanceFilter filter = filterTypeComboBox.getValue();
+        Attendance.Status status = filter != null ? filter.getStatus() : null;
+
+        for (int i = 0; i < scheduleColumns.size(); i++) {
+            scheduleColumns.get(i).setVisible(scheduleIndex < 0 || i == scheduleIndex);
+        }
+
+        if (status == null) {
+            filteredData.setPredicate(null);
+            return;
+        }
+
+        BitSet matchingRows = matrix.getMatchingRows(scheduleIndex, status);
+        filteredData.setPredicate(row -> matchingRows.get(row.getRowIndex()));
+        System.out.println("🔍 Filtr raportu: " + matchingRows.cardinality() + "/" + matrix.getRowCount() + " studentów");
     }
 
     /**
@@ -717,6 +913,11 @@ public class AttendanceReportController {
      * w formacie CSV, zachowując wszystkie kolumny i formatowanie danych.
      * Plik może być później otwarty w Excel lub innych programach arkuszowych.</p>
      *
+     * <p>Zapis działa w tle przez {@link AttendanceCsvExporter} (UTF-8, cytowanie
+     * RFC 4180) i czyta dane z {@link AttendanceMatrix}, a nie z wierszy tabeli -
+     * jeśli raport jeszcze się buduje, eksport buduje własną macierz z danych
+     * źródłowych. Postęp jest pokazywany obok tabeli, a eksport można anulować.</p>
+     *
      * <p>Struktura eksportowanego pliku CSV:</p>
      * <ol>
      *   <li><strong>Nagłówki</strong> - nazwy kolumn oddzielone przecinkami</li>
@@ -731,8 +932,8 @@ public class AttendanceReportController {
      * <p>Przykład struktury CSV:</p>
      * <pre>
      * Imię i nazwisko,Numer indeksu,Egzamin Java (15.10.2024),Laboratorium (22.10.2024),Statystyki
-     * Jan Kowalski,123456,Obecny,Spóźniony,"85.5% (17/20)"
-     * Anna Nowak,654321,Nieobecny,Obecny,"72.1% (13/18)"
+     * Jan Kowalski,123456,Obecny,Spóźniony,"85,5% (17/20)"
+     * Anna Nowak,654321,Nieobecny,Obecny,"72,1% (13/18)"
      * </pre>
      *
      * <p>Obsługa błędów:</p>
@@ -743,12 +944,16 @@ public class AttendanceReportController {
      * </ul>
      *
      * @see FileChooser
-     * @see #currentGroup
-     * @see #schedules
-     * @see #reportData
+     * @see AttendanceCsvExporter
+     * @see #matrix
      */
     @FXML
     private void exportToCSV() {
+        if (exportTask != null && exportTask.isRunning()) {
+            showAlert("Uwaga", "Eksport jest już w toku", Alert.AlertType.WARNING);
+            return;
+        }
+
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Zapisz dziennik obecności");
         fileChooser.getExtensionFilters().add(
@@ -759,36 +964,56 @@ public class AttendanceReportController {
         Stage stage = (Stage) exportCSVButton.getScene().getWindow();
         File file = fileChooser.showSaveDialog(stage);
 
-        if (file != null) {
-            try (FileWriter writer = new FileWriter(file)) {
-                // Nagłówki CSV
-                writer.append("Imię i nazwisko,Numer indeksu");
-                for (ClassSchedule schedule : schedules) {
-                    writer.append(",").append(schedule.getSubject()).append(" (")
-                            .append(schedule.getFormattedStartTime()).append(")");
-                }
-                writer.append(",Statystyki\n");
-
-                // Dane studentów
-                for (AttendanceReportRow row : reportData) {
-                    writer.append(row.getStudentName()).append(",")
-                            .append(row.getIndexNumber());
-
-                    for (int i = 0; i < schedules.size(); i++) {
-                        writer.append(",").append(row.getAttendanceForSchedule(i));
-                    }
-
-                    writer.append(",").append(row.getStatistics()).append("\n");
-                }
-
-                showAlert("Sukces", "Dziennik został wyeksportowany do pliku:\n" + file.getAbsolutePath(),
-                        Alert.AlertType.INFORMATION);
+        if (file == null) {
+            return;
+        }
 
-            } catch (Exception e) {
-                showAlert("Błąd", "Nie udało się zapisać pliku:\n" + e.getMessage(),
-                        Alert.AlertType.ERROR);
+        // Gotowa macierz raportu albo dane źródłowe, jeśli raport jeszcze się buduje
+        AttendanceMatrix exportMatrix = matrix;
+        AttendanceMatrix.Snapshot snapshot = exportMatrix == null ? AttendanceMatrix.snapshot(students, schedules) : null;
+
+        Task<Integer> task = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                AttendanceMatrix source = exportMatrix != null ? exportMatrix
+                        : AttendanceMatrix.build(snapshot, this::isCancelled, rows -> { });
+                int totalRows = source.getRowCount();
+                updateMessage("Eksport CSV: 0/" + totalRows);
+
+                return AttendanceCsvExporter.export(source, file.toPath(), this::isCancelled, written -> {
+                    updateProgress(written, totalRows);
+                    updateMessage("Eksport CSV: " + written + "/" + totalRows);
+                });
             }
-        }
+        };
+
+        exportTask = task;
+        task.setOnSucceeded(e -> {
+            finishExport();
+            showAlert("Sukces", "Dziennik został wyeksportowany do pliku:\n" + file.getAbsolutePath(),
+                    Alert.AlertType.INFORMATION);
+        });
+        task.setOnCancelled(e -> finishExport());
+        task.setOnFailed(e -> {
+            finishExport();
+            showAlert("Błąd", "Nie udało się zapisać pliku:\n" + task.getException().getMessage(),
+                    Alert.AlertType.ERROR);
+        });
+
+        exportCSVButton.setDisable(true);
+        showReportProgress(task);
+
+        Thread thread = new Thread(task, "attendance-csv-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Przywraca interfejs po zakończeniu eksportu CSV.
+     */
+    private void finishExport() {
+        exportCSVButton.setDisable(false);
+        hideReportProgress();
     }
 
     /**
@@ -796,16 +1021,14 @@ public class AttendanceReportController {
      *
      * <p>Ponownie generuje całą tabelę obecności i przelicza wszystkie statystyki
      * na podstawie aktualnych danych. Przydatne gdy dane mogły się zmienić
-     * od momentu wygenerowania raportu.</p>
+     * od momentu wygenerowania raportu. Trwające budowanie jest anulowane,
+     * a komunikat pojawia się dopiero po wypełnieniu tabeli.</p>
      *
-     * @see #generateReport()
-     * @see #calculateStatistics()
+     * @see #generateReport(Runnable)
      */
     @FXML
     private void refreshReport() {
-        generateReport();
-        calculateStatistics();
-        showAlert("Info", "Raport został odświeżony", Alert.AlertType.INFORMATION);
+        generateReport(() -> showAlert("Info", "Raport został odświeżony", Alert.AlertType.INFORMATION));
     }
 
     /**
@@ -816,6 +1039,7 @@ public class AttendanceReportController {
      */
     @FXML
     private void closeWindow() {
+        cancelReport();
         Stage stage = (Stage) closeButton.getScene().getWindow();
         stage.close();
     }
@@ -841,22 +1065,27 @@ public class AttendanceReportController {
         alert.showAndWait();
     }
 
+    /**
+     * Wynik budowania raportu w tle: macierz obecności i gotowe wiersze tabeli.
+     */
+    private static final class ReportModel {
+        private final AttendanceMatrix matrix;
+        private final List<AttendanceReportRow> rows;
+
+        ReportModel(AttendanceMatrix matrix, List<AttendanceReportRow> rows) {
+            this.matrix = matrix;
+            this.rows = rows;
+        }
+    }
+
     /**
      * Klasa reprezentująca wiersz w tabeli raportu obecności.
      *
-     * <p>AttendanceReportRow agreguje dane jednego studenta wraz z jego obecnościami
-     * na wszystkich terminach oraz obliczonymi statystykami frekwencji. Każdy wiersz
-     * w tabeli raportu jest reprezentowany przez instancję tej klasy.</p>
+     * <p>AttendanceReportRow jest widokiem jednego wiersza {@link AttendanceMatrix}.
+     * Nie przechowuje własnej kopii statusów - komórki i statystyki są czytane
+     * z macierzy, w której zostały policzone podczas jej budowania.</p>
      *
-     * <p>Klasa zarządza następującymi danymi:</p>
-     * <ul>
-     *   <li><strong>Dane studenta</strong> - imię, nazwisko, numer indeksu</li>
-     *   <li><strong>Lista obecności</strong> - statusy dla każdego terminu w kolejności</li>
-     *   <li><strong>Statystyki</strong> - obliczony procent obecności i podsumowanie</li>
-     * </ul>
-     *
-     * <p>Statystyki są obliczane automatycznie przez {@link #calculateStatistics()}
-     * i uwzględniają następujące zasady:</p>
+     * <p>Statystyki uwzględniają następujące zasady:</p>
      * <ul>
      *   <li><strong>Obecni i spóźnieni</strong> liczą się jako pozytywne dla frekwencji</li>
      *   <li><strong>Nieobecni</strong> liczą się jako negatywne dla frekwencji</li>
@@ -866,145 +1095,70 @@ public class AttendanceReportController {
      * <h3>Przykład użycia:</h3>
      * <pre>
      * {@code
-     * AttendanceReportRow row = new AttendanceReportRow(student);
-     *
-     * // Dodawanie obecności dla każdego terminu
-     * row.addAttendance("Obecny");
-     * row.addAttendance("Spóźniony");
-     * row.addAttendance("Nieobecny");
-     * row.addAttendance("Nie zaznaczono");
-     *
-     * // Obliczenie statystyk
-     * row.calculateStatistics();
+     * AttendanceMatrix matrix = AttendanceMatrix.build(students, schedules);
+     * AttendanceReportRow row = new AttendanceReportRow(matrix, 0);
      *
      * // Wynik: "66.7% (2/3)" - 2 z 3 ocenionych obecności
      * System.out.println(row.getStatistics());
      * }
      * </pre>
      *
-     * @see Student
-     * @see Attendance.Status
-     * @see #generateReport()
+     * @see AttendanceMatrix
+     * @see #applyReport(ReportModel)
      */
     public static class AttendanceReportRow {
 
         /**
-         * Student, którego dotyczy ten wiersz raportu.
+         * Macierz, z której wiersz czyta dane.
          */
-        private final Student student;
+        private final AttendanceMatrix matrix;
 
         /**
-         * Lista statusów obecności dla każdego terminu w kolejności chronologicznej.
-         *
-         * <p>Kolejność statusów odpowiada kolejności terminów w {@link #schedules}.
-         * Możliwe wartości: "Obecny", "Spóźniony", "Nieobecny", "Nie zaznaczono".</p>
+         * Indeks wiersza w macierzy.
          */
-        private final List<String> attendanceStatuses = new java.util.ArrayList<>();
+        private final int row;
 
         /**
-         * Obliczone statystyki frekwencji studenta w formacie tekstowym.
-         *
-         * <p>Format: "X.X% (obecni+spóźnieni/łącznie_ocenione)"</p>
-         * <p>Przykład: "85.5% (17/20)"</p>
-         */
-        private String statistics = "";
-
-        /**
-         * Konstruktor wiersza raportu dla konkretnego studenta.
-         *
-         * @param student student dla tego wiersza (nie może być null)
-         * @throws IllegalArgumentException jeśli student jest null
+         * Student, którego dotyczy ten wiersz raportu.
          */
-        public AttendanceReportRow(Student student) {
-            this.student = student;
-        }
+        private final Student student;
 
         /**
-         * Dodaje status obecności dla kolejnego terminu.
+         * Konstruktor wiersza raportu.
          *
-         * <p>Statusy są dodawane w kolejności chronologicznej terminów.
-         * Metoda nie waliduje wartości - przyjmuje dowolny string.</p>
-         *
-         * @param status status obecności jako String (np. "Obecny", "Nieobecny")
+         * @param matrix macierz obecności
+         * @param row indeks wiersza w macierzy
+         * @throws IndexOutOfBoundsException jeśli wiersz jest poza macierzą
          */
-        public void addAttendance(String status) {
-            attendanceStatuses.add(status);
+        public AttendanceReportRow(AttendanceMatrix matrix, int row) {
+            this.matrix = matrix;
+            this.row = row;
+            this.student = matrix.getStudents().get(row);
         }
 
         /**
-         * Oblicza statystyki frekwencji dla studenta na podstawie dodanych obecności.
-         *
-         * <p>Metoda analizuje wszystkie statusy obecności i generuje podsumowanie
-         * w formacie czytelnym dla użytkownika. Obliczenia uwzględniają tylko
-         * terminy, gdzie obecność została oznaczona (pomija "Nie zaznaczono").</p>
+         * Zwraca indeks wiersza w macierzy.
          *
-         * <p>Algorytm obliczania:</p>
-         * <ol>
-         *   <li>Zlicz obecnych i spóźnionych (pozytywne obecności)</li>
-         *   <li>Zlicz nieobecnych (negatywne obecności)</li>
-         *   <li>Oblicz łączną liczbę ocenionych terminów (bez "Nie zaznaczono")</li>
-         *   <li>Wylicz procent: (pozytywne / łącznie) * 100</li>
-         *   <li>Sformatuj wynik z dokładnością do 1 miejsca po przecinku</li>
-         * </ol>
+         * @return indeks wiersza (0-based)
          *
-         * <p>Przykłady wyników:</p>
-         * <ul>
-         *   <li>"100.0% (5/5)" - perfect attendance</li>
-         *   <li>"80.0% (4/5)" - jedna nieobecność</li>
-         *   <li>"66.7% (2/3)" - dwie obecności z trzech ocenionych</li>
-         *   <li>"Brak danych" - brak ocenionych terminów</li>
-         *   <li>"Brak ocen" - wszystkie terminy "Nie zaznaczono"</li>
-         * </ul>
-         *
-         * @see #getAttendancePercentage()
-         * @see #getStatistics()
+         * @see AttendanceMatrix#getMatchingRows(int, Attendance.Status)
          */
-        public void calculateStatistics() {
-            if (attendanceStatuses.isEmpty()) {
-                statistics = "Brak danych";
-                return;
-            }
-
-            long present = attendanceStatuses.stream().filter(s -> s.equals("Obecny")).count();
-            long late = attendanceStatuses.stream().filter(s -> s.equals("Spóźniony")).count();
-            long absent = attendanceStatuses.stream().filter(s -> s.equals("Nieobecny")).count();
-            long total = present + late + absent;
-
-            if (total == 0) {
-                statistics = "Brak ocen";
-            } else {
-                double percentage = (double) (present + late) / total * 100;
-                statistics = String.format("%.1f%% (%d/%d)", percentage, present + late, total);
-            }
+        public int getRowIndex() {
+            return row;
         }
 
         /**
          * Zwraca procentową frekwencję studenta jako liczbę.
          *
-         * <p>Metoda oblicza procent obecności (włączając spóźnionych) w stosunku
-         * do wszystkich ocenionych terminów. Wartość jest zwracana jako double
-         * w zakresie 0.0-100.0.</p>
-         *
-         * <p>Użycie w obliczeniach statystycznych:</p>
-         * <ul>
-         *   <li>Średnia frekwencji grupy</li>
-         *   <li>Ranking studentów według frekwencji</li>
-         *   <li>Identyfikacja najlepszego/najgorszego studenta</li>
-         * </ul>
+         * <p>Procent obecności (włączając spóźnionych) w stosunku do wszystkich
+         * ocenionych terminów, w zakresie 0.0-100.0.</p>
          *
          * @return procent obecności (0.0-100.0), lub 0.0 jeśli brak danych
          *
-         * @see #calculateStatistics()
+         * @see AttendanceMatrix#getRowPercentage(int)
          */
         public double getAttendancePercentage() {
-            if (attendanceStatuses.isEmpty()) return 0.0;
-
-            long present = attendanceStatuses.stream().filter(s -> s.equals("Obecny")).count();
-            long late = attendanceStatuses.stream().filter(s -> s.equals("Spóźniony")).count();
-            long total = attendanceStatuses.stream().filter(s -> !s.equals("Nie zaznaczono")).count();
-
-            if (total == 0) return 0.0;
-            return (double) (present + late) / total * 100;
+            return matrix.getRowPercentage(row);
         }
 
         /**
@@ -1038,15 +1192,14 @@ public class AttendanceReportController {
         /**
          * Zwraca obliczone statystyki frekwencji jako sformatowany tekst.
          *
-         * <p>Wykorzystywane jako wartość dla kolumny "Statystyki" w tabeli raportu.
-         * Statystyki muszą być wcześniej obliczone przez {@link #calculateStatistics()}.</p>
+         * <p>Wykorzystywane jako wartość dla kolumny "Statystyki" w tabeli raportu.</p>
          *
          * @return statystyki w formacie "X.X% (Y/Z)" lub komunikat o braku danych
          *
-         * @see #calculateStatistics()
+         * @see AttendanceMatrix#getRowStatistics(int)
          */
         public String getStatistics() {
-            return statistics;
+            return matrix.getRowStatistics(row);
         }
 
         /**
@@ -1058,14 +1211,13 @@ public class AttendanceReportController {
          * @param index indeks terminu (0-based)
          * @return status obecności dla tego terminu lub "Nie zaznaczono" jeśli brak danych
          *
-         * @see #generateReport()
-         * @see #addAttendance(String)
+         * @see AttendanceMatrix#getDisplayName(int, int)
          */
         public String getAttendanceForSchedule(int index) {
-            if (index >= 0 && index < attendanceStatuses.size()) {
-                return attendanceStatuses.get(index);
+            if (index >= 0 && index < matrix.getColumnCount()) {
+                return matrix.getDisplayName(row, index);
             }
-            return "Nie zaznaczono";
+            return AttendanceMatrix.NOT_MARKED_LABEL;
         }
     }
 }
\ No newline at end of file
@@ -1,38 +1,48 @@
 package com.example.javafxfront;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 public class AttendanceService {
 
-    private static final String BASE_URL = "http://localhost:8080/api";
-    private static final String ATTENDANCE_ENDPOINT = BASE_URL + "/attendance";
+    private static final String BATCH_FEATURE = "POST /attendance/batch";
 
-    private final HttpClient httpClient;
-    private final ObjectMapper objectMapper; // DODANE
+    private final String attendanceEndpoint;
+
+    private final HttpTransport transport;
+    private final ObjectMapper objectMapper;
+    private final JsonStreamReader jsonReader;
+    private final AttendanceWriteCoalescer writeCoalescer;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
     public AttendanceService() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this(HttpTransport.getShared());
+    }
 
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    /**
+     * Tworzy serwis frekwencji korzystający z podanej warstwy transportowej
+     * @param transport Wspólny transport HTTP (klient, mapper JSON, timeouty)
+     */
+    public AttendanceService(HttpTransport transport) {
+        this.transport = transport;
+        this.objectMapper = transport.getObjectMapper();
+        this.jsonReader = new JsonStreamReader(objectMapper);
+        this.attendanceEndpoint = transport.getBaseUrl() + "/attendance";
+        this.writeCoalescer = new AttendanceWriteCoalescer(AttendanceWriteCoalescer.windowFromSystemProperties(),
+                transport.getExecutor(), this::sendCoalescedWrite);
     }
 
     /**
@@ -41,32 +51,20 @@ public class AttendanceService {
      * @return CompletableFuture z wysłanym obiektem obecności
      */
     public CompletableFuture<Attendance> markAttendanceAsync(Attendance attendance) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String jsonBody = attendanceToJson(attendance);
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(ATTENDANCE_ENDPOINT + "/mark"))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 201 || response.statusCode() == 200) {
-                    return parseAttendanceFromJson(response.body());
-                } else {
-                    throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode() +
-                            " Body: " + response.body());
-                }
-
-            } catch (Exception e) {
-                throw new RuntimeException("Nie udało się wysłać obecności na serwer: " + e.getMessage(), e);
+        String jsonBody = attendanceToJson(attendance);
+
+        String url = attendanceEndpoint + "/mark";
+
+        // Oznaczenie nadpisuje obecność - ponowienie po timeoucie jest bezpieczne
+        return transport.sendOrQueue(HttpTransport.Endpoint.ATTENDANCE, "POST", url, jsonBody,
+                List.of(new HttpTransport.QueuedChange("POST", url, jsonBody, true)), response -> {
+            if (response.statusCode() == 201 || response.statusCode() == 200) {
+                return parseAttendanceFromJson(response.body());
+            } else {
+                throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode() +
+                        " Body: " + response.body());
             }
-        });
+        }, "Nie udało się wysłać obecności na serwer");
     }
 
     /**
@@ -79,33 +77,169 @@ public class AttendanceService {
      */
     public CompletableFuture<Boolean> markStudentAttendanceAsync(Student student, Long scheduleId,
                                                                  Attendance.Status status, String notes) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String jsonBody = createAttendanceJson(student, scheduleId, status, notes);
+        String jsonBody = createAttendanceJson(student, scheduleId, status, notes);
 
-                System.out.println("Wysyłam obecność JSON: " + jsonBody); // DEBUG
+        System.out.println("Wysyłam obecność JSON: " + jsonBody); // DEBUG
 
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(ATTENDANCE_ENDPOINT + "/mark-student"))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                        .build();
+        String url = attendanceEndpoint + "/mark-student";
 
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
+        return transport.sendOrQueue(HttpTransport.Endpoint.ATTENDANCE, "POST", url, jsonBody,
+                List.of(new HttpTransport.QueuedChange("POST", url, jsonBody, true)), response -> {
+            System.out.println("Status odpowiedzi: " + response.statusCode()); // DEBUG
+            System.out.println("Treść odpowiedzi: " + response.body()); // DEBUG
+
+            return response.statusCode() == 201 || response.statusCode() == 200;
+        }, "Nie udało się wysłać obecności studenta na serwer");
+    }
+
+    /**
+     * Zgłasza oznaczenie obecności przez koalescer - szybkie, kolejne zmiany tego samego
+     * studenta na tym samym terminie są scalane i na serwer trafia tylko stan końcowy
+     * @param student Student
+     * @param scheduleId ID terminu
+     * @param status Status obecności
+     * @param notes Opcjonalne uwagi
+     * @return CompletableFuture z potwierdzeniem; anulowany, jeśli zmianę zastąpiła nowsza
+     * @see AttendanceWriteCoalescer#isSuperseded(Throwable)
+     */
+    public CompletableFuture<Boolean> submitAttendanceAsync(Student student, Long scheduleId,
+                                                            Attendance.Status status, String notes) {
+        return writeCoalescer.submit(new AttendanceWriteCoalescer.Write(student, scheduleId, status, notes));
+    }
 
-                System.out.println("Status odpowiedzi: " + response.statusCode()); // DEBUG
-                System.out.println("Treść odpowiedzi: " + response.body()); // DEBUG
+    /**
+     * Zgłasza usunięcie oznaczenia obecności przez koalescer
+     * @param student Student
+     * @param scheduleId ID terminu
+     * @return CompletableFuture z potwierdzeniem; anulowany, jeśli zmianę zastąpiła nowsza
+     */
+    public CompletableFuture<Boolean> submitRemovalAsync(Student student, Long scheduleId) {
+        return writeCoalescer.submit(new AttendanceWriteCoalescer.Write(student, scheduleId, null, null));
+    }
 
-                return response.statusCode() == 201 || response.statusCode() == 200;
+    /**
+     * Zwraca koalescer zapisów obecności (liczniki scalonych i wysłanych zmian)
+     * @return koalescer zapisów
+     */
+    public AttendanceWriteCoalescer getWriteCoalescer() {
+        return writeCoalescer;
+    }
 
-            } catch (Exception e) {
-                System.err.println("Błąd wysyłania obecności: " + e.getMessage()); // DEBUG
-                throw new RuntimeException("Nie udało się wysłać obecności studenta na serwer: " + e.getMessage(), e);
+    /**
+     * Zwraca test, czy zmiana obecności studenta na terminie jeszcze nie dotarła na serwer:
+     * czeka w oknie koalescera, jest wysyłana albo leży w kolejce offline.
+     *
+     * <p>Kolejka offline jest odczytywana raz, przy wywołaniu - test służy do jednego
+     * przebiegu nakładania stanu z serwera na terminie.</p>
+     *
+     * @param scheduleId ID terminu
+     * @return test przyjmujący numer indeksu studenta
+     */
+    public Predicate<String> pendingWritesFor(Long scheduleId) {
+        Set<String> queued = queuedIndexNumbers(scheduleId);
+        return indexNumber -> queued.contains(indexNumber) || writeCoalescer.hasPending(indexNumber, scheduleId);
+    }
+
+    /**
+     * Numery indeksów, dla których kolejka offline zawiera zmianę obecności na terminie.
+     */
+    private Set<String> queuedIndexNumbers(Long scheduleId) {
+        Outbox outbox = transport.getOutbox();
+        if (outbox == null || !outbox.hasPending()) {
+            return Set.of();
+        }
+        Set<String> indexNumbers = new HashSet<>();
+        String removeSuffix = "/" + scheduleId;
+        for (Outbox.Entry entry : outbox.getPending()) {
+            if (entry.getEndpoint() != HttpTransport.Endpoint.ATTENDANCE) {
+                continue;
+            }
+            String path = entry.getPath();
+            if ("DELETE".equals(entry.getMethod())) {
+                int start = path.indexOf("/attendance/remove/");
+                if (start >= 0 && path.endsWith(removeSuffix)) {
+                    String encodedIndex = path.substring(start + "/attendance/remove/".length(),
+                            path.length() - removeSuffix.length());
+                    indexNumbers.add(java.net.URLDecoder.decode(encodedIndex, java.nio.charset.StandardCharsets.UTF_8));
+                }
+            } else if (entry.getBody() != null) {
+                try {
+                    JsonNode body = objectMapper.readTree(entry.getBody());
+                    JsonNode student = body.has("student") ? body.get("student") : body; // /mark lub /mark-student
+                    if (scheduleId.equals(body.path("scheduleId").asLong()) && student.hasNonNull("indexNumber")) {
+                        indexNumbers.add(student.get("indexNumber").asText());
+                    }
+                } catch (JsonProcessingException e) {
+                    System.err.println("Nieczytelny wpis kolejki offline: " + entry.getPath());
+                }
             }
-        });
+        }
+        return indexNumbers;
+    }
+
+    private CompletableFuture<Boolean> sendCoalescedWrite(AttendanceWriteCoalescer.Write write) {
+        if (write.isRemoval()) {
+            return removeAttendanceAsync(write.getStudent().getIndexNumber(), write.getScheduleId());
+        }
+        return markStudentAttendanceAsync(write.getStudent(), write.getScheduleId(), write.getStatus(), write.getNotes());
+    }
+
+    /**
+     * Wysyła zbiorczą operację na frekwencji jednym żądaniem {@code POST /attendance/batch}.
+     * Wpisy mogą dotyczyć jednego lub kilku terminów; wpis bez statusu usuwa oznaczenie.
+     *
+     * <p>Jeśli serwer nie obsługuje operacji zbiorczych (404/405/501), wpisy są wysyłane
+     * pojedynczo, a kolejne wywołania od razu korzystają z tej ścieżki. Przy braku sieci
+     * do kolejki offline trafiają pojedyncze wpisy (a nie żądanie zbiorcze, które serwer
+     * bez tej operacji odrzuciłby przy ponownej wysyłce), a wszystkie wyniki mają
+     * {@code queued = true}.</p>
+     *
+     * @param entries Wpisy do zapisania
+     * @return CompletableFuture z wynikami w kolejności wpisów
+     */
+    public CompletableFuture<List<AttendanceBatch.Result>> applyBatchAsync(List<AttendanceBatch.Entry> entries) {
+        if (entries.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        // Wpisy zbiorcze omijają koalescer - jego ostatnio wysłany stan tych par jest nieaktualny
+        for (AttendanceBatch.Entry entry : entries) {
+            writeCoalescer.forget(entry.getStudent().getIndexNumber(), entry.getScheduleId());
+        }
+        if (transport.isUnsupported(BATCH_FEATURE)) {
+            return applyEntriesOneByOne(entries);
+        }
+
+        String jsonBody = createBatchJson(entries);
+        System.out.println("Wysyłam zbiorczo " + entries.size() + " wpisów frekwencji"); // DEBUG
+
+        return transport.sendOrQueue(HttpTransport.Endpoint.ATTENDANCE, "POST", attendanceEndpoint + "/batch",
+                jsonBody, queuedEntries(entries), response -> {
+            int status = response.statusCode();
+            if (status == 404 || status == 405 || status == 501) {
+                return null; // serwer bez operacji zbiorczych
+            }
+            if (status != 200 && status != 201 && status != 207) {
+                throw new RuntimeException("Serwer odpowiedział statusem: " + status + " Body: " + response.body());
+            }
+            return parseBatchResults(entries, response.body());
+        }, "Nie udało się wysłać zbiorczej frekwencji na serwer")
+                .exceptionally(throwable -> {
+                    if (Outbox.isQueued(throwable)) {
+                        return entries.stream()
+                                .map(entry -> new AttendanceBatch.Result(entry, false, true, throwable.getMessage()))
+                                .toList();
+                    }
+                    throw throwable instanceof CompletionException completion
+                            ? completion : new CompletionException(throwable);
+                })
+                .thenCompose(results -> {
+                    if (results != null) {
+                        return CompletableFuture.completedFuture(results);
+                    }
+                    System.out.println("ℹSerwer nie obsługuje /attendance/batch - wysyłam pojedynczo");
+                    transport.markUnsupported(BATCH_FEATURE);
+                    return applyEntriesOneByOne(entries);
+                });
     }
 
     /**
@@ -114,36 +248,24 @@ public class AttendanceService {
      * @return Lista obecności
      */
     public CompletableFuture<List<Attendance>> getAttendancesByScheduleAsync(Long scheduleId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                System.out.println("Pobieranie obecności dla terminu ID: " + scheduleId); // DEBUG
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(ATTENDANCE_ENDPOINT + "/schedule/" + scheduleId))
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                System.out.println("Status: " + response.statusCode()); // DEBUG
-                System.out.println("JSON: " + response.body()); // DEBUG
-
-                if (response.statusCode() == 200) {
-                    List<Attendance> attendances = parseAttendanceListFromJson(response.body());
-                    System.out.println("Sparsowano " + attendances.size() + " obecności"); // DEBUG
-                    return attendances;
-                } else {
-                    throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode());
-                }
-
-            } catch (Exception e) {
-                System.err.println("Błąd pobierania obecności: " + e.getMessage()); // DEBUG
-                throw new RuntimeException("Nie udało się pobrać obecności z serwera: " + e.getMessage(), e);
-            }
-        });
+        return transport.coalesce("GET " + attendanceEndpoint + "/schedule/" + scheduleId, () ->
+                transport.sendStreaming(HttpTransport.Endpoint.ATTENDANCE, () -> {
+                    System.out.println("Pobieranie obecności dla terminu ID: " + scheduleId); // DEBUG
+
+                    return transport.newRequest(HttpTransport.Endpoint.ATTENDANCE, attendanceEndpoint + "/schedule/" + scheduleId)
+                            .GET()
+                            .build();
+                }, response -> {
+                    System.out.println("Status: " + response.statusCode()); // DEBUG
+
+                    if (response.statusCode() == 200) {
+                        List<Attendance> attendances = parseAttendanceListFromJson(response.body());
+                        System.out.println("Sparsowano " + attendances.size() + " obecności"); // DEBUG
+                        return attendances;
+                    } else {
+                        throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode());
+                    }
+                }, "Nie udało się pobrać obecności z serwera"));
     }
 
     /**
@@ -152,29 +274,19 @@ public class AttendanceService {
      * @return Lista obecności studenta
      */
     public CompletableFuture<List<Attendance>> getAttendancesByStudentAsync(String studentIndexNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String encodedIndex = java.net.URLEncoder.encode(studentIndexNumber, "UTF-8");
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(ATTENDANCE_ENDPOINT + "/student/" + encodedIndex))
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    return parseAttendanceListFromJson(response.body());
-                } else {
-                    throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode());
-                }
-
-            } catch (Exception e) {
-                throw new RuntimeException("Nie udało się pobrać obecności studenta z serwera: " + e.getMessage(), e);
-            }
-        });
+        return transport.coalesce("GET " + attendanceEndpoint + "/student/" + studentIndexNumber, () ->
+                transport.sendStreaming(HttpTransport.Endpoint.ATTENDANCE, () -> {
+                    String encodedIndex = java.net.URLEncoder.encode(studentIndexNumber, "UTF-8");
+                    return transport.newRequest(HttpTransport.Endpoint.ATTENDANCE, attendanceEndpoint + "/student/" + encodedIndex)
+                            .GET()
+                            .build();
+                }, response -> {
+                    if (response.statusCode() == 200) {
+                        return parseAttendanceListFromJson(response.body());
+                    } else {
+                        throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode());
+                    }
+                }, "Nie udało się pobrać obecności studenta z serwera"));
     }
 
     /**
@@ -184,25 +296,10 @@ public class AttendanceService {
      * @return CompletableFuture<Boolean> - true jeśli usunięto pomyślnie
      */
     public CompletableFuture<Boolean> removeAttendanceAsync(String studentIndexNumber, Long scheduleId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String encodedIndex = java.net.URLEncoder.encode(studentIndexNumber, "UTF-8");
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(ATTENDANCE_ENDPOINT + "/remove/" + encodedIndex + "/" + scheduleId))
-                        .header("Content-Type", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .DELETE()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                return response.statusCode() == 200 || response.statusCode() == 204;
-
-            } catch (Exception e) {
-                throw new RuntimeException("Nie udało się usunąć obecności z serwera: " + e.getMessage(), e);
-            }
-        });
+        return transport.sendOrQueue(HttpTransport.Endpoint.ATTENDANCE, "DELETE",
+                removeUrl(studentIndexNumber, scheduleId), null, response -> {
+            return response.statusCode() == 200 || response.statusCode() == 204;
+        }, "Nie udało się usunąć obecności z serwera");
     }
 
     /**
@@ -211,29 +308,18 @@ public class AttendanceService {
      * @return CompletableFuture ze statystykami
      */
     public CompletableFuture<String> getGroupAttendanceStatsAsync(String groupName) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String encodedGroup = java.net.URLEncoder.encode(groupName, "UTF-8");
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(ATTENDANCE_ENDPOINT + "/stats/group/" + encodedGroup))
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    return response.body(); // Zwraca JSON ze statystykami
-                } else {
-                    throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode());
-                }
-
-            } catch (Exception e) {
-                throw new RuntimeException("Nie udało się pobrać statystyk obecności z serwera: " + e.getMessage(), e);
+        return transport.send(HttpTransport.Endpoint.ATTENDANCE, () -> {
+            String encodedGroup = java.net.URLEncoder.encode(groupName, "UTF-8");
+            return transport.newRequest(HttpTransport.Endpoint.ATTENDANCE, attendanceEndpoint + "/stats/group/" + encodedGroup)
+                    .GET()
+                    .build();
+        }, response -> {
+            if (response.statusCode() == 200) {
+                return response.body(); // Zwraca JSON ze statystykami
+            } else {
+                throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode());
             }
-        });
+        }, "Nie udało się pobrać statystyk obecności z serwera");
     }
 
     // === METODY PRYWATNE DO PARSOWANIA I TWORZENIA JSON ===
@@ -285,6 +371,105 @@ public class AttendanceService {
         );
     }
 
+    private CompletableFuture<List<AttendanceBatch.Result>> applyEntriesOneByOne(List<AttendanceBatch.Entry> entries) {
+        List<CompletableFuture<AttendanceBatch.Result>> futures = new ArrayList<>(entries.size());
+        for (AttendanceBatch.Entry entry : entries) {
+            CompletableFuture<Boolean> write = entry.isClear()
+                    ? removeAttendanceAsync(entry.getStudent().getIndexNumber(), entry.getScheduleId())
+                    : markStudentAttendanceAsync(entry.getStudent(), entry.getScheduleId(), entry.getStatus(), entry.getNotes());
+            futures.add(write.handle((success, error) -> {
+                if (error == null) {
+                    return new AttendanceBatch.Result(entry, Boolean.TRUE.equals(success), false,
+                            Boolean.TRUE.equals(success) ? null : "Serwer odrzucił wpis");
+                }
+                return new AttendanceBatch.Result(entry, false, Outbox.isQueued(error), error.getMessage());
+            }));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private String removeUrl(String studentIndexNumber, Long scheduleId) {
+        String encodedIndex = java.net.URLEncoder.encode(studentIndexNumber, java.nio.charset.StandardCharsets.UTF_8);
+        return attendanceEndpoint + "/remove/" + encodedIndex + "/" + scheduleId;
+    }
+
+    /**
+     * Pojedyncze odpowiedniki wpisów operacji zbiorczej - zapisywane w kolejce offline
+     */
+    private List<HttpTransport.QueuedChange> queuedEntries(List<AttendanceBatch.Entry> entries) {
+        List<HttpTransport.QueuedChange> changes = new ArrayList<>(entries.size());
+        for (AttendanceBatch.Entry entry : entries) {
+            changes.add(entry.isClear()
+                    ? new HttpTransport.QueuedChange("DELETE",
+                            removeUrl(entry.getStudent().getIndexNumber(), entry.getScheduleId()), null)
+                    : new HttpTransport.QueuedChange("POST", attendanceEndpoint + "/mark-student",
+                            createAttendanceJson(entry.getStudent(), entry.getScheduleId(), entry.getStatus(),
+                                    entry.getNotes()), true));
+        }
+        return changes;
+    }
+
+    private String createBatchJson(List<AttendanceBatch.Entry> entries) {
+        StringBuilder json = new StringBuilder("{\"entries\": [");
+        for (int i = 0; i < entries.size(); i++) {
+            AttendanceBatch.Entry entry = entries.get(i);
+            Student student = entry.getStudent();
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(
+                    "{"
+                            + "\"firstName\": \"%s\","
+                            + "\"lastName\": \"%s\","
+                            + "\"indexNumber\": \"%s\","
+                            + "\"groupName\": \"%s\","
+                            + "\"scheduleId\": %d,"
+                            + "\"status\": %s,"
+                            + "\"notes\": \"%s\""
+                            + "}",
+                    escapeJson(student.getFirstName()),
+                    escapeJson(student.getLastName()),
+                    escapeJson(student.getIndexNumber()),
+                    escapeJson(student.getGroupName() != null ? student.getGroupName() : ""),
+                    entry.getScheduleId(),
+                    entry.isClear() ? "null" : "\"" + entry.getStatus().name() + "\"", // null = usuń oznaczenie
+                    escapeJson(entry.getNotes() != null ? entry.getNotes() : "")));
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Odpowiedź serwera: {@code {"results": [{"index": 0, "success": true, "error": null}, ...]}}.
+     * Wpis bez wyniku (lub odpowiedź bez listy wyników) jest traktowany jako zapisany.
+     */
+    private List<AttendanceBatch.Result> parseBatchResults(List<AttendanceBatch.Entry> entries, String json) {
+        List<AttendanceBatch.Result> results = new ArrayList<>(entries.size());
+        for (AttendanceBatch.Entry entry : entries) {
+            results.add(new AttendanceBatch.Result(entry, true, false, null));
+        }
+        if (json == null || json.isBlank()) {
+            return results;
+        }
+        try {
+            BatchResponse response = objectMapper.readValue(json, BatchResponse.class);
+            if (response.results == null) {
+                return results;
+            }
+            for (int i = 0; i < response.results.size(); i++) {
+                BatchResultInfo info = response.results.get(i);
+                int index = info.index != null ? info.index : i;
+                if (index >= 0 && index < entries.size() && Boolean.FALSE.equals(info.success)) {
+                    results.set(index, new AttendanceBatch.Result(entries.get(index), false, false,
+                            info.error != null ? info.error : "Serwer odrzucił wpis"));
+                }
+            }
+            return results;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to parse attendance batch JSON: " + e.getMessage(), e);
+        }
+    }
+
     private Attendance parseAttendanceFromJson(String json) {
         try {
             AttendanceFromServer serverAttendance = objectMapper.readValue(json, AttendanceFromServer.class);
@@ -296,16 +481,10 @@ public class AttendanceService {
         }
     }
 
-    private List<Attendance> parseAttendanceListFromJson(String json) {
+    private List<Attendance> parseAttendanceListFromJson(InputStream json) {
         try {
-            List<AttendanceFromServer> serverAttendances = objectMapper.readValue(json, new TypeReference<List<AttendanceFromServer>>() {});
-
-            return serverAttendances.stream()
-                    .map(this::convertToAttendance)
-                    .toList();
-        } catch (JsonProcessingException e) {
-            System.err.println("Błąd parsowania JSON attendance list: " + e.getMessage());
-            System.err.println("JSON: " + json);
+            return jsonReader.readArray(json, AttendanceFromServer.class, this::convertToAttendance);
+        } catch (IOException e) {
             throw new RuntimeException("Failed to parse attendance list JSON: " + e.getMessage(), e);
         }
     }
@@ -353,6 +532,16 @@ public class AttendanceService {
     }
 
 
+    private static class BatchResponse {
+        public List<BatchResultInfo> results;
+    }
+
+    private static class BatchResultInfo {
+        public Integer index;
+        public Boolean success;
+        public String error;
+    }
+
     private static class AttendanceFromServer {
         public Long id;
         public StudentInfo student;
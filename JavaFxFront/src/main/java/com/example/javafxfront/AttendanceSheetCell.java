@@ -0,0 +1,116 @@
+package com.example.javafxfront;
+
+import javafx.css.PseudoClass;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Wiersz listy obecności w oknie zarządzania terminem.
+ *
+ * <p>Lista studentów terminu jest wirtualizowana - {@link javafx.scene.control.ListView}
+ * tworzy tylko tyle komórek, ile mieści się na ekranie, a ta komórka buduje swoje
+ * węzły (dane studenta, status i cztery przyciski) raz i przy ponownym użyciu
+ * zmienia tylko teksty i pseudoklasy. Czas otwarcia okna i zużycie pamięci nie
+ * zależą więc od liczebności grupy.</p>
+ *
+ * <p>Status jest odczytywany z {@link ClassSchedule#getAttendanceForStudent(Student)}
+ * przy każdej aktualizacji, więc po zmianie obecności wystarczy
+ * {@link javafx.scene.control.ListView#refresh()}. Kolor statusu wynika z pseudoklas
+ * {@code :present}, {@code :late} i {@code :absent} kontenera
+ * {@code .attendance-sheet-row} w {@code styles.css}.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see GroupDetailController
+ * @see Attendance.Status
+ * @see AttendanceKeyboard
+ */
+public class AttendanceSheetCell extends ListCell<Student> {
+
+    private static final PseudoClass PRESENT = PseudoClass.getPseudoClass("present");
+    private static final PseudoClass LATE = PseudoClass.getPseudoClass("late");
+    private static final PseudoClass ABSENT = PseudoClass.getPseudoClass("absent");
+
+    private final ClassSchedule schedule;
+
+    private final HBox content = new HBox(15);
+    private final Label nameLabel = new Label();
+    private final Label indexLabel = new Label();
+    private final Label statusLabel = new Label();
+
+    /**
+     * Tworzy komórkę wraz z kompletnym drzewem węzłów.
+     *
+     * @param schedule termin, którego obecności pokazuje lista
+     * @param onMark wywoływane po kliknięciu przycisku; status null oznacza wyczyszczenie
+     */
+    public AttendanceSheetCell(ClassSchedule schedule, BiConsumer<Student, Attendance.Status> onMark) {
+        this.schedule = schedule;
+
+        content.getStyleClass().add("attendance-sheet-row");
+        nameLabel.getStyleClass().add("attendance-sheet-name");
+        indexLabel.getStyleClass().add("attendance-sheet-index");
+        statusLabel.getStyleClass().add("attendance-sheet-status");
+        statusLabel.setPrefWidth(120);
+
+        VBox studentInfo = new VBox(3, nameLabel, indexLabel);
+
+        HBox buttonsBox = new HBox(5,
+                createButton("Obecny", "attendance-present-button", Attendance.Status.PRESENT, onMark),
+                createButton("Spóźniony", "attendance-late-button", Attendance.Status.LATE, onMark),
+                createButton("Nieobecny", "attendance-absent-button", Attendance.Status.ABSENT, onMark),
+                createButton("Wyczyść", "attendance-clear-button", null, onMark));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        content.getChildren().addAll(studentInfo, spacer, statusLabel, buttonsBox);
+    }
+
+    private Button createButton(String text, String styleClass, Attendance.Status status,
+                                BiConsumer<Student, Attendance.Status> onMark) {
+        Button button = new Button(text);
+        button.getStyleClass().addAll("attendance-sheet-button", styleClass);
+        button.setFocusTraversable(false);
+        button.setOnAction(e -> {
+            Student student = getItem();
+            if (student != null) {
+                getListView().getSelectionModel().select(getIndex());
+                onMark.accept(student, status);
+            }
+        });
+        return button;
+    }
+
+    @Override
+    protected void updateItem(Student student, boolean empty) {
+        super.updateItem(student, empty);
+        setText(null);
+
+        if (empty || student == null) {
+            setGraphic(null);
+            return;
+        }
+
+        nameLabel.setText(student.getFullName());
+        indexLabel.setText("Nr indeksu: " + student.getIndexNumber());
+
+        Attendance attendance = schedule.getAttendanceForStudent(student);
+        Attendance.Status status = attendance != null ? attendance.getStatus() : null;
+        statusLabel.setText(status != null ? status.getDisplayName() : "Nie zaznaczono");
+
+        content.pseudoClassStateChanged(PRESENT, status == Attendance.Status.PRESENT);
+        content.pseudoClassStateChanged(LATE, status == Attendance.Status.LATE);
+        content.pseudoClassStateChanged(ABSENT, status == Attendance.Status.ABSENT);
+        setGraphic(content);
+    }
+}
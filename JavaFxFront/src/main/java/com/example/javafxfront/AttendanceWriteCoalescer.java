@@ -0,0 +1,379 @@
+package com.example.javafxfront;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Scalanie szybko następujących po sobie zmian obecności tego samego studenta
+ * na tym samym terminie.
+ *
+ * <p>Prowadzący często klika Obecny → Spóźniony → Nieobecny → Obecny w ciągu
+ * sekundy lub dwóch. Bez scalania każde kliknięcie wysyła osobne żądanie, a żądania
+ * mogą dotrzeć na serwer w innej kolejności niż kliknięcia. Koalescer dla każdej
+ * pary (numer indeksu, ID terminu):</p>
+ * <ul>
+ *   <li><strong>czeka krótkie okno</strong> od ostatniej zmiany i wysyła tylko stan końcowy</li>
+ *   <li><strong>anuluje zastąpione zmiany</strong> - ich future kończy się
+ *       {@link CancellationException} ({@link #isSuperseded(Throwable)})</li>
+ *   <li><strong>zachowuje kolejność</strong> - kolejny zapis tej pary jest wysyłany
+ *       dopiero po zakończeniu poprzedniego</li>
+ *   <li><strong>pomija zbędne zapisy</strong> - jeśli stan końcowy jest taki sam jak
+ *       ostatnio wysłany (np. Obecny → Spóźniony → Obecny), nic nie jest wysyłane</li>
+ * </ul>
+ *
+ * <p>Porównanie z ostatnio wysłanym stanem ma sens tylko przez chwilę - potem stan
+ * na serwerze mógł zmienić ktoś inny (inne okno, operacja zbiorcza, inny klient).
+ * Zapis jest więc pomijany tylko wtedy, gdy poprzedni jeszcze trwa albo zakończył się
+ * najwyżej okno przed rozpoczęciem bieżącej serii zmian. Stan pary jest usuwany po
+ * oknie bezczynności, więc mapa nie rośnie z liczbą oznaczonych studentów, a
+ * {@link #forget(String, Long)} unieważnia go od razu po zmianie wykonanej poza
+ * koalescerem.</p>
+ *
+ * <p>Konfiguracja (właściwości systemowe):</p>
+ * <ul>
+ *   <li>{@code dziennik.attendance.coalesceMillis} - długość okna
+ *       (domyślnie {@value #DEFAULT_WINDOW_MILLIS}, 0 wyłącza oczekiwanie)</li>
+ * </ul>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see AttendanceService#submitAttendanceAsync(Student, Long, Attendance.Status, String)
+ * @see AttendanceService#submitRemovalAsync(Student, Long)
+ */
+public final class AttendanceWriteCoalescer {
+
+    /**
+     * Domyślna długość okna scalania w milisekundach.
+     */
+    public static final long DEFAULT_WINDOW_MILLIS = 300;
+
+    private final Duration window;
+    private final Executor executor;
+    private final Function<Write, CompletableFuture<Boolean>> sender;
+    private final Map<String, Slot> slots = new HashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder superseded = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * Tworzy koalescer.
+     *
+     * @param window długość okna scalania
+     * @param executor executor, na którym wysyłane są zapisy po upływie okna
+     * @param sender funkcja wysyłająca stan końcowy na serwer
+     */
+    public AttendanceWriteCoalescer(Duration window, Executor executor,
+                                    Function<Write, CompletableFuture<Boolean>> sender) {
+        this.window = window;
+        this.executor = executor;
+        this.sender = sender;
+    }
+
+    /**
+     * Odczytuje długość okna z właściwości {@code dziennik.attendance.coalesceMillis}.
+     *
+     * @return długość okna scalania
+     */
+    public static Duration windowFromSystemProperties() {
+        return Duration.ofMillis(Math.max(0, Long.getLong("dziennik.attendance.coalesceMillis", DEFAULT_WINDOW_MILLIS)));
+    }
+
+    /**
+     * Zgłasza docelowy stan obecności. Poprzedni, jeszcze niewysłany stan tej samej
+     * pary jest anulowany.
+     *
+     * @param write docelowy stan
+     * @return future z wynikiem wysłania stanu końcowego; anulowany, jeśli stan
+     *         zostanie zastąpiony przed wysłaniem
+     */
+    public CompletableFuture<Boolean> submit(Write write) {
+        String key = write.key();
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        CompletableFuture<Boolean> replaced;
+        long version;
+        synchronized (this) {
+            Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+            if (slot.desired == null) {
+                slot.burstStartNanos = System.nanoTime();
+            }
+            replaced = slot.desiredFuture;
+            slot.desired = write;
+            slot.desiredFuture = future;
+            version = ++slot.version;
+        }
+        submitted.increment();
+        if (replaced != null) {
+            superseded.increment();
+            replaced.cancel(false);
+        }
+
+        afterWindow(() -> flush(key, version));
+        return future;
+    }
+
+    /**
+     * Zapomina ostatnio wysłany stan pary - kolejny zapis zostanie wysłany nawet,
+     * jeśli jest równy poprzedniemu. Wywoływane po zmianie obecności wykonanej poza
+     * koalescerem (np. operacja zbiorcza).
+     *
+     * @param indexNumber numer indeksu studenta
+     * @param scheduleId ID terminu
+     */
+    public synchronized void forget(String indexNumber, Long scheduleId) {
+        Slot slot = slots.get(key(indexNumber, scheduleId));
+        if (slot != null) {
+            slot.lastSent = null;
+        }
+    }
+
+    /**
+     * Sprawdza, czy para ma zmianę, która jeszcze nie dotarła na serwer - czekającą
+     * w oknie scalania albo właśnie wysyłaną. Stan z serwera jest wtedy starszy niż
+     * lokalny i nie powinien go nadpisywać.
+     *
+     * @param indexNumber numer indeksu studenta
+     * @param scheduleId ID terminu
+     * @return true jeśli zapis pary czeka lub trwa
+     */
+    public synchronized boolean hasPending(String indexNumber, Long scheduleId) {
+        Slot slot = slots.get(key(indexNumber, scheduleId));
+        return slot != null && (slot.desired != null || slot.inFlight > 0);
+    }
+
+    /**
+     * Sprawdza, czy błąd oznacza, że zmiana została zastąpiona nowszą.
+     *
+     * @param throwable błąd z future (może być opakowany)
+     * @return true jeśli w łańcuchu przyczyn jest {@link CancellationException}
+     */
+    public static boolean isSuperseded(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Zwraca liczbę zgłoszonych zmian.
+     *
+     * @return liczba zgłoszeń
+     */
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    /**
+     * Zwraca liczbę zapisów wysłanych na serwer.
+     *
+     * @return liczba wysłanych zapisów
+     */
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    /**
+     * Zwraca liczbę zmian zastąpionych przed wysłaniem.
+     *
+     * @return liczba zastąpionych zmian
+     */
+    public long getSupersededCount() {
+        return superseded.sum();
+    }
+
+    /**
+     * Zwraca liczbę stanów końcowych pominiętych, bo były równe ostatnio wysłanym.
+     *
+     * @return liczba pominiętych zapisów
+     */
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    /**
+     * Zwraca liczbę par (student, termin), dla których koalescer przechowuje stan.
+     *
+     * @return liczba par z oczekującym, trwającym lub niedawno wysłanym zapisem
+     */
+    public synchronized int getTrackedCount() {
+        return slots.size();
+    }
+
+    /**
+     * Zwraca czytelne podsumowanie liczników.
+     *
+     * @return podsumowanie w formacie "Scalanie obecności: zgłoszone X, wysłane Y, zastąpione Z, pominięte W"
+     */
+    @Override
+    public String toString() {
+        return String.format("Scalanie obecności: zgłoszone %d, wysłane %d, zastąpione %d, pominięte %d",
+                getSubmittedCount(), getSentCount(), getSupersededCount(), getSkippedCount());
+    }
+
+    private void flush(String key, long version) {
+        Write write;
+        CompletableFuture<Boolean> future;
+        Slot slot;
+        synchronized (this) {
+            slot = slots.get(key);
+            if (slot == null || slot.version != version || slot.desired == null) {
+                return; // zastąpione nowszą zmianą - wyśle ją jej własne okno
+            }
+            write = slot.desired;
+            future = slot.desiredFuture;
+            slot.desired = null;
+            slot.desiredFuture = null;
+
+            if (write.sameStateAs(slot.lastSent) && isRecent(slot)) {
+                skipped.increment();
+                future.complete(true);
+                afterWindow(() -> evictIfIdle(key, slot));
+                return;
+            }
+            slot.lastSent = write;
+            slot.inFlight++;
+            // Kolejny zapis tej pary startuje dopiero po zakończeniu poprzedniego
+            slot.tail = slot.tail
+                    .handle((ignored, error) -> null)
+                    .thenCompose(ignored -> {
+                        sent.increment();
+                        return sender.apply(write);
+                    })
+                    .whenComplete((result, error) -> {
+                        completed(key, slot, write, error == null && Boolean.TRUE.equals(result));
+                        if (error != null) {
+                            future.completeExceptionally(error);
+                        } else {
+                            future.complete(result);
+                        }
+                    })
+                    .thenApply(result -> null);
+        }
+    }
+
+    /**
+     * Ostatnio wysłany stan jest wiarygodny, jeśli zapis jeszcze trwa albo zakończył się
+     * najwyżej okno przed pierwszą zmianą bieżącej serii.
+     */
+    private boolean isRecent(Slot slot) {
+        return slot.inFlight > 0 || slot.burstStartNanos - slot.completedNanos <= window.toNanos();
+    }
+
+    private void completed(String key, Slot slot, Write write, boolean success) {
+        synchronized (this) {
+            slot.inFlight--;
+            slot.completedNanos = System.nanoTime();
+            // Po nieudanym zapisie stan serwera jest nieznany - kolejny stan zostanie wysłany
+            if (!success && slot.lastSent == write) {
+                slot.lastSent = null;
+            }
+        }
+        afterWindow(() -> evictIfIdle(key, slot));
+    }
+
+    /**
+     * Usuwa stan pary, jeśli po oknie nie czeka ani nie trwa żaden jej zapis.
+     */
+    private synchronized void evictIfIdle(String key, Slot slot) {
+        if (slots.get(key) == slot && slot.desired == null && slot.inFlight == 0) {
+            slots.remove(key);
+        }
+    }
+
+    private static String key(String indexNumber, Long scheduleId) {
+        return indexNumber + "|" + scheduleId;
+    }
+
+    private void afterWindow(Runnable task) {
+        Executor delayed = window.isZero()
+                ? executor
+                : CompletableFuture.delayedExecutor(window.toMillis(), TimeUnit.MILLISECONDS, executor);
+        delayed.execute(task);
+    }
+
+    /**
+     * Stan jednej pary (student, termin).
+     */
+    private static final class Slot {
+        Write desired;
+        CompletableFuture<Boolean> desiredFuture;
+        long version;
+        long burstStartNanos;
+        Write lastSent;
+        int inFlight;
+        long completedNanos;
+        CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Docelowy stan obecności studenta na terminie.
+     */
+    public static final class Write {
+        private final Student student;
+        private final Long scheduleId;
+        private final Attendance.Status status;
+        private final String notes;
+
+        /**
+         * Tworzy stan docelowy.
+         *
+         * @param student student
+         * @param scheduleId ID terminu na serwerze
+         * @param status status obecności lub null, jeśli oznaczenie ma zostać usunięte
+         * @param notes uwagi (dla usunięcia ignorowane)
+         */
+        public Write(Student student, Long scheduleId, Attendance.Status status, String notes) {
+            this.student = student;
+            this.scheduleId = scheduleId;
+            this.status = status;
+            this.notes = notes;
+        }
+
+        /** @return student */
+        public Student getStudent() {
+            return student;
+        }
+
+        /** @return ID terminu */
+        public Long getScheduleId() {
+            return scheduleId;
+        }
+
+        /** @return status lub null dla usunięcia oznaczenia */
+        public Attendance.Status getStatus() {
+            return status;
+        }
+
+        /** @return uwagi */
+        public String getNotes() {
+            return notes;
+        }
+
+        /** @return true jeśli stan oznacza usunięcie oznaczenia */
+        public boolean isRemoval() {
+            return status == null;
+        }
+
+        String key() {
+            return AttendanceWriteCoalescer.key(student.getIndexNumber(), scheduleId);
+        }
+
+        boolean sameStateAs(Write other) {
+            return other != null && status == other.status
+                    && (isRemoval() || Objects.equals(notes, other.notes));
+        }
+    }
+}
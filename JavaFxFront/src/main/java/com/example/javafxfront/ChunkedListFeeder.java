@@ -0,0 +1,162 @@
+package com.example.javafxfront;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Dopisuje porcje danych pobieranych w tle do {@link ObservableList} na wątku JavaFX.
+ *
+ * <p>Używany razem z metodami serwisów przyjmującymi odbiorcę porcji
+ * (np. {@link StudentService#getStudentsByGroupAsync(String, int, Consumer)}).
+ * Każda porcja trafia do listy w jednym wywołaniu {@link Platform#runLater(Runnable)}
+ * i jednym {@code addAll} - ListView odświeża się raz na porcję, a nie raz na element.</p>
+ *
+ * <p>Dotychczasowa zawartość listy jest czyszczona dopiero przy pierwszej porcji
+ * (lub przy zakończeniu, jeśli serwer zwrócił pustą listę), więc podczas oczekiwania
+ * na odpowiedź użytkownik nadal widzi poprzednie dane. Po {@link #cancel()} kolejne
+ * porcje są ignorowane - pozwala to bezpiecznie rozpocząć nowe ładowanie, zanim
+ * poprzednie się zakończy.</p>
+ *
+ * <p>Z {@link ListReconciler} odświeżenie niepustej listy nie czyści jej: porcje są
+ * zbierane, a przy {@link #complete()} lista jest uzgadniana z kompletną odpowiedzią -
+ * niezmienione wiersze, zaznaczenie i pozycja przewinięcia zostają. Pierwsze
+ * ładowanie (pusta lista) nadal pokazuje dane porcjami.</p>
+ *
+ * <p>Przykład użycia:</p>
+ * <pre>
+ * {@code
+ * ChunkedListFeeder<Student> feeder = new ChunkedListFeeder<>(students, chunk -> updateCounts());
+ * studentService.getStudentsByGroupAsync(groupName, JsonStreamReader.DEFAULT_CHUNK_SIZE, feeder)
+ *     .thenAccept(total -> feeder.complete());
+ * }
+ * </pre>
+ *
+ * @param <T> typ elementów listy
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see JsonStreamReader#readArrayInChunks(java.io.InputStream, Class, java.util.function.Function, int, Consumer)
+ */
+public final class ChunkedListFeeder<T> implements Consumer<List<T>> {
+
+    private final ObservableList<T> target;
+    private final Consumer<List<T>> onChunkAdded;
+    private final ListReconciler<T, ?> reconciler;
+
+    /** Czy lista docelowa została już wyczyszczona w tym ładowaniu (tylko wątek JavaFX). */
+    private boolean started;
+
+    /** Porcje zbierane do uzgodnienia przy {@link #complete()} (tylko wątek JavaFX). */
+    private List<T> buffered;
+
+    private volatile boolean cancelled;
+
+    /**
+     * Tworzy podajnik dla podanej listy.
+     *
+     * @param target lista docelowa (np. źródło ListView)
+     * @param onChunkAdded akcja wykonywana na wątku JavaFX po dopisaniu każdej porcji
+     *                     (np. aktualizacja liczników); może być null
+     */
+    public ChunkedListFeeder(ObservableList<T> target, Consumer<List<T>> onChunkAdded) {
+        this(target, null, onChunkAdded);
+    }
+
+    /**
+     * Tworzy podajnik uzgadniający niepustą listę zamiast ją czyścić.
+     *
+     * @param target lista docelowa (np. źródło ListView)
+     * @param reconciler reconciler używany, gdy lista ma już zawartość (może być null)
+     * @param onChunkAdded akcja wykonywana na wątku JavaFX po dopisaniu porcji; po uzgodnieniu
+     *                     wywoływana raz z całą zawartością listy (może być null)
+     */
+    public ChunkedListFeeder(ObservableList<T> target, ListReconciler<T, ?> reconciler,
+                             Consumer<List<T>> onChunkAdded) {
+        this.target = target;
+        this.reconciler = reconciler;
+        this.onChunkAdded = onChunkAdded;
+    }
+
+    /**
+     * Przyjmuje porcję z wątku w tle i zleca jej dopisanie na wątku JavaFX.
+     *
+     * @param chunk porcja elementów
+     */
+    @Override
+    public void accept(List<T> chunk) {
+        if (cancelled) {
+            return;
+        }
+        Platform.runLater(() -> {
+            if (cancelled) {
+                return;
+            }
+            startIfNeeded();
+            if (buffered != null) {
+                buffered.addAll(chunk);
+                return;
+            }
+            target.addAll(chunk);
+            if (onChunkAdded != null) {
+                onChunkAdded.accept(chunk);
+            }
+        });
+    }
+
+    /**
+     * Oznacza koniec ładowania. Jeśli nie nadeszła żadna porcja, czyści listę docelową;
+     * przy zebranych porcjach uzgadnia z nimi listę.
+     *
+     * <p>Można wywołać z dowolnego wątku; czyszczenie zostanie wykonane
+     * po wszystkich wcześniej zleconych porcjach.</p>
+     */
+    public void complete() {
+        Platform.runLater(() -> {
+            if (cancelled) {
+                return;
+            }
+            startIfNeeded();
+            if (buffered != null) {
+                ListReconciler.Result result = reconciler.reconcile(target, buffered);
+                buffered = null;
+                System.out.println("🔁 Uzgodniono listę: " + result);
+                if (onChunkAdded != null) {
+                    onChunkAdded.accept(new ArrayList<>(target));
+                }
+            }
+        });
+    }
+
+    /**
+     * Anuluje ładowanie - porcje, które jeszcze nie trafiły do listy, zostaną pominięte.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Sprawdza, czy ładowanie zostało anulowane.
+     *
+     * @return true jeśli wywołano {@link #cancel()}
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void startIfNeeded() {
+        if (!started) {
+            started = true;
+            if (reconciler != null && !target.isEmpty()) {
+                buffered = new ArrayList<>();
+            } else {
+                target.clear();
+            }
+        }
+    }
+}
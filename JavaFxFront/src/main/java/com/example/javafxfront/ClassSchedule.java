@@ -2,8 +2,10 @@ package com.example.javafxfront;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Klasa reprezentująca termin zajęć w systemie dziennika elektronicznego.
@@ -195,11 +197,25 @@ public class ClassSchedule {
     private LocalDateTime createdDate;
 
     /**
-     * Lista obecności studentów na tym terminie.
+     * Obecności studentów na tym terminie, kluczowane numerem indeksu.
      * <p>Każdy student może mieć maksymalnie jedną obecność na termin.
-     * Lista jest inicjalizowana jako pusta {@link ArrayList}.</p>
+     * {@link LinkedHashMap} zachowuje kolejność dodawania, a wyszukiwanie,
+     * dodawanie i usuwanie obecności studenta ma koszt O(1).</p>
      */
-    private List<Attendance> attendances; // DODANE - Lista uczestnictwa
+    private final Map<String, Attendance> attendances = new LinkedHashMap<>();
+
+    /**
+     * Niemodyfikowalna kopia wartości {@link #attendances} zwracana przez
+     * {@link #getAttendances()}; tworzona przy pierwszym odczycie po zmianie.
+     */
+    private List<Attendance> attendancesView;
+
+    /**
+     * Liczba obecności dla każdego statusu, indeksowana {@link Attendance.Status#ordinal()}.
+     * Aktualizowana przy dodaniu, usunięciu i zmianie statusu obecności, dzięki czemu
+     * statystyki ({@link #getPresentCount()}, {@link #getAttendanceSummary()}) mają koszt O(1).
+     */
+    private final int[] statusCounts = new int[Attendance.Status.values().length];
 
     /**
      * Konstruktor dla nowych terminów tworzonych lokalnie w aplikacji.
@@ -260,7 +276,6 @@ public class ClassSchedule {
         this.notes = notes;
         this.groupName = groupName;
         this.createdDate = LocalDateTime.now();
-        this.attendances = new ArrayList<>();
     }
 
     /**
@@ -327,7 +342,6 @@ public class ClassSchedule {
         this.notes = notes;
         this.groupName = groupName;
         this.createdDate = createdDate;
-        this.attendances = new ArrayList<>(); // DODANE
     }
 
     // === GETTERY - Metody dostępowe do pól klasy ===
@@ -400,19 +414,26 @@ public class ClassSchedule {
      * Zwraca listę obecności studentów na tym terminie.
      *
      * <p>Lista zawiera obiekty {@link Attendance} reprezentujące obecność
-     * poszczególnych studentów. Lista jest modyfikowalna i może być używana
-     * do bezpośrednich operacji, ale zaleca się korzystanie z dedykowanych
-     * metod zarządzania obecnością.</p>
+     * poszczególnych studentów w kolejności dodawania. Lista jest
+     * <strong>tylko do odczytu</strong> i odzwierciedla stan z chwili wywołania;
+     * zmiany wykonuje się metodami {@link #addAttendance(Attendance)},
+     * {@link #removeAttendance(Student)} i {@link #clearAttendances()}.</p>
      *
-     * <p><strong>Uwaga:</strong> Bezpośrednia modyfikacja tej listy może
-     * naruszyć integralność danych. Zaleca się używanie metod:
-     * {@link #addAttendance(Attendance)}, {@link #removeAttendance(Student)}</p>
+     * <p>Kolejne wywołania bez zmian pomiędzy nimi zwracają tę samą instancję,
+     * więc odczyt w pętli nie kopiuje danych.</p>
      *
-     * @return modyfikowalna lista obecności (nigdy null, może być pusta)
+     * @return niemodyfikowalna lista obecności (nigdy null, może być pusta)
      * @see #addAttendance(Attendance)
      * @see #removeAttendance(Student)
      */
-    public List<Attendance> getAttendances() { return attendances; } // DODANE
+    public List<Attendance> getAttendances() {
+        List<Attendance> view = attendancesView;
+        if (view == null) {
+            view = List.copyOf(attendances.values());
+            attendancesView = view;
+        }
+        return view;
+    }
 
     // === SETTERY - Metody modyfikujące pola klasy ===
 
@@ -492,13 +513,68 @@ public class ClassSchedule {
      * <p><strong>Uwaga:</strong> Ta metoda zastępuje całą listę obecności.
      * Używaj ostrożnie, ponieważ może spowodować utratę danych o frekwencji.
      * W większości przypadków zaleca się używanie {@link #addAttendance(Attendance)}
-     * i {@link #removeAttendance(Student)}.</p>
+     * i {@link #removeAttendance(Student)}. Jeśli lista zawiera kilka obecności
+     * tego samego studenta, zostaje ostatnia.</p>
+     *
+     * <p>Termin przechowuje <strong>kopie</strong> podanych obecności - liczniki statusów
+     * śledzą zmiany tylko obecności należących do jednego terminu, a lista może pochodzić
+     * z innego terminu lub z serwera. Zmiana statusu obiektu z listy nie wpływa więc
+     * na ten termin; bieżące obecności zwraca {@link #getAttendances()}.</p>
      *
      * @param attendances nowa lista obecności (nie może być null)
      * @see #addAttendance(Attendance)
      * @see #removeAttendance(Student)
      */
-    public void setAttendances(List<Attendance> attendances) { this.attendances = attendances; }
+    public void setAttendances(List<Attendance> attendances) {
+        List<Attendance> copies = attendances.stream().map(this::copyOf).toList();
+        clearAttendances();
+        for (Attendance attendance : copies) {
+            addAttendance(attendance);
+        }
+        attendancesView = null;
+    }
+
+    /**
+     * Usuwa wszystkie obecności z tego terminu (tylko lokalnie).
+     *
+     * <p>Dla terminów z serwera oznaczenia należy usunąć także na serwerze,
+     * np. przez {@link AttendanceService#applyBatchAsync(List)}.</p>
+     */
+    public void clearAttendances() {
+        for (Attendance attendance : attendances.values()) {
+            release(attendance);
+        }
+        attendances.clear();
+        Arrays.fill(statusCounts, 0);
+        attendancesView = null;
+    }
+
+    /**
+     * Tworzy niezależną kopię terminu wraz z kopiami obecności.
+     *
+     * <p>Zmiany obecności kopii (także zmiany statusu) nie wpływają na oryginał -
+     * używane, gdy termin współdzielony (np. z {@link EntityCache}) ma zostać
+     * zmieniony przez jeden widok lub wątek.</p>
+     *
+     * @return kopia terminu z tym samym ID, danymi i frekwencją
+     */
+    public ClassSchedule copy() {
+        ClassSchedule copy = new ClassSchedule(id, subject, classroom, startTime, endTime, instructor, notes,
+                groupName, createdDate);
+        for (Attendance attendance : attendances.values()) {
+            copy.addAttendance(copy.copyOf(attendance));
+        }
+        return copy;
+    }
+
+    /**
+     * Kopia obecności przypisana do tego terminu, z zachowanym czasem oznaczenia.
+     */
+    private Attendance copyOf(Attendance attendance) {
+        Attendance copy = new Attendance(attendance.getStudent(), this, attendance.getStatus(), attendance.getNotes());
+        copy.setMarkedAt(attendance.getMarkedAt());
+        return copy;
+    }
 
     // === METODY FORMATOWANIA - Czytelna prezentacja dat i czasów ===
 
@@ -639,15 +715,34 @@ public class ClassSchedule {
      * <p>Dla terminów z serwera ({@link #isFromServer()} == true) dodatkowo
      * należy wysłać obecność na serwer przez {@link AttendanceService}.</p>
      *
+     * <p>Obecność może należeć tylko do jednego terminu - to on aktualizuje liczniki
+     * po {@link Attendance#setStatus(Attendance.Status)}. Obecność przechowywana już
+     * w innym terminie jest odrzucana; aby przenieść frekwencję, użyj
+     * {@link #setAttendances(List)}, który zapisuje kopie.</p>
+     *
      * @param attendance obecność do dodania/aktualizacji (nie może być null)
      * @throws IllegalArgumentException jeśli attendance jest null
+     * @throws IllegalArgumentException jeśli obecność jest przechowywana w innym terminie
      * @see #removeAttendance(Student)
      * @see #getAttendanceForStudent(Student)
      * @see #hasAttendanceForStudent(Student)
      */
     public void addAttendance(Attendance attendance) {
-        attendances.removeIf(a -> a.getStudent().getIndexNumber().equals(attendance.getStudent().getIndexNumber()));
-        attendances.add(attendance);
+        ClassSchedule owner = attendance.getOwner();
+        if (owner != null && owner != this) {
+            throw new IllegalArgumentException("Obecność studenta " + attendance.getStudent().getIndexNumber()
+                    + " należy już do innego terminu");
+        }
+        String indexNumber = attendance.getStudent().getIndexNumber();
+        Attendance previous = attendances.remove(indexNumber); // aktualizacja przenosi wpis na koniec, jak dotychczas
+        if (previous != null) {
+            release(previous);
+            count(previous.getStatus(), -1);
+        }
+        attendances.put(indexNumber, attendance);
+        attendance.setOwner(this);
+        count(attendance.getStatus(), 1);
+        attendancesView = null;
     }
 
     /**
@@ -682,7 +777,45 @@ public class ClassSchedule {
      * @see #getAttendanceForStudent(Student)
      */
     public void removeAttendance(Student student) {
-        attendances.removeIf(a -> a.getStudent().getIndexNumber().equals(student.getIndexNumber()));
+        Attendance removed = attendances.remove(student.getIndexNumber());
+        if (removed != null) {
+            release(removed);
+            count(removed.getStatus(), -1);
+            attendancesView = null;
+        }
+    }
+
+    /**
+     * Aktualizuje liczniki po zmianie statusu przez {@link Attendance#setStatus(Attendance.Status)}.
+     */
+    void onAttendanceStatusChanged(Attendance attendance, Attendance.Status previous, Attendance.Status current) {
+        if (attendances.get(attendance.getStudent().getIndexNumber()) != attendance) {
+            return; // obecność nie jest już przechowywana w tym terminie
+        }
+        count(previous, -1);
+        count(current, 1);
+    }
+
+    private void count(Attendance.Status status, int delta) {
+        if (status != null) {
+            statusCounts[status.ordinal()] += delta;
+        }
+    }
+
+    private void release(Attendance attendance) {
+        if (attendance.getOwner() == this) {
+            attendance.setOwner(null);
+        }
+    }
+
+    /**
+     * Zwraca liczbę obecności o podanym statusie w czasie O(1).
+     *
+     * @param status status obecności
+     * @return liczba obecności z tym statusem (0 lub więcej)
+     */
+    public int getCountForStatus(Attendance.Status status) {
+        return statusCounts[status.ordinal()];
     }
 
     /**
@@ -714,10 +847,7 @@ public class ClassSchedule {
      * @see #addAttendance(Attendance)
      */
     public Attendance getAttendanceForStudent(Student student) {
-        return attendances.stream()
-                .filter(a -> a.getStudent().getIndexNumber().equals(student.getIndexNumber()))
-                .findFirst()
-                .orElse(null);
+        return attendances.get(student.getIndexNumber());
     }
 
     /**
@@ -753,7 +883,8 @@ public class ClassSchedule {
     /**
      * Zwraca liczbę studentów oznaczonych jako obecni.
      *
-     * <p>Liczy wszystkie obecności ze statusem {@link Attendance.Status#PRESENT}.</p>
+     * <p>Zwraca licznik obecności ze statusem {@link Attendance.Status#PRESENT}
+     * aktualizowany przy każdej zmianie frekwencji (O(1), bez przeglądania listy).</p>
      *
      * @return liczba obecnych studentów (0 lub więcej)
      * @see Attendance.Status#PRESENT
@@ -761,13 +892,14 @@ public class ClassSchedule {
      * @see #getAbsentCount()
      */
     public int getPresentCount() {
-        return (int) attendances.stream().filter(a -> a.getStatus() == Attendance.Status.PRESENT).count();
+        return statusCounts[Attendance.Status.PRESENT.ordinal()];
     }
 
     /**
      * Zwraca liczbę studentów oznaczonych jako spóźnieni.
      *
-     * <p>Liczy wszystkie obecności ze statusem {@link Attendance.Status#LATE}.</p>
+     * <p>Zwraca licznik obecności ze statusem {@link Attendance.Status#LATE}
+     * aktualizowany przy każdej zmianie frekwencji (O(1), bez przeglądania listy).</p>
      *
      * @return liczba spóźnionych studentów (0 lub więcej)
      * @see Attendance.Status#LATE
@@ -775,13 +907,14 @@ public class ClassSchedule {
      * @see #getAbsentCount()
      */
     public int getLateCount() {
-        return (int) attendances.stream().filter(a -> a.getStatus() == Attendance.Status.LATE).count();
+        return statusCounts[Attendance.Status.LATE.ordinal()];
     }
 
     /**
      * Zwraca liczbę studentów oznaczonych jako nieobecni.
      *
-     * <p>Liczy wszystkie obecności ze statusem {@link Attendance.Status#ABSENT}.</p>
+     * <p>Zwraca licznik obecności ze statusem {@link Attendance.Status#ABSENT}
+     * aktualizowany przy każdej zmianie frekwencji (O(1), bez przeglądania listy).</p>
      *
      * @return liczba nieobecnych studentów (0 lub więcej)
      * @see Attendance.Status#ABSENT
@@ -789,7 +922,7 @@ public class ClassSchedule {
      * @see #getLateCount()
      */
     public int getAbsentCount() {
-        return (int) attendances.stream().filter(a -> a.getStatus() == Attendance.Status.ABSENT).count();
+        return statusCounts[Attendance.Status.ABSENT.ordinal()];
     }
 
     /**
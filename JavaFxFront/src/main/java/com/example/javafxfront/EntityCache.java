@@ -0,0 +1,430 @@
+package com.example.javafxfront;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Pamięć podręczna wyników odczytów z serwera (listy studentów, grup i terminów).
+ *
+ * <p>Wpisy są identyfikowane kluczami logicznymi, np. {@code "students:all"}
+ * lub {@code "schedules:group:INF-A"} (stałe i metody w {@link Keys}).
+ * Pamięć podręczna ma trzy mechanizmy utrzymania aktualności:</p>
+ * <ul>
+ *   <li><strong>TTL</strong> - wpis starszy niż czas życia jest traktowany jak brak wpisu</li>
+ *   <li><strong>LRU</strong> - po przekroczeniu limitu wpisów usuwany jest najdawniej używany</li>
+ *   <li><strong>Unieważnianie</strong> - serwisy po udanej operacji zapisu usuwają
+ *       dokładnie te klucze, na które operacja mogła wpłynąć</li>
+ * </ul>
+ *
+ * <p>Przeterminowany wpis nie jest zwracany przez {@link #getOrLoad(String, Supplier)},
+ * ale pozostaje dostępny przez {@link #peek(String)} z flagą {@code fresh = false} -
+ * widok może go pokazać natychmiast, a w tle pobrać aktualne dane.</p>
+ *
+ * <p>Każde unieważnienie zwiększa numer generacji. Odczyt z serwera, który rozpoczął się
+ * przed unieważnieniem, a zakończył po nim, nie jest zapisywany - dzięki temu
+ * wolna odpowiedź sprzed zapisu nie nadpisze świeżych danych.</p>
+ *
+ * <p>Przechowywane wartości są zwracane wszystkim wywołującym (wszystkim oknom i wątkom)
+ * bez kopiowania, dlatego ani listy, ani obiekty w nich nie mogą być zmieniane.
+ * {@link Student} i {@link Group} nie są zmieniane przez widoki, więc są współdzielone
+ * wprost. {@link ClassSchedule} przechowuje zmienną frekwencję - widok wstawia do swoich
+ * list kopie ({@link ClassSchedule#copy()}), a zmieniony stan wraca do pamięci podręcznej
+ * jako nowa wartość przez {@link #update(String, UnaryOperator)}.</p>
+ *
+ * <p>Konfiguracja współdzielonej instancji (właściwości systemowe):</p>
+ * <ul>
+ *   <li>{@code dziennik.cache.ttlSeconds} - czas życia wpisu (domyślnie {@value #DEFAULT_TTL_SECONDS})</li>
+ *   <li>{@code dziennik.cache.maxEntries} - maksymalna liczba wpisów (domyślnie {@value #DEFAULT_MAX_ENTRIES})</li>
+ * </ul>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see HttpTransport#fetchCached(String, String, Supplier)
+ */
+public final class EntityCache {
+
+    /**
+     * Domyślny czas życia wpisu w sekundach.
+     */
+    public static final long DEFAULT_TTL_SECONDS = 60;
+
+    /**
+     * Domyślna maksymalna liczba wpisów.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    /**
+     * Klucze logiczne używane przez serwisy.
+     */
+    public static final class Keys {
+        /** Prefiks wszystkich kluczy list studentów. */
+        public static final String STUDENTS = "students:";
+        /** Wszyscy studenci. */
+        public static final String STUDENTS_ALL = "students:all";
+        /** Studenci bez grupy. */
+        public static final String STUDENTS_WITHOUT_GROUP = "students:without-group";
+        /** Prefiks wszystkich kluczy list terminów. */
+        public static final String SCHEDULES = "schedules:";
+        /** Wszystkie terminy. */
+        public static final String SCHEDULES_ALL = "schedules:all";
+        /** Wszystkie grupy. */
+        public static final String GROUPS_ALL = "groups:all";
+
+        private Keys() {
+        }
+
+        /**
+         * Klucz listy studentów grupy.
+         *
+         * @param groupName nazwa grupy
+         * @return klucz
+         */
+        public static String studentsOfGroup(String groupName) {
+            return "students:group:" + groupName;
+        }
+
+        /**
+         * Klucz listy terminów grupy.
+         *
+         * @param groupName nazwa grupy
+         * @return klucz
+         */
+        public static String schedulesOfGroup(String groupName) {
+            return "schedules:group:" + groupName;
+        }
+    }
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<String, Entry> entries;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Tworzy pamięć podręczną z podanym czasem życia i limitem wpisów.
+     *
+     * @param ttl czas życia wpisu
+     * @param maxEntries maksymalna liczba wpisów (co najmniej 1)
+     */
+    public EntityCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    /**
+     * Konstruktor z wstrzykiwanym zegarem - dla testów TTL.
+     */
+    EntityCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Limit wpisów musi być dodatni: " + maxEntries);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+        // accessOrder = true - kolejność iteracji od najdawniej używanego (LRU)
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > EntityCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Tworzy pamięć podręczną skonfigurowaną właściwościami systemowymi.
+     *
+     * @return nowa pamięć podręczna
+     */
+    public static EntityCache fromSystemProperties() {
+        return new EntityCache(
+                Duration.ofSeconds(Long.getLong("dziennik.cache.ttlSeconds", DEFAULT_TTL_SECONDS)),
+                Integer.getInteger("dziennik.cache.maxEntries", DEFAULT_MAX_ENTRIES));
+    }
+
+    /**
+     * Zwraca świeżą wartość z pamięci podręcznej albo ładuje ją i zapisuje.
+     *
+     * @param <T> typ wartości (niemodyfikowalny)
+     * @param key klucz logiczny
+     * @param loader funkcja pobierająca wartość z serwera - wywoływana tylko przy braku świeżego wpisu
+     * @return future z wartością (zakończony natychmiast przy trafieniu)
+     */
+    public <T> CompletableFuture<T> getOrLoad(String key, Supplier<CompletableFuture<T>> loader) {
+        T cached = getIfFresh(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long loadGeneration = currentGeneration();
+        return loader.get().thenApply(value -> {
+            put(key, value, loadGeneration);
+            return value;
+        });
+    }
+
+    /**
+     * Zwraca świeżą wartość dla klucza lub null. Aktualizuje liczniki trafień i chybień.
+     * Przeterminowany wpis pozostaje dostępny przez {@link #peek(String)}.
+     *
+     * @param <T> typ wartości
+     * @param key klucz logiczny
+     * @return wartość lub null, jeśli brak wpisu albo wpis jest przeterminowany
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T getIfFresh(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && nanoClock.getAsLong() - entry.storedAtNanos <= ttlNanos) {
+            hits.increment();
+            return (T) entry.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Zwraca wpis dla klucza niezależnie od jego wieku, wraz z flagą świeżości.
+     *
+     * <p>Przeterminowane wpisy nie są usuwane od razu (tylko przez limit LRU lub
+     * unieważnienie), aby widoki mogły natychmiast pokazać ostatnio znane dane
+     * i odświeżyć je w tle ("stale-while-revalidate"). Nie zmienia liczników
+     * trafień i chybień.</p>
+     *
+     * @param <T> typ wartości
+     * @param key klucz logiczny
+     * @return wpis z flagą świeżości lub null, jeśli brak wpisu
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> CachedValue<T> peek(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        boolean fresh = nanoClock.getAsLong() - entry.storedAtNanos <= ttlNanos;
+        return new CachedValue<>((T) entry.value, fresh);
+    }
+
+    /**
+     * Zwraca bieżący numer generacji - przekazywany do {@link #put(String, Object, long)}
+     * po zakończeniu ładowania.
+     *
+     * @return numer generacji
+     */
+    public synchronized long currentGeneration() {
+        return generation;
+    }
+
+    /**
+     * Zapisuje wartość, o ile od rozpoczęcia ładowania nie było unieważnienia.
+     *
+     * @param key klucz logiczny
+     * @param value wartość (niemodyfikowalna, nie null)
+     * @param loadGeneration numer generacji odczytany przed rozpoczęciem ładowania
+     * @return true jeśli wartość została zapisana
+     */
+    public synchronized boolean put(String key, Object value, long loadGeneration) {
+        if (value == null || loadGeneration != generation) {
+            return false;
+        }
+        entries.put(key, new Entry(value, nanoClock.getAsLong()));
+        return true;
+    }
+
+    /**
+     * Zastępuje wartość istniejącego wpisu wynikiem funkcji, nie zmieniając jego wieku
+     * ani numeru generacji. Brak wpisu oznacza, że nie ma czego aktualizować.
+     *
+     * <p>Funkcja otrzymuje dotychczasową wartość i musi zwrócić nową - zapisanej wartości
+     * mogą w tej chwili używać inni wywołujący.</p>
+     *
+     * @param <T> typ wartości
+     * @param key klucz logiczny
+     * @param updater funkcja tworząca nową wartość (nie null) z dotychczasowej
+     * @return true jeśli wpis istniał i został zaktualizowany
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> boolean update(String key, UnaryOperator<T> updater) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        entries.put(key, new Entry(updater.apply((T) entry.value), entry.storedAtNanos));
+        return true;
+    }
+
+    /**
+     * Odtwarza wpis z migawki jako przeterminowany - widok pokaże go natychmiast,
+     * a pierwszy odczyt pobierze aktualne dane z serwera. Istniejący wpis nie jest
+     * nadpisywany.
+     *
+     * @param key klucz logiczny
+     * @param value wartość (niemodyfikowalna, nie null)
+     * @return true jeśli wpis został odtworzony
+     * @see SnapshotStore#load(EntityCache)
+     */
+    public synchronized boolean restoreStale(String key, Object value) {
+        if (value == null || entries.containsKey(key)) {
+            return false;
+        }
+        entries.put(key, new Entry(value, nanoClock.getAsLong() - ttlNanos - 1));
+        return true;
+    }
+
+    /**
+     * Zwraca kopię wszystkich wpisów (także przeterminowanych) w kolejności
+     * od najdawniej używanego. Nie zmienia kolejności LRU ani liczników.
+     *
+     * @return kopia mapy klucz - wartość
+     * @see SnapshotStore#save(EntityCache)
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().value);
+        }
+        return copy;
+    }
+
+    /**
+     * Unieważnia podane klucze.
+     *
+     * @param keys klucze logiczne
+     */
+    public synchronized void invalidate(String... keys) {
+        generation++;
+        for (String key : keys) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Unieważnia wszystkie klucze zaczynające się od podanego prefiksu.
+     *
+     * @param prefix prefiks klucza, np. {@link Keys#STUDENTS}
+     */
+    public synchronized void invalidatePrefix(String prefix) {
+        generation++;
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Unieważnia wszystkie wpisy.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Zwraca liczbę wpisów (także przeterminowanych).
+     *
+     * @return liczba wpisów
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Zwraca klucze w kolejności od najdawniej używanego.
+     *
+     * @return kopia listy kluczy
+     */
+    public synchronized List<String> keys() {
+        return List.copyOf(entries.keySet());
+    }
+
+    /**
+     * Zwraca liczbę trafień.
+     *
+     * @return liczba trafień
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Zwraca liczbę chybień.
+     *
+     * @return liczba chybień
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Zwraca liczbę wpisów usuniętych przez limit LRU.
+     *
+     * @return liczba usunięć
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Zwraca czytelne podsumowanie liczników.
+     *
+     * @return podsumowanie w formacie "Pamięć podręczna: wpisy X/Y, trafienia A, chybienia B, usunięte LRU C"
+     */
+    @Override
+    public String toString() {
+        return String.format("Pamięć podręczna: wpisy %d/%d, trafienia %d, chybienia %d, usunięte LRU %d",
+                size(), maxEntries, getHits(), getMisses(), getEvictions());
+    }
+
+    /**
+     * Wartość odczytana przez {@link #peek(String)} wraz z informacją o świeżości.
+     *
+     * @param <T> typ wartości
+     */
+    public static final class CachedValue<T> {
+        private final T value;
+        private final boolean fresh;
+
+        CachedValue(T value, boolean fresh) {
+            this.value = value;
+            this.fresh = fresh;
+        }
+
+        /**
+         * Zwraca zapamiętaną wartość.
+         *
+         * @return wartość
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Sprawdza, czy wpis mieści się w czasie życia.
+         *
+         * @return true jeśli wpis jest świeży; false jeśli wymaga odświeżenia
+         */
+        public boolean isFresh() {
+            return fresh;
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long storedAtNanos;
+
+        Entry(Object value, long storedAtNanos) {
+            this.value = value;
+            this.storedAtNanos = storedAtNanos;
+        }
+    }
+}
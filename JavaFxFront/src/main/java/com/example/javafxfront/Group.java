@@ -162,6 +162,17 @@ public class Group {
      */
     public void setSpecialization(String specialization) { this.specialization = specialization; }
 
+    /**
+     * Ustawia datę utworzenia grupy.
+     *
+     * <p>Używane przy odtwarzaniu grupy z lokalnej migawki ({@link SnapshotStore}),
+     * aby zachować pierwotną datę zamiast chwili odtworzenia.</p>
+     *
+     * @param createdDate data utworzenia
+     * @see #getCreatedDate()
+     */
+    public void setCreatedDate(LocalDateTime createdDate) { this.createdDate = createdDate; }
+
     /**
      * Zwraca sformatowaną datę utworzenia grupy.
      *
@@ -0,0 +1,415 @@
+package com.example.javafxfront;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Klient pobierający pełny stan grupy jednym żądaniem.
+ *
+ * <p>Otwarcie okna grupy wymagało dotąd {@code 2 + N} żądań: studenci, terminy
+ * i osobno obecności każdego terminu, a każda odpowiedź obecności powtarzała
+ * zagnieżdżone obiekty studenta, terminu i grupy. Endpoint
+ * {@code GET /api/groups/{nazwa}/bundle} zwraca wszystko naraz, a frekwencję
+ * jako zwartą macierz kluczowaną numerem indeksu i ID terminu:</p>
+ *
+ * <pre>
+ * {@code
+ * {
+ *   "students":  [{"firstName": "Jan", "lastName": "Kowalski", "indexNumber": "123456"}],
+ *   "schedules": [{"id": 42, "subject": "Programowanie", "startTime": "2024-03-15T10:00:00", ...}],
+ *   "attendance": {
+ *     "123456": {"42": "P", "43": ["L", "Spóźnienie 10 min", "2024-03-22T10:10:00"]}
+ *   }
+ * }
+ * }
+ * </pre>
+ *
+ * <p>Komórka macierzy to kod statusu ({@code P}/{@code L}/{@code A} lub pełna nazwa
+ * {@link Attendance.Status}) albo tablica {@code [status, uwagi, markedAt]}. Macierz jest
+ * czytana strumieniowo i dekodowana od razu do {@link ClassSchedule#addAttendance(Attendance)}
+ * z użyciem tych samych obiektów {@link Student}, które trafiają do listy studentów.</p>
+ *
+ * <p>Jeśli serwer nie zna endpointu (404/405/501), klient pobiera dane dotychczasową
+ * drogą (studenci, terminy, obecności per termin), a transport zapamiętuje brak endpointu
+ * ({@link HttpTransport#markUnsupported(String)}) - kolejne wywołania, także z innych okien,
+ * od razu korzystają z drogi zapasowej. Obecności są wtedy dołączane do kopii terminów,
+ * a nie do współdzielonych instancji z pamięci podręcznej.</p>
+ *
+ * <p>Pobrane listy trafiają do {@link EntityCache} pod tymi samymi kluczami co
+ * w {@link StudentService} i {@link ScheduleService}; terminy zwrócone w {@link Bundle}
+ * należą do wywołującego, a pamięć podręczna przechowuje ich kopie.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see GroupDetailController
+ */
+public class GroupBundleClient {
+
+    private static final String BUNDLE_FEATURE = "GET /groups/{nazwa}/bundle";
+
+    private final HttpTransport transport;
+    private final ObjectMapper objectMapper;
+    private final StudentService studentService;
+    private final ScheduleService scheduleService;
+    private final AttendanceService attendanceService;
+    private final String groupsEndpoint;
+
+    public GroupBundleClient() {
+        this(HttpTransport.getShared());
+    }
+
+    /**
+     * Tworzy klienta korzystającego z podanej warstwy transportowej
+     * @param transport Wspólny transport HTTP (klient, mapper JSON, pamięć podręczna)
+     */
+    public GroupBundleClient(HttpTransport transport) {
+        this.transport = transport;
+        this.objectMapper = transport.getObjectMapper();
+        this.studentService = new StudentService(transport);
+        this.scheduleService = new ScheduleService(transport);
+        this.attendanceService = new AttendanceService(transport);
+        this.groupsEndpoint = transport.getBaseUrl() + "/groups";
+    }
+
+    /**
+     * Sprawdza, czy warto próbować endpointu zbiorczego.
+     * @return false, jeśli serwer odpowiedział już, że go nie obsługuje
+     */
+    public boolean isBundleAvailable() {
+        return !transport.isUnsupported(BUNDLE_FEATURE);
+    }
+
+    /**
+     * Pobiera studentów, terminy i frekwencję grupy jednym żądaniem
+     * (lub dotychczasowymi endpointami, jeśli serwer nie obsługuje pakietu)
+     * @param groupName Nazwa grupy
+     * @return CompletableFuture z pełnym stanem grupy
+     */
+    public CompletableFuture<Bundle> fetchGroupBundleAsync(String groupName) {
+        if (transport.isUnsupported(BUNDLE_FEATURE)) {
+            return fetchPerEndpoint(groupName);
+        }
+
+        long loadGeneration = transport.getCache().currentGeneration();
+        String url = groupsEndpoint + "/" + URLEncoder.encode(groupName, StandardCharsets.UTF_8) + "/bundle";
+
+        return transport.coalesce("GET " + url, () ->
+                transport.sendStreaming(HttpTransport.Endpoint.GROUPS, () -> {
+                    System.out.println("📦 Pobieram pakiet grupy: " + url); // DEBUG
+                    return transport.newRequest(HttpTransport.Endpoint.GROUPS, url).GET().build();
+                }, response -> {
+                    int status = response.statusCode();
+                    if (status == 404 || status == 405 || status == 501) {
+                        return null; // serwer bez endpointu zbiorczego
+                    }
+                    if (status != 200) {
+                        throw new RuntimeException("Serwer odpowiedział statusem: " + status);
+                    }
+                    return parseBundle(groupName, response.body());
+                }, "Nie udało się pobrać danych grupy z serwera"))
+                .thenCompose(bundle -> {
+                    if (bundle == null) {
+                        System.out.println("ℹSerwer nie obsługuje /groups/{nazwa}/bundle - pobieram osobno");
+                        transport.markUnsupported(BUNDLE_FEATURE);
+                        return fetchPerEndpoint(groupName);
+                    }
+                    EntityCache cache = transport.getCache();
+                    cache.put(EntityCache.Keys.studentsOfGroup(groupName), bundle.getStudents(), loadGeneration);
+                    cache.put(EntityCache.Keys.schedulesOfGroup(groupName), bundle.getSchedules(), loadGeneration);
+                    // Pakiet jest współdzielony przez złączone żądania - każdy wywołujący dostaje własne terminy
+                    return CompletableFuture.completedFuture(new Bundle(bundle.getStudents(),
+                            bundle.getSchedules().stream().map(ClassSchedule::copy).toList(),
+                            bundle.getAttendanceCount(), true));
+                });
+    }
+
+    /**
+     * Dotychczasowa droga: studenci i terminy równolegle, potem obecności każdego terminu.
+     * Terminy mogą pochodzić z pamięci podręcznej, więc obecności są dołączane do ich kopii.
+     */
+    private CompletableFuture<Bundle> fetchPerEndpoint(String groupName) {
+        CompletableFuture<List<Student>> studentsFuture = studentService.getStudentsByGroupAsync(groupName);
+        CompletableFuture<List<ClassSchedule>> schedulesFuture = scheduleService.getSchedulesByGroupAsync(groupName)
+                .thenApply(cached -> cached.stream().map(ClassSchedule::copy).toList());
+
+        return studentsFuture.thenCombine(schedulesFuture, (students, schedules) -> {
+            Map<String, Student> byIndex = indexStudents(students);
+            List<CompletableFuture<Integer>> attendanceFutures = new ArrayList<>();
+            for (ClassSchedule schedule : schedules) {
+                if (schedule.getId() == null) {
+                    continue;
+                }
+                attendanceFutures.add(attendanceService.getAttendancesByScheduleAsync(schedule.getId())
+                        .thenApply(serverAttendances -> {
+                            int attached = attachAttendances(schedule, serverAttendances, byIndex);
+                            scheduleService.rememberAttendances(groupName, schedule);
+                            return attached;
+                        }));
+            }
+            return CompletableFuture.allOf(attendanceFutures.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(ignored -> new Bundle(students, schedules,
+                            attendanceFutures.stream().mapToInt(CompletableFuture::join).sum(), false));
+        }).thenCompose(future -> future);
+    }
+
+    private static int attachAttendances(ClassSchedule schedule, List<Attendance> serverAttendances,
+                                         Map<String, Student> byIndex) {
+        schedule.clearAttendances();
+        int attached = 0;
+        for (Attendance serverAttendance : serverAttendances) {
+            Student localStudent = byIndex.get(serverAttendance.getStudent().getIndexNumber());
+            if (localStudent == null) {
+                continue;
+            }
+            Attendance attendance = new Attendance(localStudent, schedule,
+                    serverAttendance.getStatus(), serverAttendance.getNotes());
+            attendance.setMarkedAt(serverAttendance.getMarkedAt());
+            schedule.addAttendance(attendance);
+            attached++;
+        }
+        return attached;
+    }
+
+    // === PARSOWANIE PAKIETU ===
+
+    private Bundle parseBundle(String groupName, InputStream body) throws IOException {
+        List<Student> students = new ArrayList<>();
+        List<ClassSchedule> schedules = new ArrayList<>();
+        JsonNode deferredAttendance = null;
+        int attendanceCount = 0;
+        boolean studentsRead = false;
+        boolean schedulesRead = false;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Oczekiwano obiektu JSON pakietu grupy");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "students" -> {
+                        readArray(parser, value, BundleStudent.class, dto -> students.add(dto.toStudent(groupName)));
+                        studentsRead = true;
+                    }
+                    case "schedules" -> {
+                        readArray(parser, value, BundleSchedule.class, dto -> schedules.add(dto.toSchedule(groupName)));
+                        schedulesRead = true;
+                    }
+                    case "attendance" -> {
+                        if (!studentsRead || !schedulesRead) {
+                            // Macierz przed listami - dekodujemy po ich odczytaniu
+                            deferredAttendance = objectMapper.readTree(parser);
+                        } else {
+                            attendanceCount = readAttendanceMatrix(parser, students, schedules);
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        if (deferredAttendance != null) {
+            try (JsonParser parser = deferredAttendance.traverse(objectMapper)) {
+                parser.nextToken();
+                attendanceCount = readAttendanceMatrix(parser, students, schedules);
+            }
+        }
+
+        System.out.println("📦 Pakiet grupy '" + groupName + "': " + students.size() + " studentów, "
+                + schedules.size() + " terminów, " + attendanceCount + " obecności"); // DEBUG
+        return new Bundle(List.copyOf(students), List.copyOf(schedules), attendanceCount, true);
+    }
+
+    private <D> void readArray(JsonParser parser, JsonToken start, Class<D> type,
+                               Consumer<D> action) throws IOException {
+        if (start == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (start != JsonToken.START_ARRAY) {
+            throw new IOException("Oczekiwano tablicy JSON, otrzymano: " + start);
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            action.accept(objectMapper.readValue(parser, type));
+        }
+    }
+
+    /**
+     * Czyta macierz {@code {indeks: {idTerminu: komórka}}}; parser stoi na jej {@code START_OBJECT}.
+     */
+    private static int readAttendanceMatrix(JsonParser parser, List<Student> students,
+                                            List<ClassSchedule> schedules) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Oczekiwano macierzy obecności, otrzymano: " + parser.currentToken());
+        }
+
+        Map<String, Student> byIndex = indexStudents(students);
+        Map<Long, ClassSchedule> byId = new HashMap<>();
+        for (ClassSchedule schedule : schedules) {
+            if (schedule.getId() != null) {
+                byId.put(schedule.getId(), schedule);
+            }
+        }
+
+        int count = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Student student = byIndex.get(parser.currentName());
+            if (parser.nextToken() != JsonToken.START_OBJECT || student == null) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                ClassSchedule schedule = byId.get(parseScheduleId(parser.currentName()));
+                JsonToken cell = parser.nextToken();
+                if (schedule == null || cell == JsonToken.VALUE_NULL) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                String code = null;
+                String notes = null;
+                LocalDateTime markedAt = null;
+                if (cell == JsonToken.START_ARRAY) {
+                    List<String> parts = new ArrayList<>(3);
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        parts.add(parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+                        parser.skipChildren();
+                    }
+                    code = parts.size() > 0 ? parts.get(0) : null;
+                    notes = parts.size() > 1 ? parts.get(1) : null;
+                    markedAt = parts.size() > 2 && parts.get(2) != null ? LocalDateTime.parse(parts.get(2)) : null;
+                } else {
+                    code = parser.getText();
+                }
+
+                Attendance.Status status = decodeStatus(code);
+                if (status == null) {
+                    continue;
+                }
+                Attendance attendance = new Attendance(student, schedule, status, notes);
+                if (markedAt != null) {
+                    attendance.setMarkedAt(markedAt);
+                }
+                schedule.addAttendance(attendance);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Long parseScheduleId(String text) {
+        try {
+            return Long.valueOf(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Attendance.Status decodeStatus(String code) {
+        if (code == null) {
+            return null;
+        }
+        switch (code) {
+            case "P": case "PRESENT": return Attendance.Status.PRESENT;
+            case "L": case "LATE": return Attendance.Status.LATE;
+            case "A": case "ABSENT": return Attendance.Status.ABSENT;
+            default: return null;
+        }
+    }
+
+    private static Map<String, Student> indexStudents(List<Student> students) {
+        Map<String, Student> byIndex = new HashMap<>(students.size() * 2);
+        for (Student student : students) {
+            byIndex.put(student.getIndexNumber(), student);
+        }
+        return byIndex;
+    }
+
+    /**
+     * Pełny stan grupy: studenci, terminy i dołączona do terminów frekwencja.
+     */
+    public static final class Bundle {
+        private final List<Student> students;
+        private final List<ClassSchedule> schedules;
+        private final int attendanceCount;
+        private final boolean fromBundle;
+
+        Bundle(List<Student> students, List<ClassSchedule> schedules, int attendanceCount, boolean fromBundle) {
+            this.students = students;
+            this.schedules = schedules;
+            this.attendanceCount = attendanceCount;
+            this.fromBundle = fromBundle;
+        }
+
+        /** @return studenci grupy */
+        public List<Student> getStudents() {
+            return students;
+        }
+
+        /** @return terminy grupy z dołączoną frekwencją; należą do wywołującego (nie są współdzielone z pamięcią podręczną) */
+        public List<ClassSchedule> getSchedules() {
+            return schedules;
+        }
+
+        /** @return liczba odczytanych wpisów frekwencji */
+        public int getAttendanceCount() {
+            return attendanceCount;
+        }
+
+        /** @return true jeśli dane przyszły jednym żądaniem, false dla drogi zapasowej */
+        public boolean isFromBundle() {
+            return fromBundle;
+        }
+    }
+
+    private static class BundleStudent {
+        public String firstName;
+        public String lastName;
+        public String indexNumber;
+        public LocalDateTime createdDate;
+
+        Student toStudent(String groupName) {
+            Student student = new Student(firstName, lastName, indexNumber, groupName);
+            if (createdDate != null) {
+                student.setAddedDate(createdDate);
+            }
+            return student;
+        }
+    }
+
+    private static class BundleSchedule {
+        public Long id;
+        public String subject;
+        public String classroom;
+        public LocalDateTime startTime;
+        public LocalDateTime endTime;
+        public String instructor;
+        public String notes;
+        public LocalDateTime createdDate;
+
+        ClassSchedule toSchedule(String groupName) {
+            return new ClassSchedule(id, subject, classroom, startTime, endTime, instructor, notes,
+                    groupName, createdDate);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.css.PseudoClass;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
@@ -18,14 +19,16 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import javafx.animation.PauseTransition;
 import javafx.util.Duration;
 
-import javafx.animation.Timeline;
-import javafx.animation.KeyFrame;
-
 public class GroupDetailController {
     @FXML private Label groupNameLabel;
     @FXML private Label groupSpecializationLabel;
@@ -60,11 +63,32 @@ public class GroupDetailController {
     private StudentService studentService;
     private ScheduleService scheduleService;
     private AttendanceService attendanceService;
+    private GroupBundleClient bundleClient;
 
     private Group currentGroup;
     private ObservableList<Student> students;
     private ObservableList<ClassSchedule> schedules;
 
+    // Stan listy pokazującej dane z pamięci podręcznej, odświeżane w tle (styl :refreshing)
+    private static final PseudoClass REFRESHING = PseudoClass.getPseudoClass("refreshing");
+
+    // Bieżące ładowania porcjami - anulowane, gdy użytkownik rozpocznie nowe
+    private ChunkedListFeeder<Student> studentsFeeder;
+    private ChunkedListFeeder<ClassSchedule> schedulesFeeder;
+
+    // Odświeżenia list z serwera: zmiany po kluczu zamiast przebudowy (zaznaczenie i przewinięcie zostają)
+    private ListReconciler<Student, String> studentsReconciler;
+    private ListReconciler<ClassSchedule, Object> schedulesReconciler;
+
+    // Subskrypcja wspólnej synchronizacji obecności - zamykana razem z oknem
+    private SyncScheduler.Subscription attendanceSync;
+
+    // Odpowiedzi z wątków w tle - odświeżenia listy terminów i liczników najwyżej raz na klatkę
+    private final UiUpdateDispatcher uiUpdates = new UiUpdateDispatcher();
+
+    // Otwarte okna zarządzania terminem - odświeżane po każdej zmianie obecności (także z synchronizacji)
+    private final List<OpenAttendanceSheet> openSheets = new ArrayList<>();
+
     @FXML
     protected void initialize() {
         students = FXCollections.observableArrayList();
@@ -73,6 +97,7 @@ public class GroupDetailController {
         studentService = new StudentService();
         scheduleService = new ScheduleService();
         attendanceService = new AttendanceService();
+        bundleClient = new GroupBundleClient();
 
         studentsListView.setItems(students);
         scheduleListView.setItems(schedules);
@@ -80,6 +105,11 @@ public class GroupDetailController {
         studentsListView.setCellFactory(listView -> new StudentListCell());
         scheduleListView.setCellFactory(listView -> new ScheduleListCell());
 
+        studentsReconciler = new ListReconciler<>(Student::getIndexNumber, ListReconciler::sameStudent,
+                studentsListView.getSelectionModel());
+        schedulesReconciler = new ListReconciler<>(ListReconciler::scheduleKey, ListReconciler::sameSchedule,
+                scheduleListView.getSelectionModel());
+
         studentsListView.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
             removeStudentButton.setDisable(newSelection == null);
         });
@@ -144,7 +174,40 @@ public class GroupDetailController {
         updateGroupInfo();
         loadDataFromServer();
 
-        startAttendanceSyncTimer();
+        startAttendanceSync();
+    }
+
+    /**
+     * Wiąże kontroler z oknem: fokus okna steruje częstotliwością synchronizacji,
+     * a zamknięcie okna kończy subskrypcję i porzuca oczekujące aktualizacje.
+     *
+     * @param stage okno widoku grupy
+     */
+    public void attachToStage(Stage stage) {
+        stage.focusedProperty().addListener((obs, wasFocused, isFocused) -> {
+            if (attendanceSync != null) {
+                attendanceSync.setFocused(isFocused);
+            }
+        });
+        stage.addEventHandler(javafx.stage.WindowEvent.WINDOW_HIDDEN, event -> dispose());
+    }
+
+    /**
+     * Zwalnia zasoby okna: subskrypcję synchronizacji, trwające ładowania porcjami
+     * i niezastosowane aktualizacje interfejsu.
+     */
+    public void dispose() {
+        if (attendanceSync != null) {
+            attendanceSync.close();
+            attendanceSync = null;
+        }
+        if (studentsFeeder != null) {
+            studentsFeeder.cancel();
+        }
+        if (schedulesFeeder != null) {
+            schedulesFeeder.cancel();
+        }
+        uiUpdates.clear();
     }
 
     private void updateGroupInfo() {
@@ -190,11 +253,58 @@ public class GroupDetailController {
 
     private void loadDataFromServer() {
         if (currentGroup != null) {
+            // Dane z pamięci podręcznej pokazujemy od razu; w przeciwnym razie cały stan grupy jednym żądaniem
+            boolean hasCachedData = studentService.peekStudentsByGroup(currentGroup.getName()) != null
+                    || scheduleService.peekSchedulesByGroup(currentGroup.getName()) != null;
+            if (!hasCachedData && bundleClient.isBundleAvailable()) {
+                loadGroupBundleFromServer();
+                return;
+            }
             loadStudentsFromServer();
             loadSchedulesFromServer();
         }
     }
 
+    /**
+     * Ładuje studentów, terminy i frekwencję grupy jednym żądaniem.
+     * Przy błędzie wraca do ładowania porcjami z osobnych endpointów.
+     */
+    private void loadGroupBundleFromServer() {
+        String groupName = currentGroup.getName();
+        System.out.println("📦 ŁADOWANIE PAKIETU GRUPY: '" + groupName + "'");
+
+        bundleClient.fetchGroupBundleAsync(groupName)
+                .thenAccept(bundle -> javafx.application.Platform.runLater(() -> {
+                    if (currentGroup == null || !currentGroup.getName().equals(groupName)) {
+                        return;
+                    }
+                    students.setAll(bundle.getStudents());
+                    schedules.setAll(bundle.getSchedules());
+                    studentsListView.refresh();
+                    refreshSchedulesList();
+                    if (attendanceSync != null) {
+                        for (ClassSchedule schedule : schedules) {
+                            attendanceSync.markLoaded(schedule.getId(), schedule.getAttendances());
+                        }
+                    }
+
+                    System.out.println("✅ Załadowano grupę '" + groupName + "': " + bundle.getStudents().size()
+                            + " studentów, " + bundle.getSchedules().size() + " terminów, "
+                            + bundle.getAttendanceCount() + " obecności"
+                            + (bundle.isFromBundle() ? " (jedno żądanie)" : " (osobne endpointy)"));
+                }))
+                .exceptionally(throwable -> {
+                    javafx.application.Platform.runLater(() -> {
+                        System.err.println("Nie udało się pobrać pakietu grupy '" + groupName + "': " + throwable.getMessage());
+                        if (currentGroup != null && currentGroup.getName().equals(groupName)) {
+                            loadStudentsFromServer();
+                            loadSchedulesFromServer();
+                        }
+                    });
+                    return null;
+                });
+    }
+
     private void loadStudentsFromServer() {
         if (currentGroup == null) {
             System.err.println("Brak currentGroup - nie można załadować studentów");
@@ -203,38 +313,41 @@ public class GroupDetailController {
 
         System.out.println("ŁADOWANIE STUDENTÓW dla grupy: '" + currentGroup.getName() + "'");
 
-        studentService.getStudentsByGroupAsync(currentGroup.getName())
-                .thenAccept(serverStudents -> {
-                    javafx.application.Platform.runLater(() -> {
-                        System.out.println("Otrzymano " + serverStudents.size() + " studentów z serwera dla grupy: " + currentGroup.getName());
-
-                        //szczegóły wszystkich studentów
-                        System.out.println("=== LISTA STUDENTÓW Z SERWERA ===");
-                        for (int i = 0; i < serverStudents.size(); i++) {
-                            Student student = serverStudents.get(i);
-                            System.out.println((i + 1) + ". " + student.getFullName() +
-                                    " (index: " + student.getIndexNumber() +
-                                    ", grupa: '" + student.getGroupName() + "')");
-                        }
-                        System.out.println("================================");
-
-                        int oldSize = students.size();
-                        students.clear();
-                        System.out.println("🗑Wyczyszczono " + oldSize + " starych studentów z listy");
+        if (studentsFeeder != null) {
+            studentsFeeder.cancel();
+        }
 
-                        students.addAll(serverStudents);
-                        System.out.println("➕ Dodano " + serverStudents.size() + " nowych studentów do listy");
+        // Przeterminowane dane z pamięci podręcznej: pokaż od razu, odśwież w tle
+        EntityCache.CachedValue<List<Student>> cached = studentService.peekStudentsByGroup(currentGroup.getName());
+        if (cached != null && !cached.isFresh()) {
+            studentsReconciler.reconcile(students, cached.getValue());
+            updateCounts();
+            revalidateStudents(currentGroup.getName());
+            return;
+        }
+        // Studenci pojawiają się w liście porcjami, w miarę odczytywania odpowiedzi serwera
+        ChunkedListFeeder<Student> feeder = new ChunkedListFeeder<>(students, studentsReconciler, chunk -> {
+            System.out.println("➕ Dodano porcję " + chunk.size() + " studentów do listy");
+            requestCountsUpdate();
+        });
+        studentsFeeder = feeder;
 
-                        studentsListView.refresh();
-                        System.out.println("Wymuszone odświeżenie ListView");
+        studentService.getStudentsByGroupAsync(currentGroup.getName(), JsonStreamReader.DEFAULT_CHUNK_SIZE, feeder)
+                .thenAccept(total -> {
+                    feeder.complete();
+                    javafx.application.Platform.runLater(() -> {
+                        if (feeder.isCancelled()) {
+                            return;
+                        }
+                        System.out.println("Otrzymano " + total + " studentów z serwera dla grupy: " + currentGroup.getName());
 
                         updateCounts();
 
-                        if (serverStudents.isEmpty()) {
+                        if (total == 0) {
                             System.out.println("⚠UWAGA: Brak studentów w grupie '" + currentGroup.getName() + "'");
                             System.out.println("Sprawdź czy studenci są rzeczywiście przypisani do tej grupy w bazie");
                         } else {
-                            System.out.println("Pomyślnie załadowano " + serverStudents.size() + " studentów dla grupy '" + currentGroup.getName() + "'");
+                            System.out.println("Pomyślnie załadowano " + total + " studentów dla grupy '" + currentGroup.getName() + "'");
                         }
                     });
                 })
@@ -259,48 +372,51 @@ public class GroupDetailController {
 
         System.out.println("ŁADOWANIE TERMINÓW dla grupy: '" + currentGroup.getName() + "'");
 
-        scheduleService.getSchedulesByGroupAsync(currentGroup.getName())
-                .thenAccept(serverSchedules -> {
-                    javafx.application.Platform.runLater(() -> {
-                        System.out.println("Otrzymano " + serverSchedules.size() + " terminów z serwera dla grupy: " + currentGroup.getName());
-
-                        System.out.println("=== LISTA TERMINÓW Z SERWERA ===");
-                        for (int i = 0; i < serverSchedules.size(); i++) {
-                            ClassSchedule schedule = serverSchedules.get(i);
-                            System.out.println((i + 1) + ". " + schedule.getSubject() +
-                                    " (ID: " + schedule.getId() +
-                                    ", data: " + schedule.getFormattedStartTime() +
-                                    ", grupa: '" + schedule.getGroupName() + "')");
-                        }
-                        System.out.println("================================");
+        if (schedulesFeeder != null) {
+            schedulesFeeder.cancel();
+        }
+
+        // Przeterminowane dane z pamięci podręcznej: pokaż od razu, odśwież w tle
+        EntityCache.CachedValue<List<ClassSchedule>> cached = scheduleService.peekSchedulesByGroup(currentGroup.getName());
+        if (cached != null && !cached.isFresh()) {
+            schedulesReconciler.reconcile(schedules, copies(cached.getValue()));
+            updateCounts();
+            revalidateSchedules(currentGroup.getName());
+            return;
+        }
+        // Terminy pojawiają się porcjami; obecności każdej porcji ładujemy od razu
+        ChunkedListFeeder<ClassSchedule> feeder = new ChunkedListFeeder<>(schedules, schedulesReconciler, chunk -> {
+            System.out.println("➕ Dodano porcję " + chunk.size() + " terminów do listy");
 
-                        int oldSize = schedules.size();
-                        schedules.clear();
-                        System.out.println("🗑Wyczyszczono " + oldSize + " starych terminów z listy");
+            for (ClassSchedule schedule : chunk) {
+                if (schedule.getId() != null) {
+                    loadAttendanceFromServerSilent(schedule);
+                } else {
+                    System.out.println("⚠Termin " + schedule.getSubject() + " nie ma ID - pomijam ładowanie obecności");
+                }
+            }
 
-                        schedules.addAll(serverSchedules);
-                        System.out.println("➕ Dodano " + serverSchedules.size() + " nowych terminów do listy");
+            requestCountsUpdate();
+        });
+        schedulesFeeder = feeder;
 
-                        // Załaduj obecności dla każdego terminu
-                        for (ClassSchedule schedule : serverSchedules) {
-                            if (schedule.getId() != null) {
-                                loadAttendanceFromServerSilent(schedule);
-                            } else {
-                                System.out.println("⚠Termin " + schedule.getSubject() + " nie ma ID - pomijam ładowanie obecności");
-                            }
+        scheduleService.getSchedulesByGroupAsync(currentGroup.getName(), JsonStreamReader.DEFAULT_CHUNK_SIZE,
+                        chunk -> feeder.accept(copies(chunk)))
+                .thenAccept(total -> {
+                    feeder.complete();
+                    javafx.application.Platform.runLater(() -> {
+                        if (feeder.isCancelled()) {
+                            return;
                         }
-
-                        // Wymuś odświeżenie ListView
-                        scheduleListView.refresh();
-                        System.out.println("Wymuszone odświeżenie ListView terminów");
+                        System.out.println("Otrzymano " + total + " terminów z serwera dla grupy: " + currentGroup.getName());
 
                         updateCounts();
 
-                        if (serverSchedules.isEmpty()) {
+                        if (total == 0) {
                             System.out.println("UWAGA: Brak terminów w grupie '" + currentGroup.getName() + "'");
                             System.out.println("Sprawdź czy terminy są rzeczywiście przypisane do tej grupy w bazie");
                         } else {
-                            System.out.println("Pomyślnie załadowano " + serverSchedules.size() + " terminów dla grupy '" + currentGroup.getName() + "'");
+                            System.out.println("Pomyślnie załadowano " + total + " terminów dla grupy '" + currentGroup.getName() + "'");
                         }
                     });
                 })
@@ -317,41 +433,80 @@ public class GroupDetailController {
                 });
     }
 
+    /**
+     * Odświeża w tle listę studentów pokazaną z pamięci podręcznej.
+     * Do czasu otrzymania odpowiedzi lista ma stan {@code :refreshing}.
+     */
+    private void revalidateStudents(String groupName) {
+        System.out.println("♻ Pokazano studentów z pamięci podręcznej, odświeżam w tle: " + groupName);
+        studentsListView.pseudoClassStateChanged(REFRESHING, true);
+
+        studentService.getStudentsByGroupAsync(groupName)
+                .whenComplete((freshStudents, throwable) -> javafx.application.Platform.runLater(() -> {
+                    studentsListView.pseudoClassStateChanged(REFRESHING, false);
+                    if (currentGroup == null || !currentGroup.getName().equals(groupName)) {
+                        return;
+                    }
+                    if (throwable != null) {
+                        System.err.println("Nie udało się odświeżyć studentów (pokazano dane z pamięci): " + throwable.getMessage());
+                        return;
+                    }
+                    ListReconciler.Result result = studentsReconciler.reconcile(students, freshStudents);
+                    System.out.println("🔁 Studenci: " + result);
+                    updateCounts();
+                    System.out.println("✅ Odświeżono " + freshStudents.size() + " studentów grupy '" + groupName + "'");
+                }));
+    }
+
+    /**
+     * Odświeża w tle listę terminów pokazaną z pamięci podręcznej, a po otrzymaniu
+     * aktualnych terminów ładuje ich obecności.
+     */
+    private void revalidateSchedules(String groupName) {
+        System.out.println("♻ Pokazano terminy z pamięci podręcznej, odświeżam w tle: " + groupName);
+        scheduleListView.pseudoClassStateChanged(REFRESHING, true);
+
+        scheduleService.getSchedulesByGroupAsync(groupName)
+                .whenComplete((freshSchedules, throwable) -> javafx.application.Platform.runLater(() -> {
+                    scheduleListView.pseudoClassStateChanged(REFRESHING, false);
+                    if (currentGroup == null || !currentGroup.getName().equals(groupName)) {
+                        return;
+                    }
+                    if (throwable != null) {
+                        System.err.println("Nie udało się odświeżyć terminów (pokazano dane z pamięci): " + throwable.getMessage());
+                        return;
+                    }
+                    ListReconciler.Result result = schedulesReconciler.reconcile(schedules, copies(freshSchedules));
+                    System.out.println("🔁 Terminy: " + result);
+                    // Obecności ładujemy do instancji pokazanych na liście (niezmienione terminy zostały)
+                    for (ClassSchedule schedule : schedules) {
+                        if (schedule.getId() != null) {
+                            loadAttendanceFromServerSilent(schedule);
+                        }
+                    }
+                    updateCounts();
+                    System.out.println("✅ Odświeżono " + freshSchedules.size() + " terminów grupy '" + groupName + "'");
+                }));
+    }
+
+    /**
+     * Kopiuje terminy z pamięci podręcznej - okno zmienia frekwencję swoich terminów,
+     * a instancje z {@link EntityCache} są współdzielone z innymi oknami.
+     */
+    private static List<ClassSchedule> copies(List<ClassSchedule> shared) {
+        List<ClassSchedule> copies = new ArrayList<>(shared.size());
+        for (ClassSchedule schedule : shared) {
+            copies.add(schedule.copy());
+        }
+        return copies;
+    }
+
     private void loadAttendanceFromServerSilent(ClassSchedule schedule) {
         if (schedule.getId() != null) {
             System.out.println("Ładuję obecności dla terminu: " + schedule.getSubject() + " (ID: " + schedule.getId() + ")");
 
             attendanceService.getAttendancesByScheduleAsync(schedule.getId())
-                    .thenAccept(serverAttendances -> {
-                        javafx.application.Platform.runLater(() -> {
-                            System.out.println("Otrzymano " + serverAttendances.size() + " obecności z serwera");
-
-                            schedule.getAttendances().clear();
-
-                            for (Attendance serverAttendance : serverAttendances) {
-                                Student localStudent = students.stream()
-                                        .filter(s -> s.getIndexNumber().equals(serverAttendance.getStudent().getIndexNumber()))
-                                        .findFirst()
-                                        .orElse(null);
-
-                                if (localStudent != null) {
-
-                                    Attendance localAttendance = new Attendance(localStudent, schedule,
-                                            serverAttendance.getStatus(), serverAttendance.getNotes());
-                                    localAttendance.setMarkedAt(serverAttendance.getMarkedAt());
-
-                                    schedule.addAttendance(localAttendance);
-                                    System.out.println("Dodano obecność: " + localStudent.getFullName() + " - " + serverAttendance.getStatus().getDisplayName());
-                                } else {
-                                    System.out.println("⚠Nie znaleziono studenta: " + serverAttendance.getStudent().getFullName());
-                                }
-                            }
-
-
-                            refreshSchedulesList();
-                            updateCounts();
-                        });
-                    })
+                    .thenAccept(serverAttendances -> uiUpdates.post(() -> applyServerAttendances(schedule, serverAttendances)))
                     .exceptionally(throwable -> {
                         System.err.println("Nie udało się załadować obecności z serwera dla terminu " +
                                 schedule.getSubject() + ": " + throwable.getMessage());
@@ -360,14 +515,69 @@ public class GroupDetailController {
         }
     }
 
+    /**
+     * Zastępuje obecności terminu listą z serwera, dopasowując studentów po numerze indeksu.
+     * Studenci, których zmiana jeszcze nie dotarła na serwer (okno koalescera, wysyłka,
+     * kolejka offline), zachowują oznaczenie lokalne - stan serwera jest dla nich starszy.
+     * Wywoływane na wątku JavaFX.
+     */
+    private void applyServerAttendances(ClassSchedule schedule, List<Attendance> serverAttendances) {
+        System.out.println("Otrzymano " + serverAttendances.size() + " obecności z serwera");
+
+        if (attendanceSync != null) {
+            attendanceSync.markLoaded(schedule.getId(), serverAttendances);
+        }
+
+        Predicate<String> pendingWrite = attendanceService.pendingWritesFor(schedule.getId());
+        Map<String, Attendance> serverByIndex = new HashMap<>();
+        for (Attendance serverAttendance : serverAttendances) {
+            serverByIndex.put(serverAttendance.getStudent().getIndexNumber(), serverAttendance);
+        }
+
+        int kept = 0;
+        for (Attendance localAttendance : schedule.getAttendances()) {
+            String indexNumber = localAttendance.getStudent().getIndexNumber();
+            if (pendingWrite.test(indexNumber)) {
+                kept++;
+            } else if (!serverByIndex.containsKey(indexNumber)) {
+                schedule.removeAttendance(localAttendance.getStudent());
+            }
+        }
+
+        for (Attendance serverAttendance : serverAttendances) {
+            Student localStudent = students.stream()
+                    .filter(s -> s.getIndexNumber().equals(serverAttendance.getStudent().getIndexNumber()))
+                    .findFirst()
+                    .orElse(null);
+
+            if (localStudent == null) {
+                System.out.println("⚠Nie znaleziono studenta: " + serverAttendance.getStudent().getFullName());
+            } else if (!pendingWrite.test(localStudent.getIndexNumber())) {
+                Attendance localAttendance = new Attendance(localStudent, schedule,
+                        serverAttendance.getStatus(), serverAttendance.getNotes());
+                localAttendance.setMarkedAt(serverAttendance.getMarkedAt());
+
+                schedule.addAttendance(localAttendance);
+                System.out.println("Dodano obecność: " + localStudent.getFullName() + " - " + serverAttendance.getStatus().getDisplayName());
+            }
+        }
+        if (kept > 0) {
+            System.out.println("⏳ Zachowano " + kept + " oznaczeń czekających na zapis na serwerze");
+        }
+
+        // Przy wielu terminach odświeżenia z jednej klatki są scalane
+        refreshAttendanceSheets(schedule);
+        refreshSchedulesList();
+    }
+
     // Metoda do ładowania obecności z alertami
     private void loadAttendanceFromServer(ClassSchedule schedule) {
         if (schedule.getId() != null) {
             attendanceService.getAttendancesByScheduleAsync(schedule.getId())
                     .thenAccept(serverAttendances -> {
                         javafx.application.Platform.runLater(() -> {
-                            schedule.getAttendances().clear();
-                            schedule.getAttendances().addAll(serverAttendances);
+                            schedule.setAttendances(serverAttendances);
+                            refreshAttendanceSheets(schedule);
                             refreshSchedulesList();
 
                             showAlert("Sukces",
@@ -514,6 +724,18 @@ public class GroupDetailController {
                         if (throwable.getCause() instanceof StudentService.StudentAlreadyExistsException) {
                             // Student istnieje - spróbuj go zaktualizować (przypisać do grupy)
                             updateStudentGroup(newStudent, newStudent.getFullName());
+                        } else if (Outbox.isQueued(throwable)) {
+                            students.add(newStudent);
+                            animateButton(addStudentButton);
+                            clearStudentForm();
+                            updateCounts();
+
+                            showAlert("Zapisano offline",
+                                    "Student " + newStudent.getFullName() +
+                                            " został dodany do grupy " + currentGroup.getName() +
+                                            ".\nBrak połączenia z serwerem - zmiana zostanie wysłana automatycznie" +
+                                            " po odzyskaniu połączenia.",
+                                    Alert.AlertType.INFORMATION);
                         } else {
                             students.add(newStudent);
                             animateButton(addStudentButton);
@@ -816,6 +1038,8 @@ public class GroupDetailController {
             Label titleLabel = new Label("Zarządzanie terminem");
             titleLabel.setStyle("-fx-font-size: 24px; -fx-font-weight: bold; -fx-text-fill: #DC143C;");
 
+            Label summaryLabel = createInfoLabel("Frekwencja: " + schedule.getAttendanceSummary());
+
             VBox infoBox = new VBox(5);
             infoBox.setStyle("-fx-background-color: #F8F9FA; -fx-padding: 15; -fx-background-radius: 10;");
             infoBox.getChildren().addAll(
@@ -823,22 +1047,23 @@ public class GroupDetailController {
                     createInfoLabel("Data: " + schedule.getFormattedStartTime()),
                     createInfoLabel("Grupa: " + schedule.getGroupName()),
                     createInfoLabel("Źródło: " + (schedule.isFromServer() ? "Serwer (ID: " + schedule.getId() + ")" : "Lokalny")),
-                    createInfoLabel("Frekwencja: " + schedule.getAttendanceSummary())
+                    summaryLabel
             );
 
             Label studentsLabel = new Label("Lista studentów grupy:");
             studentsLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #212529;");
 
-            VBox studentsBox = new VBox(10);
-            for (Student student : students) {
-                HBox studentRow = createStudentAttendanceRow(student, schedule);
-                studentsBox.getChildren().add(studentRow);
-            }
+            Label shortcutsLabel = new Label("⌨️ Skróty: O - obecny, S - spóźniony, N - nieobecny, Delete - wyczyść, ↑/↓ - zmiana studenta");
+            shortcutsLabel.setStyle("-fx-font-size: 11px; -fx-text-fill: #6C757D; -fx-font-style: italic;");
 
-            ScrollPane scrollPane = new ScrollPane(studentsBox);
-            scrollPane.setFitToWidth(true);
-            scrollPane.setPrefHeight(350);
-            scrollPane.setStyle("-fx-background-color: transparent;");
+            ListView<Student> attendanceSheet = createAttendanceSheet(schedule);
+
+            OpenAttendanceSheet openSheet = new OpenAttendanceSheet(schedule, () -> {
+                attendanceSheet.refresh();
+                summaryLabel.setText("Frekwencja: " + schedule.getAttendanceSummary());
+            });
+            openSheets.add(openSheet);
+            newStage.addEventHandler(javafx.stage.WindowEvent.WINDOW_HIDDEN, event -> openSheets.remove(openSheet));
 
             HBox buttonsBox = new HBox(15);
 
@@ -847,29 +1072,31 @@ public class GroupDetailController {
             closeButton.setStyle("-fx-background-color: #6C757D; -fx-text-fill: white; -fx-padding: 10 20; -fx-background-radius: 20;");
 
             Button clearAllButton = new Button("Wyczyść wszystko");
-            clearAllButton.setOnAction(e -> clearAllAttendances(schedule, newStage));
+            clearAllButton.setOnAction(e -> clearAllAttendances(schedule));
             clearAllButton.setStyle("-fx-background-color: #e74c3c; -fx-text-fill: white; -fx-padding: 10 20; -fx-background-radius: 20;");
 
+            Button markAllPresentButton = new Button("Wszyscy obecni");
+            markAllPresentButton.setOnAction(e -> markAllPresent(schedule));
+            markAllPresentButton.setStyle("-fx-background-color: #38A169; -fx-text-fill: white; -fx-padding: 10 20; -fx-background-radius: 20;");
+
             Button loadServerAttendanceButton = new Button("Załaduj z serwera");
-            loadServerAttendanceButton.setOnAction(e -> {
-                loadAttendanceFromServer(schedule);
-                // Odśwież okno po załadowaniu
-                newStage.close();
-                javafx.application.Platform.runLater(() -> openScheduleDetailWindow(schedule));
-            });
+            loadServerAttendanceButton.setOnAction(e -> loadAttendanceFromServer(schedule));
             loadServerAttendanceButton.setStyle("-fx-background-color: #38A169; -fx-text-fill: white; -fx-padding: 10 20; -fx-background-radius: 20;");
 
             if (schedule.isFromServer()) {
-                buttonsBox.getChildren().addAll(loadServerAttendanceButton, clearAllButton, closeButton);
+                buttonsBox.getChildren().addAll(loadServerAttendanceButton, markAllPresentButton, clearAllButton, closeButton);
             } else {
-                buttonsBox.getChildren().addAll(clearAllButton, closeButton);
+                buttonsBox.getChildren().addAll(markAllPresentButton, clearAllButton, closeButton);
             }
 
-            root.getChildren().addAll(titleLabel, infoBox, studentsLabel, scrollPane, buttonsBox);
+            root.getChildren().addAll(titleLabel, infoBox, studentsLabel, shortcutsLabel, attendanceSheet, buttonsBox);
+            VBox.setVgrow(attendanceSheet, javafx.scene.layout.Priority.ALWAYS);
 
             Scene scene = new Scene(root);
+            scene.getStylesheets().add(getClass().getResource("styles.css").toExternalForm());
             newStage.setScene(scene);
             newStage.show();
+            attendanceSheet.requestFocus();
 
         } catch (Exception e) {
             showAlert("Błąd", "Nie udało się otworzyć zarządzania terminem.", Alert.AlertType.ERROR);
@@ -882,96 +1109,100 @@ public class GroupDetailController {
         return label;
     }
 
-    private HBox createStudentAttendanceRow(Student student, ClassSchedule schedule) {
-        HBox row = new HBox(15);
-        row.setStyle("-fx-padding: 10; -fx-background-color: white; -fx-background-radius: 5; -fx-border-color: #E9ECEF; -fx-border-radius: 5;");
-
-        VBox studentInfo = new VBox(3);
-        Label nameLabel = new Label(student.getFullName());
-        nameLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
-
-        Label indexLabel = new Label("Nr indeksu: " + student.getIndexNumber());
-        indexLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #6C757D;");
-
-        studentInfo.getChildren().addAll(nameLabel, indexLabel);
+    /**
+     * Tworzy wirtualizowaną listę obecności terminu.
+     *
+     * <p>Komórki {@link AttendanceSheetCell} są tworzone tylko dla widocznych wierszy
+     * i ponownie używane przy przewijaniu. Obecność można oznaczać przyciskami w wierszu
+     * albo z klawiatury dla zaznaczonego studenta - po oznaczeniu zaznaczenie
+     * przechodzi do następnego studenta.</p>
+     */
+    private ListView<Student> createAttendanceSheet(ClassSchedule schedule) {
+        ListView<Student> sheet = new ListView<>(FXCollections.observableArrayList(students));
+        sheet.setFixedCellSize(58);
+        sheet.setPrefHeight(350);
+        sheet.setCellFactory(listView -> new AttendanceSheetCell(schedule, (student, status) ->
+                applySheetAttendance(student, schedule, status)));
+
+        sheet.addEventHandler(javafx.scene.input.KeyEvent.KEY_PRESSED, event -> {
+            boolean handled = AttendanceKeyboard.handleKey(event.getCode(), sheet.getSelectionModel(),
+                    sheet.getItems().size(), (student, status) -> applySheetAttendance(student, schedule, status));
+            if (handled) {
+                event.consume();
+                sheet.scrollTo(Math.max(0, sheet.getSelectionModel().getSelectedIndex() - 3));
+            }
+        });
 
-        Label statusLabel = new Label();
-        statusLabel.setPrefWidth(120);
+        if (!sheet.getItems().isEmpty()) {
+            sheet.getSelectionModel().selectFirst();
+        }
+        return sheet;
+    }
 
-        Attendance attendance = schedule.getAttendanceForStudent(student);
-        if (attendance != null) {
-            statusLabel.setText(attendance.getStatus().getDisplayName());
-            statusLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + attendance.getStatus().getColor() + ";");
+    /**
+     * Zapisuje obecność wybraną na liście i odświeża otwarte listy terminu.
+     *
+     * @param status nowy status lub null dla wyczyszczenia oznaczenia
+     */
+    private void applySheetAttendance(Student student, ClassSchedule schedule, Attendance.Status status) {
+        if (status != null) {
+            markAttendance(student, schedule, status);
         } else {
-            statusLabel.setText("Nie zaznaczono");
-            statusLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #6C757D;");
+            clearAttendance(student, schedule);
         }
+        refreshAttendanceSheets(schedule);
+        refreshSchedulesList();
+        if (attendanceSync != null) {
+            attendanceSync.markActivity();
+        }
+    }
 
-        HBox buttonsBox = new HBox(5);
-
-        Button presentButton = new Button("Obecny");
-        presentButton.setStyle("-fx-background-color: #38A169; -fx-text-fill: white; -fx-padding: 5 10; -fx-background-radius: 15; -fx-font-size: 11px;");
-        presentButton.setOnAction(e -> {
-            markAttendance(student, schedule, Attendance.Status.PRESENT, statusLabel);
-            refreshSchedulesList();
-        });
-
-        Button lateButton = new Button("Spóźniony");
-        lateButton.setStyle("-fx-background-color: #F56500; -fx-text-fill: white; -fx-padding: 5 10; -fx-background-radius: 15; -fx-font-size: 11px;");
-        lateButton.setOnAction(e -> {
-            markAttendance(student, schedule, Attendance.Status.LATE, statusLabel);
-            refreshSchedulesList();
-        });
-
-        Button absentButton = new Button("Nieobecny");
-        absentButton.setStyle("-fx-background-color: #E53E3E; -fx-text-fill: white; -fx-padding: 5 10; -fx-background-radius: 15; -fx-font-size: 11px;");
-        absentButton.setOnAction(e -> {
-            markAttendance(student, schedule, Attendance.Status.ABSENT, statusLabel);
-            refreshSchedulesList();
-        });
-
-        Button clearButton = new Button("Wyczyść");
-        clearButton.setStyle("-fx-background-color: #6C757D; -fx-text-fill: white; -fx-padding: 5 10; -fx-background-radius: 15; -fx-font-size: 11px;");
-        clearButton.setOnAction(e -> {
-            clearAttendance(student, schedule, statusLabel);
-            refreshSchedulesList();
-        });
-
-        buttonsBox.getChildren().addAll(presentButton, lateButton, absentButton, clearButton);
+    /**
+     * Odświeża (najwyżej raz na klatkę) wszystkie otwarte okna zarządzania danym terminem
+     * i zapisuje jego frekwencję w pamięci podręcznej (dla migawki i kolejnych okien).
+     */
+    private void refreshAttendanceSheets(ClassSchedule schedule) {
+        for (OpenAttendanceSheet openSheet : openSheets) {
+            if (openSheet.schedule == schedule) {
+                uiUpdates.markDirty(openSheet, openSheet.refresh);
+            }
+        }
+        if (currentGroup != null && schedule.getId() != null) {
+            String groupName = currentGroup.getName();
+            uiUpdates.markDirty("cache:schedule:" + schedule.getId(),
+                    () -> scheduleService.rememberAttendances(groupName, schedule));
+        }
+    }
 
-        HBox spacer = new HBox();
-        HBox.setHgrow(spacer, javafx.scene.layout.Priority.ALWAYS);
+    /**
+     * Otwarte okno zarządzania terminem: termin i odświeżenie jego listy i podsumowania.
+     */
+    private static final class OpenAttendanceSheet {
+        private final ClassSchedule schedule;
+        private final Runnable refresh;
 
-        row.getChildren().addAll(studentInfo, spacer, statusLabel, buttonsBox);
-        return row;
+        OpenAttendanceSheet(ClassSchedule schedule, Runnable refresh) {
+            this.schedule = schedule;
+            this.refresh = refresh;
+        }
     }
 
-    private void markAttendance(Student student, ClassSchedule schedule, Attendance.Status status, Label statusLabel) {
+    private void markAttendance(Student student, ClassSchedule schedule, Attendance.Status status) {
         System.out.println("Oznaczam obecność: " + student.getFullName() + " - " + status.getDisplayName());
 
         Attendance attendance = new Attendance(student, schedule, status);
 
         schedule.addAttendance(attendance);
 
-        statusLabel.setText(status.getDisplayName());
-        statusLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + status.getColor() + ";");
-
         if (schedule.getId() != null) { // Tylko jeśli termin ma ID z serwera
             System.out.println("Wysyłam obecność na serwer...");
 
-            attendanceService.markStudentAttendanceAsync(student, schedule.getId(), status, "")
+            attendanceService.submitAttendanceAsync(student, schedule.getId(), status, "")
                     .thenAccept(success -> {
                         javafx.application.Platform.runLater(() -> {
                             if (success) {
+                                // Stan serwera wróci przez SyncScheduler - osobne przeładowanie po każdym kliknięciu nie jest potrzebne
                                 System.out.println("Obecność wysłana na serwer: " + student.getFullName() + " - " + status.getDisplayName());
-
-                                javafx.animation.PauseTransition pause = new javafx.animation.PauseTransition(javafx.util.Duration.seconds(1));
-                                pause.setOnFinished(e -> {
-                                    System.out.println("Auto-odświeżanie obecności z serwera...");
-                                    loadAttendanceFromServerSilent(schedule);
-                                });
-                                pause.play();
-
                             } else {
                                 System.out.println("⚠Ostrzeżenie: Nie udało się wysłać obecności na serwer");
                                 showAlert("Ostrzeżenie", "Obecność zapisana lokalnie, ale nie udało się wysłać na serwer", Alert.AlertType.WARNING);
@@ -979,6 +1210,14 @@ public class GroupDetailController {
                         });
                     })
                     .exceptionally(throwable -> {
+                        if (AttendanceWriteCoalescer.isSuperseded(throwable)) {
+                            System.out.println("🔁 Zmiana obecności zastąpiona nowszą: " + student.getFullName() + " - " + status.getDisplayName());
+                            return null;
+                        }
+                        if (Outbox.isQueued(throwable)) {
+                            System.out.println("📥 Obecność w kolejce offline: " + student.getFullName() + " - " + status.getDisplayName());
+                            return null;
+                        }
                         javafx.application.Platform.runLater(() -> {
                             System.err.println("Błąd wysyłania obecności na serwer: " + throwable.getMessage());
                             showAlert("Błąd", "Obecność zapisana lokalnie, ale wystąpił błąd komunikacji z serwerem: " + throwable.getMessage(), Alert.AlertType.WARNING);
@@ -988,19 +1227,13 @@ public class GroupDetailController {
         } else {
             System.out.println("ℹTermin lokalny - obecność zapisana tylko lokalnie");
         }
-
-        showAlert("Sukces", "Oznaczono " + student.getFullName() + " jako " + status.getDisplayName().toLowerCase(),
-                Alert.AlertType.INFORMATION);
     }
 
-    private void clearAttendance(Student student, ClassSchedule schedule, Label statusLabel) {
+    private void clearAttendance(Student student, ClassSchedule schedule) {
         schedule.removeAttendance(student);
 
-        statusLabel.setText("Nie zaznaczono");
-        statusLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #6C757D;");
-
         if (schedule.getId() != null) {
-            attendanceService.removeAttendanceAsync(student.getIndexNumber(), schedule.getId())
+            attendanceService.submitRemovalAsync(student, schedule.getId())
                     .thenAccept(success -> {
                         javafx.application.Platform.runLater(() -> {
                             if (success) {
@@ -1011,6 +1244,9 @@ public class GroupDetailController {
                         });
                     })
                     .exceptionally(throwable -> {
+                        if (AttendanceWriteCoalescer.isSuperseded(throwable) || Outbox.isQueued(throwable)) {
+                            return null;
+                        }
                         javafx.application.Platform.runLater(() -> {
                             System.err.println("Błąd usuwania obecności z serwera: " + throwable.getMessage());
                         });
@@ -1019,11 +1255,9 @@ public class GroupDetailController {
         } else {
             System.out.println("Termin lokalny - obecność usunięta tylko lokalnie");
         }
-
-        showAlert("Info", "Usunięto oznaczenie dla " + student.getFullName(), Alert.AlertType.INFORMATION);
     }
 
-    private void clearAllAttendances(ClassSchedule schedule, Stage stage) {
+    private void clearAllAttendances(ClassSchedule schedule) {
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
         confirmAlert.setTitle("Potwierdzenie");
         confirmAlert.setHeaderText("Czy na pewno chcesz wyczyścić wszystkie oznaczenia obecności?");
@@ -1033,34 +1267,97 @@ public class GroupDetailController {
         Optional<ButtonType> result = confirmAlert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
 
-            if (schedule.isFromServer() && schedule.getId() != null) {
+            List<Student> marked = schedule.getAttendances().stream().map(Attendance::getStudent).toList();
+            schedule.clearAttendances();
 
-                for (Attendance attendance : schedule.getAttendances()) {
-                    attendanceService.removeAttendanceAsync(
-                            attendance.getStudent().getIndexNumber(),
-                            schedule.getId()
-                    ).exceptionally(throwable -> {
-                        System.err.println("Błąd usuwania obecności z serwera: " + throwable.getMessage());
-                        return null;
-                    });
-                }
+            refreshAttendanceSheets(schedule);
+            refreshSchedulesList();
+
+            if (schedule.isFromServer() && schedule.getId() != null) {
+                sendAttendanceBatch(AttendanceBatch.clearAll(marked, schedule.getId()), "Wyczyszczono");
+                return;
             }
 
+            showAlert("Sukces", "Wyczyszczono wszystkie oznaczenia obecności.", Alert.AlertType.INFORMATION);
+        }
+    }
 
-            schedule.getAttendances().clear();
+    private void markAllPresent(ClassSchedule schedule) {
+        if (students.isEmpty()) {
+            showAlert("Info", "Grupa nie ma studentów do oznaczenia.", Alert.AlertType.INFORMATION);
+            return;
+        }
 
+        List<Student> groupStudents = List.copyOf(students);
+        for (Student student : groupStudents) {
+            schedule.addAttendance(new Attendance(student, schedule, Attendance.Status.PRESENT));
+        }
 
-            stage.close();
-            openScheduleDetailWindow(schedule);
-            refreshSchedulesList();
+        refreshAttendanceSheets(schedule);
+        refreshSchedulesList();
 
-            showAlert("Sukces", "Wyczyszczono wszystkie oznaczenia obecności.", Alert.AlertType.INFORMATION);
+        if (schedule.getId() != null) {
+            sendAttendanceBatch(AttendanceBatch.markAll(groupStudents, schedule.getId(), Attendance.Status.PRESENT),
+                    "Oznaczono jako obecnych");
+        } else {
+            showAlert("Sukces", "Oznaczono wszystkich studentów jako obecnych (lokalnie).", Alert.AlertType.INFORMATION);
         }
     }
 
+    /**
+     * Wysyła zbiorczą operację na frekwencji jednym żądaniem i podsumowuje wyniki poszczególnych wpisów
+     */
+    private void sendAttendanceBatch(List<AttendanceBatch.Entry> entries, String actionDescription) {
+        if (entries.isEmpty()) {
+            showAlert("Sukces", actionDescription + ": brak wpisów do wysłania.", Alert.AlertType.INFORMATION);
+            return;
+        }
+
+        attendanceService.applyBatchAsync(entries)
+                .thenAccept(results -> javafx.application.Platform.runLater(() -> {
+                    long succeeded = AttendanceBatch.countSucceeded(results);
+                    long queued = results.stream().filter(AttendanceBatch.Result::isQueued).count();
+                    List<String> failed = results.stream()
+                            .filter(result -> !result.isSuccess() && !result.isQueued())
+                            .map(result -> result.getEntry().getStudent().getFullName() + ": " + result.getMessage())
+                            .toList();
+                    System.out.println("📦 Operacja zbiorcza: " + succeeded + "/" + results.size() + " zapisanych, "
+                            + queued + " w kolejce, " + failed.size() + " błędów");
+
+                    if (!failed.isEmpty()) {
+                        showAlert("Ostrzeżenie", actionDescription + " " + succeeded + " z " + results.size()
+                                + " wpisów. Nie zapisano na serwerze:\n" + String.join("\n", failed), Alert.AlertType.WARNING);
+                    } else if (queued > 0) {
+                        showAlert("Zapisano offline", actionDescription + " lokalnie - " + queued
+                                + " wpisów zostanie wysłanych po odzyskaniu połączenia.", Alert.AlertType.INFORMATION);
+                    } else {
+                        showAlert("Sukces", actionDescription + " " + succeeded + " wpisów.", Alert.AlertType.INFORMATION);
+                    }
+                }))
+                .exceptionally(throwable -> {
+                    javafx.application.Platform.runLater(() -> {
+                        System.err.println("Błąd operacji zbiorczej: " + throwable.getMessage());
+                        showAlert("Błąd", "Zmiany zapisane lokalnie, ale wystąpił błąd komunikacji z serwerem: "
+                                + throwable.getMessage(), Alert.AlertType.WARNING);
+                    });
+                    return null;
+                });
+    }
+
+    /**
+     * Zleca odświeżenie listy terminów i liczników w najbliższej klatce.
+     * Wiele wywołań w obrębie jednej klatki daje jedno odświeżenie.
+     */
     private void refreshSchedulesList() {
-        scheduleListView.refresh();
-        updateCounts();
+        uiUpdates.markDirty(scheduleListView, scheduleListView::refresh);
+        requestCountsUpdate();
+    }
+
+    /**
+     * Zleca aktualizację liczników w najbliższej klatce (zob. {@link #updateCounts()}).
+     */
+    private void requestCountsUpdate() {
+        uiUpdates.markDirty(studentCountLabel, this::updateCounts);
     }
 
 
@@ -1252,13 +1549,27 @@ public class GroupDetailController {
                         // Usuń lokalnie mimo błędu serwera
                         students.remove(student);
 
-                        // Usuń studenta ze wszystkich terminów (tylko lokalnie)
+                        boolean queued = Outbox.isQueued(throwable);
+                        // Usuń studenta ze wszystkich terminów (offline - także z kolejką zmian)
                         for (ClassSchedule schedule : schedules) {
+                            if (queued && schedule.getId() != null && schedule.hasAttendanceForStudent(student)) {
+                                attendanceService.removeAttendanceAsync(student.getIndexNumber(), schedule.getId());
+                            }
                             schedule.removeAttendance(student);
                         }
                         refreshSchedulesList();
                         updateCounts();
 
+                        if (queued) {
+                            // Zmiana czeka w kolejce offline - zostanie wysłana po odzyskaniu połączenia
+                            showAlert("Zapisano offline",
+                                    "📥 Student " + student.getFullName() + " został usunięty z grupy "
+                                            + currentGroup.getName() + ".\nBrak połączenia z serwerem - zmiana"
+                                            + " zostanie wysłana automatycznie po odzyskaniu połączenia.",
+                                    Alert.AlertType.INFORMATION);
+                            return;
+                        }
+
                         StringBuilder warningMessage = new StringBuilder();
                         warningMessage.append("⚠️ Student ").append(student.getFullName())
                                 .append(" został usunięty z grupy lokalnie,");
@@ -1503,104 +1814,6 @@ public class GroupDetailController {
         alert.showAndWait();
     }
 
-    private class StudentListCell extends ListCell<Student> {
-        @Override
-        protected void updateItem(Student student, boolean empty) {
-            super.updateItem(student, empty);
-            if (empty || student == null) {
-                setGraphic(null);
-                setText(null);
-            } else {
-                VBox cellContent = new VBox(3);
-                cellContent.getStyleClass().add("student-cell");
-
-                Label nameLabel = new Label(student.getFullName());
-                nameLabel.getStyleClass().add("student-name");
-
-                Label indexLabel = new Label("Nr indeksu: " + student.getIndexNumber());
-                indexLabel.getStyleClass().add("student-index");
-
-                Label groupLabel = new Label("Grupa: " + (student.getGroupName() != null ? student.getGroupName() : "Brak"));
-                groupLabel.getStyleClass().add("student-group");
-
-                cellContent.getChildren().addAll(nameLabel, indexLabel, groupLabel);
-                setGraphic(cellContent);
-                setText(null);
-            }
-        }
-    }
-
-    private class ScheduleListCell extends ListCell<ClassSchedule> {
-        @Override
-        protected void updateItem(ClassSchedule schedule, boolean empty) {
-            super.updateItem(schedule, empty);
-            if (empty || schedule == null) {
-                setGraphic(null);
-                setText(null);
-            } else {
-                VBox cellContent = new VBox(3);
-                cellContent.getStyleClass().add("schedule-cell");
-
-                Label subjectLabel = new Label(schedule.getSubject());
-                subjectLabel.getStyleClass().add("schedule-subject");
-
-                Label dateTimeLabel = new Label("Data: " + schedule.getFormattedStartTime() + " - " + schedule.getFormattedEndTime());
-                dateTimeLabel.getStyleClass().add("schedule-datetime");
-
-                Label sourceLabel = new Label();
-                if (schedule.isFromServer()) {
-                    sourceLabel.setText("🔵 Serwer (ID: " + schedule.getId() + ")");
-                    sourceLabel.setStyle("-fx-text-fill: #38A169; -fx-font-size: 11px; -fx-font-weight: bold;");
-                } else {
-                    sourceLabel.setText("🔴 Lokalny");
-                    sourceLabel.setStyle("-fx-text-fill: #E53E3E; -fx-font-size: 11px; -fx-font-weight: bold;");
-                }
-
-                Label attendanceLabel = new Label(schedule.getAttendanceSummary());
-                if (schedule.getTotalAttendanceCount() > 0) {
-                    attendanceLabel.setStyle("-fx-text-fill: #212529; -fx-font-weight: bold; -fx-font-size: 12px;");
-                } else {
-                    attendanceLabel.setStyle("-fx-text-fill: #6C757D; -fx-font-style: italic; -fx-font-size: 12px;");
-                }
-
-                if (schedule.getTotalAttendanceCount() > 0) {
-                    HBox statsBox = new HBox(10);
-
-                    Label presentLabel = new Label("✅ " + schedule.getPresentCount());
-                    presentLabel.setStyle("-fx-text-fill: #38A169; -fx-font-size: 11px; -fx-font-weight: bold;");
-
-                    Label lateLabel = new Label("⏰ " + schedule.getLateCount());
-                    lateLabel.setStyle("-fx-text-fill: #F56500; -fx-font-size: 11px; -fx-font-weight: bold;");
-
-                    Label absentLabel = new Label("❌ " + schedule.getAbsentCount());
-                    absentLabel.setStyle("-fx-text-fill: #E53E3E; -fx-font-size: 11px; -fx-font-weight: bold;");
-
-                    statsBox.getChildren().addAll(presentLabel, lateLabel, absentLabel);
-                    cellContent.getChildren().addAll(subjectLabel, dateTimeLabel, sourceLabel, attendanceLabel, statsBox);
-                } else {
-                    cellContent.getChildren().addAll(subjectLabel, dateTimeLabel, sourceLabel, attendanceLabel);
-                }
-
-                Label clickHintLabel = new Label("💡 Kliknij aby zarządzać frekwencją");
-                clickHintLabel.setStyle("-fx-text-fill: #6C757D; -fx-font-size: 10px; -fx-font-style: italic;");
-                cellContent.getChildren().add(clickHintLabel);
-
-                if (schedule.isFromServer()) {
-                    Label syncLabel = new Label("🔄 Synchronizacja z serwerem dostępna");
-                    syncLabel.setStyle("-fx-text-fill: #38A169; -fx-font-size: 9px; -fx-font-style: italic;");
-                    cellContent.getChildren().add(syncLabel);
-                } else {
-                    Label localLabel = new Label("⚠️ Tylko dane lokalne");
-                    localLabel.setStyle("-fx-text-fill: #E53E3E; -fx-font-size: 9px; -fx-font-style: italic;");
-                    cellContent.getChildren().add(localLabel);
-                }
-
-                setGraphic(cellContent);
-                setText(null);
-            }
-        }
-    }
-
     @FXML
     protected void onForceRefreshStudentsClick() {
         System.out.println("🔄 WYMUSZONE ODŚWIEŻENIE przez użytkownika");
@@ -1646,6 +1859,8 @@ public class GroupDetailController {
                         System.out.println("==============================");
                         System.out.println("📊 Studentów w grupie '" + currentGroup.getName() + "': " + studentsInCurrentGroup);
                         System.out.println("📊 Studentów w lokalnej liście: " + students.size());
+                        System.out.println("=== LICZNIKI TRANSPORTU HTTP ===");
+                        System.out.println(HttpTransport.getShared().describeMetrics());
 
                         showAlert("Info z bazy danych",
                                 "Wszystkich studentów w bazie: " + allStudents.size() +
@@ -1678,17 +1893,32 @@ public class GroupDetailController {
     }
 
     /**
-     * Sprawdź synchronizację z serwerem co 30 sekund
+     * Subskrybuje wspólną synchronizację obecności dla terminów pokazanych w oknie.
+     * Zmiany z serwera trafiają do widoku przez {@link UiUpdateDispatcher}.
      */
-    private void startAttendanceSyncTimer() {
-        javafx.animation.Timeline timeline = new javafx.animation.Timeline(
-                new javafx.animation.KeyFrame(javafx.util.Duration.seconds(30), e -> {
-                    System.out.println("⏰ Automatyczna synchronizacja obecności...");
-                    refreshAllAttendancesFromServer();
-                })
-        );
-        timeline.setCycleCount(javafx.animation.Timeline.INDEFINITE);
-        timeline.play();
+    private void startAttendanceSync() {
+        if (attendanceSync != null) {
+            attendanceSync.close();
+        }
+        attendanceSync = SyncScheduler.getShared().subscribe(currentGroup.getName(),
+                (scheduleId, serverAttendances) -> uiUpdates.post(() -> {
+                    for (ClassSchedule schedule : schedules) {
+                        if (scheduleId.equals(schedule.getId())) {
+                            System.out.println("⏰ Zmiana obecności na serwerze: " + schedule.getSubject());
+                            applyServerAttendances(schedule, serverAttendances);
+                            return;
+                        }
+                    }
+                }));
+
+        schedules.addListener((javafx.collections.ListChangeListener<ClassSchedule>) change -> updateSyncedSchedules());
+        updateSyncedSchedules();
+    }
+
+    private void updateSyncedSchedules() {
+        if (attendanceSync != null) {
+            attendanceSync.setScheduleIds(schedules.stream().map(ClassSchedule::getId).toList());
+        }
     }
 
     @FXML
@@ -0,0 +1,55 @@
+package com.example.javafxfront;
+
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.VBox;
+
+/**
+ * Komórka listy grup w głównym widoku aplikacji.
+ *
+ * <p>Etykiety są tworzone raz, w konstruktorze; przy ponownym użyciu komórki
+ * podczas przewijania {@link #updateItem(Group, boolean)} zmienia tylko ich teksty.
+ * Wygląd opisują klasy {@code .group-cell}, {@code .group-name},
+ * {@code .group-details} i {@code .group-date} w {@code styles.css}.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see ModernController
+ * @see Group
+ */
+public class GroupListCell extends ListCell<Group> {
+
+    private final VBox content = new VBox(5);
+    private final Label nameLabel = new Label();
+    private final Label detailsLabel = new Label();
+    private final Label dateLabel = new Label();
+
+    /**
+     * Tworzy komórkę wraz z kompletnym drzewem węzłów.
+     */
+    public GroupListCell() {
+        content.getStyleClass().add("group-cell");
+        nameLabel.getStyleClass().add("group-name");
+        detailsLabel.getStyleClass().add("group-details");
+        dateLabel.getStyleClass().add("group-date");
+        content.getChildren().addAll(nameLabel, detailsLabel, dateLabel);
+    }
+
+    @Override
+    protected void updateItem(Group group, boolean empty) {
+        super.updateItem(group, empty);
+        setText(null);
+
+        if (empty || group == null) {
+            setGraphic(null);
+            return;
+        }
+
+        nameLabel.setText(group.getName());
+        detailsLabel.setText(group.getSpecialization());
+        dateLabel.setText("Utworzono: " + group.getFormattedDate());
+        setGraphic(content);
+    }
+}
@@ -1,19 +1,15 @@
 package com.example.javafxfront;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
-import java.net.URI;
-import java.net.http.HttpClient;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Serwis do komunikacji z serwerem backend w zakresie zarządzania grupami.
@@ -34,8 +30,8 @@ import java.util.concurrent.CompletableFuture;
  * </ul>
  *
  * <h3>Konfiguracja serwera:</h3>
- * <p>Serwis domyślnie łączy się z serwerem na adresie {@value #BASE_URL}.
- * Endpoint dla grup znajduje się pod adresem {@value #GROUPS_ENDPOINT}.</p>
+ * <p>Serwis domyślnie łączy się z serwerem na adresie {@value HttpTransport#DEFAULT_BASE_URL}.
+ * Endpoint dla grup znajduje się pod adresem {@code /api/groups}.</p>
  *
  * <h3>Przykład użycia:</h3>
  * <pre>
@@ -88,33 +84,23 @@ import java.util.concurrent.CompletableFuture;
  */
 public class GroupService {
 
-    /**
-     * Bazowy URL serwera API.
-     *
-     * <p>Wszystkie żądania HTTP są kierowane do tego adresu bazowego.
-     * Domyślnie aplikacja łączy się z lokalnym serwerem deweloperskim.</p>
-     */
-    private static final String BASE_URL = "http://localhost:8080/api";
-
     /**
      * Pełny endpoint dla operacji na grupach.
      *
      * <p>Endpoint obsługuje następujące operacje HTTP:</p>
      * <ul>
-     *   <li>GET {@value} - pobieranie wszystkich grup</li>
-     *   <li>POST {@value} - dodawanie nowej grupy</li>
-     *   <li>DELETE {@value}/{nazwa} - usuwanie grupy po nazwie</li>
+     *   <li>GET {@code /api/groups} - pobieranie wszystkich grup</li>
+     *   <li>POST {@code /api/groups} - dodawanie nowej grupy</li>
+     *   <li>DELETE {@code /api/groups/{nazwa}} - usuwanie grupy po nazwie</li>
      * </ul>
      */
-    private static final String GROUPS_ENDPOINT = BASE_URL + "/groups";
+    private final String groupsEndpoint;
 
     /**
-     * Klient HTTP do komunikacji z serwerem.
-     *
-     * <p>Konfigurowany z timeoutem połączenia 10 sekund dla zapewnienia
-     * responsywności interfejsu użytkownika.</p>
+     * Wspólna warstwa transportowa dostarczająca klienta HTTP, mapper JSON
+     * oraz timeouty żądań.
      */
-    private final HttpClient httpClient;
+    private final HttpTransport transport;
 
     /**
      * Mapper JSON do serializacji i deserializacji obiektów.
@@ -128,40 +114,42 @@ public class GroupService {
      */
     private final ObjectMapper objectMapper;
 
+    /**
+     * Strumieniowy czytnik list JSON - elementy są konwertowane od razu po odczytaniu
+     * ze strumienia odpowiedzi, bez buforowania całej treści.
+     */
+    private final JsonStreamReader jsonReader;
+
     /**
      * Konstruktor serwisu grup.
      *
-     * <p>Inicjalizuje klienta HTTP z timeoutem 10 sekund oraz konfiguruje
-     * ObjectMapper do obsługi dat Java 8+ i ignorowania nieznanych właściwości JSON.</p>
-     *
-     * <p>Konfiguracja klienta HTTP:</p>
-     * <ul>
-     *   <li>Timeout połączenia: 10 sekund</li>
-     *   <li>Automatyczne zarządzanie cookies</li>
-     *   <li>Obsługa HTTP/2 gdy dostępne</li>
-     * </ul>
-     *
-     * <p>Konfiguracja ObjectMapper:</p>
-     * <ul>
-     *   <li>JavaTimeModule dla obsługi LocalDateTime</li>
-     *   <li>FAIL_ON_UNKNOWN_PROPERTIES = false</li>
-     *   <li>Automatyczna detekcja formatów dat</li>
-     * </ul>
+     * <p>Korzysta ze współdzielonej warstwy transportowej ({@link HttpTransport#getShared()}),
+     * dzięki czemu wszystkie okna aplikacji używają jednej puli połączeń HTTP
+     * i jednego skonfigurowanego ObjectMappera.</p>
      */
     public GroupService() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this(HttpTransport.getShared());
+    }
 
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    /**
+     * Konstruktor serwisu grup korzystający z podanej warstwy transportowej.
+     *
+     * <p>Pozwala współdzielić jedną pulę połączeń i jeden ObjectMapper
+     * między wszystkimi serwisami oraz wskazać inny serwer API.</p>
+     *
+     * @param transport warstwa transportowa HTTP
+     */
+    public GroupService(HttpTransport transport) {
+        this.transport = transport;
+        this.objectMapper = transport.getObjectMapper();
+        this.jsonReader = new JsonStreamReader(objectMapper);
+        this.groupsEndpoint = transport.getBaseUrl() + "/groups";
     }
 
     /**
      * Pobiera wszystkie grupy z serwera asynchronicznie.
      *
-     * <p>Wykonuje żądanie GET do endpointu {@value #GROUPS_ENDPOINT} i deserializuje
+     * <p>Wykonuje żądanie GET do endpointu {@code /api/groups} i deserializuje
      * odpowiedź JSON do listy obiektów {@link Group}. Operacja jest wykonywana
      * asynchronicznie w tle, nie blokując wątku interfejsu użytkownika.</p>
      *
@@ -170,7 +158,7 @@ public class GroupService {
      *   <li>Wysłanie żądania HTTP GET do serwera</li>
      *   <li>Oczekiwanie na odpowiedź (max 30 sekund)</li>
      *   <li>Sprawdzenie kodu statusu HTTP (oczekiwany: 200)</li>
-     *   <li>Deserializacja JSON do listy Group</li>
+     *   <li>Strumieniowa deserializacja JSON do listy Group</li>
      *   <li>Konwersja obiektów serwera do obiektów klienta</li>
      * </ol>
      *
@@ -203,36 +191,71 @@ public class GroupService {
      * @see Group
      */
     public CompletableFuture<List<Group>> getAllGroupsAsync() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(GROUPS_ENDPOINT))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    return parseGroupsFromJson(response.body());
-                } else {
-                    throw new RuntimeException("Server responded with status: " + response.statusCode()
-                            + " Body: " + response.body());
-                }
-
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to fetch groups from server: " + e.getMessage(), e);
-            }
-        });
+        return transport.fetchCached(EntityCache.Keys.GROUPS_ALL, "GET " + groupsEndpoint, () ->
+                transport.sendStreaming(HttpTransport.Endpoint.GROUPS, () -> {
+                    return transport.newRequest(HttpTransport.Endpoint.GROUPS, groupsEndpoint)
+                            .header("Content-Type", "application/json")
+                            .GET()
+                            .build();
+                }, response -> {
+                    if (response.statusCode() == 200) {
+                        return parseGroupsFromJson(response.body());
+                    } else {
+                        throw new RuntimeException("Server responded with status: " + response.statusCode()
+                                + " Body: " + HttpTransport.readBody(response));
+                    }
+                }, "Failed to fetch groups from server"));
+    }
+
+    /**
+     * Pobiera wszystkie grupy asynchronicznie, przekazując je porcjami w trakcie pobierania.
+     *
+     * <p>Działa jak {@link #getAllGroupsAsync()}, ale każda porcja {@code chunkSize} grup
+     * trafia do {@code onChunk} od razu po odczytaniu ze strumienia odpowiedzi.</p>
+     *
+     * <p><strong>Uwaga:</strong> {@code onChunk} jest wywoływany na wątku transportu HTTP,
+     * nie na wątku JavaFX.</p>
+     *
+     * @param chunkSize maksymalna liczba grup w jednej porcji
+     * @param onChunk odbiorca kolejnych porcji grup
+     * @return CompletableFuture z łączną liczbą pobranych grup
+     *
+     * @see #getAllGroupsAsync()
+     */
+    public CompletableFuture<Integer> getAllGroupsAsync(int chunkSize, Consumer<List<Group>> onChunk) {
+        return transport.fetchCachedInChunks(EntityCache.Keys.GROUPS_ALL, chunkSize, onChunk, sink ->
+                transport.sendStreaming(HttpTransport.Endpoint.GROUPS, () -> {
+                    return transport.newRequest(HttpTransport.Endpoint.GROUPS, groupsEndpoint)
+                            .header("Content-Type", "application/json")
+                            .GET()
+                            .build();
+                }, response -> {
+                    if (response.statusCode() == 200) {
+                        return parseGroupsInChunks(response.body(), chunkSize, sink);
+                    } else {
+                        throw new RuntimeException("Server responded with status: " + response.statusCode()
+                                + " Body: " + HttpTransport.readBody(response));
+                    }
+                }, "Failed to fetch groups from server"));
+    }
+
+    /**
+     * Zwraca ostatnio pobraną listę grup z pamięci podręcznej, bez komunikacji z serwerem.
+     *
+     * <p>Pozwala widokowi natychmiast pokazać znane dane, a następnie - jeśli
+     * {@link EntityCache.CachedValue#isFresh()} zwraca false - odświeżyć je w tle
+     * przez {@link #getAllGroupsAsync()}.</p>
+     *
+     * @return lista z flagą świeżości lub null, jeśli grupy nie były jeszcze pobierane
+     */
+    public EntityCache.CachedValue<List<Group>> peekAllGroups() {
+        return transport.getCache().peek(EntityCache.Keys.GROUPS_ALL);
     }
 
     /**
      * Dodaje nową grupę na serwer asynchronicznie.
      *
-     * <p>Wykonuje żądanie POST do endpointu {@value #GROUPS_ENDPOINT} z danymi grupy
+     * <p>Wykonuje żądanie POST do endpointu {@code /api/groups} z danymi grupy
      * w formacie JSON. Zwraca grupę z uzupełnionymi danymi z serwera (np. ID, data utworzenia).
      * Operacja sprawdza unikalność nazwy grupy i rzuca wyjątek w przypadku duplikatu.</p>
      *
@@ -288,34 +311,25 @@ public class GroupService {
      * @see GroupAlreadyExistsException
      */
     public CompletableFuture<Group> addGroupAsync(Group group) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String jsonBody = groupToJson(group);
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(GROUPS_ENDPOINT))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 201 || response.statusCode() == 200) {
-                    return parseGroupFromJson(response.body());
-                } else if (response.statusCode() == 409) {
-                    throw new GroupAlreadyExistsException("Grupa o nazwie '" + group.getName() + "' już istnieje w systemie!");
-                } else {
-                    throw new RuntimeException("Server responded with status: " + response.statusCode()
-                            + " Body: " + response.body());
-                }
-
-            } catch (GroupAlreadyExistsException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to add group to server: " + e.getMessage(), e);
+        return transport.send(HttpTransport.Endpoint.GROUPS, () -> {
+            String jsonBody = groupToJson(group);
+
+            return transport.newRequest(HttpTransport.Endpoint.GROUPS, groupsEndpoint)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+                    .build();
+        }, response -> {
+            if (response.statusCode() == 201 || response.statusCode() == 200) {
+                return parseGroupFromJson(response.body());
+            } else if (response.statusCode() == 409) {
+                throw new GroupAlreadyExistsException("Grupa o nazwie '" + group.getName() + "' już istnieje w systemie!");
+            } else {
+                throw new RuntimeException("Server responded with status: " + response.statusCode()
+                        + " Body: " + response.body());
+            }
+        }, "Failed to add group to server").whenComplete((result, error) -> {
+            if (error == null) {
+                transport.getCache().invalidate(EntityCache.Keys.GROUPS_ALL);
             }
         });
     }
@@ -401,69 +415,87 @@ public class GroupService {
      * @see #checkAvailableEndpoints(String)
      */
     public CompletableFuture<Boolean> deleteGroupAsync(String groupName) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String encodedName = java.net.URLEncoder.encode(groupName, "UTF-8");
-
-                String[] possibleUrls = {
-                        GROUPS_ENDPOINT + "/" + encodedName,           // /api/groups/nazwa
-                        GROUPS_ENDPOINT + "/delete/" + encodedName,    // /api/groups/delete/nazwa
-                        GROUPS_ENDPOINT + "?name=" + encodedName       // /api/groups?name=nazwa
-                };
+        String encodedName;
+        try {
+            encodedName = java.net.URLEncoder.encode(groupName, "UTF-8");
+        } catch (Exception e) {
+            System.err.println("❌ Ogólny błąd usuwania grupy: " + e.getMessage());
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Failed to delete group from server: " + e.getMessage(), e));
+        }
 
-                System.out.println("=== PRÓBA USUWANIA GRUPY: " + groupName + " ===");
+        List<String> possibleUrls = List.of(
+                groupsEndpoint + "/" + encodedName,           // /api/groups/nazwa
+                groupsEndpoint + "/delete/" + encodedName,    // /api/groups/delete/nazwa
+                groupsEndpoint + "?name=" + encodedName       // /api/groups?name=nazwa
+        );
 
-                for (String url : possibleUrls) {
-                    System.out.println("Próbuję URL: " + url);
+        System.out.println("=== PRÓBA USUWANIA GRUPY: " + groupName + " ===");
 
-                    try {
-                        HttpRequest request = HttpRequest.newBuilder()
-                                .uri(URI.create(url))
-                                .header("Content-Type", "application/json")
-                                .header("Accept", "application/json")
-                                .timeout(Duration.ofSeconds(30))
-                                .DELETE()
-                                .build();
+        return tryDeleteGroup(possibleUrls, 0).whenComplete((result, error) -> {
+            if (error == null) {
+                transport.getCache().invalidate(EntityCache.Keys.GROUPS_ALL, EntityCache.Keys.SCHEDULES_ALL,
+                        EntityCache.Keys.schedulesOfGroup(groupName));
+                // Studenci usuniętej grupy tracą przypisanie
+                transport.getCache().invalidatePrefix(EntityCache.Keys.STUDENTS);
+            }
+        });
+    }
 
-                        HttpResponse<String> response = httpClient.send(request,
-                                HttpResponse.BodyHandlers.ofString());
+    /**
+     * Próbuje usunąć grupę pod kolejnym adresem z listy, przechodząc do następnego
+     * dopiero po otrzymaniu odpowiedzi z poprzedniego.
+     *
+     * @param urls lista adresów do sprawdzenia
+     * @param index indeks aktualnie sprawdzanego adresu
+     * @return CompletableFuture z wynikiem - true przy pierwszym sukcesie
+     */
+    private CompletableFuture<Boolean> tryDeleteGroup(List<String> urls, int index) {
+        if (index >= urls.size()) {
+            System.err.println("❌ WSZYSTKIE URL-e niepomyślne - grupa nie została usunięta");
+            return CompletableFuture.completedFuture(false);
+        }
 
-                        System.out.println("Status odpowiedzi: " + response.statusCode());
-                        System.out.println("Treść odpowiedzi: '" + response.body() + "'");
+        String url = urls.get(index);
+        System.out.println("Próbuję URL: " + url);
 
-                        if (response.statusCode() == 200 || response.statusCode() == 204) {
-                            System.out.println("✅ Grupa została usunięta pomyślnie (status: " + response.statusCode() + ")");
-                            return true;
+        HttpRequest request = transport.newRequest(HttpTransport.Endpoint.GROUPS, url)
+                .header("Content-Type", "application/json")
+                .DELETE()
+                .build();
 
-                        } else if (response.statusCode() == 404) {
-                            System.out.println("❌ 404 - Endpoint nie istnieje lub grupa nie znaleziona na serwerze");
+        return transport.sendAsync(HttpTransport.Endpoint.GROUPS, request).handle((response, urlException) -> {
+            if (urlException != null) {
+                System.err.println("❌ Wyjątek dla URL " + url + ": " + urlException.getMessage());
+                return false;
+            }
 
-                        } else if (response.statusCode() == 405) {
-                            System.out.println("❌ 405 - Metoda DELETE nie jest obsługiwana na: " + url);
+            System.out.println("Status odpowiedzi: " + response.statusCode());
+            System.out.println("Treść odpowiedzi: '" + response.body() + "'");
 
-                        } else if (response.statusCode() >= 400 && response.statusCode() < 500) {
-                            System.out.println("❌ Błąd klienta " + response.statusCode() + " dla URL: " + url);
+            if (response.statusCode() == 200 || response.statusCode() == 204) {
+                System.out.println("✅ Grupa została usunięta pomyślnie (status: " + response.statusCode() + ")");
+                return true;
 
-                        } else if (response.statusCode() >= 500) {
-                            System.out.println("❌ Błąd serwera " + response.statusCode() + " dla URL: " + url);
+            } else if (response.statusCode() == 404) {
+                System.out.println("❌ 404 - Endpoint nie istnieje lub grupa nie znaleziona na serwerze");
 
-                        } else {
-                            System.out.println("❓ Nieoczekiwany status " + response.statusCode() + " dla URL: " + url);
-                        }
+            } else if (response.statusCode() == 405) {
+                System.out.println("❌ 405 - Metoda DELETE nie jest obsługiwana na: " + url);
 
-                    } catch (Exception urlException) {
-                        System.err.println("❌ Wyjątek dla URL " + url + ": " + urlException.getMessage());
-                    }
-                }
+            } else if (response.statusCode() >= 400 && response.statusCode() < 500) {
+                System.out.println("❌ Błąd klienta " + response.statusCode() + " dla URL: " + url);
 
-                System.err.println("❌ WSZYSTKIE URL-e niepomyślne - grupa nie została usunięta");
-                return false;
+            } else if (response.statusCode() >= 500) {
+                System.out.println("❌ Błąd serwera " + response.statusCode() + " dla URL: " + url);
 
-            } catch (Exception e) {
-                System.err.println("❌ Ogólny błąd usuwania grupy: " + e.getMessage());
-                throw new RuntimeException("Failed to delete group from server: " + e.getMessage(), e);
+            } else {
+                System.out.println("❓ Nieoczekiwany status " + response.statusCode() + " dla URL: " + url);
             }
-        });
+            return false;
+        }).thenCompose(deleted -> deleted
+                ? CompletableFuture.completedFuture(true)
+                : tryDeleteGroup(urls, index + 1));
     }
 
     /**
@@ -511,71 +543,79 @@ public class GroupService {
      * @see #deleteGroupAsync(String)
      */
     public CompletableFuture<String> checkAvailableEndpoints(String groupName) {
-        return CompletableFuture.supplyAsync(() -> {
-            System.out.println("=== SPRAWDZANIE DOSTĘPNYCH ENDPOINTÓW DLA GRUPY: " + groupName + " ===");
-
-            try {
-                String encodedName = java.net.URLEncoder.encode(groupName, "UTF-8");
-
-                String[] testUrls = {
-                        GROUPS_ENDPOINT + "/" + encodedName,
-                        GROUPS_ENDPOINT + "/delete/" + encodedName,
-                        GROUPS_ENDPOINT + "?name=" + encodedName,
-                        GROUPS_ENDPOINT + "/remove/" + encodedName,
-                        BASE_URL + "/group/" + encodedName,
-                        BASE_URL + "/deleteGroup/" + encodedName
-                };
-
-                String[] methods = {"DELETE", "POST", "PUT"};
-
-                StringBuilder results = new StringBuilder();
-
-                for (String url : testUrls) {
-                    for (String method : methods) {
-                        try {
-                            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                                    .uri(URI.create(url))
-                                    .header("Content-Type", "application/json")
-                                    .header("Accept", "application/json")
-                                    .timeout(Duration.ofSeconds(10));
-
-                            switch (method) {
-                                case "DELETE":
-                                    requestBuilder.DELETE();
-                                    break;
-                                case "POST":
-                                    requestBuilder.POST(HttpRequest.BodyPublishers.ofString("{}"));
-                                    break;
-                                case "PUT":
-                                    requestBuilder.PUT(HttpRequest.BodyPublishers.ofString("{}"));
-                                    break;
-                            }
-
-                            HttpRequest request = requestBuilder.build();
-                            HttpResponse<String> response = httpClient.send(request,
-                                    HttpResponse.BodyHandlers.ofString());
-
-                            String result = method + " " + url + " -> " + response.statusCode();
-                            System.out.println(result);
-                            results.append(result).append("\n");
-
-                            if (response.statusCode() != 404 && response.statusCode() != 405) {
-                                System.out.println("⭐ POTENCJALNIE DZIAŁAJĄCY ENDPOINT: " + method + " " + url);
-                            }
-
-                        } catch (Exception e) {
-                            String error = method + " " + url + " -> BŁĄD: " + e.getMessage();
-                            System.out.println(error);
-                            results.append(error).append("\n");
-                        }
-                    }
-                }
+        System.out.println("=== SPRAWDZANIE DOSTĘPNYCH ENDPOINTÓW DLA GRUPY: " + groupName + " ===");
+
+        String encodedName;
+        try {
+            encodedName = java.net.URLEncoder.encode(groupName, "UTF-8");
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture("Błąd testowania endpointów: " + e.getMessage());
+        }
+
+        String[] testUrls = {
+                groupsEndpoint + "/" + encodedName,
+                groupsEndpoint + "/delete/" + encodedName,
+                groupsEndpoint + "?name=" + encodedName,
+                groupsEndpoint + "/remove/" + encodedName,
+                transport.getBaseUrl() + "/group/" + encodedName,
+                transport.getBaseUrl() + "/deleteGroup/" + encodedName
+        };
+
+        String[] methods = {"DELETE", "POST", "PUT"};
+
+        StringBuilder results = new StringBuilder();
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+
+        // Żądania diagnostyczne wysyłamy po kolei, tak jak wcześniej - zmieniają stan serwera
+        for (String url : testUrls) {
+            for (String method : methods) {
+                chain = chain.thenCompose(ignored -> probeEndpoint(url, method, results));
+            }
+        }
+
+        return chain.thenApply(ignored -> results.toString());
+    }
+
+    /**
+     * Wysyła pojedyncze żądanie diagnostyczne i dopisuje wynik do raportu.
+     *
+     * @param url testowany adres
+     * @param method metoda HTTP (DELETE, POST lub PUT)
+     * @param results bufor raportu
+     * @return CompletableFuture zakończony po otrzymaniu odpowiedzi lub błędu
+     */
+    private CompletableFuture<Void> probeEndpoint(String url, String method, StringBuilder results) {
+        HttpRequest.Builder requestBuilder = transport.newRequest(HttpTransport.Endpoint.DIAGNOSTICS, url)
+                .header("Content-Type", "application/json");
+
+        switch (method) {
+            case "DELETE":
+                requestBuilder.DELETE();
+                break;
+            case "POST":
+                requestBuilder.POST(HttpRequest.BodyPublishers.ofString("{}"));
+                break;
+            case "PUT":
+                requestBuilder.PUT(HttpRequest.BodyPublishers.ofString("{}"));
+                break;
+        }
 
-                return results.toString();
+        return transport.sendAsync(HttpTransport.Endpoint.DIAGNOSTICS, requestBuilder.build()).handle((response, e) -> {
+            if (e != null) {
+                String error = method + " " + url + " -> BŁĄD: " + e.getMessage();
+                System.out.println(error);
+                results.append(error).append("\n");
+                return null;
+            }
+
+            String result = method + " " + url + " -> " + response.statusCode();
+            System.out.println(result);
+            results.append(result).append("\n");
 
-            } catch (Exception e) {
-                return "Błąd testowania endpointów: " + e.getMessage();
+            if (response.statusCode() != 404 && response.statusCode() != 405) {
+                System.out.println("⭐ POTENCJALNIE DZIAŁAJĄCY ENDPOINT: " + method + " " + url);
             }
+            return null;
         });
     }
 
@@ -588,6 +628,9 @@ public class GroupService {
      * <p>Endpoint sprawdzany: {@code GET /api/groups/health}</p>
      * <p>Timeout: 5 sekund</p>
      *
+     * <p>Udane połączenie uruchamia wysyłkę zmian zapisanych w kolejce offline
+     * ({@link HttpTransport#drainOutbox()}).</p>
+     *
      * @return CompletableFuture z wynikiem testu połączenia:
      *         <ul>
      *           <li><strong>true</strong> - serwer jest dostępny i odpowiada</li>
@@ -597,23 +640,20 @@ public class GroupService {
      * @see #getAllGroupsAsync()
      */
     public CompletableFuture<Boolean> checkServerConnection() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(GROUPS_ENDPOINT + "/health"))
-                        .timeout(Duration.ofSeconds(5))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                return response.statusCode() == 200;
+        HttpRequest request = transport.newRequest(HttpTransport.Endpoint.HEALTH, groupsEndpoint + "/health")
+                .GET()
+                .build();
 
-            } catch (Exception e) {
-                return false;
-            }
-        });
+        return transport.sendAsync(HttpTransport.Endpoint.HEALTH, request)
+                .thenApply(response -> {
+                    boolean connected = response.statusCode() == 200;
+                    if (connected) {
+                        // Połączenie wróciło - wyślij zmiany zapisane offline
+                        transport.drainOutbox();
+                    }
+                    return connected;
+                })
+                .exceptionally(e -> false);
     }
 
 
@@ -624,19 +664,36 @@ public class GroupService {
      * używanych w aplikacji klienckiej. Obsługuje automatyczną konwersję
      * typów danych i mapowanie pól.</p>
      *
-     * @param json JSON z odpowiedzi serwera zawierający listę grup
+     * @param json strumień odpowiedzi serwera zawierający listę grup
      * @return lista obiektów Group
      * @throws RuntimeException jeśli nie można sparsować JSON
      */
-    private List<Group> parseGroupsFromJson(String json) {
+    private List<Group> parseGroupsFromJson(InputStream json) {
         try {
-            List<GroupFromServer> serverGroups = objectMapper.readValue(json, new TypeReference<List<GroupFromServer>>() {});
-
-            return serverGroups.stream()
-                    .map(this::convertToGroup)
-                    .toList();
+            return jsonReader.readArray(json, GroupFromServer.class, this::convertToGroup);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse groups JSON: " + e.getMessage(), e);
+        }
+    }
 
-        } catch (JsonProcessingException e) {
+    /**
+     * Parsuje strumień z listą grup, przekazując skonwertowane grupy porcjami.
+     *
+     * @param json strumień odpowiedzi serwera zawierający listę grup
+     * @param chunkSize maksymalna liczba grup w porcji
+     * @param onChunk odbiorca porcji
+     * @return pełna, niemodyfikowalna lista grup
+     * @throws RuntimeException jeśli nie można sparsować JSON
+     */
+    private List<Group> parseGroupsInChunks(InputStream json, int chunkSize, Consumer<List<Group>> onChunk) {
+        try {
+            List<Group> all = new java.util.ArrayList<>();
+            jsonReader.readArrayInChunks(json, GroupFromServer.class, this::convertToGroup, chunkSize, chunk -> {
+                all.addAll(chunk);
+                onChunk.accept(chunk);
+            });
+            return List.copyOf(all);
+        } catch (IOException e) {
             throw new RuntimeException("Failed to parse groups JSON: " + e.getMessage(), e);
         }
     }
@@ -749,7 +806,7 @@ public class GroupService {
      *
      * @see #addGroupAsync(Group)
      */
-    public static class GroupAlreadyExistsException extends RuntimeException {
+    public static class GroupAlreadyExistsException extends HttpTransport.ServerRejectedException {
         /**
          * Konstruktor wyjątku z komunikatem błędu.
          *
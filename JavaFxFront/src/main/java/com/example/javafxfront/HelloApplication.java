@@ -6,6 +6,7 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Główna klasa aplikacji JavaFX - Dziennik Online.
@@ -136,6 +137,8 @@ import java.io.IOException;
  */
 public class HelloApplication extends Application {
 
+    private final SnapshotStore snapshotStore = SnapshotStore.fromSystemProperties();
+
     /**
      * Główna metoda uruchamiająca aplikację JavaFX.
      *
@@ -151,8 +154,10 @@ public class HelloApplication extends Application {
      *
      * <h3>Proces inicjalizacji:</h3>
      * <ol>
+     *   <li>Rozpoczęcie wczytywania lokalnej migawki ({@link SnapshotStore}) w tle</li>
      *   <li>Tworzenie FXMLLoader dla głównego widoku</li>
      *   <li>Ładowanie hierarchii węzłów z pliku FXML</li>
+     *   <li>Oczekiwanie na migawkę i wyświetlenie odtworzonych grup (odświeżanych w tle)</li>
      *   <li>Utworzenie sceny o rozmiarze 1400x800</li>
      *   <li>Załadowanie arkuszy stylów CSS</li>
      *   <li>Konfiguracja właściwości Stage (okna)</li>
@@ -210,9 +215,18 @@ public class HelloApplication extends Application {
      */
     @Override
     public void start(Stage stage) throws IOException {
+        // Migawka jest dekodowana równolegle z parsowaniem FXML
+        EntityCache cache = HttpTransport.getShared().getCache();
+        CompletableFuture<Integer> snapshotLoad = CompletableFuture.supplyAsync(() -> snapshotStore.load(cache));
+
         FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("modern-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 1400, 800);
 
+        if (snapshotLoad.join() > 0) {
+            ModernController controller = fxmlLoader.getController();
+            controller.showRestoredData();
+        }
+
         // Dodanie CSS stylów
         //Komentarz do commita o 3 pierwszych dzialajacyh punktach
         //Naprawa widzenia terminow
@@ -225,6 +239,24 @@ public class HelloApplication extends Application {
         stage.show();
     }
 
+    /**
+     * Zapisuje lokalną migawkę danych przy zamykaniu aplikacji.
+     *
+     * <p>Migawka zawiera ostatnio pobrane listy grup, studentów i terminów
+     * (wraz z frekwencją) i jest wczytywana przy następnym uruchomieniu
+     * w {@link #start(Stage)}. Błąd zapisu nie blokuje zamknięcia aplikacji.</p>
+     *
+     * @see SnapshotStore#save(EntityCache)
+     */
+    @Override
+    public void stop() {
+        try {
+            snapshotStore.save(HttpTransport.getShared().getCache());
+        } catch (IOException e) {
+            System.err.println("⚠️ Nie udało się zapisać migawki: " + e.getMessage());
+        }
+    }
+
     /**
      * Statyczna metoda main - punkt wejścia aplikacji Java.
      *
@@ -0,0 +1,1210 @@
+package com.example.javafxfront;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Wspólna warstwa transportowa HTTP dla wszystkich serwisów aplikacji.
+ *
+ * <p>HttpTransport jest jedynym właścicielem klienta {@link HttpClient} oraz
+ * skonfigurowanego {@link ObjectMapper}. Serwisy ({@link StudentService},
+ * {@link GroupService}, {@link ScheduleService}, {@link AttendanceService})
+ * nie tworzą już własnych klientów, lecz delegują do tej klasy. Dzięki temu
+ * otwarcie kolejnego okna grupy nie tworzy nowej puli połączeń i nie płaci
+ * ponownie kosztu nawiązywania połączenia TCP.</p>
+ *
+ * <h3>Konfiguracja:</h3>
+ * <p>Domyślna instancja ({@link #getShared()}) odczytuje ustawienia z właściwości
+ * systemowych:</p>
+ * <ul>
+ *   <li>{@code dziennik.api.baseUrl} - bazowy URL serwera API (domyślnie {@value #DEFAULT_BASE_URL})</li>
+ *   <li>{@code dziennik.http.poolSize} - maksymalna liczba połączeń w puli (domyślnie {@value #DEFAULT_POOL_SIZE})</li>
+ *   <li>{@code dziennik.http.keepAliveSeconds} - czas utrzymywania bezczynnego połączenia (domyślnie {@value #DEFAULT_KEEP_ALIVE_SECONDS})</li>
+ *   <li>{@code dziennik.http.maxConcurrentRequests} - maksymalna liczba jednocześnie wysłanych żądań (domyślnie {@value #DEFAULT_MAX_CONCURRENT_REQUESTS})</li>
+ *   <li>{@code dziennik.http.executionMode} - model wykonania: {@code ASYNC} (domyślnie) lub {@code VIRTUAL_THREADS}</li>
+ *   <li>{@code dziennik.http.timeout.<endpoint>} - timeout żądania w sekundach dla danego {@link Endpoint}</li>
+ *   <li>{@code dziennik.cache.ttlSeconds}, {@code dziennik.cache.maxEntries} - pamięć podręczna odczytów ({@link EntityCache})</li>
+ *   <li>{@code dziennik.outbox.retrySeconds} - ponawianie wysyłki zmian zapisanych offline ({@link Outbox})</li>
+ * </ul>
+ *
+ * <p>Pula połączeń klienta JDK jest konfigurowana globalnymi właściwościami
+ * {@code jdk.httpclient.connectionPoolSize} i {@code jdk.httpclient.keepalive.timeout}.
+ * Są one ustawiane przed zbudowaniem pierwszego klienta, o ile użytkownik
+ * nie podał ich jawnie w linii poleceń.</p>
+ *
+ * <h3>Model wykonania:</h3>
+ * <p>Żądania są wysyłane nieblokująco przez {@link HttpClient#sendAsync}, a parsowanie
+ * odpowiedzi odbywa się w złożonym etapie na executorze transportu. Żaden wątek
+ * nie czeka na odpowiedź serwera, więc liczba równoległych żądań jest ograniczona
+ * przez sieć i pulę połączeń, a nie przez rozmiar {@code ForkJoinPool.commonPool()}.
+ * Żądania ponad limit {@code dziennik.http.maxConcurrentRequests} czekają w kolejce,
+ * ponieważ serwery HTTP/2 ograniczają liczbę równoległych strumieni na połączenie
+ * (klient JDK zgłasza wtedy "too many concurrent streams" zamiast czekać).</p>
+ *
+ * <p>W trybie {@link ExecutionMode#VIRTUAL_THREADS} każde żądanie wraz z parsowaniem
+ * JSON wykonuje się blokująco na osobnym wątku wirtualnym (executor wątek-na-zadanie,
+ * osobny dla każdej grupy endpointów). Liczniki zadań w toku i czasu przypięcia
+ * wątków nośnych są dostępne przez {@link #getMetrics(Endpoint)}.</p>
+ *
+ * <h3>Przykład użycia:</h3>
+ * <pre>
+ * {@code
+ * HttpTransport transport = HttpTransport.getShared();
+ * HttpRequest request = transport.newRequest(HttpTransport.Endpoint.GROUPS,
+ *                                            transport.getBaseUrl() + "/groups")
+ *                                .GET()
+ *                                .build();
+ *
+ * transport.send(HttpTransport.Endpoint.GROUPS, () -> request,
+ *                response -> response.statusCode() == 200,
+ *                "Nie udało się pobrać grup");
+ *
+ * System.out.println(transport.describeMetrics());
+ * }
+ * </pre>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see StudentService
+ * @see GroupService
+ * @see ScheduleService
+ * @see AttendanceService
+ */
+public final class HttpTransport {
+
+    /**
+     * Domyślny bazowy URL serwera API.
+     */
+    public static final String DEFAULT_BASE_URL = "http://localhost:8080/api";
+
+    /**
+     * Domyślny maksymalny rozmiar puli połączeń.
+     */
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    /**
+     * Domyślny czas utrzymywania bezczynnego połączenia w sekundach.
+     */
+    public static final int DEFAULT_KEEP_ALIVE_SECONDS = 120;
+
+    /**
+     * Domyślna maksymalna liczba jednocześnie wysłanych żądań.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 64;
+
+    /**
+     * Domyślny timeout nawiązywania połączenia.
+     */
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Grupy endpointów API wraz z domyślnymi timeoutami żądań.
+     *
+     * <p>Timeout każdej grupy można nadpisać właściwością systemową
+     * {@code dziennik.http.timeout.<nazwa>} (np. {@code dziennik.http.timeout.attendance=15}).</p>
+     */
+    public enum Endpoint {
+        /** Operacje na studentach ({@code /students}). */
+        STUDENTS(Duration.ofSeconds(30)),
+        /** Operacje na grupach ({@code /groups}). */
+        GROUPS(Duration.ofSeconds(30)),
+        /** Operacje na terminach zajęć ({@code /schedules}). */
+        SCHEDULES(Duration.ofSeconds(30)),
+        /** Operacje na frekwencji ({@code /attendance}). */
+        ATTENDANCE(Duration.ofSeconds(30)),
+        /** Szybkie sprawdzenie dostępności serwera. */
+        HEALTH(Duration.ofSeconds(5)),
+        /** Diagnostyka dostępnych endpointów. */
+        DIAGNOSTICS(Duration.ofSeconds(10));
+
+        private final Duration defaultTimeout;
+
+        Endpoint(Duration defaultTimeout) {
+            this.defaultTimeout = defaultTimeout;
+        }
+
+        /**
+         * Zwraca domyślny timeout żądań dla tej grupy endpointów.
+         *
+         * @return domyślny timeout
+         */
+        public Duration getDefaultTimeout() {
+            return defaultTimeout;
+        }
+    }
+
+    /**
+     * Model wykonania żądań, wybierany przy starcie aplikacji.
+     */
+    public enum ExecutionMode {
+        /** Nieblokujący potok {@code sendAsync} z etapami parsowania na executorze transportu. */
+        ASYNC,
+        /** Blokujące {@code send} i parsowanie na wątku wirtualnym per zadanie (Java 21). */
+        VIRTUAL_THREADS;
+
+        /**
+         * Odczytuje tryb z właściwości systemowej {@code dziennik.http.executionMode}.
+         *
+         * @return wybrany tryb lub {@link #ASYNC}, jeśli właściwość nie jest ustawiona lub jest nieprawidłowa
+         */
+        public static ExecutionMode fromSystemProperties() {
+            String value = System.getProperty("dziennik.http.executionMode");
+            if (value == null || value.isBlank()) {
+                return ASYNC;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️ Nieznany tryb wykonania: " + value + " - używam ASYNC");
+                return ASYNC;
+            }
+        }
+    }
+
+    /**
+     * Funkcja przetwarzająca odpowiedź HTTP na wynik operacji.
+     *
+     * <p>Może rzucać dowolny wyjątek - zostanie on opakowany komunikatem
+     * operacji, chyba że jest to {@link ServerRejectedException}.</p>
+     *
+     * @param <T> typ wyniku
+     */
+    @FunctionalInterface
+    public interface ResponseHandler<T> {
+        /**
+         * Przetwarza odpowiedź serwera.
+         *
+         * @param response odpowiedź HTTP z treścią jako String
+         * @return wynik operacji
+         * @throws Exception jeśli odpowiedź jest nieprawidłowa lub nie można jej sparsować
+         */
+        T handle(HttpResponse<String> response) throws Exception;
+    }
+
+    /**
+     * Funkcja czytająca odpowiedź HTTP bezpośrednio ze strumienia.
+     *
+     * <p>Obsługa wyjątków jest taka sama jak dla {@link ResponseHandler}.</p>
+     *
+     * @param <T> typ wyniku
+     */
+    @FunctionalInterface
+    public interface StreamHandler<T> {
+        /**
+         * Przetwarza odpowiedź serwera, czytając treść ze strumienia.
+         *
+         * @param response odpowiedź HTTP z treścią jako InputStream
+         * @return wynik operacji
+         * @throws Exception jeśli odpowiedź jest nieprawidłowa lub nie można jej sparsować
+         */
+        T handle(HttpResponse<InputStream> response) throws Exception;
+    }
+
+    /**
+     * Fabryka żądania HTTP wywoływana przed wysłaniem.
+     *
+     * <p>Wyjątki rzucone podczas budowania żądania (np. błąd serializacji JSON)
+     * kończą zwracany CompletableFuture błędem, zamiast przerywać wywołującego.</p>
+     */
+    @FunctionalInterface
+    public interface RequestFactory {
+        /**
+         * Buduje żądanie HTTP.
+         *
+         * @return gotowe żądanie
+         * @throws Exception jeśli nie można zbudować żądania
+         */
+        HttpRequest create() throws Exception;
+    }
+
+    private static volatile HttpTransport shared;
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final Map<Endpoint, Duration> timeouts;
+    private final int maxConcurrentRequests;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentLinkedQueue<CompletableFuture<Void>> waiting = new ConcurrentLinkedQueue<>();
+    private final ExecutionMode executionMode;
+    private final Map<Endpoint, ServiceMetrics> metrics = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, ExecutorService> virtualExecutors = new EnumMap<>(Endpoint.class);
+    private final Semaphore virtualPermits;
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final EntityCache cache = EntityCache.fromSystemProperties();
+    private final Set<String> unsupportedFeatures = ConcurrentHashMap.newKeySet();
+    private final ValidatorStore validators = new ValidatorStore(
+            Integer.getInteger("dziennik.cache.maxEntries", EntityCache.DEFAULT_MAX_ENTRIES));
+    private volatile Outbox outbox;
+
+    /**
+     * Tworzy transport z podanym adresem bazowym i domyślnymi timeoutami.
+     *
+     * @param baseUrl bazowy URL serwera API (bez końcowego ukośnika)
+     */
+    public HttpTransport(String baseUrl) {
+        this(baseUrl, new EnumMap<>(Endpoint.class), DEFAULT_MAX_CONCURRENT_REQUESTS, ExecutionMode.ASYNC);
+    }
+
+    /**
+     * Tworzy transport z podanym adresem bazowym i nadpisanymi timeoutami.
+     *
+     * @param baseUrl bazowy URL serwera API (bez końcowego ukośnika)
+     * @param timeoutOverrides timeouty nadpisujące wartości domyślne; brakujące
+     *                         grupy endpointów używają {@link Endpoint#getDefaultTimeout()}
+     * @param maxConcurrentRequests maksymalna liczba jednocześnie wysłanych żądań
+     * @param executionMode model wykonania żądań
+     */
+    public HttpTransport(String baseUrl, Map<Endpoint, Duration> timeoutOverrides, int maxConcurrentRequests,
+                         ExecutionMode executionMode) {
+        if (maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("Limit równoległych żądań musi być dodatni");
+        }
+        this.baseUrl = stripTrailingSlash(baseUrl);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.executionMode = executionMode;
+        this.virtualPermits = new Semaphore(maxConcurrentRequests, true);
+
+        this.timeouts = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            timeouts.put(endpoint, timeoutOverrides.getOrDefault(endpoint, endpoint.getDefaultTimeout()));
+        }
+
+        this.executor = Executors.newCachedThreadPool(new TransportThreadFactory());
+
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(executor)
+                .build();
+
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            metrics.put(endpoint, new ServiceMetrics(endpoint.name().toLowerCase()));
+        }
+
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+            for (Endpoint endpoint : Endpoint.values()) {
+                virtualExecutors.put(endpoint, Executors.newThreadPerTaskExecutor(
+                        Thread.ofVirtual().name(virtualThreadPrefix(endpoint), 0).factory()));
+            }
+            startPinnedMonitor();
+        }
+    }
+
+    /**
+     * Zwraca współdzieloną instancję transportu, tworząc ją przy pierwszym wywołaniu.
+     *
+     * <p>Instancja jest konfigurowana na podstawie właściwości systemowych
+     * opisanych w dokumentacji klasy.</p>
+     *
+     * @return współdzielony transport
+     */
+    public static HttpTransport getShared() {
+        HttpTransport result = shared;
+        if (result == null) {
+            synchronized (HttpTransport.class) {
+                result = shared;
+                if (result == null) {
+                    configureConnectionPool();
+                    result = new HttpTransport(
+                            System.getProperty("dziennik.api.baseUrl", DEFAULT_BASE_URL),
+                            readTimeoutOverrides(),
+                            Integer.getInteger("dziennik.http.maxConcurrentRequests", DEFAULT_MAX_CONCURRENT_REQUESTS),
+                            ExecutionMode.fromSystemProperties());
+                    System.out.println("🌐 Transport HTTP: " + result.getExecutionMode()
+                            + ", " + result.getBaseUrl());
+                    try {
+                        result.attachOutbox(Outbox.fromSystemProperties());
+                    } catch (IOException e) {
+                        System.err.println("⚠️ Kolejka offline niedostępna: " + e.getMessage());
+                    }
+                    shared = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tworzy builder żądania z ustawionym URI, nagłówkiem Accept
+     * i timeoutem właściwym dla danej grupy endpointów.
+     *
+     * @param endpoint grupa endpointów, z której pobierany jest timeout
+     * @param url pełny adres żądania
+     * @return skonfigurowany builder żądania
+     */
+    public HttpRequest.Builder newRequest(Endpoint endpoint, String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Accept", "application/json")
+                .timeout(getTimeout(endpoint));
+    }
+
+    /**
+     * Buduje i wysyła żądanie, a następnie przetwarza odpowiedź podanym handlerem.
+     *
+     * <p>W trybie {@link ExecutionMode#ASYNC} żądanie jest wysyłane nieblokująco, a handler
+     * działa w złożonym etapie na executorze transportu. W trybie {@link ExecutionMode#VIRTUAL_THREADS}
+     * cała operacja (budowanie, wysłanie, parsowanie) wykonuje się na wątku wirtualnym
+     * danej grupy endpointów.</p>
+     *
+     * <p>Błędy budowania żądania, błędy sieci, timeouty oraz wyjątki rzucone przez handler
+     * są opakowywane w {@link RuntimeException} z komunikatem {@code failureMessage + ": " + przyczyna}.
+     * Wyjątki {@link ServerRejectedException} (np. duplikaty zgłaszane przez serwer)
+     * są przekazywane bez opakowania, aby wywołujący mógł je rozpoznać przez
+     * {@code throwable.getCause() instanceof ...}.</p>
+     *
+     * <p>Żądania GET są warunkowe: jeśli poprzednia odpowiedź z tego adresu miała
+     * {@code ETag} lub {@code Last-Modified}, żądanie zawiera {@code If-None-Match} /
+     * {@code If-Modified-Since}, a odpowiedź {@code 304} zwraca poprzedni wynik handlera
+     * bez jego ponownego wywołania ({@link ValidatorStore}).</p>
+     *
+     * @param <T> typ wyniku
+     * @param endpoint grupa endpointów (serwis), do której liczników zadanie jest przypisane
+     * @param requestFactory fabryka żądania do wysłania
+     * @param handler funkcja przetwarzająca odpowiedź
+     * @param failureMessage komunikat operacji używany w przypadku błędu
+     * @return CompletableFuture z wynikiem handlera
+     */
+    public <T> CompletableFuture<T> send(Endpoint endpoint, RequestFactory requestFactory,
+                                         ResponseHandler<T> handler, String failureMessage) {
+        return executeConditional(endpoint, requestFactory, HttpResponse.BodyHandlers.ofString(),
+                handler::handle, failureMessage);
+    }
+
+    /**
+     * Buduje i wysyła żądanie, przekazując handlerowi treść odpowiedzi jako strumień.
+     *
+     * <p>Handler czyta dane bezpośrednio z {@link InputStream} odpowiedzi - bez
+     * buforowania całej treści w pamięci jako String. Strumień jest zamykany
+     * automatycznie po zakończeniu handlera. Odczyt odbywa się na executorze transportu
+     * (lub na wątku wirtualnym), nigdy na wątku interfejsu użytkownika. Obsługa błędów
+     * oraz żądania warunkowe są takie same jak w {@link #send(Endpoint, RequestFactory, ResponseHandler, String)}.</p>
+     *
+     * @param <T> typ wyniku
+     * @param endpoint grupa endpointów (serwis), do której liczników zadanie jest przypisane
+     * @param requestFactory fabryka żądania do wysłania
+     * @param handler funkcja czytająca strumień odpowiedzi
+     * @param failureMessage komunikat operacji używany w przypadku błędu
+     * @return CompletableFuture z wynikiem handlera
+     */
+    public <T> CompletableFuture<T> sendStreaming(Endpoint endpoint, RequestFactory requestFactory,
+                                                  StreamHandler<T> handler, String failureMessage) {
+        return executeConditional(endpoint, requestFactory, HttpResponse.BodyHandlers.ofInputStream(), response -> {
+            InputStream body = response.body();
+            try {
+                return handler.handle(response);
+            } finally {
+                body.close();
+            }
+        }, failureMessage);
+    }
+
+    /**
+     * Wysyła operację zapisu (POST/PUT/DELETE z treścią JSON), a przy braku połączenia
+     * zapisuje ją w kolejce offline ({@link Outbox}) do późniejszego wysłania.
+     *
+     * <p>Zachowanie zależy od stanu kolejki:</p>
+     * <ul>
+     *   <li><strong>Brak kolejki</strong> (transport nie jest współdzielony) - jak
+     *       {@link #send(Endpoint, RequestFactory, ResponseHandler, String)}</li>
+     *   <li><strong>Kolejka pusta</strong> - żądanie jest wysyłane; jeśli nie dotrze na serwer
+     *       (błąd połączenia, timeout), trafia do kolejki - z wyjątkiem opisanym niżej</li>
+     *   <li><strong>Kolejka niepusta</strong> - żądanie od razu trafia na koniec kolejki,
+     *       aby nie wyprzedzić wcześniejszych zmian i nie czekać na timeout sieci</li>
+     * </ul>
+     *
+     * <p>Zmiana zapisana w kolejce kończy future wyjątkiem {@link Outbox.QueuedException}
+     * (rozpoznawanym przez {@link Outbox#isQueued(Throwable)}) - dopiero po jej trwałym
+     * zapisaniu na dysku. Odpowiedzi serwera (także błędne) są obsługiwane przez handler
+     * jak dotąd i nie trafiają do kolejki.</p>
+     *
+     * <p><strong>Celowe odstępstwo od "najpierw dziennik":</strong> przy działającej sieci
+     * zmiana nie jest zapisywana w dzienniku przed wysłaniem - trafia do niego dopiero po
+     * nieudanej próbie. Zapis z góry kosztowałby {@code fsync} i rekord ACK przy każdym
+     * kliknięciu, choć w typowym przypadku serwer odpowiada od razu. Ceną jest to, że zmiana,
+     * której pierwsza wysyłka trwała w chwili awarii aplikacji, nie zostanie wysłana ponownie.</p>
+     *
+     * <p><strong>Ponowienie nieidempotentnych zmian:</strong> po timeoucie lub zerwanym
+     * połączeniu nie wiadomo, czy serwer przetworzył żądanie. Zmiana, której ponowienie
+     * jest bezpieczne ({@link QueuedChange#isReplaySafe()} - PUT, DELETE, oznaczanie
+     * obecności), trafia wtedy do kolejki. Zmiana nieidempotentna (POST tworzący studenta
+     * lub termin) trafia do kolejki tylko wtedy, gdy połączenie nie zostało nawiązane -
+     * w pozostałych przypadkach future kończy się błędem, aby ponowienie nie utworzyło
+     * duplikatu.</p>
+     *
+     * @param <T> typ wyniku
+     * @param endpoint grupa endpointów
+     * @param method metoda HTTP
+     * @param url pełny adres żądania
+     * @param jsonBody treść JSON lub null
+     * @param handler funkcja przetwarzająca odpowiedź
+     * @param failureMessage komunikat operacji używany w przypadku błędu
+     * @return CompletableFuture z wynikiem handlera
+     */
+    public <T> CompletableFuture<T> sendOrQueue(Endpoint endpoint, String method, String url, String jsonBody,
+                                                ResponseHandler<T> handler, String failureMessage) {
+        return sendOrQueue(endpoint, method, url, jsonBody, List.of(new QueuedChange(method, url, jsonBody)),
+                handler, failureMessage);
+    }
+
+    /**
+     * Jak {@link #sendOrQueue(Endpoint, String, String, String, ResponseHandler, String)},
+     * ale do kolejki offline trafiają podane zmiany zamiast samego żądania.
+     *
+     * <p>Używane dla operacji, których serwer po powrocie sieci może nie obsłużyć
+     * (np. operacja zbiorcza na starszym serwerze) - zmiana w kolejce odrzucona przez
+     * serwer (4xx) jest usuwana, więc do kolejki trafiają jej pojedyncze odpowiedniki.
+     * Zmiany są dopisywane w podanej kolejności.</p>
+     *
+     * @param <T> typ wyniku
+     * @param endpoint grupa endpointów
+     * @param method metoda HTTP
+     * @param url pełny adres żądania
+     * @param jsonBody treść JSON lub null
+     * @param queuedAs zmiany zapisywane w kolejce, jeśli żądanie nie może zostać wysłane
+     * @param handler funkcja przetwarzająca odpowiedź
+     * @param failureMessage komunikat operacji używany w przypadku błędu
+     * @return CompletableFuture z wynikiem handlera
+     */
+    public <T> CompletableFuture<T> sendOrQueue(Endpoint endpoint, String method, String url, String jsonBody,
+                                                List<QueuedChange> queuedAs, ResponseHandler<T> handler,
+                                                String failureMessage) {
+        RequestFactory requestFactory = () -> mutationRequest(endpoint, method, url, jsonBody);
+        Outbox queue = outbox;
+        if (queue == null) {
+            return send(endpoint, requestFactory, handler, failureMessage);
+        }
+        if (queue.hasPending()) {
+            return enqueue(queue, endpoint, queuedAs, null);
+        }
+        return send(endpoint, requestFactory, handler, failureMessage)
+                .exceptionallyCompose(error -> isNetworkFailure(error)
+                        && (isConnectFailure(error) || queuedAs.stream().allMatch(QueuedChange::isReplaySafe))
+                        ? enqueue(queue, endpoint, queuedAs, error)
+                        : CompletableFuture.failedFuture(error));
+    }
+
+    /**
+     * Uruchamia wysyłkę zmian zapisanych w kolejce offline.
+     *
+     * @return future z liczbą zmian zdjętych z kolejki (0 bez kolejki)
+     */
+    public CompletableFuture<Integer> drainOutbox() {
+        Outbox queue = outbox;
+        return queue != null ? queue.drain(this) : CompletableFuture.completedFuture(0);
+    }
+
+    /**
+     * Dołącza kolejkę offline do transportu. Zaległe zmiany z poprzedniej sesji
+     * zostaną wysłane w tle.
+     *
+     * @param outbox kolejka offline
+     */
+    public void attachOutbox(Outbox outbox) {
+        this.outbox = outbox;
+        if (outbox.hasPending()) {
+            outbox.scheduleDrain(this);
+        }
+    }
+
+    /**
+     * Zwraca kolejkę offline lub null, jeśli transport jej nie używa.
+     *
+     * @return kolejka offline lub null
+     */
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    /**
+     * Buduje żądanie operacji zapisu - wspólne dla pierwszej próby i wysyłki z kolejki.
+     */
+    HttpRequest mutationRequest(Endpoint endpoint, String method, String url, String jsonBody) {
+        return newRequest(endpoint, url)
+                .header("Content-Type", "application/json")
+                .method(method, jsonBody != null
+                        ? HttpRequest.BodyPublishers.ofString(jsonBody)
+                        : HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    /**
+     * Zamienia ścieżkę zapisaną w kolejce na pełny adres względem bieżącego adresu bazowego.
+     */
+    String resolve(String path) {
+        return path.startsWith("/") ? baseUrl + path : path;
+    }
+
+    private <T> CompletableFuture<T> enqueue(Outbox queue, Endpoint endpoint, List<QueuedChange> changes,
+                                             Throwable networkError) {
+        CompletableFuture<?>[] appends = new CompletableFuture<?>[changes.size()];
+        for (int i = 0; i < appends.length; i++) {
+            QueuedChange change = changes.get(i);
+            String url = change.getUrl();
+            String path = url.startsWith(baseUrl + "/") ? url.substring(baseUrl.length()) : url;
+            appends[i] = queue.append(endpoint, change.getMethod(), path, change.getJsonBody());
+        }
+        return CompletableFuture.allOf(appends).handle((ignored, appendError) -> {
+            if (appendError != null) {
+                // Zmiana nie jest trwała - zgłoś pierwotny błąd
+                throw new CompletionException(networkError != null ? unwrap(networkError) : unwrap(appendError));
+            }
+            queue.scheduleDrain(this);
+            throw new CompletionException(new Outbox.QueuedException(
+                    "Brak połączenia z serwerem - zmiana zapisana i zostanie wysłana automatycznie"));
+        });
+    }
+
+    /**
+     * Sprawdza, czy żądanie nie dotarło na serwer z powodu sieci (a nie odpowiedzi serwera
+     * lub błędu parsowania).
+     */
+    private static boolean isNetworkFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof IOException && !(t instanceof JsonProcessingException)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sprawdza, czy nie udało się nawiązać połączenia - żądanie na pewno nie dotarło na serwer.
+     */
+    private static boolean isConnectFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wysyła żądanie i zwraca surową odpowiedź z treścią jako String.
+     *
+     * <p>Jeśli osiągnięto limit jednocześnie wysłanych żądań, żądanie czeka
+     * w kolejce FIFO i zostanie wysłane po zakończeniu jednego z poprzednich.</p>
+     *
+     * @param endpoint grupa endpointów (serwis), do której liczników zadanie jest przypisane
+     * @param request żądanie do wysłania
+     * @return CompletableFuture z odpowiedzią HTTP
+     */
+    public CompletableFuture<HttpResponse<String>> sendAsync(Endpoint endpoint, HttpRequest request) {
+        return execute(endpoint, () -> request, HttpResponse.BodyHandlers.ofString(),
+                response -> response, "Żądanie " + request.method() + " " + request.uri() + " nie powiodło się");
+    }
+
+    /**
+     * Odczytuje całą treść odpowiedzi strumieniowej jako tekst UTF-8.
+     *
+     * <p>Przeznaczone dla odpowiedzi błędnych, których treść trafia do komunikatu wyjątku.</p>
+     *
+     * @param response odpowiedź strumieniowa
+     * @return treść odpowiedzi
+     * @throws IOException jeśli nie można odczytać strumienia
+     */
+    public static String readBody(HttpResponse<InputStream> response) throws IOException {
+        return new String(response.body().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Wykonuje żądanie GET, łącząc je z identycznym żądaniem już w toku.
+     *
+     * <p>Równoległe wywołania z tym samym kluczem (np. kilka paneli ładujących listę
+     * wszystkich studentów przy starcie) współdzielą jedno żądanie HTTP i jeden
+     * sparsowany wynik. Szczegóły w {@link SingleFlight}.</p>
+     *
+     * @param <T> typ wyniku
+     * @param key klucz żądania, zwykle {@code "GET " + url}
+     * @param loader funkcja wysyłająca żądanie (np. wywołanie {@link #sendStreaming})
+     * @return future z wynikiem
+     */
+    public <T> CompletableFuture<T> coalesce(String key, Supplier<CompletableFuture<T>> loader) {
+        return singleFlight.execute(key, loader);
+    }
+
+    /**
+     * Zwraca wartość z pamięci podręcznej albo pobiera ją z serwera, łącząc równoległe żądania.
+     *
+     * <p>Świeży wpis pamięci podręcznej jest zwracany bez komunikacji z serwerem.
+     * W przeciwnym razie żądanie przechodzi przez {@link #coalesce(String, Supplier)},
+     * a wynik jest zapisywany pod kluczem {@code cacheKey}.</p>
+     *
+     * @param <T> typ wyniku (niemodyfikowalny)
+     * @param cacheKey klucz logiczny, np. {@link EntityCache.Keys#STUDENTS_ALL}
+     * @param requestKey klucz żądania, zwykle {@code "GET " + url}
+     * @param loader funkcja wysyłająca żądanie
+     * @return future z wynikiem
+     */
+    public <T> CompletableFuture<T> fetchCached(String cacheKey, String requestKey,
+                                                Supplier<CompletableFuture<T>> loader) {
+        return cache.getOrLoad(cacheKey, () -> coalesce(requestKey, loader));
+    }
+
+    /**
+     * Wariant {@link #fetchCached(String, String, Supplier)} dla pobierania porcjami.
+     *
+     * <p>Przy trafieniu zapisana lista jest przekazywana do {@code onChunk} porcjami
+     * na wątku wywołującym. Przy chybieniu {@code loader} otrzymuje odbiorcę porcji
+     * i zwraca pełną listę, która trafia do pamięci podręcznej. Jeśli loader zwrócił
+     * listę bez przekazania porcji (np. odpowiedź {@code 304} obsłużona zapamiętanym
+     * wynikiem), lista jest przekazywana porcjami tak jak przy trafieniu.</p>
+     *
+     * @param <T> typ elementów listy
+     * @param cacheKey klucz logiczny
+     * @param chunkSize maksymalna liczba elementów w porcji przy trafieniu
+     * @param onChunk odbiorca porcji
+     * @param loader funkcja pobierająca porcjami; zwraca pełną, niemodyfikowalną listę
+     * @return future z łączną liczbą elementów
+     */
+    public <T> CompletableFuture<Integer> fetchCachedInChunks(String cacheKey, int chunkSize,
+                                                              Consumer<List<T>> onChunk,
+                                                              Function<Consumer<List<T>>, CompletableFuture<List<T>>> loader) {
+        List<T> cached = cache.getIfFresh(cacheKey);
+        if (cached != null) {
+            deliverInChunks(cached, chunkSize, onChunk);
+            return CompletableFuture.completedFuture(cached.size());
+        }
+
+        long loadGeneration = cache.currentGeneration();
+        AtomicBoolean delivered = new AtomicBoolean();
+        return loader.apply(chunk -> {
+            delivered.set(true);
+            onChunk.accept(chunk);
+        }).thenApply(list -> {
+            if (!delivered.get()) {
+                deliverInChunks(list, chunkSize, onChunk);
+            }
+            cache.put(cacheKey, list, loadGeneration);
+            return list.size();
+        });
+    }
+
+    private static <T> void deliverInChunks(List<T> list, int chunkSize, Consumer<List<T>> onChunk) {
+        for (int from = 0; from < list.size(); from += chunkSize) {
+            onChunk.accept(list.subList(from, Math.min(from + chunkSize, list.size())));
+        }
+    }
+
+    /**
+     * Zapamiętuje, że serwer nie obsługuje opcjonalnego endpointu (np. odpowiedział 404).
+     *
+     * <p>Informacja jest wspólna dla wszystkich serwisów i klientów korzystających z tego
+     * transportu, więc nowe okno nie odpytuje ponownie endpointu, którego serwer nie zna.</p>
+     *
+     * @param feature klucz endpointu, np. {@code "POST /attendance/batch"}
+     */
+    public void markUnsupported(String feature) {
+        unsupportedFeatures.add(feature);
+    }
+
+    /**
+     * Sprawdza, czy serwer odpowiedział już, że nie obsługuje endpointu.
+     *
+     * @param feature klucz endpointu przekazany do {@link #markUnsupported(String)}
+     * @return true jeśli endpoint został oznaczony jako nieobsługiwany
+     */
+    public boolean isUnsupported(String feature) {
+        return unsupportedFeatures.contains(feature);
+    }
+
+    /**
+     * Zwraca pamięć podręczną odczytów współdzieloną przez serwisy.
+     *
+     * @return pamięć podręczna
+     */
+    public EntityCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Zwraca walidatory HTTP używane przez żądania warunkowe.
+     *
+     * @return magazyn walidatorów
+     */
+    public ValidatorStore getValidators() {
+        return validators;
+    }
+
+    /**
+     * Zwraca liczniki łączenia identycznych żądań.
+     *
+     * @return liczniki single-flight
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Zwraca liczniki zadań danej grupy endpointów.
+     *
+     * @param endpoint grupa endpointów
+     * @return liczniki serwisu
+     */
+    public ServiceMetrics getMetrics(Endpoint endpoint) {
+        return metrics.get(endpoint);
+    }
+
+    /**
+     * Zwraca podsumowanie liczników wszystkich serwisów, po jednym wierszu na serwis,
+     * oraz liczniki łączenia żądań po jednym wierszu na klucz.
+     *
+     * @return raport liczników
+     */
+    public String describeMetrics() {
+        StringBuilder report = new StringBuilder("Tryb wykonania: " + executionMode);
+        metrics.values().forEach(m -> report.append("\n").append(m));
+        report.append("\n").append(cache);
+        report.append("\n").append(validators);
+        if (outbox != null) {
+            report.append("\n").append(outbox);
+        }
+        String coalescing = singleFlight.describe();
+        if (!coalescing.isEmpty()) {
+            report.append("\nŁączenie żądań:\n").append(coalescing);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Zwraca model wykonania żądań wybrany przy tworzeniu transportu.
+     *
+     * @return model wykonania
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Zwraca bazowy URL serwera API.
+     *
+     * @return bazowy URL (bez końcowego ukośnika)
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Zwraca timeout żądań dla danej grupy endpointów.
+     *
+     * @param endpoint grupa endpointów
+     * @return timeout żądania
+     */
+    public Duration getTimeout(Endpoint endpoint) {
+        return timeouts.get(endpoint);
+    }
+
+    /**
+     * Zwraca współdzielonego klienta HTTP.
+     *
+     * @return klient HTTP
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Zwraca współdzielony, skonfigurowany mapper JSON.
+     *
+     * <p>ObjectMapper jest bezpieczny wątkowo po zakończeniu konfiguracji,
+     * więc może być używany równolegle przez wszystkie serwisy.</p>
+     *
+     * @return mapper JSON
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Zwraca executor, na którym klient HTTP wykonuje swoje zadania.
+     *
+     * @return executor transportu
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Ustawia globalne parametry puli połączeń klienta JDK, jeśli nie zostały
+     * podane jawnie. Musi zostać wywołana przed zbudowaniem pierwszego klienta.
+     */
+    private static void configureConnectionPool() {
+        if (System.getProperty("jdk.httpclient.connectionPoolSize") == null) {
+            System.setProperty("jdk.httpclient.connectionPoolSize",
+                    System.getProperty("dziennik.http.poolSize", String.valueOf(DEFAULT_POOL_SIZE)));
+        }
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout",
+                    System.getProperty("dziennik.http.keepAliveSeconds", String.valueOf(DEFAULT_KEEP_ALIVE_SECONDS)));
+        }
+    }
+
+    private static Map<Endpoint, Duration> readTimeoutOverrides() {
+        Map<Endpoint, Duration> overrides = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            String value = System.getProperty("dziennik.http.timeout." + endpoint.name().toLowerCase());
+            if (value == null) {
+                continue;
+            }
+            try {
+                overrides.put(endpoint, Duration.ofSeconds(Long.parseLong(value.trim())));
+            } catch (NumberFormatException e) {
+                System.err.println("⚠️ Nieprawidłowy timeout dla " + endpoint + ": " + value);
+            }
+        }
+        return overrides;
+    }
+
+    /**
+     * Wykonanie z obsługą żądań warunkowych dla GET - dodaje walidatory poprzedniej
+     * odpowiedzi i przy {@code 304} zwraca jej zapamiętany wynik.
+     */
+    @SuppressWarnings("unchecked")
+    private <B, T> CompletableFuture<T> executeConditional(Endpoint endpoint, RequestFactory requestFactory,
+                                                           HttpResponse.BodyHandler<B> bodyHandler,
+                                                           BodyProcessor<B, T> processor, String failureMessage) {
+        AtomicReference<ValidatorStore.Entry> sentValidators = new AtomicReference<>();
+
+        RequestFactory conditionalFactory = () -> {
+            HttpRequest request = requestFactory.create();
+            if (!"GET".equals(request.method())) {
+                return request;
+            }
+            ValidatorStore.Entry entry = validators.get(request.uri().toString());
+            if (entry == null) {
+                return request;
+            }
+            sentValidators.set(entry);
+            HttpRequest.Builder conditional = HttpRequest.newBuilder(request, (name, value) -> true);
+            if (entry.getEtag() != null) {
+                conditional.header("If-None-Match", entry.getEtag());
+            }
+            if (entry.getLastModified() != null) {
+                conditional.header("If-Modified-Since", entry.getLastModified());
+            }
+            return conditional.build();
+        };
+
+        BodyProcessor<B, T> conditionalProcessor = response -> {
+            ValidatorStore.Entry entry = sentValidators.get();
+            if (response.statusCode() == 304 && entry != null) {
+                if (response.body() instanceof InputStream body) {
+                    body.close();
+                }
+                validators.recordNotModified();
+                return (T) entry.getValue();
+            }
+            T value = processor.process(response);
+            if (response.statusCode() == 200 && "GET".equals(response.request().method())) {
+                validators.store(response.request().uri().toString(), response.headers(), value);
+            }
+            return value;
+        };
+
+        return execute(endpoint, conditionalFactory, bodyHandler, conditionalProcessor, failureMessage);
+    }
+
+    /**
+     * Wspólna ścieżka wykonania żądania: liczniki, limit równoległości i wybrany model wykonania.
+     * Pozwolenie limitu jest zwalniane dopiero po przetworzeniu treści, ponieważ przy odpowiedziach
+     * strumieniowych strumień HTTP/2 pozostaje otwarty aż do końca odczytu.
+     */
+    private <B, T> CompletableFuture<T> execute(Endpoint endpoint, RequestFactory requestFactory,
+                                                HttpResponse.BodyHandler<B> bodyHandler,
+                                                BodyProcessor<B, T> processor, String failureMessage) {
+        ServiceMetrics serviceMetrics = metrics.get(endpoint);
+        serviceMetrics.taskStarted();
+
+        CompletableFuture<T> result;
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+            result = supplyOnVirtualThread(endpoint, () -> {
+                HttpRequest request = requestFactory.create();
+                virtualPermits.acquire();
+                try {
+                    return processor.process(httpClient.send(request, bodyHandler));
+                } finally {
+                    virtualPermits.release();
+                }
+            }, failureMessage);
+        } else {
+            result = executeAsync(requestFactory, bodyHandler, processor, failureMessage);
+        }
+
+        return result.whenComplete((value, error) -> serviceMetrics.taskFinished(error == null));
+    }
+
+    private <B, T> CompletableFuture<T> executeAsync(RequestFactory requestFactory,
+                                                     HttpResponse.BodyHandler<B> bodyHandler,
+                                                     BodyProcessor<B, T> processor, String failureMessage) {
+        HttpRequest request;
+        try {
+            request = requestFactory.create();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new CompletionException(failure(failureMessage, e)));
+        }
+
+        return acquirePermit()
+                .thenCompose(ignored -> httpClient.sendAsync(request, bodyHandler))
+                .handleAsync((response, error) -> {
+                    try {
+                        if (error != null) {
+                            throw failure(failureMessage, unwrap(error));
+                        }
+                        try {
+                            return processor.process(response);
+                        } catch (Exception e) {
+                            throw failure(failureMessage, e);
+                        }
+                    } finally {
+                        releasePermit();
+                    }
+                }, executor);
+    }
+
+    /**
+     * Wykonuje zadanie na wątku wirtualnym grupy endpointów, opakowując błędy
+     * tak samo jak potok asynchroniczny.
+     */
+    private <T> CompletableFuture<T> supplyOnVirtualThread(Endpoint endpoint, BlockingTask<T> task,
+                                                           String failureMessage) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        virtualExecutors.get(endpoint).execute(() -> {
+            try {
+                result.complete(task.run());
+            } catch (Exception e) {
+                result.completeExceptionally(new CompletionException(failure(failureMessage, e)));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Zwraca future kończony w momencie przydzielenia miejsca w limicie równoległości (kolejka FIFO).
+     */
+    private CompletableFuture<Void> acquirePermit() {
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        waiting.add(permit);
+        dispatchWaiting();
+        return permit;
+    }
+
+    private void releasePermit() {
+        inFlight.decrementAndGet();
+        dispatchWaiting();
+    }
+
+    /**
+     * Uruchamia strumień JFR zbierający zdarzenia przypięcia wątków wirtualnych
+     * i przypisuje ich czas do serwisu na podstawie nazwy wątku.
+     */
+    private void startPinnedMonitor() {
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1));
+            stream.onEvent("jdk.VirtualThreadPinned", event -> {
+                RecordedThread thread = event.getThread();
+                String threadName = thread != null ? thread.getJavaName() : null;
+                if (threadName == null) {
+                    return;
+                }
+                for (Endpoint endpoint : Endpoint.values()) {
+                    if (threadName.startsWith(virtualThreadPrefix(endpoint))) {
+                        metrics.get(endpoint).recordPinned(event.getDuration());
+                        return;
+                    }
+                }
+            });
+            stream.setReuse(true);
+            stream.startAsync();
+        } catch (Exception e) {
+            System.err.println("⚠️ Nie udało się uruchomić monitorowania przypięć wątków: " + e.getMessage());
+        }
+    }
+
+    private static String virtualThreadPrefix(Endpoint endpoint) {
+        return "svc-" + endpoint.name().toLowerCase() + "-";
+    }
+
+    /**
+     * Zadanie blokujące wykonywane na wątku wirtualnym.
+     */
+    @FunctionalInterface
+    private interface BlockingTask<T> {
+        T run() throws Exception;
+    }
+
+    /**
+     * Przetwarzanie odpowiedzi o dowolnym typie treści.
+     */
+    @FunctionalInterface
+    private interface BodyProcessor<B, T> {
+        T process(HttpResponse<B> response) throws Exception;
+    }
+
+    /**
+     * Przydziela miejsca oczekującym żądaniom, dopóki jest wolne miejsce w limicie równoległości.
+     */
+    private void dispatchWaiting() {
+        while (!waiting.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxConcurrentRequests) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            CompletableFuture<Void> next = waiting.poll();
+            if (next == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            next.complete(null);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static RuntimeException failure(String message, Throwable cause) {
+        if (cause instanceof ServerRejectedException rejected) {
+            return rejected;
+        }
+        return new RuntimeException(message + ": " + cause.getMessage(), cause);
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Fabryka wątków demonów nazwanych {@code http-transport-N}, aby pula
+     * transportu nie blokowała zamknięcia aplikacji.
+     */
+    private static class TransportThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "http-transport-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Zmiana zapisywana w kolejce offline: metoda HTTP, pełny adres i treść JSON.
+     */
+    public static final class QueuedChange {
+        private final String method;
+        private final String url;
+        private final String jsonBody;
+        private final boolean replaySafe;
+
+        /**
+         * Tworzy zmianę do zapisania w kolejce. Ponowienie jest uznawane za bezpieczne
+         * dla wszystkich metod poza POST.
+         *
+         * @param method metoda HTTP
+         * @param url pełny adres żądania
+         * @param jsonBody treść JSON lub null
+         */
+        public QueuedChange(String method, String url, String jsonBody) {
+            this(method, url, jsonBody, !"POST".equals(method));
+        }
+
+        /**
+         * Tworzy zmianę do zapisania w kolejce.
+         *
+         * @param method metoda HTTP
+         * @param url pełny adres żądania
+         * @param jsonBody treść JSON lub null
+         * @param replaySafe czy powtórne wykonanie zmiany na serwerze daje ten sam stan
+         *                   (np. POST nadpisujący obecność)
+         */
+        public QueuedChange(String method, String url, String jsonBody, boolean replaySafe) {
+            this.method = method;
+            this.url = url;
+            this.jsonBody = jsonBody;
+            this.replaySafe = replaySafe;
+        }
+
+        /** @return metoda HTTP */
+        public String getMethod() {
+            return method;
+        }
+
+        /** @return pełny adres żądania */
+        public String getUrl() {
+            return url;
+        }
+
+        /** @return treść JSON lub null */
+        public String getJsonBody() {
+            return jsonBody;
+        }
+
+        /** @return true jeśli zmianę można wysłać ponownie, gdy nie wiadomo, czy dotarła na serwer */
+        public boolean isReplaySafe() {
+            return replaySafe;
+        }
+    }
+
+    /**
+     * Wyjątek oznaczający, że serwer odrzucił operację z przyczyn biznesowych
+     * (np. konflikt 409). Jest przekazywany do wywołującego bez opakowania.
+     */
+    public static class ServerRejectedException extends RuntimeException {
+
+        /**
+         * Tworzy wyjątek z podanym komunikatem.
+         *
+         * @param message komunikat błędu
+         */
+        public ServerRejectedException(String message) {
+            super(message);
+        }
+    }
+}
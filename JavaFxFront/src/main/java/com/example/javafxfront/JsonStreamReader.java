@@ -0,0 +1,147 @@
+package com.example.javafxfront;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Strumieniowy czytnik tablic JSON oparty o {@link JsonParser} Jacksona.
+ *
+ * <p>Czyta odpowiedź serwera bezpośrednio ze strumienia wejściowego, element po elemencie.
+ * Każdy element tablicy jest deserializowany do obiektu DTO (np. {@code StudentFromServer})
+ * i natychmiast konwertowany do obiektu domenowego - DTO staje się niepotrzebne
+ * zaraz po konwersji. Dzięki temu w pamięci nigdy nie istnieje jednocześnie cała treść
+ * odpowiedzi jako String, pełna lista DTO i pełna lista obiektów domenowych.</p>
+ *
+ * <p>Przykład użycia:</p>
+ * <pre>
+ * {@code
+ * JsonStreamReader reader = new JsonStreamReader(objectMapper);
+ * List<Student> students = reader.readArray(inputStream, StudentFromServer.class, this::convertToStudent);
+ * }
+ * </pre>
+ *
+ * <p>Wariant {@link #readArrayInChunks(InputStream, Class, Function, int, Consumer)} pozwala
+ * pokazywać dane w interfejsie, zanim cała odpowiedź zostanie pobrana.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see HttpTransport#sendStreaming(HttpTransport.Endpoint, HttpTransport.RequestFactory, HttpTransport.StreamHandler, String)
+ */
+public final class JsonStreamReader {
+
+    /**
+     * Domyślny rozmiar porcji dla {@link #readArrayInChunks(InputStream, Class, Function, int, Consumer)}
+     * - wystarczająco mały, aby pierwsze wiersze pojawiły się od razu, i wystarczająco duży,
+     * aby nie zalewać wątku JavaFX pojedynczymi aktualizacjami.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Tworzy czytnik korzystający z konfiguracji podanego ObjectMappera.
+     *
+     * @param objectMapper skonfigurowany ObjectMapper (moduły dat, ignorowanie nieznanych pól)
+     */
+    public JsonStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Czyta tablicę JSON ze strumienia, konwertując każdy element zaraz po odczytaniu.
+     *
+     * <p>Wartość {@code null} na najwyższym poziomie oraz pusta treść są traktowane
+     * jak pusta tablica. Strumień nie jest zamykany przez tę metodę.</p>
+     *
+     * @param <D> typ obiektu DTO
+     * @param <R> typ obiektu domenowego
+     * @param input strumień z treścią odpowiedzi
+     * @param elementType klasa obiektu DTO elementu tablicy
+     * @param converter konwersja DTO do obiektu domenowego
+     * @return niemodyfikowalna lista obiektów domenowych w kolejności z odpowiedzi
+     * @throws IOException jeśli treść nie jest poprawną tablicą JSON
+     */
+    public <D, R> List<R> readArray(InputStream input, Class<D> elementType,
+                                    Function<? super D, ? extends R> converter) throws IOException {
+        List<R> result = new ArrayList<>();
+        forEachElement(input, elementType, element -> result.add(converter.apply(element)));
+        return List.copyOf(result);
+    }
+
+    /**
+     * Czyta tablicę JSON ze strumienia i przekazuje skonwertowane elementy porcjami.
+     *
+     * <p>Porcja jest przekazywana do {@code chunkConsumer}, gdy zbierze się {@code chunkSize}
+     * elementów, a ostatnia (niepełna) porcja - po zamknięciu tablicy. Konsument jest
+     * wywoływany na wątku czytającym strumień, więc aktualizacje interfejsu muszą
+     * zostać przekazane do wątku JavaFX. Dla pustej tablicy konsument nie jest wywoływany.</p>
+     *
+     * @param <D> typ obiektu DTO
+     * @param <R> typ obiektu domenowego
+     * @param input strumień z treścią odpowiedzi
+     * @param elementType klasa obiektu DTO elementu tablicy
+     * @param converter konwersja DTO do obiektu domenowego
+     * @param chunkSize maksymalna liczba elementów w jednej porcji (co najmniej 1)
+     * @param chunkConsumer odbiorca kolejnych niemodyfikowalnych porcji
+     * @return łączna liczba odczytanych elementów
+     * @throws IOException jeśli treść nie jest poprawną tablicą JSON
+     * @throws IllegalArgumentException jeśli chunkSize jest mniejsze od 1
+     */
+    public <D, R> int readArrayInChunks(InputStream input, Class<D> elementType,
+                                        Function<? super D, ? extends R> converter,
+                                        int chunkSize, Consumer<List<R>> chunkConsumer) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Rozmiar porcji musi być dodatni: " + chunkSize);
+        }
+
+        List<R> chunk = new ArrayList<>(chunkSize);
+        int[] total = {0};
+        forEachElement(input, elementType, element -> {
+            chunk.add(converter.apply(element));
+            total[0]++;
+            if (chunk.size() == chunkSize) {
+                chunkConsumer.accept(List.copyOf(chunk));
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(List.copyOf(chunk));
+        }
+        return total[0];
+    }
+
+    /**
+     * Przechodzi po elementach tablicy JSON, deserializując każdy z nich osobno.
+     */
+    private <D> void forEachElement(InputStream input, Class<D> elementType,
+                                    Consumer<? super D> action) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+            JsonToken first = parser.nextToken();
+            if (first == null || first == JsonToken.VALUE_NULL) {
+                return;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new IOException("Oczekiwano tablicy JSON, otrzymano: " + first);
+            }
+
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == null) {
+                    throw new IOException("Nieoczekiwany koniec tablicy JSON");
+                }
+                action.accept(objectMapper.readValue(parser, elementType));
+            }
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.javafxfront;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.SelectionModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Uzgadnia zawartość {@link ObservableList} z nową listą z serwera bez jej przebudowy.
+ *
+ * <p>Zamiast {@code clear()} + {@code addAll()} (każda komórka ListView jest
+ * tworzona od nowa, znika zaznaczenie, a lista przewija się na początek)
+ * reconciler porównuje elementy po kluczu (np. numer indeksu, ID terminu)
+ * i wykonuje tylko niezbędne operacje:</p>
+ * <ul>
+ *   <li><strong>usunięcia</strong> - elementy, których klucza nie ma w nowej liście</li>
+ *   <li><strong>przeniesienia</strong> - poza najdłuższym rosnącym podciągiem pozycji,
+ *       który pozostaje na miejscu, elementy ze zmienioną kolejnością są usuwane
+ *       i wstawiane ponownie</li>
+ *   <li><strong>wstawienia</strong> - nowe klucze; sąsiednie trafiają do listy
+ *       jednym {@code addAll(index, ...)}</li>
+ *   <li><strong>aktualizacje</strong> - {@code set(index, ...)} tylko dla elementów,
+ *       których treść się zmieniła ({@code sameContent} zwraca false)</li>
+ * </ul>
+ *
+ * <p>Niezmienione elementy zostają w liście jako te same instancje - ich komórki
+ * nie są przerysowywane, a dane dołączone do nich lokalnie (np. obecności terminu)
+ * nie giną. Jeśli podano model zaznaczenia, po uzgodnieniu zaznaczony jest element
+ * o tym samym kluczu co przed nim.</p>
+ *
+ * <p>Przykład użycia:</p>
+ * <pre>
+ * {@code
+ * ListReconciler<Student, String> reconciler = new ListReconciler<>(Student::getIndexNumber,
+ *         ListReconciler::sameStudent, studentsListView.getSelectionModel());
+ * reconciler.reconcile(students, freshStudents);
+ * }
+ * </pre>
+ *
+ * @param <T> typ elementów listy
+ * @param <K> typ klucza
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see ChunkedListFeeder
+ */
+public final class ListReconciler<T, K> {
+
+    private final Function<? super T, ? extends K> keyOf;
+    private final BiPredicate<? super T, ? super T> sameContent;
+    private final SelectionModel<T> selection;
+
+    /**
+     * Tworzy reconciler bez obsługi zaznaczenia.
+     *
+     * @param keyOf funkcja wyznaczająca klucz elementu
+     * @param sameContent czy element z listy i element z serwera mają tę samą treść
+     */
+    public ListReconciler(Function<? super T, ? extends K> keyOf, BiPredicate<? super T, ? super T> sameContent) {
+        this(keyOf, sameContent, null);
+    }
+
+    /**
+     * Tworzy reconciler przywracający zaznaczenie po kluczu.
+     *
+     * @param keyOf funkcja wyznaczająca klucz elementu
+     * @param sameContent czy element z listy i element z serwera mają tę samą treść
+     * @param selection model zaznaczenia listy (może być null)
+     */
+    public ListReconciler(Function<? super T, ? extends K> keyOf, BiPredicate<? super T, ? super T> sameContent,
+                          SelectionModel<T> selection) {
+        this.keyOf = Objects.requireNonNull(keyOf);
+        this.sameContent = Objects.requireNonNull(sameContent);
+        this.selection = selection;
+    }
+
+    /**
+     * Uzgadnia listę docelową z nową zawartością. Wywoływane na wątku JavaFX,
+     * jeśli lista jest źródłem widoku.
+     *
+     * @param target lista docelowa
+     * @param fresh nowa zawartość w docelowej kolejności
+     * @return podsumowanie wykonanych operacji
+     */
+    public Result reconcile(ObservableList<T> target, List<? extends T> fresh) {
+        T selectedItem = selection != null ? selection.getSelectedItem() : null;
+        K selectedKey = selectedItem != null ? keyOf.apply(selectedItem) : null;
+
+        Result result = target.isEmpty() || fresh.isEmpty()
+                ? replaceAll(target, fresh)
+                : patch(target, fresh);
+
+        if (selectedKey != null) {
+            restoreSelection(target, selectedKey);
+        }
+        return result;
+    }
+
+    /**
+     * Standardowe porównanie treści studentów (imię, nazwisko, indeks, grupa).
+     *
+     * @param current student z listy
+     * @param fresh student z serwera
+     * @return true jeśli wyświetlane dane są takie same
+     */
+    public static boolean sameStudent(Student current, Student fresh) {
+        return Objects.equals(current.getFirstName(), fresh.getFirstName())
+                && Objects.equals(current.getLastName(), fresh.getLastName())
+                && Objects.equals(current.getIndexNumber(), fresh.getIndexNumber())
+                && Objects.equals(current.getGroupName(), fresh.getGroupName());
+    }
+
+    /**
+     * Standardowe porównanie treści terminów (bez obecności, które są ładowane osobno).
+     *
+     * @param current termin z listy
+     * @param fresh termin z serwera
+     * @return true jeśli dane terminu są takie same
+     */
+    public static boolean sameSchedule(ClassSchedule current, ClassSchedule fresh) {
+        return Objects.equals(current.getId(), fresh.getId())
+                && Objects.equals(current.getSubject(), fresh.getSubject())
+                && Objects.equals(current.getClassroom(), fresh.getClassroom())
+                && Objects.equals(current.getStartTime(), fresh.getStartTime())
+                && Objects.equals(current.getEndTime(), fresh.getEndTime())
+                && Objects.equals(current.getInstructor(), fresh.getInstructor())
+                && Objects.equals(current.getNotes(), fresh.getNotes())
+                && Objects.equals(current.getGroupName(), fresh.getGroupName());
+    }
+
+    /**
+     * Klucz terminu: ID z serwera, a dla terminów lokalnych (bez ID) sama instancja.
+     *
+     * @param schedule termin
+     * @return klucz terminu
+     */
+    public static Object scheduleKey(ClassSchedule schedule) {
+        return schedule.getId() != null ? schedule.getId() : schedule;
+    }
+
+    /**
+     * Standardowe porównanie treści grup (nazwa, specjalizacja).
+     *
+     * @param current grupa z listy
+     * @param fresh grupa z serwera
+     * @return true jeśli dane grupy są takie same
+     */
+    public static boolean sameGroup(Group current, Group fresh) {
+        return Objects.equals(current.getName(), fresh.getName())
+                && Objects.equals(current.getSpecialization(), fresh.getSpecialization());
+    }
+
+    private Result replaceAll(ObservableList<T> target, List<? extends T> fresh) {
+        int removed = target.size();
+        if (removed == 0 && fresh.isEmpty()) {
+            return new Result(0, 0, 0, 0, 0);
+        }
+        target.setAll(fresh);
+        return new Result(fresh.size(), removed, 0, 0, 0);
+    }
+
+    private Result patch(ObservableList<T> target, List<? extends T> fresh) {
+        // Pozycja każdego klucza w nowej liście (powtórzone klucze traktujemy jak nowe elementy)
+        Map<K, Integer> freshIndex = new HashMap<>(fresh.size() * 2);
+        for (int i = 0; i < fresh.size(); i++) {
+            freshIndex.putIfAbsent(keyOf.apply(fresh.get(i)), i);
+        }
+
+        int size = target.size();
+        int[] positions = new int[size];
+        boolean[] claimed = new boolean[fresh.size()];
+        int removed = 0;
+        for (int j = 0; j < size; j++) {
+            Integer position = freshIndex.get(keyOf.apply(target.get(j)));
+            if (position != null && !claimed[position]) {
+                positions[j] = position;
+                claimed[position] = true;
+            } else {
+                positions[j] = -1;
+                removed++;
+            }
+        }
+
+        boolean[] keep = longestIncreasingRun(positions);
+        int moved = 0;
+        List<Integer> keptPositions = new ArrayList<>(size);
+        for (int j = 0; j < size; j++) {
+            if (keep[j]) {
+                keptPositions.add(positions[j]);
+            } else if (positions[j] >= 0) {
+                moved++;
+            }
+        }
+
+        // Usunięcia i przeniesienia - sąsiednie elementy jednym remove(from, to), od końca
+        for (int j = size - 1; j >= 0; ) {
+            if (keep[j]) {
+                j--;
+                continue;
+            }
+            int end = j + 1;
+            while (j >= 0 && !keep[j]) {
+                j--;
+            }
+            target.remove(j + 1, end);
+        }
+
+        // Pozostałe elementy są już w kolejności nowej listy - dopisujemy brakujące i aktualizujemy zmienione
+        int added = 0;
+        int updated = 0;
+        int unchanged = 0;
+        int row = 0;
+        int kept = 0;
+        for (int i = 0; i < fresh.size(); ) {
+            if (kept < keptPositions.size() && keptPositions.get(kept) == i) {
+                T freshItem = fresh.get(i);
+                if (sameContent.test(target.get(row), freshItem)) {
+                    unchanged++;
+                } else {
+                    target.set(row, freshItem);
+                    updated++;
+                }
+                row++;
+                kept++;
+                i++;
+            } else {
+                int runEnd = kept < keptPositions.size() ? keptPositions.get(kept) : fresh.size();
+                target.addAll(row, fresh.subList(i, runEnd));
+                added += runEnd - i;
+                row += runEnd - i;
+                i = runEnd;
+            }
+        }
+
+        return new Result(added - moved, removed, updated, moved, unchanged);
+    }
+
+    /**
+     * Wyznacza najdłuższy rosnący podciąg nieujemnych pozycji - te elementy
+     * pozostają na miejscu, pozostałe są przenoszone.
+     *
+     * @param positions pozycje w nowej liście (-1 dla elementów do usunięcia)
+     * @return dla każdego indeksu: czy element zostaje na miejscu
+     */
+    static boolean[] longestIncreasingRun(int[] positions) {
+        int n = positions.length;
+        int[] tails = new int[n];        // indeks ostatniego elementu podciągu danej długości
+        int[] previous = new int[n];
+        Arrays.fill(previous, -1);
+        int length = 0;
+
+        for (int j = 0; j < n; j++) {
+            int position = positions[j];
+            if (position < 0) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (positions[tails[middle]] < position) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (low > 0) {
+                previous[j] = tails[low - 1];
+            }
+            tails[low] = j;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        boolean[] keep = new boolean[n];
+        for (int j = length > 0 ? tails[length - 1] : -1; j >= 0; j = previous[j]) {
+            keep[j] = true;
+        }
+        return keep;
+    }
+
+    private void restoreSelection(ObservableList<T> target, K selectedKey) {
+        T current = selection.getSelectedItem();
+        if (current != null && selectedKey.equals(keyOf.apply(current))) {
+            return;
+        }
+        for (int i = 0; i < target.size(); i++) {
+            if (selectedKey.equals(keyOf.apply(target.get(i)))) {
+                selection.clearAndSelect(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Podsumowanie jednego uzgodnienia.
+     */
+    public static final class Result {
+        private final int inserted;
+        private final int removed;
+        private final int updated;
+        private final int moved;
+        private final int unchanged;
+
+        Result(int inserted, int removed, int updated, int moved, int unchanged) {
+            this.inserted = inserted;
+            this.removed = removed;
+            this.updated = updated;
+            this.moved = moved;
+            this.unchanged = unchanged;
+        }
+
+        /** @return liczba nowych elementów */
+        public int getInserted() { return inserted; }
+
+        /** @return liczba usuniętych elementów */
+        public int getRemoved() { return removed; }
+
+        /** @return liczba elementów zastąpionych nową treścią */
+        public int getUpdated() { return updated; }
+
+        /** @return liczba elementów przeniesionych na inną pozycję */
+        public int getMoved() { return moved; }
+
+        /** @return liczba elementów pozostawionych bez zmian */
+        public int getUnchanged() { return unchanged; }
+
+        /**
+         * Sprawdza, czy lista została zmieniona.
+         *
+         * @return true jeśli wykonano jakąkolwiek operację
+         */
+        public boolean isChanged() {
+            return inserted + removed + updated + moved > 0;
+        }
+
+        /**
+         * Zwraca czytelne podsumowanie.
+         *
+         * @return podsumowanie w formacie "+X -Y ~Z ↕W =V"
+         */
+        @Override
+        public String toString() {
+            return String.format("+%d -%d ~%d ↕%d =%d", inserted, removed, updated, moved, unchanged);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.css.PseudoClass;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
@@ -443,6 +444,32 @@ public class ModernController {
      */
     private ObservableList<Group> groups;
 
+    /**
+     * Bieżące ładowanie grup porcjami.
+     * <p>Anulowane przy ponownym odświeżeniu, aby porcje starego ładowania
+     * nie mieszały się z nowymi.</p>
+     */
+    private ChunkedListFeeder<Group> groupsFeeder;
+
+    /**
+     * Aktualizacje interfejsu zgłaszane z wątków w tle.
+     * <p>Liczniki są odświeżane najwyżej raz na klatkę, niezależnie od liczby
+     * porcji i odpowiedzi serwera.</p>
+     */
+    private final UiUpdateDispatcher uiUpdates = new UiUpdateDispatcher();
+
+    /**
+     * Uzgadnianie listy grup z odpowiedzią serwera po nazwie grupy.
+     * <p>Odświeżenie nie przebudowuje listy - zaznaczenie i przewinięcie zostają.</p>
+     */
+    private ListReconciler<Group, String> groupsReconciler;
+
+    /**
+     * Stan listy grup pokazującej dane z pamięci podręcznej, odświeżane w tle.
+     * <p>Styl {@code .list-view:refreshing} w {@code styles.css}.</p>
+     */
+    private static final PseudoClass REFRESHING = PseudoClass.getPseudoClass("refreshing");
+
     /**
      * Serwis zarządzania grupami - komunikacja z API backend.
      * <p>Obsługuje operacje CRUD na grupach:</p>
@@ -545,6 +572,8 @@ public class ModernController {
         studentService = new StudentService();
 
         groupsListView.setCellFactory(listView -> new GroupListCell());
+        groupsReconciler = new ListReconciler<>(Group::getName, ListReconciler::sameGroup,
+                groupsListView.getSelectionModel());
 
         groupsListView.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
             boolean hasSelection = newSelection != null;
@@ -1363,51 +1392,6 @@ public class ModernController {
         showAlert("Info", "Pełny panel zarządzania studentami będzie dostępny w przyszłej wersji.", Alert.AlertType.INFORMATION);
     }
 
-    /**
-     * Komórka listy do wyświetlania ostatnio dodanych studentów.
-     *
-     * <p>Custom ListCell implementująca wyświetlanie studenta w kompaktowym formacie
-     * w liście {@link #recentStudentsListView}. Każda komórka zawiera:</p>
-     * <ul>
-     *   <li>Ikonę 👤 i pełne imię i nazwisko (pogrubione, czerwone)</li>
-     *   <li>Numer indeksu i grupę lub "Brak grupy" (szare, mniejsze)</li>
-     * </ul>
-     *
-     * <p>Stylizacja:</p>
-     * <ul>
-     *   <li>Nazwa studenta: font-weight: bold, kolor: #DC143C, rozmiar: 12px</li>
-     *   <li>Szczegóły: kolor: #6C757D, rozmiar: 10px</li>
-     *   <li>Odstępy między elementami: 2px</li>
-     * </ul>
-     *
-     * @see #recentStudentsListView
-     * @see #loadRecentStudents()
-     */
-    private class RecentStudentListCell extends ListCell<Student> {
-        @Override
-        protected void updateItem(Student student, boolean empty) {
-            super.updateItem(student, empty);
-            if (empty || student == null) {
-                setGraphic(null);
-                setText(null);
-            } else {
-                VBox content = new VBox(2);
-
-                Label nameLabel = new Label("👤 " + student.getFullName());
-                nameLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 12px; -fx-text-fill: #DC143C;");
-
-                Label detailsLabel = new Label("🆔 " + student.getIndexNumber() +
-                        " | 🏫 " + (student.getGroupName() != null ? student.getGroupName() : "Brak grupy"));
-                detailsLabel.setStyle("-fx-font-size: 10px; -fx-text-fill: #6C757D;");
-
-                content.getChildren().addAll(nameLabel, detailsLabel);
-                setGraphic(content);
-                setText(null);
-            }
-        }
-    }
-
-
     /**
      * Obsługuje kliknięcie przycisku dodawania nowej grupy.
      *
@@ -2024,6 +2008,12 @@ public class ModernController {
                                     throwable.getCause().getMessage() +
                                             "\nSprawdź numer indeksu i spróbuj ponownie z innym numerem.",
                                     Alert.AlertType.WARNING);
+                        } else if (Outbox.isQueued(throwable)) {
+                            clearStudentGlobalForm();
+                            showAlert("Zapisano offline",
+                                    "Student " + newStudent.getFullName() + " zostanie dodany na serwer" +
+                                            " automatycznie po odzyskaniu połączenia.",
+                                    Alert.AlertType.INFORMATION);
                         } else {
                             showAlert("Błąd serwera",
                                     "Nie udało się dodać studenta na serwer:\n" + throwable.getMessage(),
@@ -2096,6 +2086,8 @@ public class ModernController {
             controller.setGroup(group);
 
             Stage stage = new Stage();
+            // Fokus okna steruje synchronizacją w tle, zamknięcie kończy subskrypcję
+            controller.attachToStage(stage);
             stage.setTitle("Grupa: " + group.getName());
             stage.setScene(new Scene(root, 1200, 800));
 
@@ -2114,6 +2106,21 @@ public class ModernController {
         }
     }
 
+    /**
+     * Wyświetla grupy odtworzone z lokalnej migawki i odświeża je w tle.
+     *
+     * <p>Wywoływana przez {@link HelloApplication#start(javafx.stage.Stage)} po wczytaniu
+     * migawki ({@link SnapshotStore}). Odtworzone wpisy pamięci podręcznej są
+     * przeterminowane, więc {@link #loadGroupsFromServer()} pokazuje je od razu
+     * i pobiera aktualną listę z serwera.</p>
+     */
+    public void showRestoredData() {
+        if (groupService.peekAllGroups() != null) {
+            System.out.println("💾 Wyświetlam grupy z migawki, odświeżanie w tle");
+            loadGroupsFromServer();
+        }
+    }
+
     /**
      * Ładuje listę grup z serwera i aktualizuje interfejs użytkownika.
      *
@@ -2131,15 +2138,15 @@ public class ModernController {
      *   </li>
      *   <li><strong>Komunikacja z serwerem</strong>
      *       <ul>
-     *         <li>Wywołanie {@link GroupService#getAllGroupsAsync()}</li>
-     *         <li>Asynchroniczne przetwarzanie odpowiedzi</li>
+     *         <li>Wywołanie {@link GroupService#getAllGroupsAsync(int, java.util.function.Consumer)}</li>
+     *         <li>Asynchroniczne przetwarzanie odpowiedzi porcjami</li>
      *       </ul>
      *   </li>
-     *   <li><strong>Aktualizacja danych</strong> (przy sukcesie)
+     *   <li><strong>Aktualizacja danych</strong> (przez {@link ChunkedListFeeder})
      *       <ul>
-     *         <li>Wyczyszczenie lokalnej listy {@link #groups}</li>
-     *         <li>Dodanie wszystkich grup z serwera</li>
-     *         <li>Aktualizacja licznika grup</li>
+     *         <li>Wyczyszczenie lokalnej listy {@link #groups} przy pierwszej porcji</li>
+     *         <li>Dopisywanie kolejnych porcji grup w miarę pobierania</li>
+     *         <li>Aktualizacja licznika grup po każdej porcji</li>
      *       </ul>
      *   </li>
      *   <li><strong>Przywrócenie stanu UI</strong>
@@ -2161,25 +2168,44 @@ public class ModernController {
      * <p>Metoda zapewnia, że interfejs użytkownika zawsze wróci do stanu funkcjonalnego,
      * niezależnie od wyniku operacji sieciowej.</p>
      *
-     * @see GroupService#getAllGroupsAsync()
+     * @see GroupService#getAllGroupsAsync(int, java.util.function.Consumer)
+     * @see ChunkedListFeeder
      * @see #updateGroupCount()
      */
     private void loadGroupsFromServer() {
         refreshButton.setText("Ładowanie...");
         refreshButton.setDisable(true);
 
-        groupService.getAllGroupsAsync()
-                .thenAccept(serverGroups -> {
+        if (groupsFeeder != null) {
+            groupsFeeder.cancel();
+        }
+
+        // Przeterminowane dane z pamięci podręcznej: pokaż od razu, odśwież w tle
+        EntityCache.CachedValue<List<Group>> cached = groupService.peekAllGroups();
+        if (cached != null && !cached.isFresh()) {
+            groupsReconciler.reconcile(groups, cached.getValue());
+            updateGroupCount();
+            revalidateGroups();
+            return;
+        }
+        // Grupy pojawiają się w liście porcjami, w miarę odczytywania odpowiedzi serwera
+        ChunkedListFeeder<Group> feeder = new ChunkedListFeeder<>(groups, groupsReconciler,
+                chunk -> uiUpdates.markDirty(groupCountLabel, this::updateGroupCount));
+        groupsFeeder = feeder;
+
+        groupService.getAllGroupsAsync(JsonStreamReader.DEFAULT_CHUNK_SIZE, feeder)
+                .thenAccept(total -> {
+                    feeder.complete();
                     javafx.application.Platform.runLater(() -> {
-                        groups.clear();
-                        groups.addAll(serverGroups);
                         updateGroupCount();
 
                         refreshButton.setText("Odśwież z serwera");
                         refreshButton.setDisable(false);
 
-                        showAlert("Sukces", "Załadowano " + serverGroups.size() + " grup z serwera",
-                                Alert.AlertType.INFORMATION);
+                        if (!feeder.isCancelled()) {
+                            showAlert("Sukces", "Załadowano " + total + " grup z serwera",
+                                    Alert.AlertType.INFORMATION);
+                        }
                     });
                 })
                 .exceptionally(throwable -> {
@@ -2195,6 +2221,36 @@ public class ModernController {
                 });
     }
 
+    /**
+     * Odświeża w tle listę grup pokazaną z pamięci podręcznej.
+     *
+     * <p>Do czasu otrzymania odpowiedzi lista ma stan {@code :refreshing}
+     * (przygaszone komórki). Po odpowiedzi lista jest zastępowana aktualnymi
+     * danymi; przy błędzie pozostają dane z pamięci podręcznej.</p>
+     *
+     * @see GroupService#peekAllGroups()
+     */
+    private void revalidateGroups() {
+        groupsListView.pseudoClassStateChanged(REFRESHING, true);
+
+        groupService.getAllGroupsAsync()
+                .whenComplete((freshGroups, throwable) -> javafx.application.Platform.runLater(() -> {
+                    groupsListView.pseudoClassStateChanged(REFRESHING, false);
+                    refreshButton.setText("Odśwież z serwera");
+                    refreshButton.setDisable(false);
+
+                    if (throwable != null) {
+                        showAlert("Błąd serwera",
+                                "Nie udało się odświeżyć grup z serwera (pokazano ostatnio pobrane dane):\n"
+                                        + throwable.getMessage(),
+                                Alert.AlertType.WARNING);
+                        return;
+                    }
+                    groupsReconciler.reconcile(groups, freshGroups);
+                    updateGroupCount();
+                }));
+    }
+
     /**
      * Ładuje i wyświetla liczbę studentów z serwera.
      *
@@ -2224,7 +2280,7 @@ public class ModernController {
     private void loadStudentCountFromServer() {
         studentService.getAllStudentsAsync()
                 .thenAccept(serverStudents -> {
-                    javafx.application.Platform.runLater(() -> {
+                    uiUpdates.markDirty("studentCount", () -> {
                         if (studentCountLabel != null) {
                             long withoutGroup = serverStudents.stream()
                                     .filter(s -> s.getGroupName() == null || s.getGroupName().trim().isEmpty())
@@ -2236,7 +2292,7 @@ public class ModernController {
                     });
                 })
                 .exceptionally(throwable -> {
-                    javafx.application.Platform.runLater(() -> {
+                    uiUpdates.markDirty("studentCount", () -> {
                         if (studentCountLabel != null) {
                             studentCountLabel.setText("Błąd ładowania liczby studentów");
                             studentCountLabel.setStyle("-fx-text-fill: #E53E3E;");
@@ -2262,6 +2318,9 @@ public class ModernController {
      * <p>Test połączenia wykorzystuje {@link GroupService#checkServerConnection()}
      * który wykonuje proste żądanie GET do endpointu health check.</p>
      *
+     * <p>Jeśli w kolejce offline ({@link Outbox}) czekają zmiany, etykieta pokazuje
+     * ich liczbę. Udane połączenie uruchamia ich wysyłkę.</p>
+     *
      * @see GroupService#checkServerConnection()
      * @see #serverStatusLabel
      */
@@ -2269,11 +2328,14 @@ public class ModernController {
         groupService.checkServerConnection()
                 .thenAccept(isConnected -> {
                     javafx.application.Platform.runLater(() -> {
+                        Outbox outbox = HttpTransport.getShared().getOutbox();
+                        int pendingChanges = outbox != null ? outbox.getPendingCount() : 0;
+                        String pendingSuffix = pendingChanges > 0 ? " (zmiany offline: " + pendingChanges + ")" : "";
                         if (isConnected) {
-                            serverStatusLabel.setText("🟢 Połączony z serverem");
+                            serverStatusLabel.setText("🟢 Połączony z serverem" + pendingSuffix);
                             serverStatusLabel.setStyle("-fx-text-fill: #38A169;");
                         } else {
-                            serverStatusLabel.setText("🔴 Serwer niedostępny");
+                            serverStatusLabel.setText("🔴 Serwer niedostępny" + pendingSuffix);
                             serverStatusLabel.setStyle("-fx-text-fill: #E53E3E;");
                         }
                     });
@@ -2366,33 +2428,6 @@ public class ModernController {
         alert.showAndWait();
     }
 
-    private class GroupListCell extends ListCell<Group> {
-        @Override
-        protected void updateItem(Group group, boolean empty) {
-            super.updateItem(group, empty);
-
-            if (empty || group == null) {
-                setGraphic(null);
-                setText(null);
-            } else {
-                VBox cellContent = new VBox(5);
-                cellContent.getStyleClass().add("group-cell");
-
-                Label nameLabel = new Label(group.getName());
-                nameLabel.getStyleClass().add("group-name");
-
-                Label detailsLabel = new Label(group.getSpecialization());
-                detailsLabel.getStyleClass().add("group-details");
-
-                Label dateLabel = new Label("Utworzono: " + group.getFormattedDate());
-                dateLabel.getStyleClass().add("group-date");
-
-                cellContent.getChildren().addAll(nameLabel, detailsLabel, dateLabel);
-                setGraphic(cellContent);
-                setText(null);
-            }
-        }
-    }
     @FXML
     protected void onTestEndpoints() {
         if (groups.isEmpty()) {
@@ -0,0 +1,690 @@
+package com.example.javafxfront;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Trwała kolejka zmian (outbox) wysyłanych na serwer w trybie "zapisz teraz, wyślij później".
+ *
+ * <p>Gdy operacja zapisu (frekwencja, studenci, terminy) nie może dotrzeć na serwer
+ * z powodu braku połączenia, {@link HttpTransport#sendOrQueue} dopisuje ją do dziennika
+ * na dysku. Zmiany są potem wysyłane ponownie w kolejności zapisu - po udanym
+ * {@link GroupService#checkServerConnection()} albo przez ponawianie w tle co
+ * {@value #DEFAULT_RETRY_SECONDS} s, dopóki kolejka nie jest pusta.</p>
+ *
+ * <p>Dziennik jest plikiem tylko do dopisywania. Każdy rekord ma postać
+ * {@code [int długość][treść][int CRC32]} - rekord obcięty przez awarię jest
+ * rozpoznawany przy odczycie i odrzucany razem z resztą pliku. Rekordy:</p>
+ * <ul>
+ *   <li><strong>ENTRY</strong> - numer, grupa endpointów, metoda HTTP, ścieżka względem
+ *       adresu bazowego, treść JSON i czas zapisu</li>
+ *   <li><strong>ACK</strong> - numer zmiany, która dotarła na serwer (lub została przez niego odrzucona)</li>
+ * </ul>
+ *
+ * <p>Zapisy są grupowane: wszystkie zmiany dopisane w trakcie trwającego {@code fsync}
+ * trafiają na dysk w jednym kolejnym zapisie zakończonym jednym {@code fsync}.
+ * Future zwrócony przez {@link #append} kończy się dopiero, gdy zmiana jest trwała.
+ * Gdy wszystkie zmiany zostaną potwierdzone, dziennik jest obcinany do zera.</p>
+ *
+ * <p>Zmiany trafiają do dziennika dopiero po nieudanej pierwszej próbie wysłania - to celowe
+ * odstępstwo od wzorca "najpierw dziennik" (szczegóły w {@link HttpTransport#sendOrQueue}).</p>
+ *
+ * <p>Ponowne wysłanie zmiany, którą serwer przetworzył, ale odpowiedź nie dotarła
+ * (timeout), może ją powtórzyć. Operacje PUT, DELETE i oznaczanie obecności są
+ * idempotentne. Nieidempotentne dodanie studenta lub terminu trafia do kolejki tylko
+ * wtedy, gdy pierwsza próba nie nawiązała połączenia. Jeśli jednak timeout wystąpi
+ * dopiero przy wysyłce z kolejki, zmiana zostanie ponowiona: powtórzone dodanie studenta
+ * kończy się odrzuceniem (409) i usunięciem z kolejki, a powtórzone dodanie terminu może
+ * utworzyć duplikat - serwer nie obsługuje kluczy idempotencji.</p>
+ *
+ * <p>Konfiguracja (właściwości systemowe):</p>
+ * <ul>
+ *   <li>{@code dziennik.snapshot.dir} - katalog danych lokalnych (domyślnie {@code ~/.dziennik})</li>
+ *   <li>{@code dziennik.outbox.retrySeconds} - odstęp ponawiania w tle
+ *       (domyślnie {@value #DEFAULT_RETRY_SECONDS})</li>
+ * </ul>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see HttpTransport#sendOrQueue(HttpTransport.Endpoint, String, String, String, HttpTransport.ResponseHandler, String)
+ * @see HttpTransport#drainOutbox()
+ */
+public final class Outbox {
+
+    /**
+     * Nazwa pliku dziennika.
+     */
+    public static final String FILE_NAME = "outbox.journal";
+
+    /**
+     * Domyślny odstęp ponawiania wysyłki w tle (sekundy).
+     */
+    public static final long DEFAULT_RETRY_SECONDS = 15;
+
+    private static final byte RECORD_ENTRY = 1;
+    private static final byte RECORD_ACK = 2;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Duration retryDelay;
+    private final ScheduledExecutorService writer;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private final List<Write> unflushed = new ArrayList<>();
+    private boolean flushScheduled;
+    private long nextSequence = 1;
+    private long writePosition;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean retryScheduled = new AtomicBoolean();
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+
+    private Outbox(Path file, FileChannel channel, Duration retryDelay) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.retryDelay = retryDelay;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        recover();
+    }
+
+    /**
+     * Otwiera (lub tworzy) dziennik w podanym pliku i odtwarza niepotwierdzone zmiany.
+     *
+     * @param file ścieżka pliku dziennika
+     * @param retryDelay odstęp ponawiania wysyłki w tle
+     * @return otwarta kolejka
+     * @throws IOException jeśli nie można otworzyć lub odczytać dziennika
+     */
+    public static Outbox open(Path file, Duration retryDelay) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        return open(file, FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE), retryDelay);
+    }
+
+    /**
+     * Otwiera dziennik na podanym kanale pliku (testy podmieniają kanał, by symulować błędy zapisu).
+     */
+    static Outbox open(Path file, FileChannel channel, Duration retryDelay) throws IOException {
+        try {
+            return new Outbox(file, channel, retryDelay);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Otwiera dziennik w katalogu danych lokalnych ({@link SnapshotStore#dataDirectory()}).
+     *
+     * @return otwarta kolejka
+     * @throws IOException jeśli nie można otworzyć dziennika
+     */
+    public static Outbox fromSystemProperties() throws IOException {
+        return open(SnapshotStore.dataDirectory().resolve(FILE_NAME),
+                Duration.ofSeconds(Long.getLong("dziennik.outbox.retrySeconds", DEFAULT_RETRY_SECONDS)));
+    }
+
+    /**
+     * Dopisuje zmianę do kolejki. Zmiana jest od razu widoczna jako oczekująca,
+     * a zwrócony future kończy się po jej trwałym zapisaniu na dysku.
+     *
+     * @param endpoint grupa endpointów zmiany
+     * @param method metoda HTTP (POST, PUT, DELETE)
+     * @param path ścieżka względem adresu bazowego API (np. {@code /students/123456})
+     * @param body treść JSON lub null
+     * @return future z zapisaną zmianą
+     */
+    public CompletableFuture<Entry> append(HttpTransport.Endpoint endpoint, String method, String path, String body) {
+        Write write;
+        synchronized (lock) {
+            Entry entry = new Entry(nextSequence++, endpoint, method, path, body, System.currentTimeMillis());
+            pending.addLast(entry);
+            write = new Write(entry, encodeEntry(entry));
+            enqueueWrite(write);
+        }
+        appended.increment();
+        System.out.println("📥 Zmiana w kolejce offline: " + method + " " + path);
+        return write.future;
+    }
+
+    /**
+     * Sprawdza, czy w kolejce są zmiany czekające na wysłanie.
+     *
+     * @return true jeśli kolejka nie jest pusta
+     */
+    public boolean hasPending() {
+        synchronized (lock) {
+            return !pending.isEmpty();
+        }
+    }
+
+    /**
+     * Zwraca liczbę zmian czekających na wysłanie.
+     *
+     * @return liczba oczekujących zmian
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Zwraca kopię oczekujących zmian w kolejności wysyłki.
+     *
+     * @return lista oczekujących zmian
+     */
+    public List<Entry> getPending() {
+        synchronized (lock) {
+            return List.copyOf(pending);
+        }
+    }
+
+    /**
+     * Wysyła oczekujące zmiany na serwer po kolei, aż do opróżnienia kolejki
+     * albo pierwszego błędu połączenia (wtedy planuje ponowienie w tle).
+     *
+     * <p>Odpowiedź 2xx potwierdza zmianę. Odpowiedź 4xx (poza 408 i 429) oznacza,
+     * że serwer nigdy jej nie przyjmie - zmiana jest usuwana z kolejki i logowana.
+     * Inne odpowiedzi przerywają wysyłkę bez utraty zmiany. Po wysłaniu czegokolwiek
+     * pamięć podręczna transportu jest unieważniana. Jednocześnie działa co najwyżej
+     * jedna wysyłka.</p>
+     *
+     * @param transport transport używany do wysyłki
+     * @return future z liczbą zmian zdjętych z kolejki (0, jeśli wysyłka już trwa)
+     */
+    public CompletableFuture<Integer> drain(HttpTransport transport) {
+        if (!draining.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(0);
+        }
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        drainNext(transport, 0, result);
+        return result;
+    }
+
+    /**
+     * Planuje wysyłkę w tle po odstępie ponawiania, jeśli nie jest już zaplanowana.
+     *
+     * @param transport transport używany do wysyłki
+     */
+    void scheduleDrain(HttpTransport transport) {
+        if (retryScheduled.compareAndSet(false, true)) {
+            writer.schedule(() -> {
+                retryScheduled.set(false);
+                drain(transport);
+            }, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Zwraca ścieżkę pliku dziennika.
+     *
+     * @return ścieżka pliku
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Zwraca liczbę zmian wysłanych ponownie z powodzeniem.
+     *
+     * @return liczba wysłanych zmian
+     */
+    public long getReplayedCount() {
+        return replayed.sum();
+    }
+
+    /**
+     * Zwraca liczbę zmian odrzuconych przez serwer podczas ponownej wysyłki.
+     *
+     * @return liczba odrzuconych zmian
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Zwraca liczbę wykonanych {@code fsync} - przy grupowaniu zapisów jest mniejsza
+     * od liczby dopisanych zmian.
+     *
+     * @return liczba synchronizacji dziennika z dyskiem
+     */
+    public long getSyncCount() {
+        return syncs.sum();
+    }
+
+    /**
+     * Zwraca czytelne podsumowanie liczników.
+     *
+     * @return podsumowanie w formacie "Kolejka offline: oczekujące X, dopisane A, wysłane B, odrzucone C, fsync D"
+     */
+    @Override
+    public String toString() {
+        return String.format("Kolejka offline: oczekujące %d, dopisane %d, wysłane %d, odrzucone %d, fsync %d",
+                getPendingCount(), appended.sum(), getReplayedCount(), getRejectedCount(), getSyncCount());
+    }
+
+    /**
+     * Sprawdza, czy błąd operacji oznacza zapisanie zmiany w kolejce offline.
+     *
+     * @param throwable błąd z future (może być opakowany)
+     * @return true jeśli w łańcuchu przyczyn jest {@link QueuedException}
+     */
+    public static boolean isQueued(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof QueuedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // === WYSYŁKA ===
+
+    private void drainNext(HttpTransport transport, int done, CompletableFuture<Integer> result) {
+        Entry entry;
+        synchronized (lock) {
+            entry = pending.peekFirst();
+        }
+        if (entry == null) {
+            finishDrain(transport, done, true, result);
+            return;
+        }
+
+        replay(transport, entry).whenComplete((status, error) -> {
+            if (error != null) {
+                System.err.println("📴 Serwer nadal niedostępny, " + getPendingCount()
+                        + " zmian czeka w kolejce: " + error.getMessage());
+                finishDrain(transport, done, false, result);
+            } else if (status >= 200 && status < 300) {
+                acknowledge(entry);
+                replayed.increment();
+                System.out.println("📤 Wysłano z kolejki: " + entry.getMethod() + " " + entry.getPath());
+                drainNext(transport, done + 1, result);
+            } else if (status >= 400 && status < 500 && status != 408 && status != 429) {
+                acknowledge(entry);
+                rejected.increment();
+                System.err.println("❌ Serwer odrzucił zmianę z kolejki (" + status + "): "
+                        + entry.getMethod() + " " + entry.getPath());
+                drainNext(transport, done + 1, result);
+            } else {
+                System.err.println("⚠️ Serwer odpowiedział " + status + ", ponowię wysyłkę kolejki później");
+                finishDrain(transport, done, false, result);
+            }
+        });
+    }
+
+    private static CompletableFuture<Integer> replay(HttpTransport transport, Entry entry) {
+        return transport.sendAsync(entry.getEndpoint(), transport.mutationRequest(entry.getEndpoint(),
+                        entry.getMethod(), transport.resolve(entry.getPath()), entry.getBody()))
+                .thenApply(response -> response.statusCode());
+    }
+
+    private void finishDrain(HttpTransport transport, int done, boolean emptied, CompletableFuture<Integer> result) {
+        draining.set(false);
+        if (done > 0) {
+            transport.getCache().invalidateAll();
+        }
+        if (emptied) {
+            writer.execute(this::compactIfIdle);
+            // Zmiana dopisana tuż przed zwolnieniem flagi nie mogła uruchomić wysyłki
+            if (hasPending()) {
+                scheduleDrain(transport);
+            }
+        } else {
+            scheduleDrain(transport);
+        }
+        result.complete(done);
+    }
+
+    private void acknowledge(Entry entry) {
+        synchronized (lock) {
+            pending.remove(entry);
+            enqueueWrite(new Write(null, encodeAck(entry.getSequence())));
+        }
+    }
+
+    // === ZAPIS DZIENNIKA ===
+
+    /** Wywoływane pod blokadą {@link #lock}. */
+    private void enqueueWrite(Write write) {
+        unflushed.add(write);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            writer.execute(this::flush);
+        }
+    }
+
+    /**
+     * Zapisuje wszystkie oczekujące rekordy jednym zapisem i jednym {@code fsync}.
+     * Wykonywane wyłącznie na wątku {@code outbox-writer}.
+     */
+    private void flush() {
+        List<Write> batch;
+        synchronized (lock) {
+            batch = new ArrayList<>(unflushed);
+            unflushed.clear();
+            flushScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        long batchStart = writePosition;
+        try {
+            int size = 0;
+            for (Write write : batch) {
+                size += write.bytes.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            for (Write write : batch) {
+                buffer.put(write.bytes);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                writePosition += channel.write(buffer, writePosition);
+            }
+            channel.force(false);
+            syncs.increment();
+            batch.forEach(write -> write.future.complete(write.entry));
+        } catch (IOException e) {
+            System.err.println("❌ Nie udało się zapisać kolejki offline " + file + ": " + e.getMessage());
+            // Częściowo zapisany rekord nie może zostać przed kolejnymi - odczyt przy starcie
+            // zatrzymałby się na nim i odrzucił wszystkie późniejsze, już potwierdzone zmiany
+            writePosition = batchStart;
+            try {
+                channel.truncate(batchStart);
+            } catch (IOException truncateError) {
+                // Kolejny zapis i tak nadpisze uszkodzony koniec od batchStart
+                System.err.println("⚠️ Nie udało się obciąć kolejki offline: " + truncateError.getMessage());
+            }
+            synchronized (lock) {
+                batch.forEach(write -> {
+                    if (write.entry != null) {
+                        pending.remove(write.entry);
+                    }
+                });
+            }
+            batch.forEach(write -> write.future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Obcina dziennik do zera, jeśli wszystkie zmiany zostały potwierdzone.
+     * Wykonywane wyłącznie na wątku {@code outbox-writer}.
+     */
+    private void compactIfIdle() {
+        synchronized (lock) {
+            if (!pending.isEmpty() || !unflushed.isEmpty() || writePosition == 0) {
+                return;
+            }
+            try {
+                channel.truncate(0);
+                channel.force(false);
+                writePosition = 0;
+            } catch (IOException e) {
+                System.err.println("⚠️ Nie udało się wyczyścić kolejki offline: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Odczytuje dziennik przy otwarciu. Obcięty lub uszkodzony koniec pliku jest usuwany.
+     */
+    private void recover() throws IOException {
+        Map<Long, Entry> entries = new LinkedHashMap<>();
+        long validEnd = 0;
+        long maxSequence = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                int crc;
+                try {
+                    in.readFully(payload);
+                    crc = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (crc != checksum(payload)) {
+                    break;
+                }
+
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                long sequence;
+                try {
+                    byte type = record.readByte();
+                    sequence = record.readLong();
+                    if (type == RECORD_ENTRY) {
+                        entries.put(sequence, decodeEntry(sequence, record));
+                    } else if (type == RECORD_ACK) {
+                        entries.remove(sequence);
+                    } else {
+                        break;
+                    }
+                } catch (IOException e) {
+                    break;
+                }
+                maxSequence = Math.max(maxSequence, sequence);
+                validEnd += 4 + length + 4;
+            }
+        }
+
+        if (validEnd < channel.size()) {
+            System.err.println("⚠️ Kolejka offline: pominięto uszkodzony koniec dziennika ("
+                    + (channel.size() - validEnd) + " B)");
+            channel.truncate(validEnd);
+        }
+        pending.addAll(entries.values());
+        nextSequence = maxSequence + 1;
+        writePosition = validEnd;
+
+        if (pending.isEmpty() && writePosition > 0) {
+            channel.truncate(0);
+            writePosition = 0;
+        }
+        if (!pending.isEmpty()) {
+            System.out.println("📥 Kolejka offline: " + pending.size() + " zmian z poprzedniej sesji czeka na wysłanie");
+        }
+    }
+
+    private static byte[] encodeEntry(Entry entry) {
+        return frame(out -> {
+            out.writeByte(RECORD_ENTRY);
+            out.writeLong(entry.getSequence());
+            out.writeUTF(entry.getEndpoint().name());
+            out.writeUTF(entry.getMethod());
+            out.writeUTF(entry.getPath());
+            out.writeBoolean(entry.getBody() != null);
+            if (entry.getBody() != null) {
+                byte[] body = entry.getBody().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(body.length);
+                out.write(body);
+            }
+            out.writeLong(entry.getCreatedAtMillis());
+        });
+    }
+
+    private static Entry decodeEntry(long sequence, DataInputStream in) throws IOException {
+        HttpTransport.Endpoint endpoint;
+        try {
+            endpoint = HttpTransport.Endpoint.valueOf(in.readUTF());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Nieznana grupa endpointów w kolejce offline", e);
+        }
+        String method = in.readUTF();
+        String path = in.readUTF();
+        String body = null;
+        if (in.readBoolean()) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            body = new String(bytes, StandardCharsets.UTF_8);
+        }
+        long createdAt = in.readLong();
+        return new Entry(sequence, endpoint, method, path, body, createdAt);
+    }
+
+    private static byte[] encodeAck(long sequence) {
+        return frame(out -> {
+            out.writeByte(RECORD_ACK);
+            out.writeLong(sequence);
+        });
+    }
+
+    private static byte[] frame(RecordWriter writer) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            writer.write(new DataOutputStream(payload));
+            byte[] bytes = payload.toByteArray();
+
+            ByteArrayOutputStream framed = new ByteArrayOutputStream(bytes.length + 8);
+            DataOutputStream out = new DataOutputStream(framed);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeInt(checksum(bytes));
+            return framed.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Rekord oczekujący na zapis na dysku wraz z future dla wywołującego.
+     */
+    private static final class Write {
+        final Entry entry;
+        final byte[] bytes;
+        final CompletableFuture<Entry> future = new CompletableFuture<>();
+
+        Write(Entry entry, byte[] bytes) {
+            this.entry = entry;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Pojedyncza zmiana zapisana w kolejce.
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final HttpTransport.Endpoint endpoint;
+        private final String method;
+        private final String path;
+        private final String body;
+        private final long createdAtMillis;
+
+        Entry(long sequence, HttpTransport.Endpoint endpoint, String method, String path, String body,
+              long createdAtMillis) {
+            this.sequence = sequence;
+            this.endpoint = endpoint;
+            this.method = method;
+            this.path = path;
+            this.body = body;
+            this.createdAtMillis = createdAtMillis;
+        }
+
+        /** @return numer kolejny zmiany */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /** @return grupa endpointów */
+        public HttpTransport.Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+        /** @return metoda HTTP */
+        public String getMethod() {
+            return method;
+        }
+
+        /** @return ścieżka względem adresu bazowego API */
+        public String getPath() {
+            return path;
+        }
+
+        /** @return treść JSON lub null */
+        public String getBody() {
+            return body;
+        }
+
+        /** @return czas dopisania do kolejki (ms od epoki) */
+        public long getCreatedAtMillis() {
+            return createdAtMillis;
+        }
+    }
+
+    /**
+     * Wyjątek, którym kończy się operacja zapisu, gdy serwer był niedostępny,
+     * a zmiana została zapisana w kolejce i zostanie wysłana później.
+     * Rozpoznawany przez {@link #isQueued(Throwable)}.
+     */
+    public static class QueuedException extends RuntimeException {
+
+        /**
+         * Tworzy wyjątek z podanym komunikatem.
+         *
+         * @param message komunikat
+         */
+        public QueuedException(String message) {
+            super(message);
+        }
+    }
+}
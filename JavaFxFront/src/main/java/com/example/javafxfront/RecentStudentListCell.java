@@ -0,0 +1,57 @@
+package com.example.javafxfront;
+
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.VBox;
+
+/**
+ * Komórka listy ostatnio dodanych studentów w głównym widoku aplikacji.
+ *
+ * <p>Wyświetla studenta w kompaktowym formacie:</p>
+ * <ul>
+ *   <li>Ikonę 👤 i pełne imię i nazwisko ({@code .recent-student-name})</li>
+ *   <li>Numer indeksu i grupę lub "Brak grupy" ({@code .recent-student-details})</li>
+ * </ul>
+ *
+ * <p>Etykiety są tworzone raz, w konstruktorze; przy ponownym użyciu komórki
+ * zmieniane są tylko ich teksty. Style są zdefiniowane w {@code styles.css}.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see ModernController
+ * @see Student
+ */
+public class RecentStudentListCell extends ListCell<Student> {
+
+    private final VBox content = new VBox(2);
+    private final Label nameLabel = new Label();
+    private final Label detailsLabel = new Label();
+
+    /**
+     * Tworzy komórkę wraz z kompletnym drzewem węzłów.
+     */
+    public RecentStudentListCell() {
+        content.getStyleClass().add("recent-student-cell");
+        nameLabel.getStyleClass().add("recent-student-name");
+        detailsLabel.getStyleClass().add("recent-student-details");
+        content.getChildren().addAll(nameLabel, detailsLabel);
+    }
+
+    @Override
+    protected void updateItem(Student student, boolean empty) {
+        super.updateItem(student, empty);
+        setText(null);
+
+        if (empty || student == null) {
+            setGraphic(null);
+            return;
+        }
+
+        nameLabel.setText("👤 " + student.getFullName());
+        detailsLabel.setText("🆔 " + student.getIndexNumber() +
+                " | 🏫 " + (student.getGroupName() != null ? student.getGroupName() : "Brak grupy"));
+        setGraphic(content);
+    }
+}
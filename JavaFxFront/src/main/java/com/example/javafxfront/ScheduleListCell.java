@@ -0,0 +1,101 @@
+package com.example.javafxfront;
+
+import javafx.css.PseudoClass;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+/**
+ * Komórka listy terminów w widoku grupy.
+ *
+ * <p>Drzewo węzłów jest budowane raz, w konstruktorze. {@link #updateItem(ClassSchedule, boolean)}
+ * przy ponownym użyciu komórki podczas przewijania zmienia tylko teksty, widoczność
+ * wiersza statystyk i pseudoklasy - bez tworzenia nowych węzłów i parsowania stylów inline.</p>
+ *
+ * <p>Wygląd zależny od stanu jest opisany w {@code styles.css} przez pseudoklasy
+ * kontenera {@code .schedule-cell}:</p>
+ * <ul>
+ *   <li><strong>:server</strong> - termin zapisany na serwerze (zielone źródło i synchronizacja)</li>
+ *   <li><strong>:has-attendance</strong> - termin z co najmniej jednym oznaczeniem obecności</li>
+ * </ul>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see GroupDetailController
+ * @see ClassSchedule
+ */
+public class ScheduleListCell extends ListCell<ClassSchedule> {
+
+    /** Termin zapisany na serwerze */
+    static final PseudoClass SERVER = PseudoClass.getPseudoClass("server");
+
+    /** Termin z oznaczonymi obecnościami */
+    static final PseudoClass HAS_ATTENDANCE = PseudoClass.getPseudoClass("has-attendance");
+
+    private final VBox content = new VBox(3);
+    private final Label subjectLabel = new Label();
+    private final Label dateTimeLabel = new Label();
+    private final Label sourceLabel = new Label();
+    private final Label attendanceLabel = new Label();
+    private final HBox statsBox = new HBox(10);
+    private final Label presentLabel = new Label();
+    private final Label lateLabel = new Label();
+    private final Label absentLabel = new Label();
+    private final Label clickHintLabel = new Label("💡 Kliknij aby zarządzać frekwencją");
+    private final Label syncLabel = new Label();
+
+    /**
+     * Tworzy komórkę wraz z kompletnym drzewem węzłów.
+     */
+    public ScheduleListCell() {
+        content.getStyleClass().add("schedule-cell");
+        subjectLabel.getStyleClass().add("schedule-subject");
+        dateTimeLabel.getStyleClass().add("schedule-datetime");
+        sourceLabel.getStyleClass().add("schedule-source");
+        attendanceLabel.getStyleClass().add("schedule-attendance");
+        presentLabel.getStyleClass().add("schedule-stat-present");
+        lateLabel.getStyleClass().add("schedule-stat-late");
+        absentLabel.getStyleClass().add("schedule-stat-absent");
+        clickHintLabel.getStyleClass().add("schedule-hint");
+        syncLabel.getStyleClass().add("schedule-sync");
+
+        statsBox.getChildren().addAll(presentLabel, lateLabel, absentLabel);
+        content.getChildren().addAll(subjectLabel, dateTimeLabel, sourceLabel, attendanceLabel,
+                statsBox, clickHintLabel, syncLabel);
+    }
+
+    @Override
+    protected void updateItem(ClassSchedule schedule, boolean empty) {
+        super.updateItem(schedule, empty);
+        setText(null);
+
+        if (empty || schedule == null) {
+            setGraphic(null);
+            return;
+        }
+
+        boolean fromServer = schedule.isFromServer();
+        boolean hasAttendance = schedule.getTotalAttendanceCount() > 0;
+
+        subjectLabel.setText(schedule.getSubject());
+        dateTimeLabel.setText("Data: " + schedule.getFormattedStartTime() + " - " + schedule.getFormattedEndTime());
+        sourceLabel.setText(fromServer ? "🔵 Serwer (ID: " + schedule.getId() + ")" : "🔴 Lokalny");
+        attendanceLabel.setText(schedule.getAttendanceSummary());
+        syncLabel.setText(fromServer ? "🔄 Synchronizacja z serwerem dostępna" : "⚠️ Tylko dane lokalne");
+
+        statsBox.setVisible(hasAttendance);
+        statsBox.setManaged(hasAttendance);
+        if (hasAttendance) {
+            presentLabel.setText("✅ " + schedule.getPresentCount());
+            lateLabel.setText("⏰ " + schedule.getLateCount());
+            absentLabel.setText("❌ " + schedule.getAbsentCount());
+        }
+
+        content.pseudoClassStateChanged(SERVER, fromServer);
+        content.pseudoClassStateChanged(HAS_ATTENDANCE, hasAttendance);
+        setGraphic(content);
+    }
+}
@@ -1,20 +1,16 @@
 package com.example.javafxfront;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Serwis do komunikacji z serwerem backend w zakresie zarządzania terminami zajęć.
@@ -38,8 +34,8 @@ import java.util.concurrent.CompletableFuture;
  * </ul>
  *
  * <h3>Konfiguracja serwera:</h3>
- * <p>Serwis domyślnie łączy się z serwerem na adresie {@value #BASE_URL}.
- * Endpoint dla terminów znajduje się pod adresem {@value #SCHEDULES_ENDPOINT}.</p>
+ * <p>Serwis domyślnie łączy się z serwerem na adresie {@value HttpTransport#DEFAULT_BASE_URL}.
+ * Endpoint dla terminów znajduje się pod adresem {@code /api/schedules}.</p>
  *
  * <h3>Format danych:</h3>
  * <p>Wszystkie dane są wymieniane w formacie JSON. Serwis automatycznie
@@ -119,35 +115,25 @@ import java.util.concurrent.CompletableFuture;
  */
 public class ScheduleService {
 
-    /**
-     * Bazowy URL serwera API.
-     *
-     * <p>Wszystkie żądania HTTP są kierowane do tego adresu bazowego.
-     * Domyślnie aplikacja łączy się z lokalnym serwerem deweloperskim.</p>
-     */
-    private static final String BASE_URL = "http://localhost:8080/api";
-
     /**
      * Pełny endpoint dla operacji na terminach zajęć.
      *
      * <p>Endpoint obsługuje następujące operacje HTTP:</p>
      * <ul>
-     *   <li>GET {@value} - pobieranie wszystkich terminów</li>
-     *   <li>POST {@value} - dodawanie nowego terminu</li>
-     *   <li>PUT {@value}/{id} - aktualizacja terminu</li>
-     *   <li>DELETE {@value}/{id} - usuwanie terminu</li>
-     *   <li>GET {@value}/group/{nazwa} - pobieranie terminów grupy</li>
+     *   <li>GET {@code /api/schedules} - pobieranie wszystkich terminów</li>
+     *   <li>POST {@code /api/schedules} - dodawanie nowego terminu</li>
+     *   <li>PUT {@code /api/schedules/{id}} - aktualizacja terminu</li>
+     *   <li>DELETE {@code /api/schedules/{id}} - usuwanie terminu</li>
+     *   <li>GET {@code /api/schedules/group/{nazwa}} - pobieranie terminów grupy</li>
      * </ul>
      */
-    private static final String SCHEDULES_ENDPOINT = BASE_URL + "/schedules";
+    private final String schedulesEndpoint;
 
     /**
-     * Klient HTTP do komunikacji z serwerem.
-     *
-     * <p>Konfigurowany z timeoutem połączenia 10 sekund dla zapewnienia
-     * responsywności interfejsu użytkownika.</p>
+     * Wspólna warstwa transportowa dostarczająca klienta HTTP, mapper JSON
+     * oraz timeouty żądań.
      */
-    private final HttpClient httpClient;
+    private final HttpTransport transport;
 
     /**
      * Mapper JSON do serializacji i deserializacji obiektów.
@@ -161,6 +147,12 @@ public class ScheduleService {
      */
     private final ObjectMapper objectMapper;
 
+    /**
+     * Strumieniowy czytnik list JSON - elementy są konwertowane od razu po odczytaniu
+     * ze strumienia odpowiedzi, bez buforowania całej treści.
+     */
+    private final JsonStreamReader jsonReader;
+
     /**
      * Formatter dla dat i czasów w komunikacji z serwerem.
      *
@@ -172,38 +164,33 @@ public class ScheduleService {
     /**
      * Konstruktor serwisu terminów zajęć.
      *
-     * <p>Inicjalizuje klienta HTTP z timeoutem 10 sekund oraz konfiguruje
-     * ObjectMapper do obsługi dat Java 8+ i ignorowania nieznanych właściwości JSON.
-     * Dodatkowo ustawia formatter dla konsystentnego formatowania dat.</p>
-     *
-     * <p>Konfiguracja klienta HTTP:</p>
-     * <ul>
-     *   <li>Timeout połączenia: 10 sekund</li>
-     *   <li>Automatyczne zarządzanie cookies</li>
-     *   <li>Obsługa HTTP/2 gdy dostępne</li>
-     * </ul>
-     *
-     * <p>Konfiguracja ObjectMapper:</p>
-     * <ul>
-     *   <li>JavaTimeModule dla obsługi LocalDateTime</li>
-     *   <li>FAIL_ON_UNKNOWN_PROPERTIES = false</li>
-     *   <li>Automatyczna detekcja formatów dat</li>
-     * </ul>
+     * <p>Korzysta ze współdzielonej warstwy transportowej ({@link HttpTransport#getShared()}),
+     * dzięki czemu wszystkie okna aplikacji używają jednej puli połączeń HTTP
+     * i jednego skonfigurowanego ObjectMappera.</p>
      */
     public ScheduleService() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this(HttpTransport.getShared());
+    }
 
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    /**
+     * Konstruktor serwisu terminów korzystający z podanej warstwy transportowej.
+     *
+     * <p>Pozwala współdzielić jedną pulę połączeń i jeden ObjectMapper
+     * między wszystkimi serwisami oraz wskazać inny serwer API.</p>
+     *
+     * @param transport warstwa transportowa HTTP
+     */
+    public ScheduleService(HttpTransport transport) {
+        this.transport = transport;
+        this.objectMapper = transport.getObjectMapper();
+        this.jsonReader = new JsonStreamReader(objectMapper);
+        this.schedulesEndpoint = transport.getBaseUrl() + "/schedules";
     }
 
     /**
      * Pobiera wszystkie terminy zajęć z serwera asynchronicznie.
      *
-     * <p>Wykonuje żądanie GET do endpointu {@value #SCHEDULES_ENDPOINT} i deserializuje
+     * <p>Wykonuje żądanie GET do endpointu {@code /api/schedules} i deserializuje
      * odpowiedź JSON do listy obiektów {@link ClassSchedule}. Operacja jest wykonywana
      * asynchronicznie w tle, nie blokując wątku interfejsu użytkownika.</p>
      *
@@ -212,7 +199,7 @@ public class ScheduleService {
      *   <li>Wysłanie żądania HTTP GET do serwera</li>
      *   <li>Oczekiwanie na odpowiedź (max 30 sekund)</li>
      *   <li>Sprawdzenie kodu statusu HTTP (oczekiwany: 200)</li>
-     *   <li>Deserializacja JSON do listy ClassSchedule</li>
+     *   <li>Strumieniowa deserializacja JSON do listy ClassSchedule</li>
      *   <li>Konwersja obiektów serwera do obiektów klienta</li>
      * </ol>
      *
@@ -256,29 +243,19 @@ public class ScheduleService {
      * @see ClassSchedule
      */
     public CompletableFuture<List<ClassSchedule>> getAllSchedulesAsync() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(SCHEDULES_ENDPOINT))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    return parseSchedulesFromJson(response.body());
-                } else {
-                    throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode());
-                }
-
-            } catch (Exception e) {
-                throw new RuntimeException("Nie udalo sie pobrac terminow z serwera: " + e.getMessage(), e);
-            }
-        });
+        return transport.fetchCached(EntityCache.Keys.SCHEDULES_ALL, "GET " + schedulesEndpoint, () ->
+                transport.sendStreaming(HttpTransport.Endpoint.SCHEDULES, () -> {
+                    return transport.newRequest(HttpTransport.Endpoint.SCHEDULES, schedulesEndpoint)
+                            .header("Content-Type", "application/json")
+                            .GET()
+                            .build();
+                }, response -> {
+                    if (response.statusCode() == 200) {
+                        return parseSchedulesFromJson(response.body());
+                    } else {
+                        throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode());
+                    }
+                }, "Nie udalo sie pobrac terminow z serwera"));
     }
 
     /**
@@ -342,59 +319,135 @@ public class ScheduleService {
      * @see #addScheduleAsync(ClassSchedule)
      */
     public CompletableFuture<List<ClassSchedule>> getSchedulesByGroupAsync(String groupName) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                System.out.println("=== FRONTEND: getSchedulesByGroupAsync ===");
-                System.out.println("🔗 Grupa: '" + groupName + "'");
-
-                String encodedGroupName = java.net.URLEncoder.encode(groupName, "UTF-8");
-                String url = SCHEDULES_ENDPOINT + "/group/" + encodedGroupName;
-
-                System.out.println("🔗 Wywołuję URL: " + url);
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                System.out.println("📡 Status odpowiedzi: " + response.statusCode());
-                System.out.println("📄 Treść odpowiedzi: " + response.body());
-
-                if (response.statusCode() == 200) {
-                    List<ClassSchedule> schedules = parseSchedulesFromJson(response.body());
-                    System.out.println("✅ Sparsowano " + schedules.size() + " terminów");
-
-                    for (int i = 0; i < schedules.size(); i++) {
-                        ClassSchedule s = schedules.get(i);
-                        System.out.println("  " + (i+1) + ". " + s.getSubject() +
-                                " (ID: " + s.getId() + ", grupa: " + s.getGroupName() + ")");
+        return transport.fetchCached(EntityCache.Keys.schedulesOfGroup(groupName), "GET " + schedulesEndpoint + "/group/" + groupName, () ->
+                transport.sendStreaming(HttpTransport.Endpoint.SCHEDULES, () -> {
+                    System.out.println("=== FRONTEND: getSchedulesByGroupAsync ===");
+                    System.out.println("🔗 Grupa: '" + groupName + "'");
+
+                    String encodedGroupName = java.net.URLEncoder.encode(groupName, "UTF-8");
+                    String url = schedulesEndpoint + "/group/" + encodedGroupName;
+
+                    System.out.println("🔗 Wywołuję URL: " + url);
+
+                    return transport.newRequest(HttpTransport.Endpoint.SCHEDULES, url)
+                            .header("Content-Type", "application/json")
+                            .GET()
+                            .build();
+                }, response -> {
+                    System.out.println("📡 Status odpowiedzi: " + response.statusCode());
+
+                    if (response.statusCode() == 200) {
+                        List<ClassSchedule> schedules = parseSchedulesFromJson(response.body());
+                        System.out.println("✅ Sparsowano " + schedules.size() + " terminów");
+
+                        for (int i = 0; i < schedules.size(); i++) {
+                            ClassSchedule s = schedules.get(i);
+                            System.out.println("  " + (i+1) + ". " + s.getSubject() +
+                                    " (ID: " + s.getId() + ", grupa: " + s.getGroupName() + ")");
+                        }
+
+                        return schedules;
+                    } else {
+                        System.err.println("❌ Serwer odpowiedział statusem: " + response.statusCode());
+                        System.err.println("❌ Treść błędu: " + HttpTransport.readBody(response));
+                        throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode());
+                    }
+                }, "Nie udało się pobrać terminów grupy z serwera"));
+    }
+
+    /**
+     * Pobiera terminy grupy asynchronicznie, przekazując je porcjami w trakcie pobierania.
+     *
+     * <p>Działa jak {@link #getSchedulesByGroupAsync(String)}, ale każda porcja
+     * {@code chunkSize} terminów trafia do {@code onChunk} od razu po odczytaniu
+     * ze strumienia odpowiedzi.</p>
+     *
+     * <p><strong>Uwaga:</strong> {@code onChunk} jest wywoływany na wątku transportu HTTP,
+     * nie na wątku JavaFX.</p>
+     *
+     * @param groupName nazwa grupy
+     * @param chunkSize maksymalna liczba terminów w jednej porcji
+     * @param onChunk odbiorca kolejnych porcji terminów
+     * @return CompletableFuture z łączną liczbą pobranych terminów
+     *
+     * @see #getSchedulesByGroupAsync(String)
+     */
+    public CompletableFuture<Integer> getSchedulesByGroupAsync(String groupName, int chunkSize,
+                                                               Consumer<List<ClassSchedule>> onChunk) {
+        return transport.fetchCachedInChunks(EntityCache.Keys.schedulesOfGroup(groupName), chunkSize, onChunk, sink ->
+                transport.sendStreaming(HttpTransport.Endpoint.SCHEDULES, () -> {
+                    String encodedGroupName = java.net.URLEncoder.encode(groupName, "UTF-8");
+                    String url = schedulesEndpoint + "/group/" + encodedGroupName;
+
+                    System.out.println("🔗 Wywołuję URL (porcjami): " + url);
+
+                    return transport.newRequest(HttpTransport.Endpoint.SCHEDULES, url)
+                            .header("Content-Type", "application/json")
+                            .GET()
+                            .build();
+                }, response -> {
+                    if (response.statusCode() == 200) {
+                        List<ClassSchedule> schedules = parseSchedulesInChunks(response.body(), chunkSize, sink);
+                        System.out.println("✅ Sparsowano " + schedules.size() + " terminów");
+                        return schedules;
+                    } else {
+                        System.err.println("❌ Serwer odpowiedział statusem: " + response.statusCode());
+                        System.err.println("❌ Treść błędu: " + HttpTransport.readBody(response));
+                        throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode());
                     }
+                }, "Nie udało się pobrać terminów grupy z serwera"));
+    }
 
-                    return schedules;
-                } else {
-                    System.err.println("❌ Serwer odpowiedział statusem: " + response.statusCode());
-                    System.err.println("❌ Treść błędu: " + response.body());
-                    throw new RuntimeException("Serwer odpowiedział statusem: " + response.statusCode());
-                }
-
-            } catch (Exception e) {
-                System.err.println("❌ Błąd getSchedulesByGroupAsync: " + e.getMessage());
-                e.printStackTrace();
-                throw new RuntimeException("Nie udało się pobrać terminów grupy z serwera: " + e.getMessage(), e);
+    /**
+     * Zwraca ostatnio pobraną listę terminów grupy z pamięci podręcznej, bez komunikacji z serwerem.
+     *
+     * <p>Pozwala widokowi natychmiast pokazać znane dane, a następnie - jeśli
+     * {@link EntityCache.CachedValue#isFresh()} zwraca false - odświeżyć je w tle
+     * przez {@link #getSchedulesByGroupAsync(String)}.</p>
+     *
+     * @param groupName nazwa grupy
+     * @return lista z flagą świeżości lub null, jeśli grupa nie była jeszcze pobierana
+     */
+    public EntityCache.CachedValue<List<ClassSchedule>> peekSchedulesByGroup(String groupName) {
+        return transport.getCache().peek(EntityCache.Keys.schedulesOfGroup(groupName));
+    }
+
+    /**
+     * Zapisuje frekwencję terminu pokazanego w widoku w listach terminów z pamięci podręcznej
+     * (grupy i wszystkich terminów), np. aby trafiła do lokalnej migawki ({@link SnapshotStore}).
+     *
+     * <p>Zapisane listy i terminy nie są zmieniane - wpis otrzymuje nową listę, w której
+     * termin o tym samym ID jest zastąpiony kopią {@code schedule}. Terminy bez ID
+     * i terminy spoza zapamiętanych list są pomijane.</p>
+     *
+     * @param groupName nazwa grupy terminu
+     * @param schedule termin z aktualną frekwencją (np. z listy okna grupy)
+     */
+    public void rememberAttendances(String groupName, ClassSchedule schedule) {
+        if (schedule.getId() == null) {
+            return;
+        }
+        ClassSchedule copy = schedule.copy();
+        EntityCache cache = transport.getCache();
+        cache.update(EntityCache.Keys.schedulesOfGroup(groupName), (List<ClassSchedule> list) -> replaceById(list, copy));
+        cache.update(EntityCache.Keys.SCHEDULES_ALL, (List<ClassSchedule> list) -> replaceById(list, copy));
+    }
+
+    private static List<ClassSchedule> replaceById(List<ClassSchedule> schedules, ClassSchedule replacement) {
+        for (int i = 0; i < schedules.size(); i++) {
+            if (replacement.getId().equals(schedules.get(i).getId())) {
+                List<ClassSchedule> updated = new ArrayList<>(schedules);
+                updated.set(i, replacement);
+                return List.copyOf(updated);
             }
-        });
+        }
+        return schedules;
     }
 
     /**
      * Dodaje nowy termin zajęć na serwer asynchronicznie.
      *
-     * <p>Wykonuje żądanie POST do endpointu {@value #SCHEDULES_ENDPOINT} z danymi terminu
+     * <p>Wykonuje żądanie POST do endpointu {@code /api/schedules} z danymi terminu
      * w formacie JSON. Zwraca termin z uzupełnionymi danymi z serwera (ID, data utworzenia).
      * Używa zaawansowanej metody ręcznego tworzenia JSON dla maksymalnej kontroli nad
      * formatem danych wysyłanych na serwer.</p>
@@ -469,46 +522,33 @@ public class ScheduleService {
      * @see #createScheduleJsonManually(ClassSchedule)
      */
     public CompletableFuture<ClassSchedule> addScheduleAsync(ClassSchedule schedule) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                System.out.println("=== WYSYŁANIE TERMINU NA SERWER ===");
-                System.out.println("📋 Termin: " + schedule.getSubject());
-                System.out.println("📅 Data: " + schedule.getStartTime());
-                System.out.println("🏫 Grupa: " + schedule.getGroupName());
-
-                String jsonBody = createScheduleJsonManually(schedule);
-
-                System.out.println("📤 Wysyłam JSON: " + jsonBody);
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(SCHEDULES_ENDPOINT))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                System.out.println("📡 Status odpowiedzi: " + response.statusCode());
-                System.out.println("📄 Treść odpowiedzi: " + response.body());
-
-                if (response.statusCode() == 201 || response.statusCode() == 200) {
-                    ClassSchedule savedSchedule = parseScheduleFromJson(response.body());
-                    System.out.println("✅ Termin zapisany na serwerze z ID: " + savedSchedule.getId());
-                    return savedSchedule;
-                } else {
-                    System.err.println("❌ Serwer odpowiedział błędem: " + response.statusCode());
-                    System.err.println("❌ Treść błędu: " + response.body());
-                    throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode() +
-                            ". Szczegóły: " + response.body());
-                }
-
-            } catch (Exception e) {
-                System.err.println("❌ Błąd wysyłania terminu na serwer: " + e.getMessage());
-                e.printStackTrace();
-                throw new RuntimeException("Nie udalo sie dodac terminu na serwer: " + e.getMessage(), e);
+        System.out.println("=== WYSYŁANIE TERMINU NA SERWER ===");
+        System.out.println("📋 Termin: " + schedule.getSubject());
+        System.out.println("📅 Data: " + schedule.getStartTime());
+        System.out.println("🏫 Grupa: " + schedule.getGroupName());
+
+        String jsonBody = createScheduleJsonManually(schedule);
+
+        System.out.println("📤 Wysyłam JSON: " + jsonBody);
+
+        return transport.sendOrQueue(HttpTransport.Endpoint.SCHEDULES, "POST", schedulesEndpoint, jsonBody, response -> {
+            System.out.println("📡 Status odpowiedzi: " + response.statusCode());
+            System.out.println("📄 Treść odpowiedzi: " + response.body());
+
+            if (response.statusCode() == 201 || response.statusCode() == 200) {
+                ClassSchedule savedSchedule = parseScheduleFromJson(response.body());
+                System.out.println("✅ Termin zapisany na serwerze z ID: " + savedSchedule.getId());
+                return savedSchedule;
+            } else {
+                System.err.println("❌ Serwer odpowiedział błędem: " + response.statusCode());
+                System.err.println("❌ Treść błędu: " + response.body());
+                throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode() +
+                        ". Szczegóły: " + response.body());
+            }
+        }, "Nie udalo sie dodac terminu na serwer").whenComplete((result, error) -> {
+            if (error == null) {
+                transport.getCache().invalidate(EntityCache.Keys.SCHEDULES_ALL,
+                        EntityCache.Keys.schedulesOfGroup(schedule.getGroupName()));
             }
         });
     }
@@ -586,34 +626,23 @@ public class ScheduleService {
      * @see #updateScheduleAsync(Long, ClassSchedule)
      */
     public CompletableFuture<Boolean> deleteScheduleAsync(Long scheduleId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                System.out.println("🗑️ Usuwam termin z serwera ID: " + scheduleId);
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(SCHEDULES_ENDPOINT + "/" + scheduleId))
-                        .header("Content-Type", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .DELETE()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                System.out.println("📡 Status usuwania: " + response.statusCode());
-
-                boolean success = response.statusCode() == 200 || response.statusCode() == 204;
-                if (success) {
-                    System.out.println("✅ Termin usunięty z serwera");
-                } else {
-                    System.err.println("❌ Nie udało się usunąć terminu: " + response.body());
-                }
-
-                return success;
-
-            } catch (Exception e) {
-                System.err.println("❌ Błąd usuwania terminu: " + e.getMessage());
-                throw new RuntimeException("Nie udalo sie usunac terminu z serwera: " + e.getMessage(), e);
+        System.out.println("🗑️ Usuwam termin z serwera ID: " + scheduleId);
+
+        return transport.sendOrQueue(HttpTransport.Endpoint.SCHEDULES, "DELETE",
+                schedulesEndpoint + "/" + scheduleId, null, response -> {
+            System.out.println("📡 Status usuwania: " + response.statusCode());
+
+            boolean success = response.statusCode() == 200 || response.statusCode() == 204;
+            if (success) {
+                System.out.println("✅ Termin usunięty z serwera");
+            } else {
+                System.err.println("❌ Nie udało się usunąć terminu: " + response.body());
+            }
+
+            return success;
+        }, "Nie udalo sie usunac terminu z serwera").whenComplete((result, error) -> {
+            if (error == null) {
+                transport.getCache().invalidatePrefix(EntityCache.Keys.SCHEDULES);
             }
         });
     }
@@ -694,35 +723,23 @@ public class ScheduleService {
      * @see #createScheduleJsonManually(ClassSchedule)
      */
     public CompletableFuture<ClassSchedule> updateScheduleAsync(Long scheduleId, ClassSchedule schedule) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String jsonBody = createScheduleJsonManually(schedule);
-
-                System.out.println("🔄 Aktualizuję termin ID: " + scheduleId);
-                System.out.println("📤 JSON: " + jsonBody);
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(SCHEDULES_ENDPOINT + "/" + scheduleId))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .PUT(HttpRequest.BodyPublishers.ofString(jsonBody))
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    System.out.println("✅ Termin zaktualizowany na serwerze");
-                    return parseScheduleFromJson(response.body());
-                } else {
-                    System.err.println("❌ Błąd aktualizacji: " + response.statusCode() + " - " + response.body());
-                    throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode());
-                }
-
-            } catch (Exception e) {
-                System.err.println("❌ Błąd aktualizacji terminu: " + e.getMessage());
-                throw new RuntimeException("Nie udalo sie zaktualizowac terminu na serwerze: " + e.getMessage(), e);
+        String jsonBody = createScheduleJsonManually(schedule);
+
+        System.out.println("🔄 Aktualizuję termin ID: " + scheduleId);
+        System.out.println("📤 JSON: " + jsonBody);
+
+        return transport.sendOrQueue(HttpTransport.Endpoint.SCHEDULES, "PUT",
+                schedulesEndpoint + "/" + scheduleId, jsonBody, response -> {
+            if (response.statusCode() == 200) {
+                System.out.println("✅ Termin zaktualizowany na serwerze");
+                return parseScheduleFromJson(response.body());
+            } else {
+                System.err.println("❌ Błąd aktualizacji: " + response.statusCode() + " - " + response.body());
+                throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode());
+            }
+        }, "Nie udalo sie zaktualizowac terminu na serwerze").whenComplete((result, error) -> {
+            if (error == null) {
+                transport.getCache().invalidatePrefix(EntityCache.Keys.SCHEDULES);
             }
         });
     }
@@ -738,28 +755,47 @@ public class ScheduleService {
      *
      * <p>Proces konwersji:</p>
      * <ol>
-     *   <li>Deserializacja JSON do listy obiektów ScheduleFromServer</li>
-     *   <li>Mapowanie każdego obiektu serwera na obiekt klienta</li>
+     *   <li>Strumieniowy odczyt kolejnych obiektów ScheduleFromServer z tablicy JSON</li>
+     *   <li>Mapowanie każdego obiektu serwera na obiekt klienta zaraz po odczytaniu</li>
      *   <li>Wyciągnięcie nazwy grupy z zagnieżdżonego obiektu</li>
      *   <li>Konwersja dat z formatu ISO do LocalDateTime</li>
      * </ol>
      *
-     * @param json JSON z odpowiedzi serwera zawierający listę terminów
+     * @param json strumień odpowiedzi serwera zawierający listę terminów
      * @return lista obiektów ClassSchedule
      * @throws RuntimeException jeśli nie można sparsować JSON
      *
      * @see #convertToClassSchedule(ScheduleFromServer)
      * @see #parseScheduleFromJson(String)
      */
-    private List<ClassSchedule> parseSchedulesFromJson(String json) {
+    private List<ClassSchedule> parseSchedulesFromJson(InputStream json) {
         try {
-            List<ScheduleFromServer> serverSchedules = objectMapper.readValue(json, new TypeReference<List<ScheduleFromServer>>() {});
-
-            return serverSchedules.stream()
-                    .map(this::convertToClassSchedule)
-                    .toList();
+            return jsonReader.readArray(json, ScheduleFromServer.class, this::convertToClassSchedule);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse schedules JSON: " + e.getMessage(), e);
+        }
+    }
 
-        } catch (JsonProcessingException e) {
+    /**
+     * Parsuje strumień z listą terminów, przekazując skonwertowane terminy porcjami.
+     *
+     * @param json strumień odpowiedzi serwera zawierający listę terminów
+     * @param chunkSize maksymalna liczba terminów w porcji
+     * @param onChunk odbiorca porcji
+     * @return pełna, niemodyfikowalna lista terminów
+     * @throws RuntimeException jeśli nie można sparsować JSON
+     *
+     * @see #parseSchedulesFromJson(InputStream)
+     */
+    private List<ClassSchedule> parseSchedulesInChunks(InputStream json, int chunkSize, Consumer<List<ClassSchedule>> onChunk) {
+        try {
+            List<ClassSchedule> all = new java.util.ArrayList<>();
+            jsonReader.readArrayInChunks(json, ScheduleFromServer.class, this::convertToClassSchedule, chunkSize, chunk -> {
+                all.addAll(chunk);
+                onChunk.accept(chunk);
+            });
+            return List.copyOf(all);
+        } catch (IOException e) {
             throw new RuntimeException("Failed to parse schedules JSON: " + e.getMessage(), e);
         }
     }
@@ -775,7 +811,7 @@ public class ScheduleService {
      * @throws RuntimeException jeśli nie można sparsować JSON
      *
      * @see #convertToClassSchedule(ScheduleFromServer)
-     * @see #parseSchedulesFromJson(String)
+     * @see #parseSchedulesFromJson(InputStream)
      */
     private ClassSchedule parseScheduleFromJson(String json) {
         try {
@@ -0,0 +1,151 @@
+package com.example.javafxfront;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Liczniki wykonania zadań jednego serwisu w warstwie transportowej.
+ *
+ * <p>Każda grupa endpointów ({@link HttpTransport.Endpoint}) ma własną instancję,
+ * dzięki czemu można porównać obciążenie serwisów studentów, grup, terminów
+ * i frekwencji. Liczniki są bezpieczne wątkowo i tanie w aktualizacji.</p>
+ *
+ * <p>Czas przypięcia wątku nośnego ({@link #getPinnedTime()}) jest zbierany
+ * tylko w trybie {@link HttpTransport.ExecutionMode#VIRTUAL_THREADS} na podstawie
+ * zdarzeń JFR {@code jdk.VirtualThreadPinned}. Oznacza on czas, w którym wątek
+ * wirtualny blokował wątek platformowy zamiast go zwolnić.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see HttpTransport#getMetrics(HttpTransport.Endpoint)
+ */
+public final class ServiceMetrics {
+
+    private final String name;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final LongAdder pinnedEvents = new LongAdder();
+
+    /**
+     * Tworzy zestaw liczników dla serwisu o podanej nazwie.
+     *
+     * @param name nazwa serwisu używana w raportach
+     */
+    public ServiceMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Rejestruje rozpoczęcie zadania.
+     */
+    void taskStarted() {
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+    }
+
+    /**
+     * Rejestruje zakończenie zadania.
+     *
+     * @param success true jeśli zadanie zakończyło się sukcesem
+     */
+    void taskFinished(boolean success) {
+        inFlight.decrementAndGet();
+        if (success) {
+            completed.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Rejestruje okres przypięcia wątku wirtualnego do wątku nośnego.
+     *
+     * @param duration czas trwania przypięcia
+     */
+    void recordPinned(Duration duration) {
+        pinnedNanos.add(duration.toNanos());
+        pinnedEvents.increment();
+    }
+
+    /**
+     * Zwraca nazwę serwisu.
+     *
+     * @return nazwa serwisu
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Zwraca liczbę zadań aktualnie w toku.
+     *
+     * @return liczba zadań w toku
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Zwraca największą zaobserwowaną liczbę zadań w toku.
+     *
+     * @return szczytowa liczba zadań w toku
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * Zwraca liczbę zadań zakończonych sukcesem.
+     *
+     * @return liczba udanych zadań
+     */
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Zwraca liczbę zadań zakończonych błędem.
+     *
+     * @return liczba nieudanych zadań
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Zwraca łączny czas przypięcia wątków wirtualnych do wątków nośnych.
+     *
+     * @return łączny czas przypięcia
+     */
+    public Duration getPinnedTime() {
+        return Duration.ofNanos(pinnedNanos.sum());
+    }
+
+    /**
+     * Zwraca liczbę zarejestrowanych przypięć wątków wirtualnych.
+     *
+     * @return liczba zdarzeń przypięcia
+     */
+    public long getPinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    /**
+     * Zwraca czytelne podsumowanie liczników.
+     *
+     * @return podsumowanie w formacie "nazwa: w toku X (szczyt Y), ok A, błędy B, przypięcie Z ms (N)"
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: w toku %d (szczyt %d), ok %d, błędy %d, przypięcie %d ms (%d)",
+                name, getInFlight(), getPeakInFlight(), getCompleted(), getFailed(),
+                getPinnedTime().toMillis(), getPinnedEvents());
+    }
+}
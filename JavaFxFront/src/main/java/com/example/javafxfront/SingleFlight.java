@@ -0,0 +1,126 @@
+package com.example.javafxfront;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Łączenie identycznych, równolegle wykonywanych żądań w jedno ("single flight").
+ *
+ * <p>Jeśli dla danego klucza (np. {@code "GET http://.../students"}) żądanie jest już
+ * w toku, kolejni wywołujący nie wysyłają nowego żądania, tylko otrzymują wynik
+ * tego samego - jedno pobranie i jedno parsowanie JSON zamiast kilku. Po zakończeniu
+ * żądania klucz jest zwalniany, więc następne wywołanie pobiera świeże dane
+ * (to nie jest pamięć podręczna).</p>
+ *
+ * <p>Każdy wywołujący dostaje własną kopię future ({@link CompletableFuture#copy()}),
+ * więc anulowanie lub ręczne zakończenie przez jednego z nich nie wpływa na pozostałych.
+ * Współdzielony wynik powinien być niemodyfikowalny (serwisy zwracają niemodyfikowalne listy).</p>
+ *
+ * <p>Dla każdego klucza zliczane są trafienia (dołączenie do żądania w toku)
+ * i chybienia (wysłanie nowego żądania) - {@link #describe()}.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see HttpTransport#coalesce(String, Supplier)
+ */
+public final class SingleFlight {
+
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, KeyStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Wykonuje żądanie dla klucza albo dołącza do żądania już w toku.
+     *
+     * @param <T> typ wyniku
+     * @param key klucz identyfikujący żądanie (metoda + URL)
+     * @param loader funkcja wysyłająca żądanie - wywoływana tylko przy chybieniu
+     * @return future z wynikiem (własna kopia dla każdego wywołującego)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> loader) {
+        KeyStats keyStats = stats.computeIfAbsent(key, k -> new KeyStats());
+
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            keyStats.hits.increment();
+            return existing.copy();
+        }
+
+        keyStats.misses.increment();
+        try {
+            loader.get().whenComplete((value, error) -> {
+                // Zwolnij klucz przed zakończeniem, aby wywołania z callbacków pobrały świeże dane
+                inFlight.remove(key, created);
+                if (error != null) {
+                    created.completeExceptionally(error);
+                } else {
+                    created.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created.copy();
+    }
+
+    /**
+     * Zwraca liczbę trafień (żądań obsłużonych przez dołączenie) dla klucza.
+     *
+     * @param key klucz żądania
+     * @return liczba trafień
+     */
+    public long getHits(String key) {
+        KeyStats keyStats = stats.get(key);
+        return keyStats != null ? keyStats.hits.sum() : 0;
+    }
+
+    /**
+     * Zwraca liczbę chybień (faktycznie wysłanych żądań) dla klucza.
+     *
+     * @param key klucz żądania
+     * @return liczba chybień
+     */
+    public long getMisses(String key) {
+        KeyStats keyStats = stats.get(key);
+        return keyStats != null ? keyStats.misses.sum() : 0;
+    }
+
+    /**
+     * Zwraca liczbę żądań aktualnie w toku.
+     *
+     * @return liczba kluczy w toku
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Zwraca podsumowanie liczników, po jednym wierszu na klucz (alfabetycznie).
+     *
+     * @return raport w formacie "klucz: trafienia X, chybienia Y"
+     */
+    public String describe() {
+        StringBuilder report = new StringBuilder();
+        new TreeMap<>(stats).forEach((key, keyStats) -> {
+            if (!report.isEmpty()) {
+                report.append("\n");
+            }
+            report.append(String.format("%s: trafienia %d, chybienia %d",
+                    key, keyStats.hits.sum(), keyStats.misses.sum()));
+        });
+        return report.toString();
+    }
+
+    private static final class KeyStats {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+    }
+}
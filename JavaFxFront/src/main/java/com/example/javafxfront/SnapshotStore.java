@@ -0,0 +1,361 @@
+package com.example.javafxfront;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lokalna migawka ostatnio znanych danych (grupy, studenci, terminy z frekwencją)
+ * zapisywana na dysku w zwartym formacie binarnym.
+ *
+ * <p>Migawka pozwala pokazać dane natychmiast po uruchomieniu aplikacji, zanim
+ * serwer odpowie na pierwsze żądania. Zawartością migawki są listy z
+ * {@link EntityCache} - przy zamknięciu aplikacji wszystkie listy grup, studentów
+ * i terminów (wraz z frekwencją przypiętą do terminów) są zapisywane, a przy
+ * starcie wracają do pamięci podręcznej jako wpisy przeterminowane. Widoki
+ * pokazują je od razu i odświeżają w tle ("stale-while-revalidate").</p>
+ *
+ * <p>Okna pracują na kopiach terminów, więc frekwencja trafia do pamięci podręcznej
+ * tylko wtedy, gdy okno ją tam zapisze ({@link ScheduleService#rememberAttendances(String, ClassSchedule)}) -
+ * migawka odczytuje wyłącznie wartości z pamięci podręcznej, nigdy obiekty z okien.</p>
+ *
+ * <p>Format pliku ({@link DataOutputStream}):</p>
+ * <pre>
+ * int    MAGIC
+ * short  FORMAT_VERSION
+ * int    liczba list
+ * dla każdej listy:
+ *   UTF   klucz logiczny (np. "students:group:INF-A")
+ *   byte  typ elementów (TYPE_GROUP / TYPE_STUDENT / TYPE_SCHEDULE)
+ *   int   liczba elementów
+ *   ...   rekordy elementów
+ * </pre>
+ *
+ * <p>Zapis odbywa się do pliku tymczasowego, który następnie zastępuje
+ * poprzednią migawkę - przerwany zapis nie uszkodzi ostatniej poprawnej kopii.
+ * Uszkodzona lub niezgodna wersją migawka jest ignorowana.</p>
+ *
+ * <p>Konfiguracja (właściwości systemowe):</p>
+ * <ul>
+ *   <li>{@code dziennik.snapshot.dir} - katalog migawki (domyślnie {@code ~/.dziennik})</li>
+ * </ul>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see EntityCache#restoreStale(String, Object)
+ * @see HelloApplication#start(javafx.stage.Stage)
+ */
+public final class SnapshotStore {
+
+    /**
+     * Nazwa pliku migawki.
+     */
+    public static final String FILE_NAME = "snapshot.bin";
+
+    private static final int MAGIC = 0x445A4E53; // "DZNS"
+    private static final short FORMAT_VERSION = 1;
+
+    private static final byte TYPE_GROUP = 1;
+    private static final byte TYPE_STUDENT = 2;
+    private static final byte TYPE_SCHEDULE = 3;
+
+    private final Path file;
+
+    /**
+     * Tworzy magazyn migawki w podanym pliku.
+     *
+     * @param file ścieżka pliku migawki
+     */
+    public SnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Tworzy magazyn migawki w katalogu z właściwości {@code dziennik.snapshot.dir}
+     * lub w {@code ~/.dziennik}.
+     *
+     * @return nowy magazyn migawki
+     */
+    public static SnapshotStore fromSystemProperties() {
+        return new SnapshotStore(dataDirectory().resolve(FILE_NAME));
+    }
+
+    /**
+     * Zwraca katalog danych lokalnych aplikacji (migawka, kolejka offline):
+     * wartość {@code dziennik.snapshot.dir} lub {@code ~/.dziennik}.
+     *
+     * @return katalog danych lokalnych
+     */
+    public static Path dataDirectory() {
+        String dir = System.getProperty("dziennik.snapshot.dir");
+        return dir != null
+                ? Path.of(dir)
+                : Path.of(System.getProperty("user.home"), ".dziennik");
+    }
+
+    /**
+     * Zwraca ścieżkę pliku migawki.
+     *
+     * @return ścieżka pliku
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Wczytuje migawkę do pamięci podręcznej jako wpisy przeterminowane.
+     *
+     * <p>Brak pliku nie jest błędem (pierwsze uruchomienie). Uszkodzony plik
+     * jest pomijany - aplikacja startuje wtedy z pustymi listami, jak dotąd.</p>
+     *
+     * @param cache pamięć podręczna do wypełnienia
+     * @return liczba odtworzonych list
+     */
+    public int load(EntityCache cache) {
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION) {
+                System.err.println("⚠️ Pominięto migawkę w nieznanym formacie: " + file);
+                return 0;
+            }
+            // Najpierw cały plik - obcięta migawka nie zostawi połowy list w pamięci
+            int lists = in.readInt();
+            Map<String, List<?>> decoded = new LinkedHashMap<>();
+            for (int i = 0; i < lists; i++) {
+                String key = in.readUTF();
+                decoded.put(key, readList(in));
+            }
+            int restored = 0;
+            for (Map.Entry<String, List<?>> entry : decoded.entrySet()) {
+                if (cache.restoreStale(entry.getKey(), entry.getValue())) {
+                    restored++;
+                }
+            }
+            System.out.println("💾 Wczytano migawkę: " + restored + " list w "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return restored;
+        } catch (NoSuchFileException e) {
+            System.out.println("💾 Brak migawki - pierwsze uruchomienie");
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Nie udało się wczytać migawki " + file + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Zapisuje wszystkie listy grup, studentów i terminów z pamięci podręcznej.
+     *
+     * @param cache pamięć podręczna
+     * @return liczba zapisanych list
+     * @throws IOException jeśli zapis się nie powiódł
+     */
+    public int save(EntityCache cache) throws IOException {
+        Map<String, Object> entries = cache.snapshot();
+        List<String> keys = new ArrayList<>();
+        List<List<?>> lists = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            if (entry.getValue() instanceof List<?> list && typeOf(entry.getKey()) != 0) {
+                keys.add(entry.getKey());
+                lists.add(list);
+            }
+        }
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, FILE_NAME, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeInt(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    out.writeUTF(keys.get(i));
+                    writeList(out, typeOf(keys.get(i)), lists.get(i));
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        System.out.println("💾 Zapisano migawkę: " + keys.size() + " list -> " + file);
+        return keys.size();
+    }
+
+    private static byte typeOf(String key) {
+        if (key.startsWith(EntityCache.Keys.STUDENTS)) {
+            return TYPE_STUDENT;
+        }
+        if (key.startsWith(EntityCache.Keys.SCHEDULES)) {
+            return TYPE_SCHEDULE;
+        }
+        if (key.equals(EntityCache.Keys.GROUPS_ALL)) {
+            return TYPE_GROUP;
+        }
+        return 0;
+    }
+
+    // === ZAPIS ===
+
+    private static void writeList(DataOutputStream out, byte type, List<?> list) throws IOException {
+        out.writeByte(type);
+        out.writeInt(list.size());
+        for (Object element : list) {
+            switch (type) {
+                case TYPE_GROUP -> writeGroup(out, (Group) element);
+                case TYPE_STUDENT -> writeStudent(out, (Student) element);
+                case TYPE_SCHEDULE -> writeSchedule(out, (ClassSchedule) element);
+                default -> throw new IOException("Nieznany typ listy: " + type);
+            }
+        }
+    }
+
+    private static void writeGroup(DataOutputStream out, Group group) throws IOException {
+        writeString(out, group.getName());
+        writeString(out, group.getSpecialization());
+        writeDateTime(out, group.getCreatedDate());
+    }
+
+    private static void writeStudent(DataOutputStream out, Student student) throws IOException {
+        writeString(out, student.getFirstName());
+        writeString(out, student.getLastName());
+        writeString(out, student.getIndexNumber());
+        writeString(out, student.getGroupName());
+        writeDateTime(out, student.getAddedDate());
+    }
+
+    private static void writeSchedule(DataOutputStream out, ClassSchedule schedule) throws IOException {
+        out.writeBoolean(schedule.getId() != null);
+        if (schedule.getId() != null) {
+            out.writeLong(schedule.getId());
+        }
+        writeString(out, schedule.getSubject());
+        writeString(out, schedule.getClassroom());
+        writeDateTime(out, schedule.getStartTime());
+        writeDateTime(out, schedule.getEndTime());
+        writeString(out, schedule.getInstructor());
+        writeString(out, schedule.getNotes());
+        writeString(out, schedule.getGroupName());
+        writeDateTime(out, schedule.getCreatedDate());
+
+        List<Attendance> attendances = List.copyOf(schedule.getAttendances());
+        out.writeInt(attendances.size());
+        for (Attendance attendance : attendances) {
+            writeStudent(out, attendance.getStudent());
+            out.writeByte(attendance.getStatus().ordinal());
+            writeString(out, attendance.getNotes());
+            writeDateTime(out, attendance.getMarkedAt());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    // === ODCZYT ===
+
+    private static List<?> readList(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Nieprawidłowy rozmiar listy: " + size);
+        }
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            switch (type) {
+                case TYPE_GROUP -> list.add(readGroup(in));
+                case TYPE_STUDENT -> list.add(readStudent(in));
+                case TYPE_SCHEDULE -> list.add(readSchedule(in));
+                default -> throw new IOException("Nieznany typ listy: " + type);
+            }
+        }
+        return List.copyOf(list);
+    }
+
+    private static Group readGroup(DataInputStream in) throws IOException {
+        Group group = new Group(readString(in), readString(in));
+        LocalDateTime createdDate = readDateTime(in);
+        if (createdDate != null) {
+            group.setCreatedDate(createdDate);
+        }
+        return group;
+    }
+
+    private static Student readStudent(DataInputStream in) throws IOException {
+        Student student = new Student(readString(in), readString(in), readString(in), readString(in));
+        LocalDateTime addedDate = readDateTime(in);
+        if (addedDate != null) {
+            student.setAddedDate(addedDate);
+        }
+        return student;
+    }
+
+    private static ClassSchedule readSchedule(DataInputStream in) throws IOException {
+        Long id = in.readBoolean() ? in.readLong() : null;
+        ClassSchedule schedule = new ClassSchedule(id, readString(in), readString(in),
+                readDateTime(in), readDateTime(in), readString(in), readString(in),
+                readString(in), readDateTime(in));
+
+        int attendanceCount = in.readInt();
+        Attendance.Status[] statuses = Attendance.Status.values();
+        for (int i = 0; i < attendanceCount; i++) {
+            Student student = readStudent(in);
+            int ordinal = in.readUnsignedByte();
+            if (ordinal >= statuses.length) {
+                throw new IOException("Nieznany status obecności: " + ordinal);
+            }
+            Attendance attendance = new Attendance(student, schedule, statuses[ordinal], readString(in));
+            LocalDateTime markedAt = readDateTime(in);
+            if (markedAt != null) {
+                attendance.setMarkedAt(markedAt);
+            }
+            schedule.addAttendance(attendance);
+        }
+        return schedule;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long epochSecond = in.readLong();
+        int nano = in.readInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
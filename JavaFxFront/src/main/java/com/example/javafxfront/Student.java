@@ -363,6 +363,17 @@ public class Student {
      */
     public void setGroupName(String groupName) { this.groupName = groupName; }
 
+    /**
+     * Ustawia datę dodania studenta.
+     *
+     * <p>Używane przy odtwarzaniu studenta z lokalnej migawki ({@link SnapshotStore}),
+     * aby zachować pierwotną datę zamiast chwili odtworzenia.</p>
+     *
+     * @param addedDate data dodania
+     * @see #getAddedDate()
+     */
+    public void setAddedDate(LocalDateTime addedDate) { this.addedDate = addedDate; }
+
     /**
      * Zwraca pełne imię i nazwisko studenta.
      *
@@ -0,0 +1,55 @@
+package com.example.javafxfront;
+
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.VBox;
+
+/**
+ * Komórka listy studentów w widoku grupy.
+ *
+ * <p>Etykiety są tworzone raz, w konstruktorze; przy ponownym użyciu komórki
+ * podczas przewijania {@link #updateItem(Student, boolean)} zmienia tylko ich teksty.
+ * Wygląd opisują klasy {@code .student-cell}, {@code .student-name},
+ * {@code .student-index} i {@code .student-group} w {@code styles.css}.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see GroupDetailController
+ * @see Student
+ */
+public class StudentListCell extends ListCell<Student> {
+
+    private final VBox content = new VBox(3);
+    private final Label nameLabel = new Label();
+    private final Label indexLabel = new Label();
+    private final Label groupLabel = new Label();
+
+    /**
+     * Tworzy komórkę wraz z kompletnym drzewem węzłów.
+     */
+    public StudentListCell() {
+        content.getStyleClass().add("student-cell");
+        nameLabel.getStyleClass().add("student-name");
+        indexLabel.getStyleClass().add("student-index");
+        groupLabel.getStyleClass().add("student-group");
+        content.getChildren().addAll(nameLabel, indexLabel, groupLabel);
+    }
+
+    @Override
+    protected void updateItem(Student student, boolean empty) {
+        super.updateItem(student, empty);
+        setText(null);
+
+        if (empty || student == null) {
+            setGraphic(null);
+            return;
+        }
+
+        nameLabel.setText(student.getFullName());
+        indexLabel.setText("Nr indeksu: " + student.getIndexNumber());
+        groupLabel.setText("Grupa: " + (student.getGroupName() != null ? student.getGroupName() : "Brak"));
+        setGraphic(content);
+    }
+}
@@ -1,19 +1,14 @@
 package com.example.javafxfront;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Serwis do komunikacji z serwerem backend w zakresie zarządzania studentami.
@@ -99,36 +94,27 @@ import java.util.concurrent.CompletableFuture;
  */
 public class StudentService {
 
-    /**
-     * Bazowy URL serwera API.
-     *
-     * <p>Wszystkie żądania HTTP są kierowane do tego adresu bazowego.</p>
-     */
-    private static final String BASE_URL = "http://localhost:8080/api";
-
     /**
      * Pełny endpoint dla operacji na studentach.
      *
      * <p>Endpoint obsługuje następujące operacje HTTP:</p>
      * <ul>
-     *   <li>GET {@value} - pobieranie wszystkich studentów</li>
-     *   <li>POST {@value} - dodawanie nowego studenta</li>
-     *   <li>PUT {@value}/{indeks} - aktualizacja danych studenta</li>
-     *   <li>DELETE {@value}/{indeks} - usuwanie studenta</li>
-     *   <li>GET {@value}/group/{grupa} - pobieranie studentów grupy</li>
-     *   <li>GET {@value}/without-group - pobieranie studentów bez grupy</li>
-     *   <li>PUT {@value}/remove-from-group/{indeks} - usuwanie z grupy</li>
+     *   <li>GET {@code /api/students} - pobieranie wszystkich studentów</li>
+     *   <li>POST {@code /api/students} - dodawanie nowego studenta</li>
+     *   <li>PUT {@code /api/students/{indeks}} - aktualizacja danych studenta</li>
+     *   <li>DELETE {@code /api/students/{indeks}} - usuwanie studenta</li>
+     *   <li>GET {@code /api/students/group/{grupa}} - pobieranie studentów grupy</li>
+     *   <li>GET {@code /api/students/without-group} - pobieranie studentów bez grupy</li>
+     *   <li>PUT {@code /api/students/remove-from-group/{indeks}} - usuwanie z grupy</li>
      * </ul>
      */
-    private static final String STUDENTS_ENDPOINT = BASE_URL + "/students";
+    private final String studentsEndpoint;
 
     /**
-     * Klient HTTP do komunikacji z serwerem.
-     *
-     * <p>Konfigurowany z timeoutem połączenia 10 sekund dla zapewnienia
-     * responsywności interfejsu użytkownika.</p>
+     * Wspólna warstwa transportowa dostarczająca klienta HTTP, mapper JSON
+     * oraz timeouty żądań.
      */
-    private final HttpClient httpClient;
+    private final HttpTransport transport;
 
     /**
      * Mapper JSON do serializacji i deserializacji obiektów.
@@ -142,40 +128,42 @@ public class StudentService {
      */
     private final ObjectMapper objectMapper;
 
+    /**
+     * Strumieniowy czytnik list JSON - elementy są konwertowane od razu po odczytaniu
+     * ze strumienia odpowiedzi, bez buforowania całej treści.
+     */
+    private final JsonStreamReader jsonReader;
+
     /**
      * Konstruktor serwisu studentów.
      *
-     * <p>Inicjalizuje klienta HTTP z timeoutem 10 sekund oraz konfiguruje
-     * ObjectMapper do obsługi dat Java 8+ i ignorowania nieznanych właściwości JSON.</p>
-     *
-     * <p>Konfiguracja klienta HTTP:</p>
-     * <ul>
-     *   <li>Timeout połączenia: 10 sekund</li>
-     *   <li>Automatyczne zarządzanie cookies</li>
-     *   <li>Obsługa HTTP/2 gdy dostępne</li>
-     * </ul>
-     *
-     * <p>Konfiguracja ObjectMapper:</p>
-     * <ul>
-     *   <li>JavaTimeModule dla obsługi LocalDateTime</li>
-     *   <li>FAIL_ON_UNKNOWN_PROPERTIES = false</li>
-     *   <li>Automatyczna detekcja formatów dat</li>
-     * </ul>
+     * <p>Korzysta ze współdzielonej warstwy transportowej ({@link HttpTransport#getShared()}),
+     * dzięki czemu wszystkie okna aplikacji używają jednej puli połączeń HTTP
+     * i jednego skonfigurowanego ObjectMappera.</p>
      */
     public StudentService() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this(HttpTransport.getShared());
+    }
 
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    /**
+     * Konstruktor serwisu studentów korzystający z podanej warstwy transportowej.
+     *
+     * <p>Pozwala współdzielić jedną pulę połączeń i jeden ObjectMapper
+     * między wszystkimi serwisami oraz wskazać inny serwer API.</p>
+     *
+     * @param transport warstwa transportowa HTTP
+     */
+    public StudentService(HttpTransport transport) {
+        this.transport = transport;
+        this.objectMapper = transport.getObjectMapper();
+        this.jsonReader = new JsonStreamReader(objectMapper);
+        this.studentsEndpoint = transport.getBaseUrl() + "/students";
     }
 
     /**
      * Pobiera wszystkich studentów z serwera asynchronicznie.
      *
-     * <p>Wykonuje żądanie GET do endpointu {@value #STUDENTS_ENDPOINT} i deserializuje
+     * <p>Wykonuje żądanie GET do endpointu {@code /api/students} i deserializuje
      * odpowiedź JSON do listy obiektów {@link Student}. Operacja jest wykonywana
      * asynchronicznie w tle, nie blokując wątku interfejsu użytkownika.</p>
      *
@@ -184,7 +172,7 @@ public class StudentService {
      *   <li>Wysłanie żądania HTTP GET do serwera</li>
      *   <li>Oczekiwanie na odpowiedź (max 30 sekund)</li>
      *   <li>Sprawdzenie kodu statusu HTTP (oczekiwany: 200)</li>
-     *   <li>Deserializacja JSON do listy Student</li>
+     *   <li>Strumieniowa deserializacja JSON do listy Student</li>
      *   <li>Konwersja obiektów serwera do obiektów klienta</li>
      *   <li>Mapowanie informacji o grupach z obiektów zagnieżdżonych</li>
      * </ol>
@@ -192,6 +180,10 @@ public class StudentService {
      * <p>Zwracana lista zawiera wszystkich studentów w systemie, niezależnie
      * od ich przypisania do grup. Studenci bez grupy mają pole groupName ustawione na null.</p>
      *
+     * <p>Równoległe wywołania (np. kilka paneli ładujących dane przy starcie) są łączone
+     * w jedno żądanie przez {@link HttpTransport#coalesce(String, java.util.function.Supplier)}
+     * - wszyscy wywołujący otrzymują tę samą, niemodyfikowalną listę.</p>
+     *
      * <p>Przykład użycia:</p>
      * <pre>
      * {@code
@@ -232,29 +224,19 @@ public class StudentService {
      * @see Student
      */
     public CompletableFuture<List<Student>> getAllStudentsAsync() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(STUDENTS_ENDPOINT))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    return parseStudentsFromJson(response.body());
-                } else {
-                    throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode());
-                }
-
-            } catch (Exception e) {
-                throw new RuntimeException("Nie udalo sie pobrac studentow z serwera: " + e.getMessage(), e);
-            }
-        });
+        return transport.fetchCached(EntityCache.Keys.STUDENTS_ALL, "GET " + studentsEndpoint, () ->
+                transport.sendStreaming(HttpTransport.Endpoint.STUDENTS, () -> {
+                    return transport.newRequest(HttpTransport.Endpoint.STUDENTS, studentsEndpoint)
+                            .header("Content-Type", "application/json")
+                            .GET()
+                            .build();
+                }, response -> {
+                    if (response.statusCode() == 200) {
+                        return parseStudentsFromJson(response.body());
+                    } else {
+                        throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode());
+                    }
+                }, "Nie udalo sie pobrac studentow z serwera"));
     }
 
     /**
@@ -311,40 +293,85 @@ public class StudentService {
      * @see #getStudentsWithoutGroupAsync()
      */
     public CompletableFuture<List<Student>> getStudentsByGroupAsync(String groupName) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String url = STUDENTS_ENDPOINT + "/group/" + java.net.URLEncoder.encode(groupName, "UTF-8");
-
-                System.out.println("🔗 Wywołuję URL: " + url); // DEBUG
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                System.out.println("📡 Status odpowiedzi: " + response.statusCode()); // DEBUG
-                System.out.println("📄 Treść odpowiedzi: " + response.body()); // DEBUG
+        return transport.fetchCached(EntityCache.Keys.studentsOfGroup(groupName), "GET " + studentsEndpoint + "/group/" + groupName, () ->
+                transport.sendStreaming(HttpTransport.Endpoint.STUDENTS, () -> {
+                    String url = studentsEndpoint + "/group/" + java.net.URLEncoder.encode(groupName, "UTF-8");
+
+                    System.out.println("🔗 Wywołuję URL: " + url); // DEBUG
+
+                    return transport.newRequest(HttpTransport.Endpoint.STUDENTS, url)
+                            .header("Content-Type", "application/json")
+                            .GET()
+                            .build();
+                }, response -> {
+                    System.out.println("📡 Status odpowiedzi: " + response.statusCode()); // DEBUG
+
+                    if (response.statusCode() == 200) {
+                        List<Student> students = parseStudentsFromJson(response.body());
+                        System.out.println("✅ Sparsowano " + students.size() + " studentów"); // DEBUG
+                        return students;
+                    } else {
+                        throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode() +
+                                ". Treść: " + HttpTransport.readBody(response));
+                    }
+                }, "Nie udalo sie pobrac studentow grupy z serwera"));
+    }
 
-                if (response.statusCode() == 200) {
-                    List<Student> students = parseStudentsFromJson(response.body());
-                    System.out.println("✅ Sparsowano " + students.size() + " studentów"); // DEBUG
-                    return students;
-                } else {
-                    throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode() +
-                            ". Treść: " + response.body());
-                }
+    /**
+     * Pobiera studentów grupy asynchronicznie, przekazując ich porcjami w trakcie pobierania.
+     *
+     * <p>Działa jak {@link #getStudentsByGroupAsync(String)}, ale każda porcja
+     * {@code chunkSize} studentów trafia do {@code onChunk} od razu po odczytaniu
+     * ze strumienia odpowiedzi - interfejs może wyświetlać pierwszych studentów,
+     * zanim pobrana zostanie cała lista.</p>
+     *
+     * <p><strong>Uwaga:</strong> {@code onChunk} jest wywoływany na wątku transportu HTTP,
+     * nie na wątku JavaFX.</p>
+     *
+     * @param groupName nazwa grupy
+     * @param chunkSize maksymalna liczba studentów w jednej porcji
+     * @param onChunk odbiorca kolejnych porcji studentów
+     * @return CompletableFuture z łączną liczbą pobranych studentów
+     *
+     * @see #getStudentsByGroupAsync(String)
+     * @see JsonStreamReader#readArrayInChunks(InputStream, Class, java.util.function.Function, int, Consumer)
+     */
+    public CompletableFuture<Integer> getStudentsByGroupAsync(String groupName, int chunkSize,
+                                                              Consumer<List<Student>> onChunk) {
+        return transport.fetchCachedInChunks(EntityCache.Keys.studentsOfGroup(groupName), chunkSize, onChunk, sink ->
+                transport.sendStreaming(HttpTransport.Endpoint.STUDENTS, () -> {
+                    String url = studentsEndpoint + "/group/" + java.net.URLEncoder.encode(groupName, "UTF-8");
+
+                    System.out.println("🔗 Wywołuję URL (porcjami): " + url); // DEBUG
+
+                    return transport.newRequest(HttpTransport.Endpoint.STUDENTS, url)
+                            .header("Content-Type", "application/json")
+                            .GET()
+                            .build();
+                }, response -> {
+                    if (response.statusCode() == 200) {
+                        List<Student> students = parseStudentsInChunks(response.body(), chunkSize, sink);
+                        System.out.println("✅ Sparsowano " + students.size() + " studentów"); // DEBUG
+                        return students;
+                    } else {
+                        throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode() +
+                                ". Treść: " + HttpTransport.readBody(response));
+                    }
+                }, "Nie udalo sie pobrac studentow grupy z serwera"));
+    }
 
-            } catch (Exception e) {
-                System.err.println("❌ Błąd getStudentsByGroupAsync: " + e.getMessage()); // DEBUG
-                throw new RuntimeException("Nie udalo sie pobrac studentow grupy z serwera: " + e.getMessage(), e);
-            }
-        });
+    /**
+     * Zwraca ostatnio pobraną listę studentów grupy z pamięci podręcznej, bez komunikacji z serwerem.
+     *
+     * <p>Pozwala widokowi natychmiast pokazać znane dane, a następnie - jeśli
+     * {@link EntityCache.CachedValue#isFresh()} zwraca false - odświeżyć je w tle
+     * przez {@link #getStudentsByGroupAsync(String)}.</p>
+     *
+     * @param groupName nazwa grupy
+     * @return lista z flagą świeżości lub null, jeśli grupa nie była jeszcze pobierana
+     */
+    public EntityCache.CachedValue<List<Student>> peekStudentsByGroup(String groupName) {
+        return transport.getCache().peek(EntityCache.Keys.studentsOfGroup(groupName));
     }
 
     /**
@@ -395,37 +422,27 @@ public class StudentService {
      * @see #removeStudentFromGroupAsync(String)
      */
     public CompletableFuture<List<Student>> getStudentsWithoutGroupAsync() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String url = STUDENTS_ENDPOINT + "/without-group";
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    return parseStudentsFromJson(response.body());
-                } else {
-                    throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode());
-                }
-
-            } catch (Exception e) {
-                throw new RuntimeException("Nie udalo sie pobrac studentow bez grupy z serwera: " + e.getMessage(), e);
-            }
-        });
+        return transport.fetchCached(EntityCache.Keys.STUDENTS_WITHOUT_GROUP, "GET " + studentsEndpoint + "/without-group", () ->
+                transport.sendStreaming(HttpTransport.Endpoint.STUDENTS, () -> {
+                    String url = studentsEndpoint + "/without-group";
+
+                    return transport.newRequest(HttpTransport.Endpoint.STUDENTS, url)
+                            .header("Content-Type", "application/json")
+                            .GET()
+                            .build();
+                }, response -> {
+                    if (response.statusCode() == 200) {
+                        return parseStudentsFromJson(response.body());
+                    } else {
+                        throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode());
+                    }
+                }, "Nie udalo sie pobrac studentow bez grupy z serwera"));
     }
 
     /**
      * Dodaje nowego studenta na serwer asynchronicznie.
      *
-     * <p>Wykonuje żądanie POST do endpointu {@value #STUDENTS_ENDPOINT} z danymi studenta
+     * <p>Wykonuje żądanie POST do endpointu {@code /api/students} z danymi studenta
      * w formacie JSON. Student może być dodany z przypisaną grupą lub bez grupy.
      * Serwer automatycznie sprawdza unikalność numeru indeksu.</p>
      *
@@ -492,36 +509,22 @@ public class StudentService {
      * @see StudentAlreadyExistsException
      */
     public CompletableFuture<Student> addStudentAsync(Student student) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String jsonBody = studentToJson(student);
-                System.out.println("📤 Wysyłam JSON: " + jsonBody); // DEBUG
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(STUDENTS_ENDPOINT))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 201 || response.statusCode() == 200) {
-                    return parseStudentFromJson(response.body());
-                } else if (response.statusCode() == 409) {
-                    throw new StudentAlreadyExistsException("Student o numerze indeksu " +
-                            student.getIndexNumber() + " już istnieje w systemie!");
-                } else {
-                    throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode()
-                            + ". Szczegóły: " + response.body());
-                }
-
-            } catch (StudentAlreadyExistsException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new RuntimeException("Nie udalo sie dodac studenta na serwer: " + e.getMessage(), e);
+        String jsonBody = studentToJson(student);
+        System.out.println("📤 Wysyłam JSON: " + jsonBody); // DEBUG
+
+        return transport.sendOrQueue(HttpTransport.Endpoint.STUDENTS, "POST", studentsEndpoint, jsonBody, response -> {
+            if (response.statusCode() == 201 || response.statusCode() == 200) {
+                return parseStudentFromJson(response.body());
+            } else if (response.statusCode() == 409) {
+                throw new StudentAlreadyExistsException("Student o numerze indeksu " +
+                        student.getIndexNumber() + " już istnieje w systemie!");
+            } else {
+                throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode()
+                        + ". Szczegóły: " + response.body());
+            }
+        }, "Nie udalo sie dodac studenta na serwer").whenComplete((result, error) -> {
+            if (error == null) {
+                invalidateStudentLists(student.getGroupName(), result != null ? result.getGroupName() : null);
             }
         });
     }
@@ -588,22 +591,13 @@ public class StudentService {
      * @see #updateStudentAsync(String, Student)
      */
     public CompletableFuture<Boolean> deleteStudentAsync(String studentIndexNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(STUDENTS_ENDPOINT + "/" + studentIndexNumber))
-                        .header("Content-Type", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .DELETE()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                return response.statusCode() == 200 || response.statusCode() == 204;
-
-            } catch (Exception e) {
-                throw new RuntimeException("Nie udalo sie usunac studenta z serwera: " + e.getMessage(), e);
+        return transport.sendOrQueue(HttpTransport.Endpoint.STUDENTS, "DELETE",
+                studentsEndpoint + "/" + studentIndexNumber, null, response -> {
+            return response.statusCode() == 200 || response.statusCode() == 204;
+        }, "Nie udalo sie usunac studenta z serwera").whenComplete((result, error) -> {
+            if (error == null) {
+                // Poprzednia grupa studenta nie jest znana - unieważnij wszystkie listy studentów
+                transport.getCache().invalidatePrefix(EntityCache.Keys.STUDENTS);
             }
         });
     }
@@ -674,35 +668,24 @@ public class StudentService {
      * @see #removeStudentFromGroupAsync(String) - alternatywna metoda do usuwania z grupy
      */
     public CompletableFuture<Student> updateStudentAsync(String indexNumber, Student student) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String jsonBody = studentToJsonForUpdate(student);
-                System.out.println("🔄 Aktualizuję studenta " + indexNumber + " JSON: " + jsonBody); // DEBUG
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(STUDENTS_ENDPOINT + "/" + indexNumber))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .PUT(HttpRequest.BodyPublishers.ofString(jsonBody))
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
+        String jsonBody = studentToJsonForUpdate(student);
+        System.out.println("🔄 Aktualizuję studenta " + indexNumber + " JSON: " + jsonBody); // DEBUG
 
-                System.out.println("📡 Update status: " + response.statusCode()); // DEBUG
-                System.out.println("📄 Update response: " + response.body()); // DEBUG
+        return transport.sendOrQueue(HttpTransport.Endpoint.STUDENTS, "PUT",
+                studentsEndpoint + "/" + indexNumber, jsonBody, response -> {
+            System.out.println("📡 Update status: " + response.statusCode()); // DEBUG
+            System.out.println("📄 Update response: " + response.body()); // DEBUG
 
-                if (response.statusCode() == 200) {
-                    return parseStudentFromJson(response.body());
-                } else {
-                    throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode() +
-                            ". Treść: " + response.body());
-                }
-
-            } catch (Exception e) {
-                System.err.println("❌ Błąd updateStudentAsync: " + e.getMessage()); // DEBUG
-                throw new RuntimeException("Nie udalo sie zaktualizowac studenta na serwerze: " + e.getMessage(), e);
+            if (response.statusCode() == 200) {
+                return parseStudentFromJson(response.body());
+            } else {
+                throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode() +
+                        ". Treść: " + response.body());
+            }
+        }, "Nie udalo sie zaktualizowac studenta na serwerze").whenComplete((result, error) -> {
+            if (error == null) {
+                // Poprzednia grupa studenta nie jest znana - unieważnij wszystkie listy studentów
+                transport.getCache().invalidatePrefix(EntityCache.Keys.STUDENTS);
             }
         });
     }
@@ -764,42 +747,47 @@ public class StudentService {
      * @see #deleteStudentAsync(String) - całkowite usunięcie z systemu
      */
     public CompletableFuture<Student> removeStudentFromGroupAsync(String indexNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String url = STUDENTS_ENDPOINT + "/remove-from-group/" + java.net.URLEncoder.encode(indexNumber, "UTF-8");
-
-                System.out.println("🔗 Wywołuję URL usuwania z grupy: " + url);
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .header("Content-Type", "application/json")
-                        .header("Accept", "application/json")
-                        .timeout(Duration.ofSeconds(30))
-                        .PUT(HttpRequest.BodyPublishers.ofString("{}"))  // Pusty body dla PUT
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString());
-
-                System.out.println("📡 Status odpowiedzi usuwania z grupy: " + response.statusCode()); // DEBUG
-                System.out.println("📄 Treść odpowiedzi: " + response.body()); // DEBUG
-
-                if (response.statusCode() == 200) {
-                    Student updatedStudent = parseStudentFromJson(response.body());
-                    System.out.println("✅ Student usunięty z grupy: " + updatedStudent.getFullName() +
-                            " (grupa: " + (updatedStudent.getGroupName() != null ? updatedStudent.getGroupName() : "BRAK") + ")");
-                    return updatedStudent;
-                } else {
-                    throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode() +
-                            ". Treść: " + response.body());
-                }
-
-            } catch (Exception e) {
-                System.err.println("❌ Błąd removeStudentFromGroupAsync: " + e.getMessage()); // DEBUG
-                throw new RuntimeException("Nie udalo sie usunac studenta z grupy na serwerze: " + e.getMessage(), e);
+        String url = studentsEndpoint + "/remove-from-group/"
+                + java.net.URLEncoder.encode(indexNumber, java.nio.charset.StandardCharsets.UTF_8);
+
+        System.out.println("🔗 Wywołuję URL usuwania z grupy: " + url);
+        return transport.sendOrQueue(HttpTransport.Endpoint.STUDENTS, "PUT", url, "{}", response -> {  // Pusty body dla PUT
+            System.out.println("📡 Status odpowiedzi usuwania z grupy: " + response.statusCode()); // DEBUG
+            System.out.println("📄 Treść odpowiedzi: " + response.body()); // DEBUG
+
+            if (response.statusCode() == 200) {
+                Student updatedStudent = parseStudentFromJson(response.body());
+                System.out.println("✅ Student usunięty z grupy: " + updatedStudent.getFullName() +
+                        " (grupa: " + (updatedStudent.getGroupName() != null ? updatedStudent.getGroupName() : "BRAK") + ")");
+                return updatedStudent;
+            } else {
+                throw new RuntimeException("Serwer odpowiedzial statusem: " + response.statusCode() +
+                        ". Treść: " + response.body());
+            }
+        }, "Nie udalo sie usunac studenta z grupy na serwerze").whenComplete((result, error) -> {
+            if (error == null) {
+                // Poprzednia grupa studenta nie jest znana - unieważnij wszystkie listy studentów
+                transport.getCache().invalidatePrefix(EntityCache.Keys.STUDENTS);
             }
         });
     }
 
+    /**
+     * Unieważnia listy studentów, na które wpływa dodanie studenta do podanych grup.
+     *
+     * @param groupNames nazwy grup (wartości null są pomijane)
+     */
+    private void invalidateStudentLists(String... groupNames) {
+        List<String> keys = new java.util.ArrayList<>(List.of(
+                EntityCache.Keys.STUDENTS_ALL, EntityCache.Keys.STUDENTS_WITHOUT_GROUP));
+        for (String groupName : groupNames) {
+            if (groupName != null) {
+                keys.add(EntityCache.Keys.studentsOfGroup(groupName));
+            }
+        }
+        transport.getCache().invalidate(keys.toArray(String[]::new));
+    }
+
     // === METODY PRYWATNE DO PARSOWANIA JSON ===
 
     /**
@@ -809,19 +797,36 @@ public class StudentService {
      * używanych w aplikacji klienckiej. Obsługuje automatyczną konwersję
      * typów danych i mapowanie pól, w tym informacji o grupach z obiektów zagnieżdżonych.</p>
      *
-     * @param json JSON z odpowiedzi serwera zawierający listę studentów
+     * @param json strumień odpowiedzi serwera zawierający listę studentów
      * @return lista obiektów Student
      * @throws RuntimeException jeśli nie można sparsować JSON
      */
-    private List<Student> parseStudentsFromJson(String json) {
+    private List<Student> parseStudentsFromJson(InputStream json) {
         try {
-            List<StudentFromServer> serverStudents = objectMapper.readValue(json, new TypeReference<List<StudentFromServer>>() {});
-
-            return serverStudents.stream()
-                    .map(this::convertToStudent)
-                    .toList();
+            return jsonReader.readArray(json, StudentFromServer.class, this::convertToStudent);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse students JSON: " + e.getMessage(), e);
+        }
+    }
 
-        } catch (JsonProcessingException e) {
+    /**
+     * Parsuje strumień z listą studentów, przekazując skonwertowanych studentów porcjami.
+     *
+     * @param json strumień odpowiedzi serwera zawierający listę studentów
+     * @param chunkSize maksymalna liczba studentów w porcji
+     * @param onChunk odbiorca porcji
+     * @return pełna, niemodyfikowalna lista studentów
+     * @throws RuntimeException jeśli nie można sparsować JSON
+     */
+    private List<Student> parseStudentsInChunks(InputStream json, int chunkSize, Consumer<List<Student>> onChunk) {
+        try {
+            List<Student> all = new java.util.ArrayList<>();
+            jsonReader.readArrayInChunks(json, StudentFromServer.class, this::convertToStudent, chunkSize, chunk -> {
+                all.addAll(chunk);
+                onChunk.accept(chunk);
+            });
+            return List.copyOf(all);
+        } catch (IOException e) {
             throw new RuntimeException("Failed to parse students JSON: " + e.getMessage(), e);
         }
     }
@@ -1052,7 +1057,7 @@ public class StudentService {
      * @see #addStudentAsync(Student)
      * @see #updateStudentAsync(String, Student) - dla aktualizacji istniejącego studenta
      */
-    public static class StudentAlreadyExistsException extends RuntimeException {
+    public static class StudentAlreadyExistsException extends HttpTransport.ServerRejectedException {
         /**
          * Konstruktor wyjątku z komunikatem błędu.
          *
@@ -0,0 +1,501 @@
+package com.example.javafxfront;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Wspólny dla całej aplikacji harmonogram synchronizacji obecności w tle.
+ *
+ * <p>Zastępuje osobne {@code Timeline} każdego okna grupy, które nigdy nie były
+ * zatrzymywane. Okna subskrybują terminy, które pokazują
+ * ({@link #subscribe(String, BiConsumer)}), i zamykają subskrypcję przy zamknięciu okna:</p>
+ * <ul>
+ *   <li><strong>wspólne odpytywanie</strong> - każdy termin jest odpytywany raz,
+ *       niezależnie od liczby okien, które go pokazują; zmiana trafia do wszystkich</li>
+ *   <li><strong>liczenie referencji</strong> - termin bez subskrybentów przestaje być
+ *       odpytywany, a bez żadnej subskrypcji wątek harmonogramu jest zatrzymywany</li>
+ *   <li><strong>adaptacyjny odstęp</strong> - bez zmian na serwerze odstęp się podwaja
+ *       (do {@link #MAX_INTERVAL}), po zmianie wraca do bazowego; gdy żadne okno terminu
+ *       nie ma fokusu, jest {@value #UNFOCUSED_FACTOR}× dłuższy; podczas oznaczania
+ *       obecności ({@link Subscription#markActivity()}) skraca się do
+ *       {@link #ACTIVE_INTERVAL}</li>
+ * </ul>
+ *
+ * <p>Każda subskrypcja pamięta skrót obecności, które pokazuje jej okno - ustawiany
+ * przez harmonogram po powiadomieniu i przez okno po własnym wczytaniu
+ * ({@link Subscription#markLoaded(Long, List)}). Subskrybent jest powiadamiany tylko
+ * wtedy, gdy odpowiedź serwera różni się od tego, co pokazuje; pierwsze odpytanie
+ * okna, które już wczytało obecności, niczego więc nie przebudowuje. Powiadomienie
+ * przychodzi na wątku, na którym zakończyło się żądanie - aktualizację widoku należy
+ * przekazać na wątek JavaFX (np. przez {@link UiUpdateDispatcher}).</p>
+ *
+ * <p>Konfiguracja (właściwości systemowe):</p>
+ * <ul>
+ *   <li>{@code dziennik.sync.intervalSeconds} - bazowy odstęp odpytywania
+ *       (domyślnie {@value #DEFAULT_INTERVAL_SECONDS})</li>
+ * </ul>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see GroupDetailController
+ * @see AttendanceService#getAttendancesByScheduleAsync(Long)
+ */
+public final class SyncScheduler {
+
+    /**
+     * Domyślny bazowy odstęp odpytywania w sekundach.
+     */
+    public static final long DEFAULT_INTERVAL_SECONDS = 30;
+
+    /** Odstęp podczas aktywnego oznaczania obecności. */
+    public static final Duration ACTIVE_INTERVAL = Duration.ofSeconds(5);
+
+    /** Najdłuższy odstęp przy braku zmian lub błędach. */
+    public static final Duration MAX_INTERVAL = Duration.ofMinutes(5);
+
+    /** Jak długo po ostatnim oznaczeniu subskrypcja jest uznawana za aktywną. */
+    public static final Duration ACTIVITY_WINDOW = Duration.ofSeconds(60);
+
+    /** Mnożnik odstępu, gdy żadne okno terminu nie ma fokusu. */
+    public static final int UNFOCUSED_FACTOR = 4;
+
+    private static final long TICK_MILLIS = 1000;
+
+    private static volatile SyncScheduler shared;
+
+    private final Function<Long, CompletableFuture<List<Attendance>>> fetcher;
+    private final long baseIntervalMillis;
+    private final LongSupplier clock;
+    private final boolean background;
+
+    private final Map<Long, Poll> polls = new HashMap<>();
+    private final Set<Subscription> subscriptions = new LinkedHashSet<>();
+    private ScheduledExecutorService ticker;
+
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Tworzy harmonogram.
+     *
+     * @param fetcher pobiera obecności terminu o podanym ID
+     * @param baseInterval bazowy odstęp odpytywania
+     * @param clock zegar w milisekundach
+     * @param background czy uruchamiać własny wątek (false - {@link #tick()} wywołuje test)
+     */
+    SyncScheduler(Function<Long, CompletableFuture<List<Attendance>>> fetcher, Duration baseInterval,
+                  LongSupplier clock, boolean background) {
+        this.fetcher = Objects.requireNonNull(fetcher);
+        this.baseIntervalMillis = baseInterval.toMillis();
+        this.clock = Objects.requireNonNull(clock);
+        this.background = background;
+    }
+
+    /**
+     * Zwraca współdzielony harmonogram, tworząc go przy pierwszym wywołaniu.
+     *
+     * @return współdzielony harmonogram
+     */
+    public static SyncScheduler getShared() {
+        SyncScheduler result = shared;
+        if (result == null) {
+            synchronized (SyncScheduler.class) {
+                result = shared;
+                if (result == null) {
+                    AttendanceService attendanceService = new AttendanceService();
+                    Duration interval = Duration.ofSeconds(
+                            Long.getLong("dziennik.sync.intervalSeconds", DEFAULT_INTERVAL_SECONDS));
+                    result = new SyncScheduler(attendanceService::getAttendancesByScheduleAsync, interval,
+                            System::currentTimeMillis, true);
+                    shared = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Otwiera subskrypcję. Terminy do obserwowania ustawia się przez
+     * {@link Subscription#setScheduleIds(Collection)}.
+     *
+     * @param owner opis subskrybenta do logów (np. nazwa grupy)
+     * @param listener wywoływany z ID terminu i nową listą obecności po wykryciu zmiany
+     * @return nowa subskrypcja
+     */
+    public Subscription subscribe(String owner, BiConsumer<Long, List<Attendance>> listener) {
+        Subscription subscription = new Subscription(owner, Objects.requireNonNull(listener));
+        synchronized (this) {
+            subscriptions.add(subscription);
+            if (background && ticker == null) {
+                ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "attendance-sync");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                ticker.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+                System.out.println("⏰ Uruchomiono synchronizację obecności w tle");
+            }
+        }
+        System.out.println("➕ Subskrypcja synchronizacji: " + owner);
+        return subscription;
+    }
+
+    /**
+     * Rozpoczyna odpytywanie terminów, których czas nadszedł. Wywoływane co sekundę
+     * przez wątek harmonogramu.
+     */
+    void tick() {
+        List<Poll> due = new ArrayList<>();
+        long now = clock.getAsLong();
+        synchronized (this) {
+            for (Poll poll : polls.values()) {
+                if (!poll.inFlight && poll.nextDueMillis <= now) {
+                    poll.inFlight = true;
+                    due.add(poll);
+                }
+            }
+        }
+
+        for (Poll poll : due) {
+            fetches.increment();
+            CompletableFuture<List<Attendance>> request;
+            try {
+                request = fetcher.apply(poll.scheduleId);
+            } catch (RuntimeException e) {
+                request = CompletableFuture.failedFuture(e);
+            }
+            request.whenComplete((attendances, throwable) -> complete(poll, attendances, throwable));
+        }
+    }
+
+    /**
+     * Zwraca liczbę aktualnie odpytywanych terminów.
+     *
+     * @return liczba terminów z co najmniej jednym subskrybentem
+     */
+    public synchronized int getPolledScheduleCount() {
+        return polls.size();
+    }
+
+    /**
+     * Zwraca liczbę otwartych subskrypcji.
+     *
+     * @return liczba subskrypcji
+     */
+    public synchronized int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Zwraca liczbę wykonanych żądań.
+     *
+     * @return liczba żądań
+     */
+    public long getFetchCount() {
+        return fetches.sum();
+    }
+
+    /**
+     * Zwraca liczbę wykrytych zmian.
+     *
+     * @return liczba odpowiedzi różnych od poprzedniej
+     */
+    public long getChangeCount() {
+        return changes.sum();
+    }
+
+    /**
+     * Zwraca czytelne podsumowanie liczników.
+     *
+     * @return podsumowanie w formacie "Synchronizacja: terminy X, subskrypcje Y, żądania Z, zmiany W, błędy V"
+     */
+    @Override
+    public String toString() {
+        return String.format("Synchronizacja: terminy %d, subskrypcje %d, żądania %d, zmiany %d, błędy %d",
+                getPolledScheduleCount(), getSubscriptionCount(), getFetchCount(), getChangeCount(), failures.sum());
+    }
+
+    /**
+     * Zwraca odstęp, po którym termin zostanie odpytany ponownie (testy).
+     *
+     * @param scheduleId ID terminu
+     * @return odstęp w milisekundach lub -1, jeśli termin nie jest odpytywany
+     */
+    synchronized long getEffectiveIntervalMillis(Long scheduleId) {
+        Poll poll = polls.get(scheduleId);
+        return poll != null ? effectiveInterval(poll, clock.getAsLong()) : -1;
+    }
+
+    private void complete(Poll poll, List<Attendance> attendances, Throwable throwable) {
+        List<Subscription> targets = List.of();
+        long now = clock.getAsLong();
+        synchronized (this) {
+            poll.inFlight = false;
+            if (throwable != null) {
+                failures.increment();
+                poll.intervalMillis = Math.min(poll.intervalMillis * 2, MAX_INTERVAL.toMillis());
+            } else {
+                long fingerprint = fingerprint(attendances);
+                // Pierwsza odpowiedź jest punktem odniesienia, a nie zmianą
+                boolean first = !poll.hasFingerprint;
+                boolean changed = !first && poll.fingerprint != fingerprint;
+                poll.fingerprint = fingerprint;
+                poll.hasFingerprint = true;
+                if (changed) {
+                    changes.increment();
+                    poll.intervalMillis = baseIntervalMillis;
+                } else if (!first) {
+                    poll.intervalMillis = Math.min(poll.intervalMillis * 2, MAX_INTERVAL.toMillis());
+                }
+
+                targets = new ArrayList<>();
+                for (Subscription subscription : poll.subscribers) {
+                    Long shown = subscription.shownFingerprints.put(poll.scheduleId, fingerprint);
+                    if (shown == null || shown != fingerprint) {
+                        targets.add(subscription);
+                    }
+                }
+            }
+            poll.nextDueMillis = now + effectiveInterval(poll, now);
+        }
+
+        if (throwable != null) {
+            System.err.println("Synchronizacja terminu " + poll.scheduleId + " nie powiodła się: " + throwable.getMessage());
+        }
+        for (Subscription subscription : targets) {
+            if (!subscription.closed) {
+                subscription.listener.accept(poll.scheduleId, attendances);
+            }
+        }
+    }
+
+    /**
+     * Wyznacza odstęp do kolejnego odpytania; wywoływane pod blokadą harmonogramu.
+     */
+    private long effectiveInterval(Poll poll, long now) {
+        boolean focused = false;
+        for (Subscription subscription : poll.subscribers) {
+            if (subscription.activeUntilMillis > now) {
+                return Math.min(ACTIVE_INTERVAL.toMillis(), poll.intervalMillis);
+            }
+            focused |= subscription.focused;
+        }
+        return focused
+                ? poll.intervalMillis
+                : Math.min(poll.intervalMillis * UNFOCUSED_FACTOR, MAX_INTERVAL.toMillis());
+    }
+
+    private synchronized void updateInterest(Subscription subscription, Set<Long> scheduleIds) {
+        long now = clock.getAsLong();
+        for (Long id : subscription.scheduleIds) {
+            if (!scheduleIds.contains(id)) {
+                release(subscription, id);
+            }
+        }
+        for (Long id : scheduleIds) {
+            if (!subscription.scheduleIds.contains(id)) {
+                Poll poll = polls.computeIfAbsent(id, key -> {
+                    Poll created = new Poll(key, baseIntervalMillis);
+                    // Okno właśnie załadowało obecności - pierwsze odpytanie po pełnym odstępie
+                    created.nextDueMillis = now + baseIntervalMillis;
+                    return created;
+                });
+                poll.subscribers.add(subscription);
+            }
+        }
+        subscription.scheduleIds = scheduleIds;
+    }
+
+    private synchronized void pullForward(Subscription subscription, long dueMillis) {
+        for (Long id : subscription.scheduleIds) {
+            Poll poll = polls.get(id);
+            if (poll != null && poll.nextDueMillis > dueMillis) {
+                poll.nextDueMillis = dueMillis;
+            }
+        }
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        for (Long id : subscription.scheduleIds) {
+            release(subscription, id);
+        }
+        subscription.scheduleIds = Set.of();
+        subscriptions.remove(subscription);
+
+        if (subscriptions.isEmpty() && ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+            System.out.println("⏹ Zatrzymano synchronizację obecności w tle - brak otwartych okien");
+        }
+    }
+
+    private void release(Subscription subscription, Long scheduleId) {
+        subscription.shownFingerprints.remove(scheduleId);
+        Poll poll = polls.get(scheduleId);
+        if (poll != null) {
+            poll.subscribers.remove(subscription);
+            if (poll.subscribers.isEmpty()) {
+                polls.remove(scheduleId);
+            }
+        }
+    }
+
+    /**
+     * Skrót listy obecności niezależny od kolejności wpisów.
+     */
+    static long fingerprint(List<Attendance> attendances) {
+        long result = attendances.size();
+        for (Attendance attendance : attendances) {
+            String index = attendance.getStudent() != null ? attendance.getStudent().getIndexNumber() : null;
+            long hash = Objects.hash(index, attendance.getStatus(), attendance.getNotes());
+            hash *= 0x9E3779B97F4A7C15L;
+            result += hash ^ (hash >>> 29);
+        }
+        return result;
+    }
+
+    /**
+     * Subskrypcja jednego okna.
+     *
+     * <p>Zamknięcie ({@link #close()}) zwalnia wszystkie terminy i usuwa referencję
+     * do słuchacza, więc kontroler zamkniętego okna nie jest dłużej osiągalny
+     * z harmonogramu.</p>
+     */
+    public final class Subscription implements AutoCloseable {
+        private final String owner;
+        private final BiConsumer<Long, List<Attendance>> listener;
+
+        private Set<Long> scheduleIds = Set.of();
+        /** Skróty obecności pokazanych w oknie, według ID terminu (pod blokadą harmonogramu). */
+        private final Map<Long, Long> shownFingerprints = new HashMap<>();
+        private boolean focused = true;
+        private long activeUntilMillis;
+        private volatile boolean closed;
+
+        private Subscription(String owner, BiConsumer<Long, List<Attendance>> listener) {
+            this.owner = owner;
+            this.listener = listener;
+        }
+
+        /**
+         * Ustawia terminy obserwowane przez okno (terminy bez ID są pomijane).
+         *
+         * @param ids ID terminów pokazanych w oknie
+         */
+        public void setScheduleIds(Collection<Long> ids) {
+            if (closed) {
+                return;
+            }
+            Set<Long> copy = new LinkedHashSet<>();
+            for (Long id : ids) {
+                if (id != null) {
+                    copy.add(id);
+                }
+            }
+            updateInterest(this, copy);
+        }
+
+        /**
+         * Informuje, że okno samo wczytało obecności terminu (np. przy otwarciu).
+         * Kolejne odpytanie z tą samą zawartością nie wywoła powiadomienia.
+         *
+         * @param scheduleId ID terminu
+         * @param attendances obecności pokazane w oknie
+         */
+        public void markLoaded(Long scheduleId, List<Attendance> attendances) {
+            if (closed || scheduleId == null) {
+                return;
+            }
+            long fingerprint = fingerprint(attendances);
+            synchronized (SyncScheduler.this) {
+                if (scheduleIds.contains(scheduleId)) {
+                    shownFingerprints.put(scheduleId, fingerprint);
+                }
+            }
+        }
+
+        /**
+         * Informuje o fokusie okna. Odzyskanie fokusu odświeża terminy w najbliższym cyklu.
+         *
+         * @param focused czy okno ma fokus
+         */
+        public void setFocused(boolean focused) {
+            synchronized (SyncScheduler.this) {
+                this.focused = focused;
+            }
+            if (focused) {
+                pullForward(this, clock.getAsLong());
+            }
+        }
+
+        /**
+         * Zgłasza aktywne oznaczanie obecności - przez {@link #ACTIVITY_WINDOW}
+         * terminy okna są odpytywane co {@link #ACTIVE_INTERVAL}.
+         */
+        public void markActivity() {
+            long now = clock.getAsLong();
+            synchronized (SyncScheduler.this) {
+                activeUntilMillis = now + ACTIVITY_WINDOW.toMillis();
+            }
+            pullForward(this, now + ACTIVE_INTERVAL.toMillis());
+        }
+
+        /**
+         * Zamyka subskrypcję; kolejne wywołania nic nie robią.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            unsubscribe(this);
+            System.out.println("➖ Zamknięto subskrypcję synchronizacji: " + owner);
+        }
+
+        /**
+         * Sprawdza, czy subskrypcja została zamknięta.
+         *
+         * @return true po wywołaniu {@link #close()}
+         */
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+
+    /**
+     * Stan odpytywania jednego terminu (pod blokadą harmonogramu).
+     */
+    private static final class Poll {
+        private final Long scheduleId;
+        private final Set<Subscription> subscribers = new LinkedHashSet<>();
+        private long intervalMillis;
+        private long nextDueMillis;
+        private boolean inFlight;
+        private boolean hasFingerprint;
+        private long fingerprint;
+
+        Poll(Long scheduleId, long intervalMillis) {
+            this.scheduleId = scheduleId;
+            this.intervalMillis = intervalMillis;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.javafxfront;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zbiera zmiany interfejsu zgłaszane z wątków w tle i stosuje je raz na klatkę.
+ *
+ * <p>Bez dyspozytora każda odpowiedź serwera wykonuje własne
+ * {@link Platform#runLater(Runnable)} z pełnym odświeżeniem widoku - wczytanie
+ * obecności dla 100 terminów to 100 odświeżeń listy i liczników w ciągu kilku
+ * pulsów. Dyspozytor rozróżnia dwa rodzaje zgłoszeń:</p>
+ * <ul>
+ *   <li><strong>zmiany modelu</strong> ({@link #post(Runnable)}) - wykonywane wszystkie,
+ *       w kolejności zgłoszenia</li>
+ *   <li><strong>odświeżenia widoków</strong> ({@link #markDirty(Object, Runnable)}) -
+ *       flagi „do odświeżenia” z kluczem; niezależnie od liczby zgłoszeń każdy klucz
+ *       jest odświeżany najwyżej raz na klatkę, po zastosowaniu zmian modelu</li>
+ * </ul>
+ *
+ * <p>Zgłoszenia są stosowane w pulsie {@link AnimationTimer}, który działa tylko,
+ * gdy jest coś do zrobienia - po pustej klatce zatrzymuje się, a kolejne zgłoszenie
+ * uruchamia go ponownie jednym {@code runLater}. Odświeżenie zgłoszone w trakcie
+ * stosowania zmian modelu trafia do tej samej klatki; zgłoszone w trakcie odświeżania
+ * widoków - do następnej.</p>
+ *
+ * <p>Przykład użycia:</p>
+ * <pre>
+ * {@code
+ * uiUpdates.post(() -> schedule.setAttendances(serverAttendances));
+ * uiUpdates.markDirty(scheduleListView, scheduleListView::refresh);
+ * }
+ * </pre>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see GroupDetailController
+ * @see ModernController
+ */
+public final class UiUpdateDispatcher {
+
+    private final Object lock = new Object();
+    private final Runnable wakeUp;
+
+    private List<Runnable> pendingUpdates = new ArrayList<>();
+    private Map<Object, Runnable> pendingRefreshes = new LinkedHashMap<>();
+    /** Czy od ostatniego {@link #flush()} zlecono już przebudzenie (pod {@link #lock}). */
+    private boolean wakeUpRequested;
+
+    /** Timer pulsów - tworzony leniwie na wątku JavaFX. */
+    private AnimationTimer frameTimer;
+
+    private final LongAdder posted = new LongAdder();
+    private final LongAdder refreshRequests = new LongAdder();
+    private final LongAdder refreshesRun = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+
+    /**
+     * Tworzy dyspozytor stosujący zgłoszenia w pulsach JavaFX.
+     */
+    public UiUpdateDispatcher() {
+        this.wakeUp = () -> Platform.runLater(this::startFrameTimer);
+    }
+
+    /**
+     * Tworzy dyspozytor z własnym sposobem przebudzenia (testy).
+     *
+     * @param wakeUp wywoływane, gdy po opróżnieniu kolejek pojawi się pierwsze zgłoszenie;
+     *               odpowiada za późniejsze wywołanie {@link #flush()}
+     */
+    UiUpdateDispatcher(Runnable wakeUp) {
+        this.wakeUp = Objects.requireNonNull(wakeUp);
+    }
+
+    /**
+     * Zgłasza zmianę modelu do wykonania na wątku JavaFX w najbliższej klatce.
+     *
+     * <p>Można wywołać z dowolnego wątku.</p>
+     *
+     * @param update zmiana modelu
+     */
+    public void post(Runnable update) {
+        Objects.requireNonNull(update);
+        boolean wake;
+        synchronized (lock) {
+            pendingUpdates.add(update);
+            wake = requestWakeUp();
+        }
+        posted.increment();
+        if (wake) {
+            wakeUp.run();
+        }
+    }
+
+    /**
+     * Oznacza widok jako wymagający odświeżenia w najbliższej klatce.
+     *
+     * <p>Kolejne zgłoszenia z tym samym kluczem przed końcem klatki są scalane -
+     * wykonana zostanie ostatnio podana akcja. Można wywołać z dowolnego wątku.</p>
+     *
+     * @param key klucz widoku (np. sam węzeł listy)
+     * @param refresh akcja odświeżająca widok
+     */
+    public void markDirty(Object key, Runnable refresh) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(refresh);
+        boolean wake;
+        synchronized (lock) {
+            pendingRefreshes.put(key, refresh);
+            wake = requestWakeUp();
+        }
+        refreshRequests.increment();
+        if (wake) {
+            wakeUp.run();
+        }
+    }
+
+    /**
+     * Stosuje wszystkie oczekujące zgłoszenia: najpierw zmiany modelu, potem
+     * odświeżenia widoków. Wywoływane na wątku JavaFX.
+     *
+     * @return true jeśli było cokolwiek do zastosowania
+     */
+    public boolean flush() {
+        boolean applied = false;
+        Map<Object, Runnable> refreshes = null;
+        while (refreshes == null) {
+            List<Runnable> updates;
+            synchronized (lock) {
+                updates = pendingUpdates;
+                pendingUpdates = new ArrayList<>();
+                // Zmiany modelu mogły zgłosić kolejne - odświeżenia zabieramy dopiero, gdy kolejka jest pusta
+                if (updates.isEmpty()) {
+                    refreshes = pendingRefreshes;
+                    pendingRefreshes = new LinkedHashMap<>();
+                    wakeUpRequested = false;
+                }
+            }
+            if (!updates.isEmpty()) {
+                runAll(updates);
+                applied = true;
+            }
+        }
+
+        runAll(refreshes.values());
+        refreshesRun.add(refreshes.size());
+        applied |= !refreshes.isEmpty();
+
+        if (applied) {
+            frames.increment();
+        }
+        return applied;
+    }
+
+    /**
+     * Porzuca oczekujące zgłoszenia i zatrzymuje timer (np. przy zamykaniu okna).
+     */
+    public void clear() {
+        synchronized (lock) {
+            pendingUpdates = new ArrayList<>();
+            pendingRefreshes = new LinkedHashMap<>();
+            wakeUpRequested = false;
+        }
+        if (frameTimer != null) {
+            Platform.runLater(frameTimer::stop);
+        }
+    }
+
+    /**
+     * Zwraca liczbę zgłoszonych zmian modelu.
+     *
+     * @return liczba wywołań {@link #post(Runnable)}
+     */
+    public long getPostedCount() {
+        return posted.sum();
+    }
+
+    /**
+     * Zwraca liczbę zgłoszeń odświeżenia widoków.
+     *
+     * @return liczba wywołań {@link #markDirty(Object, Runnable)}
+     */
+    public long getRefreshRequestCount() {
+        return refreshRequests.sum();
+    }
+
+    /**
+     * Zwraca liczbę faktycznie wykonanych odświeżeń widoków.
+     *
+     * @return liczba wykonanych odświeżeń
+     */
+    public long getRefreshRunCount() {
+        return refreshesRun.sum();
+    }
+
+    /**
+     * Zwraca liczbę klatek, w których zastosowano zgłoszenia.
+     *
+     * @return liczba niepustych klatek
+     */
+    public long getFrameCount() {
+        return frames.sum();
+    }
+
+    /**
+     * Zwraca czytelne podsumowanie liczników.
+     *
+     * @return podsumowanie w formacie "Aktualizacje UI: zmiany X, odświeżenia Y/Z, klatki W"
+     */
+    @Override
+    public String toString() {
+        return String.format("Aktualizacje UI: zmiany %d, odświeżenia %d/%d, klatki %d",
+                getPostedCount(), getRefreshRunCount(), getRefreshRequestCount(), getFrameCount());
+    }
+
+    /**
+     * Zaznacza potrzebę przebudzenia; wywoływane pod {@link #lock}.
+     *
+     * @return true jeśli to pierwsze zgłoszenie od ostatniej klatki
+     */
+    private boolean requestWakeUp() {
+        if (wakeUpRequested) {
+            return false;
+        }
+        wakeUpRequested = true;
+        return true;
+    }
+
+    private void startFrameTimer() {
+        if (frameTimer == null) {
+            frameTimer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    if (!flush()) {
+                        stop();
+                    }
+                }
+            };
+        }
+        frameTimer.start();
+    }
+
+    private static void runAll(Iterable<Runnable> actions) {
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                System.err.println("❌ Błąd aktualizacji interfejsu: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
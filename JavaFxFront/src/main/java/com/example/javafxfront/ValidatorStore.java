@@ -0,0 +1,164 @@
+package com.example.javafxfront;
+
+import java.net.http.HttpHeaders;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Walidatory HTTP ({@code ETag}, {@code Last-Modified}) zapamiętane dla odpowiedzi GET.
+ *
+ * <p>Dla każdego adresu URL przechowywany jest walidator ostatniej odpowiedzi 200
+ * wraz z już sparsowanym wynikiem. Kolejne żądanie do tego adresu jest wysyłane
+ * z nagłówkami {@code If-None-Match} / {@code If-Modified-Since}; jeśli serwer
+ * odpowie {@code 304 Not Modified}, transport zwraca zapamiętany wynik bez pobierania
+ * i parsowania treści.</p>
+ *
+ * <p>Odpowiedzi bez walidatorów nie są zapamiętywane. Liczba adresów jest ograniczona
+ * (usuwany jest najdawniej używany). Zapamiętane wyniki muszą być niemodyfikowalne.</p>
+ *
+ * @author Mateusz Orski
+ * @version 1.0
+ * @since 2025
+ *
+ * @see HttpTransport#sendStreaming(HttpTransport.Endpoint, HttpTransport.RequestFactory, HttpTransport.StreamHandler, String)
+ */
+public final class ValidatorStore {
+
+    /**
+     * Walidator odpowiedzi wraz ze sparsowanym wynikiem.
+     */
+    public static final class Entry {
+        private final String etag;
+        private final String lastModified;
+        private final Object value;
+
+        Entry(String etag, String lastModified, Object value) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+
+        /**
+         * Zwraca wartość nagłówka ETag.
+         *
+         * @return ETag lub null
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Zwraca wartość nagłówka Last-Modified.
+         *
+         * @return data modyfikacji w formacie HTTP lub null
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Zwraca wynik sparsowany z odpowiedzi, do której należy walidator.
+         *
+         * @return sparsowany wynik
+         */
+        public Object getValue() {
+            return value;
+        }
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder fullResponses = new LongAdder();
+
+    /**
+     * Tworzy magazyn walidatorów z limitem adresów.
+     *
+     * @param maxEntries maksymalna liczba zapamiętanych adresów
+     */
+    public ValidatorStore(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ValidatorStore.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Zwraca walidator dla adresu.
+     *
+     * @param url adres żądania
+     * @return walidator lub null
+     */
+    public synchronized Entry get(String url) {
+        return entries.get(url);
+    }
+
+    /**
+     * Zapamiętuje walidatory odpowiedzi 200 i jej sparsowany wynik.
+     *
+     * <p>Jeśli odpowiedź nie zawiera ani {@code ETag}, ani {@code Last-Modified},
+     * poprzedni wpis dla adresu jest usuwany.</p>
+     *
+     * @param url adres żądania
+     * @param headers nagłówki odpowiedzi
+     * @param value sparsowany wynik
+     */
+    public synchronized void store(String url, HttpHeaders headers, Object value) {
+        fullResponses.increment();
+        String etag = headers.firstValue("ETag").orElse(null);
+        String lastModified = headers.firstValue("Last-Modified").orElse(null);
+        if ((etag == null && lastModified == null) || value == null) {
+            entries.remove(url);
+            return;
+        }
+        entries.put(url, new Entry(etag, lastModified, value));
+    }
+
+    /**
+     * Rejestruje odpowiedź 304, obsłużoną zapamiętanym wynikiem.
+     */
+    void recordNotModified() {
+        notModified.increment();
+    }
+
+    /**
+     * Usuwa wszystkie walidatory.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Zwraca liczbę odpowiedzi 304 obsłużonych bez parsowania.
+     *
+     * @return liczba odpowiedzi 304
+     */
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    /**
+     * Zwraca liczbę pełnych odpowiedzi 200 dla żądań GET.
+     *
+     * @return liczba pełnych odpowiedzi
+     */
+    public long getFullResponseCount() {
+        return fullResponses.sum();
+    }
+
+    /**
+     * Zwraca czytelne podsumowanie liczników.
+     *
+     * @return podsumowanie w formacie "Walidatory HTTP: adresy X, 304 Y, 200 Z"
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("Walidatory HTTP: adresy %d, 304 %d, 200 %d",
+                entries.size(), getNotModifiedCount(), getFullResponseCount());
+    }
+}
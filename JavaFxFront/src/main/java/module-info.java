@@ -2,6 +2,7 @@ module com.example.javafxfront {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.net.http;
+    requires jdk.jfr;
     requires java.base;
 
     // Jackson dependencies
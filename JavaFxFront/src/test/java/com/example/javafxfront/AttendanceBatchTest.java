@@ -0,0 +1,113 @@
+package com.example.javafxfront;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testy zbiorczych operacji na frekwencji
+ * Sprawdzamy, że cała grupa kosztuje jedno żądanie i że wyniki są raportowane dla każdego wpisu
+ */
+@DisplayName("Testy zbiorczych operacji na frekwencji")
+class AttendanceBatchTest {
+
+    private WireMockServer server;
+    private AttendanceService service;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        server = new WireMockServer(options().dynamicPort());
+        server.start();
+        service = new AttendanceService(new HttpTransport("http://localhost:" + server.port() + "/api"));
+        students = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            students.add(new Student("Student", "Nr" + i, String.format("%06d", 100000 + i), "INF-A"));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("Oznaczenie 120 studentów powinno wysłać jedno żądanie")
+    void shouldMarkWholeLectureInOneRequest() {
+        // Given
+        server.stubFor(post(urlPathEqualTo("/api/attendance/batch")).willReturn(okJson("{\"results\": []}")));
+
+        // When
+        List<AttendanceBatch.Result> results = service.applyBatchAsync(
+                AttendanceBatch.markAll(students, 7L, Attendance.Status.PRESENT)).join();
+
+        // Then
+        assertThat(results).hasSize(120).allMatch(AttendanceBatch.Result::isSuccess);
+        server.verify(1, postRequestedFor(urlPathEqualTo("/api/attendance/batch"))
+                .withRequestBody(containing("\"indexNumber\": \"100119\""))
+                .withRequestBody(containing("\"status\": \"PRESENT\"")));
+        assertThat(server.getAllServeEvents()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Powinien zwrócić wynik dla każdego wpisu")
+    void shouldReportPerEntryResults() {
+        // Given
+        server.stubFor(post(urlPathEqualTo("/api/attendance/batch")).willReturn(okJson(
+                "{\"results\": [{\"index\": 0, \"success\": true},"
+                        + " {\"index\": 1, \"success\": false, \"error\": \"Student nie należy do grupy\"}]}")));
+        List<AttendanceBatch.Entry> entries = List.of(
+                AttendanceBatch.Entry.mark(students.get(0), 7L, Attendance.Status.LATE, "10 min"),
+                AttendanceBatch.Entry.clear(students.get(1), 8L));
+
+        // When
+        List<AttendanceBatch.Result> results = service.applyBatchAsync(entries).join();
+
+        // Then
+        assertThat(results.get(0).isSuccess()).isTrue();
+        assertThat(results.get(1).isSuccess()).isFalse();
+        assertThat(results.get(1).getMessage()).isEqualTo("Student nie należy do grupy");
+        assertThat(AttendanceBatch.countSucceeded(results)).isEqualTo(1);
+        server.verify(postRequestedFor(urlPathEqualTo("/api/attendance/batch"))
+                .withRequestBody(containing("\"status\": null")));
+    }
+
+    @Test
+    @DisplayName("Bez obsługi po stronie serwera powinien wysłać wpisy pojedynczo")
+    void shouldFallBackToSingleRequests() {
+        // Given
+        server.stubFor(post(urlPathEqualTo("/api/attendance/batch")).willReturn(aResponse().withStatus(404)));
+        server.stubFor(delete(urlPathMatching("/api/attendance/remove/.*")).willReturn(aResponse().withStatus(204)));
+        List<AttendanceBatch.Entry> entries = AttendanceBatch.clearAll(students.subList(0, 3), 7L);
+
+        // When
+        List<AttendanceBatch.Result> first = service.applyBatchAsync(entries).join();
+        List<AttendanceBatch.Result> second = service.applyBatchAsync(entries).join();
+
+        // Then
+        assertThat(first).allMatch(AttendanceBatch.Result::isSuccess);
+        assertThat(second).allMatch(AttendanceBatch.Result::isSuccess);
+        server.verify(1, postRequestedFor(urlPathEqualTo("/api/attendance/batch")));
+        server.verify(6, deleteRequestedFor(urlPathMatching("/api/attendance/remove/.*")));
+    }
+
+    @Test
+    @DisplayName("Pusta lista wpisów nie powinna wysyłać żądania")
+    void shouldSkipEmptyBatch() {
+        // When
+        List<AttendanceBatch.Result> results = service.applyBatchAsync(List.of()).join();
+
+        // Then
+        assertThat(results).isEmpty();
+        assertThat(server.getAllServeEvents()).isEmpty();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.javafxfront;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Testy eksportu dziennika do CSV
+ * Sprawdzamy kodowanie, cytowanie RFC 4180 i zachowanie przy anulowaniu
+ */
+@DisplayName("Testy eksportu CSV")
+class AttendanceCsvExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AttendanceMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        Student jan = new Student("Jan", "Kowalski", "123456", "INF-A");
+        Student anna = new Student("Anna \"Ania\"", "Nowak", "654321", "INF-A");
+        LocalDateTime start = LocalDateTime.of(2024, 3, 15, 10, 0);
+        ClassSchedule first = new ClassSchedule("Programowanie, wykład", "101", start, start.plusHours(2),
+                "Dr Nowak", null, "INF-A");
+        ClassSchedule second = new ClassSchedule("Bazy danych", "102", start.plusDays(7),
+                start.plusDays(7).plusHours(2), "Dr Nowak", null, "INF-A");
+        first.addAttendance(new Attendance(jan, first, Attendance.Status.PRESENT));
+        second.addAttendance(new Attendance(jan, second, Attendance.Status.ABSENT));
+        first.addAttendance(new Attendance(anna, first, Attendance.Status.LATE));
+
+        matrix = AttendanceMatrix.build(List.of(jan, anna), List.of(first, second));
+    }
+
+    @Nested
+    @DisplayName("Format pliku")
+    class FileFormat {
+
+        @Test
+        @DisplayName("Powinien zapisać UTF-8 z BOM i wierszami zakończonymi CRLF")
+        void shouldWriteUtf8WithCrlf() throws IOException {
+            // Given
+            Path file = tempDir.resolve("dziennik.csv");
+
+            // When
+            int rows = AttendanceCsvExporter.export(matrix, file);
+
+            // Then
+            byte[] bytes = Files.readAllBytes(file);
+            assertThat(rows).isEqualTo(2);
+            assertThat(bytes).startsWith(0xEF, 0xBB, 0xBF);
+            String content = new String(bytes, StandardCharsets.UTF_8).substring(1);
+            String[] lines = content.split("\r\n", -1);
+            assertThat(lines).hasSize(4);
+            assertThat(lines[0]).isEqualTo("Imię i nazwisko,Numer indeksu,"
+                    + "\"Programowanie, wykład (15.03.2024 10:00)\",Bazy danych (22.03.2024 10:00),Statystyki");
+            assertThat(lines[1]).startsWith("Jan Kowalski,123456,Obecny,Nieobecny,");
+            assertThat(lines[2]).startsWith("\"Anna \"\"Ania\"\" Nowak\",654321,Spóźniony,Nie zaznaczono,");
+            assertThat(lines[3]).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Powinien cytować tylko pola tego wymagające")
+        void shouldQuoteOnlyWhenNeeded() throws IOException {
+            // Given
+            StringWriter writer = new StringWriter();
+
+            // When
+            AttendanceCsvExporter.writeField(writer, "Obecny");
+            writer.write('|');
+            AttendanceCsvExporter.writeField(writer, "85,5% (17/20)");
+            writer.write('|');
+            AttendanceCsvExporter.writeField(writer, "linia\nnowa");
+            writer.write('|');
+            AttendanceCsvExporter.writeField(writer, null);
+
+            // Then
+            assertThat(writer.toString()).isEqualTo("Obecny|\"85,5% (17/20)\"|\"linia\nnowa\"|");
+        }
+    }
+
+    @Nested
+    @DisplayName("Przerwany eksport")
+    class Cancellation {
+
+        @Test
+        @DisplayName("Anulowanie nie powinno zmienić istniejącego pliku")
+        void shouldKeepExistingFileWhenCancelled() throws IOException {
+            // Given
+            Path file = tempDir.resolve("dziennik.csv");
+            Files.writeString(file, "stara zawartość");
+
+            // When & Then
+            assertThatThrownBy(() -> AttendanceCsvExporter.export(matrix, file, () -> true, rows -> { }))
+                    .isInstanceOf(CancellationException.class);
+            assertThat(Files.readString(file)).isEqualTo("stara zawartość");
+            assertThat(tempDir.resolve("dziennik.csv.part")).doesNotExist();
+        }
+
+        @Test
+        @DisplayName("Powinien raportować postęp po każdym wierszu")
+        void shouldReportProgress() throws IOException {
+            // Given
+            List<Integer> progress = new java.util.ArrayList<>();
+
+            // When
+            AttendanceCsvExporter.export(matrix, tempDir.resolve("postep.csv"), () -> false, progress::add);
+
+            // Then
+            assertThat(progress).containsExactly(1, 2);
+        }
+    }
+}
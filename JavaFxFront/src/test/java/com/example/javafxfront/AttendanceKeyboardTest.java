@@ -0,0 +1,135 @@
+package com.example.javafxfront;
+
+import javafx.scene.control.SingleSelectionModel;
+import javafx.scene.input.KeyCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testy oznaczania obecności z klawiatury na liście terminu
+ * Model zaznaczenia jest prostą implementacją - bez uruchamiania JavaFX
+ */
+@DisplayName("Testy skrótów klawiszowych listy obecności")
+class AttendanceKeyboardTest {
+
+    private List<Student> students;
+    private SingleSelectionModel<Student> selection;
+    private List<String> marks;
+
+    @BeforeEach
+    void setUp() {
+        students = List.of(
+                new Student("Jan", "Kowalski", "100001", "INF-A"),
+                new Student("Anna", "Nowak", "100002", "INF-A"),
+                new Student("Piotr", "Wiśniewski", "100003", "INF-A"));
+        selection = new SingleSelectionModel<>() {
+            @Override
+            protected Student getModelItem(int index) {
+                return index >= 0 && index < students.size() ? students.get(index) : null;
+            }
+
+            @Override
+            protected int getItemCount() {
+                return students.size();
+            }
+        };
+        marks = new ArrayList<>();
+    }
+
+    private boolean press(KeyCode code) {
+        return AttendanceKeyboard.handleKey(code, selection, students.size(),
+                (student, status) -> marks.add(student.getIndexNumber() + ":" + (status != null ? status.name() : "-")));
+    }
+
+    @Nested
+    @DisplayName("Mapowanie klawiszy")
+    class KeyMapping {
+
+        @Test
+        @DisplayName("Litery i cyfry odpowiadają statusom")
+        void shouldMapKeysToStatuses() {
+            assertThat(AttendanceKeyboard.statusForKey(KeyCode.O)).isEqualTo(Attendance.Status.PRESENT);
+            assertThat(AttendanceKeyboard.statusForKey(KeyCode.NUMPAD1)).isEqualTo(Attendance.Status.PRESENT);
+            assertThat(AttendanceKeyboard.statusForKey(KeyCode.S)).isEqualTo(Attendance.Status.LATE);
+            assertThat(AttendanceKeyboard.statusForKey(KeyCode.DIGIT2)).isEqualTo(Attendance.Status.LATE);
+            assertThat(AttendanceKeyboard.statusForKey(KeyCode.N)).isEqualTo(Attendance.Status.ABSENT);
+            assertThat(AttendanceKeyboard.statusForKey(KeyCode.DIGIT3)).isEqualTo(Attendance.Status.ABSENT);
+        }
+
+        @Test
+        @DisplayName("Delete, Backspace i 0 czyszczą oznaczenie")
+        void shouldMapClearKeysToNull() {
+            for (KeyCode code : List.of(KeyCode.DELETE, KeyCode.BACK_SPACE, KeyCode.DIGIT0, KeyCode.NUMPAD0)) {
+                assertThat(AttendanceKeyboard.isMarkingKey(code)).isTrue();
+                assertThat(AttendanceKeyboard.statusForKey(code)).isNull();
+            }
+        }
+
+        @Test
+        @DisplayName("Inne klawisze nie są skrótami")
+        void shouldRejectOtherKeys() {
+            assertThat(AttendanceKeyboard.isMarkingKey(KeyCode.UP)).isFalse();
+            assertThat(AttendanceKeyboard.isMarkingKey(KeyCode.A)).isFalse();
+            assertThatThrownBy(() -> AttendanceKeyboard.statusForKey(KeyCode.A))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Oznaczanie i zaznaczenie")
+    class Marking {
+
+        @Test
+        @DisplayName("Skrót oznacza zaznaczonego studenta i przechodzi do następnego")
+        void shouldMarkSelectedAndAdvance() {
+            // Given
+            selection.select(0);
+
+            // When
+            boolean first = press(KeyCode.O);
+            boolean second = press(KeyCode.N);
+
+            // Then
+            assertThat(first).isTrue();
+            assertThat(second).isTrue();
+            assertThat(marks).containsExactly("100001:PRESENT", "100002:ABSENT");
+            assertThat(selection.getSelectedIndex()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Na ostatnim studencie zaznaczenie zostaje")
+        void shouldStayOnLastRow() {
+            // Given
+            selection.select(2);
+
+            // When
+            press(KeyCode.DELETE);
+
+            // Then
+            assertThat(marks).containsExactly("100003:-");
+            assertThat(selection.getSelectedIndex()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Bez zaznaczenia i dla innych klawiszy nic się nie dzieje")
+        void shouldIgnoreWithoutSelectionOrShortcut() {
+            // When
+            boolean withoutSelection = press(KeyCode.O);
+            selection.select(1);
+            boolean otherKey = press(KeyCode.DOWN);
+
+            // Then
+            assertThat(withoutSelection).isFalse();
+            assertThat(otherKey).isFalse();
+            assertThat(marks).isEmpty();
+            assertThat(selection.getSelectedIndex()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.javafxfront;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testy macierzy obecności
+ * Sprawdzamy komórki, sumy wierszy i kolumn oraz statystyki raportu
+ */
+@DisplayName("Testy macierzy obecności")
+class AttendanceMatrixTest {
+
+    private Student jan;
+    private Student anna;
+    private Student piotr;
+    private ClassSchedule first;
+    private ClassSchedule second;
+    private ClassSchedule third;
+
+    @BeforeEach
+    void setUp() {
+        jan = new Student("Jan", "Kowalski", "123456", "INF-A");
+        anna = new Student("Anna", "Nowak", "654321", "INF-A");
+        piotr = new Student("Piotr", "Wiśniewski", "111222", "INF-A");
+
+        LocalDateTime start = LocalDateTime.of(2024, 3, 15, 10, 0);
+        first = new ClassSchedule("Programowanie", "101", start, start.plusHours(2), "Dr Nowak", null, "INF-A");
+        second = new ClassSchedule("Bazy danych", "102", start.plusDays(7), start.plusDays(7).plusHours(2),
+                "Dr Nowak", null, "INF-A");
+        third = new ClassSchedule("Sieci", "103", start.plusDays(14), start.plusDays(14).plusHours(2),
+                "Dr Nowak", null, "INF-A");
+
+        // Jan: obecny, spóźniony, nieobecny
+        first.addAttendance(new Attendance(jan, first, Attendance.Status.PRESENT));
+        second.addAttendance(new Attendance(jan, second, Attendance.Status.LATE));
+        third.addAttendance(new Attendance(jan, third, Attendance.Status.ABSENT));
+        // Anna: obecna, nieoznaczona, obecna
+        first.addAttendance(new Attendance(anna, first, Attendance.Status.PRESENT));
+        third.addAttendance(new Attendance(anna, third, Attendance.Status.PRESENT));
+        // Piotr: brak oznaczeń
+    }
+
+    private AttendanceMatrix buildMatrix() {
+        return AttendanceMatrix.build(List.of(jan, anna, piotr), List.of(first, second, third));
+    }
+
+    @Nested
+    @DisplayName("Komórki")
+    class Cells {
+
+        @Test
+        @DisplayName("Powinien zapisać status lub znacznik braku oznaczenia")
+        void shouldStoreStatusesAndSentinel() {
+            // When
+            AttendanceMatrix matrix = buildMatrix();
+
+            // Then
+            assertThat(matrix.getRowCount()).isEqualTo(3);
+            assertThat(matrix.getColumnCount()).isEqualTo(3);
+            assertThat(matrix.getStatus(0, 1)).isEqualTo(Attendance.Status.LATE);
+            assertThat(matrix.getStatus(1, 1)).isNull();
+            assertThat(matrix.getCell(1, 1)).isEqualTo(AttendanceMatrix.NOT_MARKED);
+            assertThat(matrix.getDisplayName(0, 2)).isEqualTo("Nieobecny");
+            assertThat(matrix.getDisplayName(2, 0)).isEqualTo("Nie zaznaczono");
+        }
+
+        @Test
+        @DisplayName("Powinien odrzucić indeks spoza macierzy")
+        void shouldRejectOutOfRangeIndex() {
+            // Given
+            AttendanceMatrix matrix = buildMatrix();
+
+            // When & Then
+            assertThatThrownBy(() -> matrix.getStatus(3, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> matrix.getStatus(0, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        @Test
+        @DisplayName("Zmiana terminu po zbudowaniu nie powinna zmieniać macierzy")
+        void shouldBeSnapshot() {
+            // Given
+            AttendanceMatrix matrix = buildMatrix();
+
+            // When
+            second.addAttendance(new Attendance(anna, second, Attendance.Status.ABSENT));
+
+            // Then
+            assertThat(matrix.getStatus(1, 1)).isNull();
+            assertThat(buildMatrix().getStatus(1, 1)).isEqualTo(Attendance.Status.ABSENT);
+        }
+    }
+
+    @Nested
+    @DisplayName("Sumy")
+    class Totals {
+
+        @Test
+        @DisplayName("Powinien policzyć sumy wierszy i kolumn")
+        void shouldComputeRowAndColumnTotals() {
+            // When
+            AttendanceMatrix matrix = buildMatrix();
+
+            // Then
+            assertThat(matrix.getRowCount(0, Attendance.Status.PRESENT)).isEqualTo(1);
+            assertThat(matrix.getRowCount(0, Attendance.Status.ABSENT)).isEqualTo(1);
+            assertThat(matrix.getRowMarked(0)).isEqualTo(3);
+            assertThat(matrix.getRowMarked(1)).isEqualTo(2);
+            assertThat(matrix.getRowMarked(2)).isZero();
+            assertThat(matrix.getColumnCount(0, Attendance.Status.PRESENT)).isEqualTo(2);
+            assertThat(matrix.getColumnCount(2, Attendance.Status.ABSENT)).isEqualTo(1);
+            assertThat(matrix.getColumnMarked(1)).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Filtry")
+    class Filters {
+
+        @Test
+        @DisplayName("Filtr statusu na terminie powinien zwrócić pasujące wiersze")
+        void shouldMatchStatusOnSchedule() {
+            // When
+            AttendanceMatrix matrix = buildMatrix();
+
+            // Then
+            assertThat(matrix.getMatchingRows(0, Attendance.Status.PRESENT)).isEqualTo(bits(0, 1));
+            assertThat(matrix.getMatchingRows(2, Attendance.Status.ABSENT)).isEqualTo(bits(0));
+            assertThat(matrix.getMatchingRows(1, Attendance.Status.ABSENT)).isEqualTo(bits());
+        }
+
+        @Test
+        @DisplayName("Filtr statusu bez terminu powinien uwzględnić dowolny termin")
+        void shouldMatchStatusOnAnySchedule() {
+            // When
+            AttendanceMatrix matrix = buildMatrix();
+
+            // Then
+            assertThat(matrix.getMatchingRows(-1, Attendance.Status.PRESENT)).isEqualTo(bits(0, 1));
+            assertThat(matrix.getMatchingRows(-1, Attendance.Status.LATE)).isEqualTo(bits(0));
+            assertThat(matrix.getMatchingRows(-1, null)).isEqualTo(bits(0, 1, 2));
+        }
+
+        @Test
+        @DisplayName("Zwrócony zbiór nie powinien zmieniać indeksu macierzy")
+        void shouldReturnIndependentCopy() {
+            // Given
+            AttendanceMatrix matrix = buildMatrix();
+
+            // When
+            matrix.getMatchingRows(0, Attendance.Status.PRESENT).clear();
+
+            // Then
+            assertThat(matrix.getMatchingRows(0, Attendance.Status.PRESENT)).isEqualTo(bits(0, 1));
+        }
+
+        private BitSet bits(int... rows) {
+            BitSet bits = new BitSet();
+            for (int row : rows) {
+                bits.set(row);
+            }
+            return bits;
+        }
+    }
+
+    @Nested
+    @DisplayName("Statystyki")
+    class Statistics {
+
+        @Test
+        @DisplayName("Powinien sformatować statystyki wiersza jak raport")
+        void shouldFormatRowStatistics() {
+            // When
+            AttendanceMatrix matrix = buildMatrix();
+
+            // Then
+            assertThat(matrix.getRowStatistics(0)).isEqualTo(String.format("%.1f%% (%d/%d)", 200.0 / 3, 2, 3));
+            assertThat(matrix.getRowStatistics(1)).isEqualTo(String.format("%.1f%% (%d/%d)", 100.0, 2, 2));
+            assertThat(matrix.getRowStatistics(2)).isEqualTo("Brak ocen");
+            assertThat(AttendanceMatrix.build(List.of(jan), List.of()).getRowStatistics(0)).isEqualTo("Brak danych");
+        }
+
+        @Test
+        @DisplayName("Powinien wskazać najlepszy i najgorszy wiersz oraz średnią")
+        void shouldFindBestWorstAndAverage() {
+            // When
+            AttendanceMatrix matrix = buildMatrix();
+
+            // Then
+            assertThat(matrix.getBestRow()).isEqualTo(1);
+            assertThat(matrix.getWorstRow()).isEqualTo(2);
+            assertThat(matrix.getAveragePercentage()).isCloseTo((200.0 / 3 + 100.0 + 0.0) / 3, within(1e-9));
+        }
+
+        @Test
+        @DisplayName("Pusta macierz nie powinna mieć najlepszego wiersza")
+        void shouldHandleEmptyMatrix() {
+            // When
+            AttendanceMatrix matrix = AttendanceMatrix.build(List.of(), List.of(first));
+
+            // Then
+            assertThat(matrix.getBestRow()).isEqualTo(-1);
+            assertThat(matrix.getWorstRow()).isEqualTo(-1);
+            assertThat(matrix.getAveragePercentage()).isZero();
+        }
+
+        @Test
+        @DisplayName("Wiersz raportu powinien czytać dane z macierzy")
+        void shouldExposeMatrixThroughReportRow() {
+            // Given
+            AttendanceMatrix matrix = buildMatrix();
+
+            // When
+            AttendanceReportController.AttendanceReportRow row =
+                    new AttendanceReportController.AttendanceReportRow(matrix, 0);
+
+            // Then
+            assertThat(row.getStudentName()).isEqualTo("Jan Kowalski");
+            assertThat(row.getAttendanceForSchedule(1)).isEqualTo("Spóźniony");
+            assertThat(row.getAttendanceForSchedule(5)).isEqualTo("Nie zaznaczono");
+            assertThat(row.getStatistics()).isEqualTo(matrix.getRowStatistics(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Budowanie równoległe")
+    class ParallelBuild {
+
+        private List<Student> manyStudents;
+        private List<ClassSchedule> manySchedules;
+
+        @BeforeEach
+        void setUp() {
+            Attendance.Status[] statuses = Attendance.Status.values();
+            manyStudents = new ArrayList<>();
+            for (int i = 0; i < 600; i++) {
+                manyStudents.add(new Student("Student", "Nr" + i, String.valueOf(100000 + i), "INF-A"));
+            }
+            manySchedules = new ArrayList<>();
+            LocalDateTime start = LocalDateTime.of(2024, 3, 1, 8, 0);
+            for (int s = 0; s < 40; s++) {
+                ClassSchedule schedule = new ClassSchedule("Przedmiot " + s, "101", start.plusDays(s),
+                        start.plusDays(s).plusHours(2), "Dr Nowak", null, "INF-A");
+                for (int i = 0; i < manyStudents.size(); i++) {
+                    if ((i + s) % 4 != 3) {
+                        schedule.addAttendance(new Attendance(manyStudents.get(i), schedule, statuses[(i + s) % 4]));
+                    }
+                }
+                manySchedules.add(schedule);
+            }
+        }
+
+        @Test
+        @DisplayName("Sumy z wielu wątków powinny zgadzać się z komórkami")
+        void shouldMatchCellsAcrossSplitRanges() {
+            // When
+            AtomicInteger completedRows = new AtomicInteger();
+            AttendanceMatrix matrix = AttendanceMatrix.build(manyStudents, manySchedules,
+                    () -> false, completedRows::addAndGet);
+
+            // Then
+            assertThat(completedRows.get()).isEqualTo(600);
+            for (int column = 0; column < matrix.getColumnCount(); column++) {
+                int absent = 0;
+                for (int row = 0; row < matrix.getRowCount(); row++) {
+                    Attendance attendance = manySchedules.get(column).getAttendanceForStudent(manyStudents.get(row));
+                    assertThat(matrix.getStatus(row, column)).isSameAs(attendance != null ? attendance.getStatus() : null);
+                    if (matrix.getStatus(row, column) == Attendance.Status.ABSENT) {
+                        absent++;
+                    }
+                }
+                assertThat(matrix.getColumnCount(column, Attendance.Status.ABSENT)).isEqualTo(absent);
+                assertThat(matrix.getColumnMarked(column)).isEqualTo(450);
+            }
+        }
+
+        @Test
+        @DisplayName("Zmiany obecności po utworzeniu migawki nie powinny trafić do macierzy")
+        void shouldBuildFromSnapshotTakenBefore() {
+            // Given
+            AttendanceMatrix.Snapshot snapshot = AttendanceMatrix.snapshot(manyStudents, manySchedules);
+            ClassSchedule firstSchedule = manySchedules.get(0);
+            Attendance.Status before = firstSchedule.getAttendanceForStudent(manyStudents.get(0)).getStatus();
+
+            // When - okno grupy zmienia obecności, zanim zadanie w tle zbuduje macierz
+            firstSchedule.clearAttendances();
+            AttendanceMatrix matrix = AttendanceMatrix.build(snapshot, () -> false, rows -> { });
+
+            // Then
+            assertThat(snapshot.getStudentCount()).isEqualTo(600);
+            assertThat(matrix.getStatus(0, 0)).isEqualTo(before);
+            assertThat(matrix.getColumnMarked(0)).isEqualTo(450);
+        }
+
+        @Test
+        @DisplayName("Anulowanie powinno przerwać budowanie")
+        void shouldStopWhenCancelled() {
+            // Given
+            AtomicInteger completedRows = new AtomicInteger();
+
+            // When & Then
+            assertThatThrownBy(() -> AttendanceMatrix.build(manyStudents, manySchedules,
+                    () -> completedRows.get() > 0, completedRows::addAndGet))
+                    .isInstanceOf(CancellationException.class);
+            assertThat(completedRows.get()).isLessThan(600);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.javafxfront;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark budowania wierszy raportu obecności.
+ *
+ * <p>Odtwarza pętlę z {@code AttendanceReportController.generateReport()} (wiersz na studenta,
+ * komórka na termin) dla {@value #STUDENTS} studentów i {@value #SCHEDULES} terminów, z kompletem
+ * oznaczeń. Porównuje dawne przechowywanie obecności w liście z wyszukiwaniem liniowym po numerze
+ * indeksu z mapą kluczowaną indeksem w {@link ClassSchedule}. Wynik to mediana z
+ * {@value #ITERATIONS} pomiarów po rozgrzewce.</p>
+ *
+ * <p>Nie jest uruchamiany w fazie {@code test}; uruchomienie:
+ * {@code mvn test -Dtest=AttendanceReportBenchmark}</p>
+ */
+@DisplayName("Benchmark budowania raportu obecności")
+class AttendanceReportBenchmark {
+
+    private static final int STUDENTS = 500;
+    private static final int SCHEDULES = 200;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 5;
+
+    private final Attendance.Status[] statuses = Attendance.Status.values();
+
+    private List<Student> students;
+    private List<ClassSchedule> schedules;
+    private List<List<Attendance>> legacyAttendances;
+
+    @BeforeEach
+    void setUp() {
+        students = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(new Student("Student", "Nr" + i, String.valueOf(100000 + i), "INF-A"));
+        }
+
+        schedules = new ArrayList<>(SCHEDULES);
+        legacyAttendances = new ArrayList<>(SCHEDULES);
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 8, 0);
+        for (int s = 0; s < SCHEDULES; s++) {
+            ClassSchedule schedule = new ClassSchedule((long) s + 1, "Przedmiot " + s, "101",
+                    start.plusDays(s), start.plusDays(s).plusHours(2), "Dr Nowak", null, "INF-A", start);
+            List<Attendance> legacy = new ArrayList<>(STUDENTS);
+            for (int i = 0; i < STUDENTS; i++) {
+                Attendance attendance = new Attendance(students.get(i), schedule, statuses[(i + s) % statuses.length]);
+                schedule.addAttendance(attendance);
+                legacy.add(attendance);
+            }
+            schedules.add(schedule);
+            legacyAttendances.add(legacy);
+        }
+    }
+
+    @Test
+    @DisplayName("500 studentów × 200 terminów: lista z wyszukiwaniem liniowym vs mapa po indeksie")
+    void compareReportBuild() {
+        List<List<String>> legacyRows = null;
+        List<List<String>> indexedRows = null;
+        for (int i = 0; i < WARMUP; i++) {
+            legacyRows = buildLegacyReport();
+            indexedRows = buildIndexedReport();
+        }
+        assertThat(indexedRows).isEqualTo(legacyRows);
+
+        long legacyMs = medianMillis(this::buildLegacyReport);
+        long indexedMs = medianMillis(this::buildIndexedReport);
+
+        System.out.printf("%n=== Raport %d studentów × %d terminów (%d komórek) ===%n",
+                STUDENTS, SCHEDULES, STUDENTS * SCHEDULES);
+        System.out.printf("lista + wyszukiwanie liniowe : %6d ms%n", legacyMs);
+        System.out.printf("mapa po numerze indeksu      : %6d ms%n", indexedMs);
+
+        assertThat(indexedMs).isLessThanOrEqualTo(legacyMs);
+    }
+
+    private long medianMillis(Supplier<List<List<String>>> build) {
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            List<List<String>> rows = build.get();
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+            assertThat(rows).hasSize(STUDENTS);
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+
+    /**
+     * Dawny model: {@code getAttendanceForStudent} przeszukiwał listę strumieniem.
+     */
+    private List<List<String>> buildLegacyReport() {
+        List<List<String>> rows = new ArrayList<>(STUDENTS);
+        for (Student student : students) {
+            List<String> row = new ArrayList<>(SCHEDULES);
+            for (List<Attendance> attendances : legacyAttendances) {
+                Attendance attendance = attendances.stream()
+                        .filter(a -> a.getStudent().getIndexNumber().equals(student.getIndexNumber()))
+                        .findFirst()
+                        .orElse(null);
+                row.add(attendance != null ? attendance.getStatus().getDisplayName() : "Nie zaznaczono");
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<List<String>> buildIndexedReport() {
+        List<List<String>> rows = new ArrayList<>(STUDENTS);
+        for (Student student : students) {
+            List<String> row = new ArrayList<>(SCHEDULES);
+            for (ClassSchedule schedule : schedules) {
+                Attendance attendance = schedule.getAttendanceForStudent(student);
+                row.add(attendance != null ? attendance.getStatus().getDisplayName() : "Nie zaznaczono");
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
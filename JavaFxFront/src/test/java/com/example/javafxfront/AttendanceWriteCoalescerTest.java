@@ -0,0 +1,228 @@
+package com.example.javafxfront;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Testy koalescera zapisów obecności
+ * Sprawdzamy, że na serwer trafia tylko stan końcowy, w kolejności i bez zbędnych zapisów
+ */
+@DisplayName("Testy koalescera zapisów obecności")
+class AttendanceWriteCoalescerTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(50);
+
+    private Student student;
+    private List<AttendanceWriteCoalescer.Write> sentWrites;
+
+    @BeforeEach
+    void setUp() {
+        student = new Student("Jan", "Kowalski", "123456", "INF-A");
+        sentWrites = new CopyOnWriteArrayList<>();
+    }
+
+    private AttendanceWriteCoalescer coalescer(Function<AttendanceWriteCoalescer.Write, CompletableFuture<Boolean>> sender) {
+        return new AttendanceWriteCoalescer(WINDOW, Runnable::run, write -> {
+            sentWrites.add(write);
+            return sender.apply(write);
+        });
+    }
+
+    private AttendanceWriteCoalescer.Write write(Attendance.Status status) {
+        return new AttendanceWriteCoalescer.Write(student, 1L, status, "");
+    }
+
+    @Nested
+    @DisplayName("Scalanie w oknie")
+    class Window {
+
+        @Test
+        @DisplayName("Powinien wysłać tylko stan końcowy i anulować zastąpione zmiany")
+        void shouldSendOnlyFinalState() {
+            // Given
+            AttendanceWriteCoalescer coalescer = coalescer(write -> CompletableFuture.completedFuture(true));
+
+            // When
+            CompletableFuture<Boolean> present = coalescer.submit(write(Attendance.Status.PRESENT));
+            CompletableFuture<Boolean> late = coalescer.submit(write(Attendance.Status.LATE));
+            CompletableFuture<Boolean> absent = coalescer.submit(write(Attendance.Status.ABSENT));
+
+            // Then
+            assertThat(absent.orTimeout(2, TimeUnit.SECONDS).join()).isTrue();
+            assertThat(present).isCancelled();
+            assertThat(late).isCancelled();
+            assertThatThrownBy(late::join).satisfies(error ->
+                    assertThat(AttendanceWriteCoalescer.isSuperseded(error)).isTrue());
+            assertThat(sentWrites).extracting(AttendanceWriteCoalescer.Write::getStatus)
+                    .containsExactly(Attendance.Status.ABSENT);
+            assertThat(coalescer.getSupersededCount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Powrót do ostatnio wysłanego stanu nie powinien generować zapisu")
+        void shouldSkipUnchangedFinalState() {
+            // Given
+            AttendanceWriteCoalescer coalescer = coalescer(write -> CompletableFuture.completedFuture(true));
+            coalescer.submit(write(Attendance.Status.PRESENT)).orTimeout(2, TimeUnit.SECONDS).join();
+
+            // When
+            coalescer.submit(write(Attendance.Status.LATE));
+            boolean result = coalescer.submit(write(Attendance.Status.PRESENT)).orTimeout(2, TimeUnit.SECONDS).join();
+
+            // Then
+            assertThat(result).isTrue();
+            assertThat(sentWrites).hasSize(1);
+            assertThat(coalescer.getSkippedCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Oznaczenie → zewnętrzne wyczyszczenie → to samo oznaczenie powinno zostać wysłane")
+        void shouldResendSameStateAfterExternalClear() {
+            // Given
+            AttendanceWriteCoalescer coalescer = coalescer(write -> CompletableFuture.completedFuture(true));
+            coalescer.submit(write(Attendance.Status.PRESENT)).orTimeout(2, TimeUnit.SECONDS).join();
+
+            // When - oznaczenie wyczyszczone operacją zbiorczą z pominięciem koalescera
+            coalescer.forget(student.getIndexNumber(), 1L);
+            coalescer.submit(write(Attendance.Status.PRESENT)).orTimeout(2, TimeUnit.SECONDS).join();
+
+            // Then
+            assertThat(sentWrites).extracting(AttendanceWriteCoalescer.Write::getStatus)
+                    .containsExactly(Attendance.Status.PRESENT, Attendance.Status.PRESENT);
+            assertThat(coalescer.getSkippedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Ten sam stan po upływie okna powinien zostać wysłany ponownie")
+        void shouldResendSameStateAfterWindow() throws Exception {
+            // Given
+            AttendanceWriteCoalescer coalescer = coalescer(write -> CompletableFuture.completedFuture(true));
+            coalescer.submit(write(Attendance.Status.PRESENT)).orTimeout(2, TimeUnit.SECONDS).join();
+            Thread.sleep(WINDOW.toMillis() * 3);
+
+            // When - w międzyczasie stan na serwerze mógł zmienić ktoś inny
+            coalescer.submit(write(Attendance.Status.PRESENT)).orTimeout(2, TimeUnit.SECONDS).join();
+
+            // Then
+            assertThat(sentWrites).hasSize(2);
+            assertThat(coalescer.getSkippedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Stan pary powinien zostać usunięty po oknie bezczynności")
+        void shouldDropIdleSlots() throws Exception {
+            // Given
+            AttendanceWriteCoalescer coalescer = coalescer(write -> CompletableFuture.completedFuture(true));
+            for (int i = 0; i < 20; i++) {
+                Student other = new Student("Jan", "Kowalski", "1000" + i, "INF-A");
+                coalescer.submit(new AttendanceWriteCoalescer.Write(other, 1L, Attendance.Status.PRESENT, ""));
+            }
+            assertThat(coalescer.getTrackedCount()).isEqualTo(20);
+
+            // When
+            Thread.sleep(WINDOW.toMillis() * 5);
+
+            // Then
+            assertThat(sentWrites).hasSize(20);
+            assertThat(coalescer.getTrackedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Różni studenci nie powinni się wzajemnie zastępować")
+        void shouldKeepKeysIndependent() {
+            // Given
+            AttendanceWriteCoalescer coalescer = coalescer(write -> CompletableFuture.completedFuture(true));
+            Student other = new Student("Anna", "Nowak", "654321", "INF-A");
+
+            // When
+            CompletableFuture<Boolean> first = coalescer.submit(write(Attendance.Status.PRESENT));
+            CompletableFuture<Boolean> second = coalescer.submit(
+                    new AttendanceWriteCoalescer.Write(other, 1L, Attendance.Status.ABSENT, ""));
+            CompletableFuture.allOf(first, second).orTimeout(2, TimeUnit.SECONDS).join();
+
+            // Then
+            assertThat(sentWrites).hasSize(2);
+            assertThat(coalescer.getSupersededCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Kolejność i błędy")
+    class OrderingAndErrors {
+
+        @Test
+        @DisplayName("Kolejny zapis powinien czekać na zakończenie poprzedniego")
+        void shouldSendSequentially() throws Exception {
+            // Given
+            CompletableFuture<Boolean> slowServer = new CompletableFuture<>();
+            AttendanceWriteCoalescer coalescer = coalescer(write ->
+                    write.getStatus() == Attendance.Status.PRESENT ? slowServer : CompletableFuture.completedFuture(true));
+            CompletableFuture<Boolean> first = coalescer.submit(write(Attendance.Status.PRESENT));
+            Thread.sleep(WINDOW.toMillis() * 3);
+
+            // When
+            CompletableFuture<Boolean> second = coalescer.submit(write(Attendance.Status.ABSENT));
+            Thread.sleep(WINDOW.toMillis() * 3);
+
+            // Then
+            assertThat(sentWrites).hasSize(1);
+            assertThat(second).isNotDone();
+            slowServer.complete(true);
+            assertThat(second.orTimeout(2, TimeUnit.SECONDS).join()).isTrue();
+            assertThat(first.join()).isTrue();
+            assertThat(sentWrites).extracting(AttendanceWriteCoalescer.Write::getStatus)
+                    .containsExactly(Attendance.Status.PRESENT, Attendance.Status.ABSENT);
+        }
+
+        @Test
+        @DisplayName("Zapis czekający w oknie lub trwający powinien być zgłaszany jako oczekujący")
+        void shouldReportPendingUntilWriteCompletes() throws Exception {
+            // Given
+            CompletableFuture<Boolean> slowServer = new CompletableFuture<>();
+            AttendanceWriteCoalescer coalescer = coalescer(write -> slowServer);
+
+            // When
+            CompletableFuture<Boolean> result = coalescer.submit(write(Attendance.Status.PRESENT));
+
+            // Then
+            assertThat(coalescer.hasPending("123456", 1L)).isTrue();
+            Thread.sleep(WINDOW.toMillis() * 3);
+            assertThat(sentWrites).hasSize(1);
+            assertThat(coalescer.hasPending("123456", 1L)).isTrue();
+            assertThat(coalescer.hasPending("654321", 1L)).isFalse();
+            slowServer.complete(true);
+            assertThat(result.orTimeout(2, TimeUnit.SECONDS).join()).isTrue();
+            assertThat(coalescer.hasPending("123456", 1L)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Po nieudanym zapisie ten sam stan powinien zostać wysłany ponownie")
+        void shouldResendAfterFailure() {
+            // Given
+            AttendanceWriteCoalescer coalescer = coalescer(write ->
+                    CompletableFuture.failedFuture(new RuntimeException("Brak połączenia")));
+            CompletableFuture<Boolean> failed = coalescer.submit(write(Attendance.Status.PRESENT));
+            assertThatThrownBy(() -> failed.orTimeout(2, TimeUnit.SECONDS).join())
+                    .hasRootCauseMessage("Brak połączenia");
+
+            // When
+            CompletableFuture<Boolean> retry = coalescer.submit(write(Attendance.Status.PRESENT));
+
+            // Then
+            assertThatThrownBy(() -> retry.orTimeout(2, TimeUnit.SECONDS).join()).isNotNull();
+            assertThat(sentWrites).hasSize(2);
+            assertThat(coalescer.getSkippedCount()).isZero();
+        }
+    }
+}
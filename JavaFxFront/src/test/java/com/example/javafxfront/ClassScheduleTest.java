@@ -182,6 +182,26 @@ class ClassScheduleTest {
             assertThat(schedule.getAttendanceForStudent(student1).getStatus()).isEqualTo(Attendance.Status.LATE);
         }
 
+        @Test
+        @DisplayName("Kopia terminu powinna mieć niezależną frekwencję")
+        void shouldCopyAttendancesIndependently() {
+            // Given
+            schedule.addAttendance(new Attendance(student1, schedule, Attendance.Status.PRESENT));
+            schedule.addAttendance(new Attendance(student2, schedule, Attendance.Status.LATE));
+
+            // When
+            ClassSchedule copy = schedule.copy();
+            copy.getAttendanceForStudent(student1).setStatus(Attendance.Status.ABSENT);
+            copy.removeAttendance(student2);
+
+            // Then
+            assertThat(copy.getSubject()).isEqualTo(schedule.getSubject());
+            assertThat(copy.getAbsentCount()).isEqualTo(1);
+            assertThat(schedule.getPresentCount()).isEqualTo(1);
+            assertThat(schedule.getLateCount()).isEqualTo(1);
+            assertThat(schedule.getAttendanceForStudent(student1).getStatus()).isEqualTo(Attendance.Status.PRESENT);
+        }
+
         @Test
         @DisplayName("Powinien usunąć obecność studenta")
         void shouldRemoveStudentAttendance() {
@@ -205,6 +225,45 @@ class ClassScheduleTest {
             assertThat(schedule.getAttendanceForStudent(student1)).isNull();
             assertThat(schedule.hasAttendanceForStudent(student1)).isFalse();
         }
+
+        @Test
+        @DisplayName("Lista obecności powinna być tylko do odczytu i zachować kolejność dodawania")
+        void shouldExposeReadOnlyAttendancesInInsertionOrder() {
+            // Given
+            schedule.addAttendance(new Attendance(student2, schedule, Attendance.Status.PRESENT));
+            schedule.addAttendance(new Attendance(student1, schedule, Attendance.Status.ABSENT));
+            schedule.addAttendance(new Attendance(student3, schedule, Attendance.Status.LATE));
+
+            // When
+            List<Attendance> attendances = schedule.getAttendances();
+
+            // Then
+            assertThat(attendances).extracting(a -> a.getStudent().getIndexNumber())
+                    .containsExactly("654321", "123456", "789123");
+            assertThatThrownBy(() -> attendances.add(new Attendance(student1, schedule, Attendance.Status.LATE)))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThat(schedule.getAttendances()).isSameAs(attendances);
+        }
+
+        @Test
+        @DisplayName("Powinien wyczyścić obecności i zastąpić je nową listą")
+        void shouldClearAndReplaceAttendances() {
+            // Given
+            schedule.addAttendance(new Attendance(student1, schedule, Attendance.Status.PRESENT));
+
+            // When
+            schedule.clearAttendances();
+            boolean emptyAfterClear = schedule.getAttendances().isEmpty();
+            schedule.setAttendances(List.of(
+                    new Attendance(student2, schedule, Attendance.Status.PRESENT),
+                    new Attendance(student2, schedule, Attendance.Status.ABSENT)));
+
+            // Then
+            assertThat(emptyAfterClear).isTrue();
+            assertThat(schedule.getAttendances()).singleElement()
+                    .satisfies(a -> assertThat(a.getStatus()).isEqualTo(Attendance.Status.ABSENT));
+            assertThat(schedule.hasAttendanceForStudent(student1)).isFalse();
+        }
     }
 
     @Nested
@@ -224,6 +283,40 @@ class ClassScheduleTest {
             schedule.addAttendance(new Attendance(student4, schedule, Attendance.Status.ABSENT));
         }
 
+        @Test
+        @DisplayName("Lista obecności innego terminu powinna zostać skopiowana")
+        void shouldKeepCountersOfBothSchedulesAfterSetAttendances() {
+            // Given
+            ClassSchedule other = new ClassSchedule("Bazy Danych", "Sala 102", startTime, endTime,
+                    "Dr Anna Kowalska", null, "INF-A");
+
+            // When
+            other.setAttendances(schedule.getAttendances());
+            schedule.getAttendances().get(0).setStatus(Attendance.Status.ABSENT);
+
+            // Then
+            assertThat(schedule.getPresentCount()).isEqualTo(1);
+            assertThat(schedule.getAbsentCount()).isEqualTo(2);
+            assertThat(other.getPresentCount()).isEqualTo(2);
+            assertThat(other.getAbsentCount()).isEqualTo(1);
+            assertThat(other.getAttendances().get(1).getMarkedAt())
+                    .isEqualTo(schedule.getAttendances().get(1).getMarkedAt());
+        }
+
+        @Test
+        @DisplayName("Nie powinien przyjąć obecności przechowywanej w innym terminie")
+        void shouldRejectAttendanceOwnedByAnotherSchedule() {
+            // Given
+            ClassSchedule other = new ClassSchedule("Bazy Danych", "Sala 102", startTime, endTime,
+                    "Dr Anna Kowalska", null, "INF-A");
+            Attendance owned = schedule.getAttendances().get(0);
+
+            // When / Then
+            assertThatThrownBy(() -> other.addAttendance(owned)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(other.getAttendances()).isEmpty();
+            assertThat(schedule.getPresentCount()).isEqualTo(2);
+        }
+
         @Test
         @DisplayName("Powinien liczyć obecnych studentów")
         void shouldCountPresentStudents() {
@@ -280,6 +373,51 @@ class ClassScheduleTest {
             assertThat(emptySchedule.getLateCount()).isZero();
             assertThat(emptySchedule.getAbsentCount()).isZero();
         }
+
+        @Test
+        @DisplayName("Liczniki powinny uwzględnić zmianę statusu przez Attendance.setStatus")
+        void shouldUpdateCountersOnStatusChange() {
+            // Given
+            Attendance late = schedule.getAttendanceForStudent(new Student("Piotr", "Wiśniewski", "789123", "INF-A"));
+
+            // When
+            late.setStatus(Attendance.Status.PRESENT);
+
+            // Then
+            assertThat(schedule.getPresentCount()).isEqualTo(3);
+            assertThat(schedule.getLateCount()).isZero();
+            assertThat(schedule.getCountForStatus(Attendance.Status.PRESENT)).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Liczniki powinny uwzględnić zastąpienie i usunięcie obecności")
+        void shouldUpdateCountersOnReplaceAndRemove() {
+            // Given
+            Student student1 = new Student("Jan", "Kowalski", "123456", "INF-A");
+            Attendance replaced = schedule.getAttendanceForStudent(student1);
+
+            // When
+            schedule.addAttendance(new Attendance(student1, schedule, Attendance.Status.ABSENT));
+            schedule.removeAttendance(new Student("Maria", "Kowalczyk", "111222", "INF-A"));
+            replaced.setStatus(Attendance.Status.LATE);
+
+            // Then
+            assertThat(schedule.getPresentCount()).isEqualTo(1);
+            assertThat(schedule.getLateCount()).isEqualTo(1);
+            assertThat(schedule.getAbsentCount()).isEqualTo(1);
+            assertThat(schedule.getTotalAttendanceCount()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Wyczyszczenie frekwencji powinno wyzerować liczniki")
+        void shouldResetCountersOnClear() {
+            // When
+            schedule.clearAttendances();
+
+            // Then
+            assertThat(schedule.getAttendanceSummary()).isEqualTo("Brak wpisów frekwencji");
+            assertThat(schedule.getPresentCount()).isZero();
+        }
     }
 
     @Nested
@@ -0,0 +1,91 @@
+package com.example.javafxfront;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * Testy żądań warunkowych (ETag / If-None-Match) w warstwie transportowej
+ * Sprawdzamy, że odpowiedź 304 zwraca poprzednio sparsowany wynik
+ */
+@DisplayName("Testy żądań warunkowych")
+class ConditionalRequestTest {
+
+    private static final String ETAG = "\"v1\"";
+    private static final String ATTENDANCE_JSON = "[{"
+            + "\"id\": 1, \"status\": \"PRESENT\", \"notes\": \"\", \"markedAt\": \"2024-03-15T10:05:00\","
+            + "\"student\": {\"id\": 1, \"firstName\": \"Jan\", \"lastName\": \"Kowalski\","
+            + " \"indexNumber\": \"123456\", \"group\": {\"id\": 1, \"name\": \"INF-A\"}},"
+            + "\"schedule\": {\"id\": 1, \"subject\": \"Programowanie\", \"classroom\": \"101\","
+            + " \"startTime\": \"2024-03-15T10:00:00\", \"endTime\": \"2024-03-15T12:00:00\","
+            + " \"group\": {\"id\": 1, \"name\": \"INF-A\"}}"
+            + "}]";
+
+    private WireMockServer server;
+    private HttpTransport transport;
+    private AttendanceService service;
+
+    @BeforeEach
+    void setUp() {
+        server = new WireMockServer(options().dynamicPort());
+        server.start();
+        server.stubFor(get(urlPathEqualTo("/api/attendance/schedule/1"))
+                .atPriority(2)
+                .willReturn(okJson(ATTENDANCE_JSON).withHeader("ETag", ETAG)));
+        server.stubFor(get(urlPathEqualTo("/api/attendance/schedule/1"))
+                .atPriority(1)
+                .withHeader("If-None-Match", equalTo(ETAG))
+                .willReturn(aResponse().withStatus(304).withHeader("ETag", ETAG)));
+
+        transport = new HttpTransport("http://localhost:" + server.port() + "/api");
+        service = new AttendanceService(transport);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("Powinien wysłać If-None-Match i użyć poprzedniego wyniku przy 304")
+    void shouldReuseParsedResultOnNotModified() {
+        // Given
+        List<Attendance> first = service.getAttendancesByScheduleAsync(1L).join();
+
+        // When
+        List<Attendance> second = service.getAttendancesByScheduleAsync(1L).join();
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(second).hasSize(1);
+        server.verify(1, getRequestedFor(urlPathEqualTo("/api/attendance/schedule/1"))
+                .withHeader("If-None-Match", equalTo(ETAG)));
+        assertThat(transport.getValidators().getNotModifiedCount()).isEqualTo(1);
+        assertThat(transport.getValidators().getFullResponseCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Nie powinien wysyłać walidatorów, gdy serwer ich nie podał")
+    void shouldNotSendValidatorsWithoutEtag() {
+        // Given
+        server.stubFor(get(urlPathEqualTo("/api/attendance/schedule/2"))
+                .willReturn(okJson(ATTENDANCE_JSON)));
+
+        // When
+        service.getAttendancesByScheduleAsync(2L).join();
+        service.getAttendancesByScheduleAsync(2L).join();
+
+        // Then
+        server.verify(0, getRequestedFor(urlPathEqualTo("/api/attendance/schedule/2"))
+                .withHeader("If-None-Match", matching(".*")));
+        assertThat(transport.getValidators().getNotModifiedCount()).isZero();
+    }
+}
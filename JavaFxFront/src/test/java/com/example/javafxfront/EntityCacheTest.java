@@ -0,0 +1,209 @@
+package com.example.javafxfront;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Testy jednostkowe dla klasy EntityCache
+ * Testujemy TTL, usuwanie LRU, unieważnianie i ochronę generacji
+ */
+@DisplayName("Testy klasy EntityCache")
+class EntityCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private AtomicLong clock;
+    private EntityCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        cache = new EntityCache(TTL, 3, clock::get);
+        loads = new AtomicInteger();
+    }
+
+    private CompletableFuture<List<String>> load(String value) {
+        loads.incrementAndGet();
+        return CompletableFuture.completedFuture(List.of(value));
+    }
+
+    @Nested
+    @DisplayName("Odczyt i TTL")
+    class ReadingAndTtl {
+
+        @Test
+        @DisplayName("Powinien zwrócić wartość z pamięci bez ponownego ładowania")
+        void shouldServeFreshEntryWithoutLoading() {
+            // Given
+            cache.getOrLoad(EntityCache.Keys.STUDENTS_ALL, () -> load("123456")).join();
+
+            // When
+            List<String> result = cache.<List<String>>getOrLoad(EntityCache.Keys.STUDENTS_ALL, () -> load("654321")).join();
+
+            // Then
+            assertThat(result).containsExactly("123456");
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(cache.getHits()).isEqualTo(1);
+            assertThat(cache.getMisses()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Powinien załadować ponownie po upływie TTL")
+        void shouldReloadAfterTtl() {
+            // Given
+            cache.getOrLoad(EntityCache.Keys.GROUPS_ALL, () -> load("INF-A")).join();
+
+            // When
+            clock.addAndGet(TTL.toNanos() + 1);
+            List<String> result = cache.<List<String>>getOrLoad(EntityCache.Keys.GROUPS_ALL, () -> load("INF-B")).join();
+
+            // Then
+            assertThat(result).containsExactly("INF-B");
+            assertThat(loads.get()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Powinien udostępnić przeterminowany wpis przez peek z flagą świeżości")
+        void shouldPeekStaleEntry() {
+            // Given
+            cache.getOrLoad(EntityCache.Keys.GROUPS_ALL, () -> load("INF-A")).join();
+            assertThat(cache.<List<String>>peek(EntityCache.Keys.GROUPS_ALL).isFresh()).isTrue();
+
+            // When
+            clock.addAndGet(TTL.toNanos() + 1);
+            EntityCache.CachedValue<List<String>> stale = cache.peek(EntityCache.Keys.GROUPS_ALL);
+
+            // Then
+            assertThat(stale.isFresh()).isFalse();
+            assertThat(stale.getValue()).containsExactly("INF-A");
+            assertThat(cache.<List<String>>peek(EntityCache.Keys.STUDENTS_ALL)).isNull();
+        }
+
+        @Test
+        @DisplayName("Nie powinien zapisać wyniku zakończonego błędem")
+        void shouldNotStoreFailedLoad() {
+            // When
+            CompletableFuture<List<String>> failed = cache.getOrLoad(EntityCache.Keys.GROUPS_ALL,
+                    () -> CompletableFuture.failedFuture(new RuntimeException("Serwer niedostępny")));
+
+            // Then
+            assertThat(failed).isCompletedExceptionally();
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Usuwanie LRU")
+    class LruEviction {
+
+        @Test
+        @DisplayName("Powinien usunąć najdawniej używany wpis po przekroczeniu limitu")
+        void shouldEvictLeastRecentlyUsed() {
+            // Given
+            cache.put("a", "A", cache.currentGeneration());
+            cache.put("b", "B", cache.currentGeneration());
+            cache.put("c", "C", cache.currentGeneration());
+            cache.getIfFresh("a");
+
+            // When
+            cache.put("d", "D", cache.currentGeneration());
+
+            // Then
+            assertThat(cache.keys()).containsExactly("c", "a", "d");
+            assertThat(cache.getEvictions()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Unieważnianie")
+    class Invalidation {
+
+        @Test
+        @DisplayName("Powinien unieważnić tylko podane klucze")
+        void shouldInvalidateOnlyGivenKeys() {
+            // Given
+            cache.put(EntityCache.Keys.STUDENTS_ALL, List.of(), cache.currentGeneration());
+            cache.put(EntityCache.Keys.GROUPS_ALL, List.of(), cache.currentGeneration());
+
+            // When
+            cache.invalidate(EntityCache.Keys.STUDENTS_ALL);
+
+            // Then
+            assertThat(cache.keys()).containsExactly(EntityCache.Keys.GROUPS_ALL);
+        }
+
+        @Test
+        @DisplayName("Powinien unieważnić wszystkie klucze z prefiksem")
+        void shouldInvalidateByPrefix() {
+            // Given
+            cache.put(EntityCache.Keys.STUDENTS_ALL, List.of(), cache.currentGeneration());
+            cache.put(EntityCache.Keys.studentsOfGroup("INF-A"), List.of(), cache.currentGeneration());
+
+            // When
+            cache.invalidatePrefix(EntityCache.Keys.STUDENTS);
+
+            // Then
+            assertThat(cache.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Nie powinien zapisać ładowania rozpoczętego przed unieważnieniem")
+        void shouldDiscardLoadStartedBeforeInvalidation() {
+            // Given
+            CompletableFuture<List<String>> slowResponse = new CompletableFuture<>();
+            CompletableFuture<List<String>> result = cache.getOrLoad(EntityCache.Keys.STUDENTS_ALL, () -> slowResponse);
+
+            // When
+            cache.invalidate(EntityCache.Keys.STUDENTS_ALL);
+            slowResponse.complete(List.of("stale"));
+
+            // Then
+            assertThat(result.join()).containsExactly("stale");
+            assertThat((Object) cache.getIfFresh(EntityCache.Keys.STUDENTS_ALL)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Aktualizacja wpisu")
+    class Update {
+
+        @Test
+        @DisplayName("Powinien zastąpić wartość bez zmiany wieku wpisu")
+        void shouldReplaceValueKeepingAge() {
+            // Given
+            cache.put(EntityCache.Keys.STUDENTS_ALL, List.of("a"), cache.currentGeneration());
+            clock.addAndGet(TTL.toNanos() + 1);
+
+            // When
+            boolean updated = cache.update(EntityCache.Keys.STUDENTS_ALL, (List<String> list) -> List.of("b"));
+
+            // Then
+            EntityCache.CachedValue<List<String>> peeked = cache.peek(EntityCache.Keys.STUDENTS_ALL);
+            assertThat(updated).isTrue();
+            assertThat(peeked.getValue()).containsExactly("b");
+            assertThat(peeked.isFresh()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Nie powinien tworzyć brakującego wpisu")
+        void shouldIgnoreMissingKey() {
+            // When
+            boolean updated = cache.update(EntityCache.Keys.STUDENTS_ALL, (List<String> list) -> List.of("b"));
+
+            // Then
+            assertThat(updated).isFalse();
+            assertThat(cache.size()).isZero();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.javafxfront;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Testy klienta pakietu grupy
+ * Sprawdzamy dekodowanie macierzy frekwencji i powrót do osobnych endpointów
+ */
+@DisplayName("Testy klienta pakietu grupy")
+class GroupBundleClientTest {
+
+    private static final String STUDENTS = "[{\"firstName\": \"Jan\", \"lastName\": \"Kowalski\", \"indexNumber\": \"123456\"},"
+            + " {\"firstName\": \"Anna\", \"lastName\": \"Nowak\", \"indexNumber\": \"654321\"}]";
+    private static final String SCHEDULES = "[{\"id\": 42, \"subject\": \"Programowanie\", \"classroom\": \"101\","
+            + " \"startTime\": \"2024-03-15T10:00:00\", \"endTime\": \"2024-03-15T12:00:00\"},"
+            + " {\"id\": 43, \"subject\": \"Bazy danych\", \"classroom\": \"102\","
+            + " \"startTime\": \"2024-03-22T10:00:00\", \"endTime\": \"2024-03-22T12:00:00\"}]";
+
+    private WireMockServer server;
+    private HttpTransport transport;
+    private GroupBundleClient client;
+
+    @BeforeEach
+    void setUp() {
+        server = new WireMockServer(options().dynamicPort());
+        server.start();
+        transport = new HttpTransport("http://localhost:" + server.port() + "/api");
+        client = new GroupBundleClient(transport);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Nested
+    @DisplayName("Pakiet z serwera")
+    class FromBundle {
+
+        @Test
+        @DisplayName("Powinien zdekodować macierz frekwencji do terminów")
+        void shouldDecodeAttendanceMatrix() {
+            // Given
+            server.stubFor(get(urlPathEqualTo("/api/groups/INF-A/bundle")).willReturn(okJson("{"
+                    + "\"students\": " + STUDENTS + ","
+                    + "\"schedules\": " + SCHEDULES + ","
+                    + "\"attendance\": {"
+                    + "  \"123456\": {\"42\": \"P\", \"43\": [\"L\", \"Spóźnienie 10 min\", \"2024-03-22T10:10:00\"]},"
+                    + "  \"654321\": {\"42\": \"ABSENT\"},"
+                    + "  \"999999\": {\"42\": \"P\"}"
+                    + "}}")));
+
+            // When
+            GroupBundleClient.Bundle bundle = client.fetchGroupBundleAsync("INF-A").join();
+
+            // Then
+            assertThat(bundle.isFromBundle()).isTrue();
+            assertThat(bundle.getAttendanceCount()).isEqualTo(3);
+            assertThat(bundle.getStudents()).extracting(Student::getGroupName).containsOnly("INF-A");
+            ClassSchedule first = bundle.getSchedules().get(0);
+            ClassSchedule second = bundle.getSchedules().get(1);
+            assertThat(first.getAttendances()).hasSize(2);
+            assertThat(second.getAttendances()).singleElement().satisfies(attendance -> {
+                assertThat(attendance.getStudent()).isSameAs(bundle.getStudents().get(0));
+                assertThat(attendance.getStatus()).isEqualTo(Attendance.Status.LATE);
+                assertThat(attendance.getNotes()).isEqualTo("Spóźnienie 10 min");
+                assertThat(attendance.getMarkedAt()).isEqualTo(LocalDateTime.of(2024, 3, 22, 10, 10));
+            });
+            assertThat(server.getAllServeEvents()).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Macierz przed listami powinna zostać zdekodowana po ich odczytaniu")
+        void shouldDecodeMatrixSentBeforeLists() {
+            // Given
+            server.stubFor(get(urlPathEqualTo("/api/groups/INF-A/bundle")).willReturn(okJson("{"
+                    + "\"attendance\": {\"654321\": {\"43\": \"P\"}},"
+                    + "\"students\": " + STUDENTS + ","
+                    + "\"schedules\": " + SCHEDULES + "}")));
+
+            // When
+            GroupBundleClient.Bundle bundle = client.fetchGroupBundleAsync("INF-A").join();
+
+            // Then
+            assertThat(bundle.getAttendanceCount()).isEqualTo(1);
+            assertThat(bundle.getSchedules().get(1).getAttendances()).singleElement()
+                    .satisfies(attendance -> assertThat(attendance.getStudent().getIndexNumber()).isEqualTo("654321"));
+        }
+
+        @Test
+        @DisplayName("Powinien zapisać listy w pamięci podręcznej")
+        void shouldPopulateCache() {
+            // Given
+            server.stubFor(get(urlPathEqualTo("/api/groups/INF-A/bundle")).willReturn(okJson("{"
+                    + "\"students\": " + STUDENTS + ", \"schedules\": " + SCHEDULES + "}")));
+
+            // When
+            client.fetchGroupBundleAsync("INF-A").join();
+
+            // Then
+            List<Student> cached = new StudentService(transport).getStudentsByGroupAsync("INF-A").join();
+            assertThat(cached).hasSize(2);
+            server.verify(0, getRequestedFor(urlPathMatching("/api/students/.*")));
+        }
+
+        @Test
+        @DisplayName("Pamięć podręczna powinna przechowywać kopie terminów zwróconych wywołującemu")
+        void shouldCacheCopiesOfReturnedSchedules() {
+            // Given
+            server.stubFor(get(urlPathEqualTo("/api/groups/INF-A/bundle")).willReturn(okJson("{"
+                    + "\"students\": " + STUDENTS + ", \"schedules\": " + SCHEDULES + ","
+                    + " \"attendance\": {\"123456\": {\"42\": \"P\"}}}")));
+            GroupBundleClient.Bundle bundle = client.fetchGroupBundleAsync("INF-A").join();
+
+            // When
+            bundle.getSchedules().get(0).clearAttendances();
+
+            // Then
+            List<ClassSchedule> cached = new ScheduleService(transport).getSchedulesByGroupAsync("INF-A").join();
+            assertThat(cached.get(0)).isNotSameAs(bundle.getSchedules().get(0));
+            assertThat(cached.get(0).getPresentCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Równoległe pobrania tej samej grupy powinny dostać osobne terminy")
+        void shouldGiveEachOverlappingCallerOwnSchedules() {
+            // Given
+            server.stubFor(get(urlPathEqualTo("/api/groups/INF-A/bundle")).willReturn(okJson("{"
+                    + "\"students\": " + STUDENTS + ", \"schedules\": " + SCHEDULES + ","
+                    + " \"attendance\": {\"123456\": {\"42\": \"P\"}}}").withFixedDelay(300)));
+
+            // When
+            var first = client.fetchGroupBundleAsync("INF-A");
+            var second = client.fetchGroupBundleAsync("INF-A");
+            GroupBundleClient.Bundle firstBundle = first.join();
+            GroupBundleClient.Bundle secondBundle = second.join();
+            firstBundle.getSchedules().get(0).clearAttendances();
+
+            // Then
+            server.verify(1, getRequestedFor(urlPathEqualTo("/api/groups/INF-A/bundle")));
+            assertThat(firstBundle.getSchedules().get(0)).isNotSameAs(secondBundle.getSchedules().get(0));
+            assertThat(secondBundle.getSchedules().get(0).getPresentCount()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Serwer bez pakietu")
+    class Fallback {
+
+        @Test
+        @DisplayName("Powinien pobrać dane z osobnych endpointów i zapamiętać brak pakietu")
+        void shouldFallBackToPerEndpointCalls() {
+            // Given
+            server.stubFor(get(urlPathEqualTo("/api/groups/INF-A/bundle")).willReturn(aResponse().withStatus(404)));
+            server.stubFor(get(urlPathEqualTo("/api/students/group/INF-A")).willReturn(okJson(STUDENTS)));
+            server.stubFor(get(urlPathEqualTo("/api/schedules/group/INF-A")).willReturn(okJson(SCHEDULES)));
+            server.stubFor(get(urlPathMatching("/api/attendance/schedule/.*")).willReturn(okJson("[]")));
+            server.stubFor(get(urlPathEqualTo("/api/attendance/schedule/42")).willReturn(okJson("[{"
+                    + "\"id\": 1, \"status\": \"PRESENT\", \"notes\": \"\", \"markedAt\": \"2024-03-15T10:05:00\","
+                    + "\"student\": {\"id\": 1, \"firstName\": \"Jan\", \"lastName\": \"Kowalski\", \"indexNumber\": \"123456\"},"
+                    + "\"schedule\": {\"id\": 42, \"subject\": \"Programowanie\", \"classroom\": \"101\","
+                    + " \"startTime\": \"2024-03-15T10:00:00\", \"endTime\": \"2024-03-15T12:00:00\"}"
+                    + "}]")));
+
+            // When
+            GroupBundleClient.Bundle bundle = client.fetchGroupBundleAsync("INF-A").join();
+
+            // Then
+            assertThat(bundle.isFromBundle()).isFalse();
+            assertThat(client.isBundleAvailable()).isFalse();
+            assertThat(bundle.getStudents()).hasSize(2);
+            assertThat(bundle.getAttendanceCount()).isEqualTo(1);
+            assertThat(bundle.getSchedules().get(0).getAttendances()).singleElement()
+                    .satisfies(attendance -> assertThat(attendance.getStudent()).isSameAs(bundle.getStudents().get(0)));
+            server.verify(2, getRequestedFor(urlPathMatching("/api/attendance/schedule/.*")));
+        }
+
+        @Test
+        @DisplayName("Brak pakietu powinien być pamiętany przez wszystkich klientów transportu")
+        void shouldShareUnsupportedBundleAcrossClients() {
+            // Given
+            server.stubFor(get(urlPathEqualTo("/api/groups/INF-A/bundle")).willReturn(aResponse().withStatus(404)));
+            server.stubFor(get(urlPathEqualTo("/api/students/group/INF-A")).willReturn(okJson(STUDENTS)));
+            server.stubFor(get(urlPathEqualTo("/api/schedules/group/INF-A")).willReturn(okJson(SCHEDULES)));
+            server.stubFor(get(urlPathMatching("/api/attendance/schedule/.*")).willReturn(okJson("[]")));
+            client.fetchGroupBundleAsync("INF-A").join();
+
+            // When
+            GroupBundleClient otherWindow = new GroupBundleClient(transport);
+            otherWindow.fetchGroupBundleAsync("INF-A").join();
+
+            // Then
+            assertThat(otherWindow.isBundleAvailable()).isFalse();
+            server.verify(1, getRequestedFor(urlPathEqualTo("/api/groups/INF-A/bundle")));
+        }
+
+        @Test
+        @DisplayName("Nie powinien zmieniać terminów z pamięci podręcznej")
+        void shouldNotMutateCachedSchedules() {
+            // Given
+            server.stubFor(get(urlPathEqualTo("/api/groups/INF-A/bundle")).willReturn(aResponse().withStatus(404)));
+            server.stubFor(get(urlPathEqualTo("/api/students/group/INF-A")).willReturn(okJson(STUDENTS)));
+            server.stubFor(get(urlPathEqualTo("/api/schedules/group/INF-A")).willReturn(okJson(SCHEDULES)));
+            server.stubFor(get(urlPathMatching("/api/attendance/schedule/.*")).willReturn(okJson("[]")));
+            server.stubFor(get(urlPathEqualTo("/api/attendance/schedule/42")).willReturn(okJson("[{"
+                    + "\"id\": 1, \"status\": \"LATE\", \"notes\": \"\", \"markedAt\": \"2024-03-15T10:05:00\","
+                    + "\"student\": {\"id\": 1, \"firstName\": \"Jan\", \"lastName\": \"Kowalski\", \"indexNumber\": \"123456\"},"
+                    + "\"schedule\": {\"id\": 42, \"subject\": \"Programowanie\", \"classroom\": \"101\","
+                    + " \"startTime\": \"2024-03-15T10:00:00\", \"endTime\": \"2024-03-15T12:00:00\"}"
+                    + "}]")));
+            List<ClassSchedule> cached = new ScheduleService(transport).getSchedulesByGroupAsync("INF-A").join();
+
+            // When
+            GroupBundleClient.Bundle bundle = client.fetchGroupBundleAsync("INF-A").join();
+
+            // Then
+            assertThat(bundle.getSchedules().get(0)).isNotSameAs(cached.get(0));
+            assertThat(bundle.getSchedules().get(0).getLateCount()).isEqualTo(1);
+            assertThat(cached.get(0).getAttendances()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.javafxfront;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testy jednostkowe dla klasy JsonStreamReader
+ * Testujemy strumieniowe czytanie tablic JSON i konwersję elementów
+ */
+@DisplayName("Testy klasy JsonStreamReader")
+class JsonStreamReaderTest {
+
+    private JsonStreamReader reader;
+
+    static class StudentDto {
+        public String firstName;
+        public String lastName;
+        public String indexNumber;
+    }
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        reader = new JsonStreamReader(objectMapper);
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Student toStudent(StudentDto dto) {
+        return new Student(dto.firstName, dto.lastName, dto.indexNumber, null);
+    }
+
+    @Nested
+    @DisplayName("Czytanie tablic")
+    class ReadingArrays {
+
+        @Test
+        @DisplayName("Powinien skonwertować wszystkie elementy w kolejności")
+        void shouldConvertAllElementsInOrder() throws IOException {
+            // Given
+            String json = "[{\"firstName\":\"Jan\",\"lastName\":\"Kowalski\",\"indexNumber\":\"123456\",\"extra\":1},"
+                    + "{\"firstName\":\"Anna\",\"lastName\":\"Nowak\",\"indexNumber\":\"654321\"}]";
+
+            // When
+            List<Student> students = reader.readArray(stream(json), StudentDto.class, JsonStreamReaderTest::toStudent);
+
+            // Then
+            assertThat(students).extracting(Student::getIndexNumber).containsExactly("123456", "654321");
+            assertThat(students.get(0).getFullName()).isEqualTo("Jan Kowalski");
+        }
+
+        @Test
+        @DisplayName("Powinien konwertować elementy w trakcie czytania")
+        void shouldConvertWhileReading() throws IOException {
+            // Given
+            List<String> converted = new ArrayList<>();
+            String json = "[{\"indexNumber\":\"111111\"},{\"indexNumber\":\"222222\"}]";
+
+            // When
+            reader.readArray(stream(json), StudentDto.class, dto -> {
+                converted.add(dto.indexNumber);
+                return dto;
+            });
+
+            // Then
+            assertThat(converted).containsExactly("111111", "222222");
+        }
+
+        @Test
+        @DisplayName("Powinien zwrócić pustą listę dla pustej tablicy, null i pustej treści")
+        void shouldReturnEmptyListForEmptyInput() throws IOException {
+            assertThat(reader.readArray(stream("[]"), StudentDto.class, JsonStreamReaderTest::toStudent)).isEmpty();
+            assertThat(reader.readArray(stream("null"), StudentDto.class, JsonStreamReaderTest::toStudent)).isEmpty();
+            assertThat(reader.readArray(stream(""), StudentDto.class, JsonStreamReaderTest::toStudent)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Czytanie porcjami")
+    class ReadingInChunks {
+
+        @Test
+        @DisplayName("Powinien przekazać pełne porcje i ostatnią niepełną")
+        void shouldDeliverFullChunksAndRemainder() throws IOException {
+            // Given
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < 7; i++) {
+                json.append(i > 0 ? "," : "").append("{\"indexNumber\":\"10000").append(i).append("\"}");
+            }
+            json.append("]");
+            List<List<Student>> chunks = new ArrayList<>();
+
+            // When
+            int total = reader.readArrayInChunks(stream(json.toString()), StudentDto.class,
+                    JsonStreamReaderTest::toStudent, 3, chunks::add);
+
+            // Then
+            assertThat(total).isEqualTo(7);
+            assertThat(chunks).extracting(List::size).containsExactly(3, 3, 1);
+            assertThat(chunks.get(2).get(0).getIndexNumber()).isEqualTo("100006");
+        }
+
+        @Test
+        @DisplayName("Nie powinien wywołać konsumenta dla pustej tablicy")
+        void shouldNotCallConsumerForEmptyArray() throws IOException {
+            // Given
+            List<List<Student>> chunks = new ArrayList<>();
+
+            // When
+            int total = reader.readArrayInChunks(stream("[]"), StudentDto.class,
+                    JsonStreamReaderTest::toStudent, 3, chunks::add);
+
+            // Then
+            assertThat(total).isZero();
+            assertThat(chunks).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Powinien odrzucić niedodatni rozmiar porcji")
+        void shouldRejectNonPositiveChunkSize() {
+            assertThatThrownBy(() -> reader.readArrayInChunks(stream("[]"), StudentDto.class,
+                    JsonStreamReaderTest::toStudent, 0, chunk -> {}))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Obsługa błędów")
+    class ErrorHandling {
+
+        @Test
+        @DisplayName("Powinien odrzucić obiekt zamiast tablicy")
+        void shouldRejectObjectInsteadOfArray() {
+            assertThatThrownBy(() -> reader.readArray(stream("{\"firstName\":\"Jan\"}"),
+                    StudentDto.class, JsonStreamReaderTest::toStudent))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("Oczekiwano tablicy JSON");
+        }
+
+        @Test
+        @DisplayName("Powinien odrzucić uciętą tablicę")
+        void shouldRejectTruncatedArray() {
+            assertThatThrownBy(() -> reader.readArray(stream("[{\"firstName\":\"Jan\"},"),
+                    StudentDto.class, JsonStreamReaderTest::toStudent))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.javafxfront;
+
+import javafx.animation.AnimationTimer;
+import javafx.collections.FXCollections;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.api.FxRobot;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark przewijania listy terminów.
+ *
+ * <p>Przewija {@link ListView} z {@value #SCHEDULES} terminami krokami po
+ * {@value #STEP} wierszy i porównuje dawną komórkę (nowe drzewo węzłów i style
+ * inline przy każdym {@code updateItem}) z {@link ScheduleListCell}, która
+ * buduje węzły raz. Mierzone są:</p>
+ * <ul>
+ *   <li><strong>alokacje wątku JavaFX</strong> - suma wag zdarzeń JFR
+ *       {@code jdk.ObjectAllocationSample} w przeliczeniu na sekundę</li>
+ *   <li><strong>czas klatki</strong> - odstępy między pulsami {@link AnimationTimer}
+ *       (średnia i 95. percentyl)</li>
+ * </ul>
+ *
+ * <p>Nie jest uruchamiany w fazie {@code test}. Monocle ({@code org.testfx:openjfx-monocle})
+ * jest zależnością testową, więc bez ekranu wystarczy:
+ * {@code mvn test -Dtest=ListCellScrollBenchmark -Dtestfx.headless=true
+ * -Dglass.platform=Monocle -Dmonocle.platform=Headless}. Na Linuksie układ tekstu
+ * JavaFX wymaga systemowej biblioteki Pango ({@code libpangoft2-1.0}).</p>
+ */
+@ExtendWith(ApplicationExtension.class)
+@DisplayName("Benchmark przewijania list")
+class ListCellScrollBenchmark {
+
+    private static final int SCHEDULES = 2000;
+    private static final int STEP = 7;
+    private static final int WARMUP_PASSES = 1;
+    private static final String FX_THREAD = "JavaFX Application Thread";
+
+    private ListView<ClassSchedule> listView;
+
+    @Start
+    void start(Stage stage) {
+        List<ClassSchedule> schedules = new ArrayList<>(SCHEDULES);
+        Student student = new Student("Jan", "Kowalski", "123456", "INF-A");
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 8, 0);
+        for (int i = 0; i < SCHEDULES; i++) {
+            ClassSchedule schedule = new ClassSchedule(i % 3 == 0 ? null : (long) i, "Przedmiot " + i, "101",
+                    start.plusHours(i), start.plusHours(i + 2), "Dr Nowak", null, "INF-A", start);
+            if (i % 2 == 0) {
+                schedule.addAttendance(new Attendance(student, schedule, Attendance.Status.values()[i % 3]));
+            }
+            schedules.add(schedule);
+        }
+
+        listView = new ListView<>(FXCollections.observableArrayList(schedules));
+        Scene scene = new Scene(listView, 420, 800);
+        scene.getStylesheets().add(HelloApplication.class.getResource("styles.css").toExternalForm());
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    @Test
+    @DisplayName("2000 terminów: nowe węzły w updateItem vs węzły budowane raz")
+    void compareScrolling(FxRobot robot) {
+        ScrollResult legacy = measure(robot, LegacyScheduleListCell::new);
+        ScrollResult reusing = measure(robot, ScheduleListCell::new);
+
+        System.out.printf("%n=== Przewijanie %d terminów co %d wierszy ===%n", SCHEDULES, STEP);
+        System.out.printf("nowe węzły w updateItem : %8.1f MB/s, klatka śr. %5.2f ms, p95 %5.2f ms%n",
+                legacy.allocationRate(), legacy.meanFrameMillis, legacy.p95FrameMillis);
+        System.out.printf("węzły budowane raz      : %8.1f MB/s, klatka śr. %5.2f ms, p95 %5.2f ms%n",
+                reusing.allocationRate(), reusing.meanFrameMillis, reusing.p95FrameMillis);
+
+        assertThat(reusing.allocatedBytes).isLessThan(legacy.allocatedBytes);
+    }
+
+    private ScrollResult measure(FxRobot robot, Supplier<ListCell<ClassSchedule>> cellFactory) {
+        robot.interact(() -> {
+            listView.setCellFactory(view -> cellFactory.get());
+            listView.scrollTo(0);
+        });
+        for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+            scrollThrough(robot);
+        }
+
+        AtomicLong allocated = new AtomicLong();
+        List<Long> frameGaps = new ArrayList<>();
+        AnimationTimer frameTimer = new AnimationTimer() {
+            private long last;
+
+            @Override
+            public void handle(long now) {
+                if (last != 0) {
+                    frameGaps.add(now - last);
+                }
+                last = now;
+            }
+        };
+
+        long elapsedNanos;
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.ObjectAllocationSample").with("throttle", "1000/s");
+            recording.onEvent("jdk.ObjectAllocationSample", event -> {
+                RecordedThread thread = event.getThread("eventThread");
+                if (thread != null && FX_THREAD.equals(thread.getJavaName())) {
+                    allocated.addAndGet(event.getLong("weight"));
+                }
+            });
+            recording.startAsync();
+
+            robot.interact(frameTimer::start);
+            long started = System.nanoTime();
+            scrollThrough(robot);
+            elapsedNanos = System.nanoTime() - started;
+            robot.interact(frameTimer::stop);
+
+            recording.stop();
+            recording.awaitTermination(Duration.ofSeconds(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+
+        return new ScrollResult(allocated.get(), elapsedNanos, frameGaps);
+    }
+
+    private void scrollThrough(FxRobot robot) {
+        for (int row = 0; row < SCHEDULES; row += STEP) {
+            int target = row;
+            robot.interact(() -> listView.scrollTo(target));
+            WaitForAsyncUtils.waitForFxEvents();
+        }
+    }
+
+    /**
+     * Wynik jednego przewinięcia.
+     */
+    private static final class ScrollResult {
+        private final long allocatedBytes;
+        private final long elapsedNanos;
+        private final double meanFrameMillis;
+        private final double p95FrameMillis;
+
+        ScrollResult(long allocatedBytes, long elapsedNanos, List<Long> frameGaps) {
+            this.allocatedBytes = allocatedBytes;
+            this.elapsedNanos = elapsedNanos;
+            List<Long> sorted = new ArrayList<>(frameGaps);
+            sorted.sort(null);
+            this.meanFrameMillis = sorted.stream().mapToLong(Long::longValue).average().orElse(0) / 1_000_000.0;
+            this.p95FrameMillis = sorted.isEmpty() ? 0
+                    : sorted.get((int) Math.min(sorted.size() - 1, Math.round(sorted.size() * 0.95))) / 1_000_000.0;
+        }
+
+        double allocationRate() {
+            return allocatedBytes / (1024.0 * 1024.0) / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+
+    /**
+     * Dawna komórka: nowe drzewo węzłów i style inline przy każdym {@code updateItem}.
+     */
+    private static final class LegacyScheduleListCell extends ListCell<ClassSchedule> {
+        @Override
+        protected void updateItem(ClassSchedule schedule, boolean empty) {
+            super.updateItem(schedule, empty);
+            if (empty || schedule == null) {
+                setGraphic(null);
+                setText(null);
+                return;
+            }
+
+            VBox cellContent = new VBox(3);
+            cellContent.getStyleClass().add("schedule-cell");
+
+            Label subjectLabel = new Label(schedule.getSubject());
+            subjectLabel.getStyleClass().add("schedule-subject");
+
+            Label dateTimeLabel = new Label("Data: " + schedule.getFormattedStartTime() + " - " + schedule.getFormattedEndTime());
+            dateTimeLabel.getStyleClass().add("schedule-datetime");
+
+            Label sourceLabel = new Label();
+            if (schedule.isFromServer()) {
+                sourceLabel.setText("🔵 Serwer (ID: " + schedule.getId() + ")");
+                sourceLabel.setStyle("-fx-text-fill: #38A169; -fx-font-size: 11px; -fx-font-weight: bold;");
+            } else {
+                sourceLabel.setText("🔴 Lokalny");
+                sourceLabel.setStyle("-fx-text-fill: #E53E3E; -fx-font-size: 11px; -fx-font-weight: bold;");
+            }
+
+            Label attendanceLabel = new Label(schedule.getAttendanceSummary());
+            if (schedule.getTotalAttendanceCount() > 0) {
+                attendanceLabel.setStyle("-fx-text-fill: #212529; -fx-font-weight: bold; -fx-font-size: 12px;");
+                HBox statsBox = new HBox(10);
+                Label presentLabel = new Label("✅ " + schedule.getPresentCount());
+                presentLabel.setStyle("-fx-text-fill: #38A169; -fx-font-size: 11px; -fx-font-weight: bold;");
+                Label lateLabel = new Label("⏰ " + schedule.getLateCount());
+                lateLabel.setStyle("-fx-text-fill: #F56500; -fx-font-size: 11px; -fx-font-weight: bold;");
+                Label absentLabel = new Label("❌ " + schedule.getAbsentCount());
+                absentLabel.setStyle("-fx-text-fill: #E53E3E; -fx-font-size: 11px; -fx-font-weight: bold;");
+                statsBox.getChildren().addAll(presentLabel, lateLabel, absentLabel);
+                cellContent.getChildren().addAll(subjectLabel, dateTimeLabel, sourceLabel, attendanceLabel, statsBox);
+            } else {
+                attendanceLabel.setStyle("-fx-text-fill: #6C757D; -fx-font-style: italic; -fx-font-size: 12px;");
+                cellContent.getChildren().addAll(subjectLabel, dateTimeLabel, sourceLabel, attendanceLabel);
+            }
+
+            Label clickHintLabel = new Label("💡 Kliknij aby zarządzać frekwencją");
+            clickHintLabel.setStyle("-fx-text-fill: #6C757D; -fx-font-size: 10px; -fx-font-style: italic;");
+            cellContent.getChildren().add(clickHintLabel);
+
+            Label syncLabel = new Label(schedule.isFromServer()
+                    ? "🔄 Synchronizacja z serwerem dostępna" : "⚠️ Tylko dane lokalne");
+            syncLabel.setStyle(schedule.isFromServer()
+                    ? "-fx-text-fill: #38A169; -fx-font-size: 9px; -fx-font-style: italic;"
+                    : "-fx-text-fill: #E53E3E; -fx-font-size: 9px; -fx-font-style: italic;");
+            cellContent.getChildren().add(syncLabel);
+
+            setGraphic(cellContent);
+            setText(null);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.javafxfront;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.SelectionModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Testy uzgadniania list z odpowiedzią serwera
+ * Sprawdzamy minimalne operacje, zachowanie instancji i zaznaczenia
+ */
+@DisplayName("Testy uzgadniania list")
+class ListReconcilerTest {
+
+    private ObservableList<Student> students;
+    private List<String> changes;
+    private ListReconciler<Student, String> reconciler;
+
+    @BeforeEach
+    void setUp() {
+        students = FXCollections.observableArrayList();
+        changes = new ArrayList<>();
+        reconciler = new ListReconciler<>(Student::getIndexNumber, ListReconciler::sameStudent);
+    }
+
+    private static Student student(String index) {
+        return new Student("Jan", "Kowalski " + index, index, "INF-A");
+    }
+
+    private static List<Student> students(String... indexes) {
+        List<Student> result = new ArrayList<>();
+        for (String index : indexes) {
+            result.add(student(index));
+        }
+        return result;
+    }
+
+    private List<String> indexes() {
+        return students.stream().map(Student::getIndexNumber).toList();
+    }
+
+    private void recordChanges() {
+        students.addListener((ListChangeListener<Student>) change -> {
+            while (change.next()) {
+                if (change.wasReplaced()) {
+                    changes.add("~" + change.getFrom());
+                } else if (change.wasAdded()) {
+                    changes.add("+" + change.getFrom() + ":" + change.getAddedSize());
+                } else if (change.wasRemoved()) {
+                    changes.add("-" + change.getFrom() + ":" + change.getRemovedSize());
+                }
+            }
+        });
+    }
+
+    @Nested
+    @DisplayName("Minimalne operacje")
+    class Operations {
+
+        @Test
+        @DisplayName("Ta sama zawartość nie zmienia listy ani instancji")
+        void shouldNotTouchUnchangedList() {
+            // Given
+            students.setAll(students("100001", "100002", "100003"));
+            List<Student> before = new ArrayList<>(students);
+            recordChanges();
+
+            // When
+            ListReconciler.Result result = reconciler.reconcile(students, students("100001", "100002", "100003"));
+
+            // Then
+            assertThat(changes).isEmpty();
+            assertThat(result.isChanged()).isFalse();
+            assertThat(result.getUnchanged()).isEqualTo(3);
+            for (int i = 0; i < before.size(); i++) {
+                assertThat(students.get(i)).isSameAs(before.get(i));
+            }
+        }
+
+        @Test
+        @DisplayName("Nowe elementy obok siebie trafiają do listy jednym addAll")
+        void shouldInsertRunsInOneChange() {
+            // Given
+            students.setAll(students("100001", "100004"));
+            recordChanges();
+
+            // When
+            ListReconciler.Result result = reconciler.reconcile(students,
+                    students("100001", "100002", "100003", "100004", "100005"));
+
+            // Then
+            assertThat(indexes()).containsExactly("100001", "100002", "100003", "100004", "100005");
+            assertThat(changes).containsExactly("+1:2", "+4:1");
+            assertThat(result.getInserted()).isEqualTo(3);
+            assertThat(result.getUnchanged()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Usunięte elementy obok siebie znikają jednym remove")
+        void shouldRemoveRunsInOneChange() {
+            // Given
+            students.setAll(students("100001", "100002", "100003", "100004"));
+            recordChanges();
+
+            // When
+            ListReconciler.Result result = reconciler.reconcile(students, students("100001", "100004"));
+
+            // Then
+            assertThat(indexes()).containsExactly("100001", "100004");
+            assertThat(changes).containsExactly("-1:2");
+            assertThat(result.getRemoved()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Zmieniona treść zastępuje tylko ten jeden element")
+        void shouldReplaceOnlyChangedItem() {
+            // Given
+            students.setAll(students("100001", "100002", "100003"));
+            Student first = students.get(0);
+            recordChanges();
+            Student renamed = new Student("Anna", "Nowak", "100002", "INF-A");
+
+            // When
+            ListReconciler.Result result = reconciler.reconcile(students,
+                    List.of(student("100001"), renamed, student("100003")));
+
+            // Then
+            assertThat(changes).containsExactly("~1");
+            assertThat(students.get(1)).isSameAs(renamed);
+            assertThat(students.get(0)).isSameAs(first);
+            assertThat(result.getUpdated()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Przeniesienie jednego elementu nie rusza pozostałych")
+        void shouldMoveOnlyDisplacedItem() {
+            // Given
+            students.setAll(students("100001", "100002", "100003", "100004", "100005"));
+            Student moved = students.get(4);
+            recordChanges();
+
+            // When
+            ListReconciler.Result result = reconciler.reconcile(students,
+                    students("100005", "100001", "100002", "100003", "100004"));
+
+            // Then
+            assertThat(indexes()).containsExactly("100005", "100001", "100002", "100003", "100004");
+            assertThat(result.getMoved()).isEqualTo(1);
+            assertThat(result.getInserted()).isZero();
+            assertThat(changes).containsExactly("-4:1", "+0:1");
+            assertThat(students.get(0)).isNotSameAs(moved);
+        }
+
+        @Test
+        @DisplayName("Pusta lista docelowa jest wypełniana jednym setAll")
+        void shouldFillEmptyListAtOnce() {
+            // Given
+            recordChanges();
+
+            // When
+            reconciler.reconcile(students, students("100001", "100002"));
+
+            // Then
+            assertThat(changes).containsExactly("+0:2");
+        }
+    }
+
+    @Nested
+    @DisplayName("Zaznaczenie")
+    class Selection {
+
+        @Test
+        @DisplayName("Zaznaczenie wraca na element o tym samym kluczu")
+        void shouldRestoreSelectionByKey() {
+            // Given
+            students.setAll(students("100001", "100002", "100003"));
+            StubSelectionModel<Student> selection = new StubSelectionModel<>(students);
+            selection.clearAndSelect(2);
+            ListReconciler<Student, String> withSelection = new ListReconciler<>(
+                    Student::getIndexNumber, ListReconciler::sameStudent, selection);
+            Student renamed = new Student("Anna", "Nowak", "100003", "INF-A");
+            // Zastąpienie zaznaczonego elementu czyści zaznaczenie w modelu
+            students.addListener((ListChangeListener<Student>) change -> selection.clearSelection());
+
+            // When
+            withSelection.reconcile(students, List.of(student("100000"), student("100001"), renamed));
+
+            // Then
+            assertThat(selection.getSelectedIndex()).isEqualTo(2);
+            assertThat(selection.getSelectedItem()).isSameAs(renamed);
+        }
+
+        @Test
+        @DisplayName("Brak zaznaczonego klucza w nowej liście nie zaznacza niczego innego")
+        void shouldNotSelectWhenKeyIsGone() {
+            // Given
+            students.setAll(students("100001", "100002"));
+            StubSelectionModel<Student> selection = new StubSelectionModel<>(students);
+            selection.clearAndSelect(1);
+            students.addListener((ListChangeListener<Student>) change -> selection.clearSelection());
+
+            // When
+            new ListReconciler<>(Student::getIndexNumber, ListReconciler::sameStudent, selection)
+                    .reconcile(students, students("100001"));
+
+            // Then
+            assertThat(selection.getSelectedItem()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Najdłuższy rosnący podciąg")
+    class LongestRun {
+
+        @Test
+        @DisplayName("Pomija pozycje -1 i zostawia najdłuższy rosnący podciąg")
+        void shouldKeepLongestIncreasingRun() {
+            // When
+            boolean[] keep = ListReconciler.longestIncreasingRun(new int[]{3, -1, 0, 1, 4, 2});
+
+            // Then
+            assertThat(keep).containsExactly(false, false, true, true, false, true);
+        }
+
+        @Test
+        @DisplayName("Losowe przetasowania zawsze dają listę równą nowej")
+        void shouldMatchFreshListAfterRandomChanges() {
+            Random random = new Random(42);
+            for (int round = 0; round < 200; round++) {
+                // Given
+                List<Student> current = new ArrayList<>();
+                List<Student> fresh = new ArrayList<>();
+                for (int i = 0; i < 30; i++) {
+                    String index = String.valueOf(100000 + i);
+                    if (random.nextInt(4) != 0) {
+                        current.add(student(index));
+                    }
+                    if (random.nextInt(4) != 0) {
+                        fresh.add(student(index));
+                    }
+                }
+                java.util.Collections.shuffle(current, random);
+                java.util.Collections.shuffle(fresh, random);
+                students.setAll(current);
+
+                // When
+                reconciler.reconcile(students, fresh);
+
+                // Then
+                assertThat(indexes()).isEqualTo(fresh.stream().map(Student::getIndexNumber).toList());
+            }
+        }
+    }
+
+    /**
+     * Prosty model zaznaczenia pojedynczego elementu - bez kontrolek JavaFX.
+     */
+    private static final class StubSelectionModel<T> extends SelectionModel<T> {
+        private final List<T> items;
+
+        StubSelectionModel(List<T> items) {
+            this.items = items;
+        }
+
+        @Override
+        public void clearAndSelect(int index) {
+            select(index);
+        }
+
+        @Override
+        public void select(int index) {
+            setSelectedIndex(index);
+            setSelectedItem(items.get(index));
+        }
+
+        @Override
+        public void select(T item) {
+            select(items.indexOf(item));
+        }
+
+        @Override
+        public void clearSelection(int index) {
+            if (getSelectedIndex() == index) {
+                clearSelection();
+            }
+        }
+
+        @Override
+        public void clearSelection() {
+            setSelectedIndex(-1);
+            setSelectedItem(null);
+        }
+
+        @Override
+        public boolean isSelected(int index) {
+            return getSelectedIndex() == index;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSelectedIndex() < 0;
+        }
+
+        @Override
+        public void selectPrevious() {
+        }
+
+        @Override
+        public void selectNext() {
+        }
+
+        @Override
+        public void selectFirst() {
+            select(0);
+        }
+
+        @Override
+        public void selectLast() {
+            select(items.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,499 @@
+package com.example.javafxfront;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Testy kolejki offline (Outbox)
+ * Sprawdzamy trwałość dziennika, kolejkowanie przy braku sieci i wysyłkę w kolejności zapisu
+ */
+@DisplayName("Testy kolejki offline")
+class OutboxTest {
+
+    private static final Duration NO_BACKGROUND_RETRY = Duration.ofHours(1);
+
+    @TempDir
+    Path tempDir;
+
+    private Path journal;
+
+    @BeforeEach
+    void setUp() {
+        journal = tempDir.resolve(Outbox.FILE_NAME);
+    }
+
+    @Nested
+    @DisplayName("Dziennik na dysku")
+    class Journal {
+
+        @Test
+        @DisplayName("Powinien odtworzyć niepotwierdzone zmiany po ponownym otwarciu")
+        void shouldRecoverPendingEntries() throws Exception {
+            // Given
+            Outbox outbox = Outbox.open(journal, NO_BACKGROUND_RETRY);
+            CompletableFuture.allOf(
+                    outbox.append(HttpTransport.Endpoint.ATTENDANCE, "POST", "/attendance/mark-student", "{\"a\":1}"),
+                    outbox.append(HttpTransport.Endpoint.STUDENTS, "DELETE", "/students/123456", null)
+            ).join();
+
+            // When
+            Outbox reopened = Outbox.open(journal, NO_BACKGROUND_RETRY);
+
+            // Then
+            List<Outbox.Entry> pending = reopened.getPending();
+            assertThat(pending).extracting(Outbox.Entry::getPath)
+                    .containsExactly("/attendance/mark-student", "/students/123456");
+            assertThat(pending.get(0).getBody()).isEqualTo("{\"a\":1}");
+            assertThat(pending.get(1).getBody()).isNull();
+            assertThat(pending.get(1).getEndpoint()).isEqualTo(HttpTransport.Endpoint.STUDENTS);
+        }
+
+        @Test
+        @DisplayName("Powinien pominąć obcięty ostatni rekord")
+        void shouldIgnoreTornTail() throws Exception {
+            // Given
+            Outbox outbox = Outbox.open(journal, NO_BACKGROUND_RETRY);
+            outbox.append(HttpTransport.Endpoint.STUDENTS, "DELETE", "/students/1", null).join();
+            outbox.append(HttpTransport.Endpoint.STUDENTS, "DELETE", "/students/2", null).join();
+            byte[] bytes = Files.readAllBytes(journal);
+            Files.write(journal, Arrays.copyOf(bytes, bytes.length - 3));
+
+            // When
+            Outbox reopened = Outbox.open(journal, NO_BACKGROUND_RETRY);
+
+            // Then
+            assertThat(reopened.getPending()).extracting(Outbox.Entry::getPath).containsExactly("/students/1");
+            reopened.append(HttpTransport.Endpoint.STUDENTS, "DELETE", "/students/3", null).join();
+            assertThat(Outbox.open(journal, NO_BACKGROUND_RETRY).getPending())
+                    .extracting(Outbox.Entry::getPath).containsExactly("/students/1", "/students/3");
+        }
+
+        @Test
+        @DisplayName("Nieudany zapis nie powinien zostawić uszkodzonego rekordu przed kolejnymi")
+        void shouldDiscardPartialWriteBeforeNextBatch() throws Exception {
+            // Given
+            FailingChannel channel = new FailingChannel(FileChannel.open(journal,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            Outbox outbox = Outbox.open(journal, channel, NO_BACKGROUND_RETRY);
+            outbox.append(HttpTransport.Endpoint.STUDENTS, "DELETE", "/students/1", null).join();
+
+            // When
+            channel.failNextWrite = true;
+            CompletableFuture<Outbox.Entry> failed =
+                    outbox.append(HttpTransport.Endpoint.STUDENTS, "DELETE", "/students/2", null);
+            assertThatThrownBy(failed::join).hasCauseInstanceOf(IOException.class);
+            outbox.append(HttpTransport.Endpoint.STUDENTS, "DELETE", "/students/3", null).join();
+
+            // Then
+            assertThat(outbox.getPending()).extracting(Outbox.Entry::getPath)
+                    .containsExactly("/students/1", "/students/3");
+            assertThat(Outbox.open(journal, NO_BACKGROUND_RETRY).getPending())
+                    .extracting(Outbox.Entry::getPath).containsExactly("/students/1", "/students/3");
+        }
+
+        @Test
+        @DisplayName("Powinien grupować zapisy - nie więcej fsync niż zmian")
+        void shouldBatchSyncs() throws Exception {
+            // Given
+            Outbox outbox = Outbox.open(journal, NO_BACKGROUND_RETRY);
+
+            // When
+            CompletableFuture<?>[] writes = new CompletableFuture<?>[50];
+            for (int i = 0; i < writes.length; i++) {
+                writes[i] = outbox.append(HttpTransport.Endpoint.ATTENDANCE, "POST", "/attendance/mark-student", "{}");
+            }
+            CompletableFuture.allOf(writes).join();
+
+            // Then
+            assertThat(outbox.getPendingCount()).isEqualTo(50);
+            assertThat(outbox.getSyncCount()).isBetween(1L, 50L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Wysyłka przez transport")
+    class Delivery {
+
+        private WireMockServer server;
+        private HttpTransport transport;
+        private Outbox outbox;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            server = new WireMockServer(options().dynamicPort());
+            server.start();
+            transport = new HttpTransport("http://localhost:" + server.port() + "/api");
+            outbox = Outbox.open(journal, NO_BACKGROUND_RETRY);
+            transport.attachOutbox(outbox);
+        }
+
+        @AfterEach
+        void tearDown() {
+            server.stop();
+        }
+
+        @Test
+        @DisplayName("Przy zerwanym połączeniu zmiana powinna trafić do kolejki")
+        void shouldQueueOnNetworkFailure() {
+            // Given
+            server.stubFor(delete(urlPathMatching("/api/students/.*"))
+                    .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+            StudentService service = new StudentService(transport);
+
+            // When
+            CompletableFuture<Boolean> result = service.deleteStudentAsync("123456");
+
+            // Then
+            assertThatThrownBy(result::join)
+                    .isInstanceOf(CompletionException.class)
+                    .satisfies(error -> assertThat(Outbox.isQueued(error)).isTrue());
+            assertThat(outbox.getPending()).singleElement()
+                    .satisfies(entry -> {
+                        assertThat(entry.getMethod()).isEqualTo("DELETE");
+                        assertThat(entry.getPath()).isEqualTo("/students/123456");
+                    });
+        }
+
+        @Test
+        @DisplayName("Dodanie studenta przerwane po wysłaniu nie powinno trafić do kolejki")
+        void shouldNotQueueCreateThatMayHaveReachedServer() {
+            // Given
+            server.stubFor(post(urlPathEqualTo("/api/students"))
+                    .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+            StudentService service = new StudentService(transport);
+
+            // When
+            CompletableFuture<Student> result = service.addStudentAsync(new Student("Jan", "Kowalski", "123456", "INF-A"));
+
+            // Then
+            assertThatThrownBy(result::join).satisfies(error -> assertThat(Outbox.isQueued(error)).isFalse());
+            assertThat(outbox.hasPending()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Dodanie studenta bez nawiązanego połączenia powinno trafić do kolejki")
+        void shouldQueueCreateWhenConnectionRefused() {
+            // Given
+            server.stop();
+            StudentService service = new StudentService(transport);
+
+            // When
+            CompletableFuture<Student> result = service.addStudentAsync(new Student("Jan", "Kowalski", "123456", "INF-A"));
+
+            // Then
+            assertThatThrownBy(result::join).satisfies(error -> assertThat(Outbox.isQueued(error)).isTrue());
+            assertThat(outbox.getPending()).singleElement()
+                    .satisfies(entry -> assertThat(entry.getPath()).isEqualTo("/students"));
+        }
+
+        @Test
+        @DisplayName("Oznaczenie obecności przerwane po wysłaniu powinno trafić do kolejki")
+        void shouldQueueReplaySafePost() {
+            // Given
+            server.stubFor(post(urlPathEqualTo("/api/attendance/mark-student"))
+                    .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+            AttendanceService service = new AttendanceService(transport);
+
+            // When
+            CompletableFuture<Boolean> result = service.markStudentAttendanceAsync(
+                    new Student("Jan", "Kowalski", "123456", "INF-A"), 1L, Attendance.Status.PRESENT, "");
+
+            // Then
+            assertThatThrownBy(result::join).satisfies(error -> assertThat(Outbox.isQueued(error)).isTrue());
+            assertThat(outbox.getPending()).extracting(Outbox.Entry::getPath)
+                    .containsExactly("/attendance/mark-student");
+        }
+
+        @Test
+        @DisplayName("Odpowiedź błędu serwera nie powinna trafić do kolejki")
+        void shouldNotQueueServerErrors() {
+            // Given
+            server.stubFor(put(urlPathMatching("/api/students/.*"))
+                    .willReturn(aResponse().withStatus(500)));
+            StudentService service = new StudentService(transport);
+
+            // When
+            CompletableFuture<Student> result = service.updateStudentAsync("123456",
+                    new Student("Jan", "Kowalski", "123456", "INF-A"));
+
+            // Then
+            assertThatThrownBy(result::join).satisfies(error -> assertThat(Outbox.isQueued(error)).isFalse());
+            assertThat(outbox.hasPending()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Nowa zmiana nie powinna wyprzedzić zmian czekających w kolejce")
+        void shouldNotOvertakePendingChanges() {
+            // Given
+            server.stubFor(post(urlPathEqualTo("/api/attendance/mark-student"))
+                    .willReturn(aResponse().withStatus(200)));
+            outbox.append(HttpTransport.Endpoint.ATTENDANCE, "DELETE", "/attendance/remove/123456/1", null).join();
+            AttendanceService service = new AttendanceService(transport);
+
+            // When
+            CompletableFuture<Boolean> result = service.markStudentAttendanceAsync(
+                    new Student("Jan", "Kowalski", "123456", "INF-A"), 1L, Attendance.Status.PRESENT, "");
+
+            // Then
+            assertThatThrownBy(result::join).satisfies(error -> assertThat(Outbox.isQueued(error)).isTrue());
+            server.verify(0, postRequestedFor(urlPathEqualTo("/api/attendance/mark-student")));
+            assertThat(outbox.getPending()).extracting(Outbox.Entry::getMethod).containsExactly("DELETE", "POST");
+        }
+
+        @Test
+        @DisplayName("Operacja zbiorcza bez sieci powinna trafić do kolejki jako pojedyncze wpisy")
+        void shouldQueueBatchAsSingleEntries() {
+            // Given
+            server.stubFor(post(urlPathEqualTo("/api/attendance/batch"))
+                    .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+            AttendanceService service = new AttendanceService(transport);
+            Student present = new Student("Jan", "Kowalski", "123456", "INF-A");
+            Student cleared = new Student("Anna", "Nowak", "654321", "INF-A");
+            List<AttendanceBatch.Entry> entries = List.of(
+                    AttendanceBatch.Entry.mark(present, 1L, Attendance.Status.PRESENT, ""),
+                    AttendanceBatch.Entry.clear(cleared, 1L));
+
+            // When
+            List<AttendanceBatch.Result> results = service.applyBatchAsync(entries).join();
+
+            // Then
+            assertThat(results).allMatch(AttendanceBatch.Result::isQueued);
+            assertThat(outbox.getPending())
+                    .extracting(entry -> entry.getMethod() + " " + entry.getPath())
+                    .containsExactly("POST /attendance/mark-student", "DELETE /attendance/remove/654321/1");
+
+            // When - serwer wraca, ale bez operacji zbiorczych
+            server.resetAll();
+            server.stubFor(post(urlPathEqualTo("/api/attendance/batch")).willReturn(aResponse().withStatus(404)));
+            server.stubFor(any(urlPathMatching("/api/attendance/(mark-student|remove/.*)"))
+                    .willReturn(aResponse().withStatus(200)));
+            int drained = transport.drainOutbox().join();
+
+            // Then
+            assertThat(drained).isEqualTo(2);
+            assertThat(outbox.getReplayedCount()).isEqualTo(2);
+            assertThat(outbox.getRejectedCount()).isZero();
+            server.verify(0, postRequestedFor(urlPathEqualTo("/api/attendance/batch")));
+        }
+
+        @Test
+        @DisplayName("Zmiany obecności w kolejce powinny być zgłaszane jako oczekujące dla swojego terminu")
+        void shouldReportQueuedAttendanceAsPending() {
+            // Given
+            server.stop();
+            AttendanceService service = new AttendanceService(transport);
+            Student marked = new Student("Jan", "Kowalski", "123456", "INF-A");
+            Student cleared = new Student("Anna", "Nowak", "654321", "INF-A");
+
+            // When
+            service.applyBatchAsync(List.of(
+                    AttendanceBatch.Entry.mark(marked, 1L, Attendance.Status.PRESENT, ""),
+                    AttendanceBatch.Entry.clear(cleared, 1L))).join();
+
+            // Then
+            assertThat(outbox.getPendingCount()).isEqualTo(2);
+            assertThat(service.pendingWritesFor(1L).test("123456")).isTrue();
+            assertThat(service.pendingWritesFor(1L).test("654321")).isTrue();
+            assertThat(service.pendingWritesFor(1L).test("111111")).isFalse();
+            assertThat(service.pendingWritesFor(2L).test("123456")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Powinien wysłać zmiany po kolei i wyczyścić dziennik")
+        void shouldDrainInOrder() throws Exception {
+            // Given
+            server.stubFor(any(urlPathMatching("/api/.*")).willReturn(aResponse().withStatus(200)));
+            outbox.append(HttpTransport.Endpoint.ATTENDANCE, "POST", "/attendance/mark-student", "{\"n\":1}").join();
+            outbox.append(HttpTransport.Endpoint.ATTENDANCE, "DELETE", "/attendance/remove/123456/1", null).join();
+            outbox.append(HttpTransport.Endpoint.STUDENTS, "PUT", "/students/123456", "{\"n\":3}").join();
+
+            // When
+            int drained = transport.drainOutbox().join();
+
+            // Then
+            assertThat(drained).isEqualTo(3);
+            assertThat(outbox.hasPending()).isFalse();
+            assertThat(outbox.getReplayedCount()).isEqualTo(3);
+            List<String> urls = server.getAllServeEvents().stream()
+                    .map(event -> event.getRequest().getMethod() + " " + event.getRequest().getUrl())
+                    .toList();
+            // Zdarzenia WireMock są zwracane od najnowszego
+            assertThat(urls).containsExactly(
+                    "PUT /api/students/123456",
+                    "DELETE /api/attendance/remove/123456/1",
+                    "POST /api/attendance/mark-student");
+            assertThat(Outbox.open(journal, NO_BACKGROUND_RETRY).hasPending()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Zmiana odrzucona przez serwer powinna zostać usunięta z kolejki")
+        void shouldDropRejectedChange() {
+            // Given
+            server.stubFor(post(urlPathEqualTo("/api/students")).willReturn(aResponse().withStatus(409)));
+            server.stubFor(delete(urlPathMatching("/api/students/.*")).willReturn(aResponse().withStatus(204)));
+            outbox.append(HttpTransport.Endpoint.STUDENTS, "POST", "/students", "{}").join();
+            outbox.append(HttpTransport.Endpoint.STUDENTS, "DELETE", "/students/123456", null).join();
+
+            // When
+            int drained = transport.drainOutbox().join();
+
+            // Then
+            assertThat(drained).isEqualTo(2);
+            assertThat(outbox.getRejectedCount()).isEqualTo(1);
+            assertThat(outbox.getReplayedCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Błąd serwera 5xx powinien zatrzymać wysyłkę bez utraty zmian")
+        void shouldStopOnServerError() {
+            // Given
+            server.stubFor(any(urlPathMatching("/api/.*")).willReturn(aResponse().withStatus(503)));
+            outbox.append(HttpTransport.Endpoint.STUDENTS, "DELETE", "/students/1", null).join();
+            outbox.append(HttpTransport.Endpoint.STUDENTS, "DELETE", "/students/2", null).join();
+
+            // When
+            int drained = transport.drainOutbox().join();
+
+            // Then
+            assertThat(drained).isZero();
+            assertThat(outbox.getPendingCount()).isEqualTo(2);
+            server.verify(1, deleteRequestedFor(urlPathMatching("/api/students/.*")));
+        }
+    }
+
+    /**
+     * Kanał, który na żądanie zapisuje tylko część bufora i zgłasza błąd - jak pełny dysk w trakcie zapisu.
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        volatile boolean failNextWrite;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            if (!failNextWrite) {
+                return delegate.write(src, position);
+            }
+            if (src.remaining() > 1) {
+                ByteBuffer half = src.duplicate();
+                half.limit(half.position() + src.remaining() / 2);
+                int written = delegate.write(half, position);
+                src.position(src.position() + written);
+                return written;
+            }
+            failNextWrite = false;
+            throw new IOException("Brak miejsca na dysku");
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.javafxfront;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Benchmark równoległego pobierania frekwencji dla wielu terminów.
+ *
+ * <p>Porównuje dawny model (blokujące {@code send} w {@code supplyAsync} na wspólnej
+ * puli ForkJoin, jawnie wskazanej, aby na maszynach z 1-2 rdzeniami JDK nie przełączył
+ * się na wątek-na-zadanie) z potokiem opartym o {@code sendAsync}. Serwer zastępczy odpowiada
+ * z opóźnieniem {@value #SERVER_DELAY_MS} ms, więc czas dawnego modelu rośnie
+ * z liczbą żądań podzieloną przez liczbę wątków puli. Na JDK 21 blokujące {@code send}
+ * korzysta z {@code ManagedBlocker}, więc pula dorabia wątki kompensacyjne - dlatego
+ * obok czasu raportowana jest też szczytowa liczba wątków. Trzeci pomiar używa trybu
+ * {@link HttpTransport.ExecutionMode#VIRTUAL_THREADS} i wypisuje jego liczniki.</p>
+ *
+ * <p>Nie jest uruchamiany w fazie {@code test}; uruchomienie:
+ * {@code mvn test -Dtest=ScheduleFetchBenchmark}</p>
+ */
+@DisplayName("Benchmark pobierania frekwencji terminów")
+class ScheduleFetchBenchmark {
+
+    private static final int CONCURRENT_FETCHES = 200;
+    private static final int SERVER_DELAY_MS = 100;
+
+    private static final String ATTENDANCE_JSON = "[{"
+            + "\"id\": 1, \"status\": \"PRESENT\", \"notes\": \"\", \"markedAt\": \"2024-03-15T10:05:00\","
+            + "\"student\": {\"id\": 1, \"firstName\": \"Jan\", \"lastName\": \"Kowalski\","
+            + " \"indexNumber\": \"123456\", \"group\": {\"id\": 1, \"name\": \"INF-A\"}},"
+            + "\"schedule\": {\"id\": 1, \"subject\": \"Programowanie\", \"classroom\": \"101\","
+            + " \"startTime\": \"2024-03-15T10:00:00\", \"endTime\": \"2024-03-15T12:00:00\","
+            + " \"group\": {\"id\": 1, \"name\": \"INF-A\"}}"
+            + "}]";
+
+    private WireMockServer server;
+    private HttpTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        server = new WireMockServer(options().dynamicPort().containerThreads(CONCURRENT_FETCHES + 20));
+        server.start();
+        server.stubFor(get(urlPathMatching("/api/attendance/schedule/.*"))
+                .willReturn(okJson(ATTENDANCE_JSON).withFixedDelay(SERVER_DELAY_MS)));
+
+        transport = new HttpTransport("http://localhost:" + server.port() + "/api");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("200 równoległych pobrań: supplyAsync + send vs sendAsync vs wątki wirtualne")
+    void compareFanOut() {
+        AttendanceService service = new AttendanceService(transport);
+
+        // Rozgrzewka - nawiązanie połączeń i JIT
+        runAsyncPipeline(service, 20);
+        runLegacyPipeline(20);
+
+        AtomicInteger legacyThreads = new AtomicInteger();
+        long legacyMs = measurePeakThreads(() -> runLegacyPipeline(CONCURRENT_FETCHES), legacyThreads);
+
+        AtomicInteger asyncThreads = new AtomicInteger();
+        long asyncMs = measurePeakThreads(() -> runAsyncPipeline(service, CONCURRENT_FETCHES), asyncThreads);
+
+        HttpTransport virtualTransport = new HttpTransport(transport.getBaseUrl(), Map.of(),
+                HttpTransport.DEFAULT_MAX_CONCURRENT_REQUESTS, HttpTransport.ExecutionMode.VIRTUAL_THREADS);
+        AttendanceService virtualService = new AttendanceService(virtualTransport);
+        runAsyncPipeline(virtualService, 20);
+        AtomicInteger virtualThreads = new AtomicInteger();
+        long virtualMs = measurePeakThreads(() -> runAsyncPipeline(virtualService, CONCURRENT_FETCHES), virtualThreads);
+
+        System.out.printf("%n=== %d równoległych pobrań (opóźnienie serwera %d ms, commonPool=%d) ===%n",
+                CONCURRENT_FETCHES, SERVER_DELAY_MS,
+                ForkJoinPool.commonPool().getParallelism());
+        System.out.printf("supplyAsync + send : %6d ms, szczyt wątków JVM: %d%n", legacyMs, legacyThreads.get());
+        System.out.printf("sendAsync          : %6d ms, szczyt wątków JVM: %d%n", asyncMs, asyncThreads.get());
+        System.out.printf("wątki wirtualne    : %6d ms, szczyt wątków JVM: %d%n", virtualMs, virtualThreads.get());
+        System.out.println(virtualTransport.describeMetrics());
+
+        assertThat(asyncThreads.get()).isLessThan(legacyThreads.get());
+    }
+
+    /**
+     * Uruchamia pomiar, próbkując w tle liczbę żywych wątków JVM.
+     */
+    private long measurePeakThreads(LongSupplier run, AtomicInteger peak) {
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(Thread.getAllStackTraces().size(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+        try {
+            return run.getAsLong();
+        } finally {
+            sampler.interrupt();
+        }
+    }
+
+    private long runAsyncPipeline(AttendanceService service, int count) {
+        long start = System.nanoTime();
+        List<CompletableFuture<List<Attendance>>> futures = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            futures.add(service.getAttendancesByScheduleAsync(id));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        futures.forEach(f -> assertThat(f.join()).hasSize(1));
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private long runLegacyPipeline(int count) {
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            URI uri = URI.create(transport.getBaseUrl() + "/attendance/schedule/" + id);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    HttpRequest request = HttpRequest.newBuilder().uri(uri).GET().build();
+                    return transport.getHttpClient()
+                            .send(request, HttpResponse.BodyHandlers.ofString())
+                            .body();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }, ForkJoinPool.commonPool()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
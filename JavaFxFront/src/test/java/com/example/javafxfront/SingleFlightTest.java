@@ -0,0 +1,140 @@
+package com.example.javafxfront;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testy jednostkowe dla klasy SingleFlight
+ * Testujemy łączenie równoległych żądań i liczniki trafień
+ */
+@DisplayName("Testy klasy SingleFlight")
+class SingleFlightTest {
+
+    private static final String KEY = "GET http://localhost/api/students";
+
+    private SingleFlight singleFlight;
+    private AtomicInteger loads;
+    private CompletableFuture<List<String>> pending;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight();
+        loads = new AtomicInteger();
+        pending = new CompletableFuture<>();
+    }
+
+    private CompletableFuture<List<String>> load() {
+        loads.incrementAndGet();
+        return pending;
+    }
+
+    @Nested
+    @DisplayName("Łączenie żądań")
+    class Coalescing {
+
+        @Test
+        @DisplayName("Powinien wysłać jedno żądanie dla równoległych wywołań")
+        void shouldShareOneRequestBetweenConcurrentCalls() {
+            // Given
+            CompletableFuture<List<String>> first = singleFlight.execute(KEY, SingleFlightTest.this::load);
+            CompletableFuture<List<String>> second = singleFlight.execute(KEY, SingleFlightTest.this::load);
+            CompletableFuture<List<String>> third = singleFlight.execute(KEY, SingleFlightTest.this::load);
+
+            // When
+            List<String> result = List.of("123456");
+            pending.complete(result);
+
+            // Then
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(first.join()).isSameAs(result);
+            assertThat(second.join()).isSameAs(result);
+            assertThat(third.join()).isSameAs(result);
+            assertThat(singleFlight.getMisses(KEY)).isEqualTo(1);
+            assertThat(singleFlight.getHits(KEY)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Powinien wysłać nowe żądanie po zakończeniu poprzedniego")
+        void shouldLoadAgainAfterCompletion() {
+            // Given
+            singleFlight.execute(KEY, SingleFlightTest.this::load);
+            pending.complete(List.of());
+            pending = new CompletableFuture<>();
+
+            // When
+            singleFlight.execute(KEY, SingleFlightTest.this::load);
+
+            // Then
+            assertThat(loads.get()).isEqualTo(2);
+            assertThat(singleFlight.getMisses(KEY)).isEqualTo(2);
+            assertThat(singleFlight.getInFlightCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Nie powinien łączyć żądań o różnych kluczach")
+        void shouldNotShareBetweenDifferentKeys() {
+            // When
+            singleFlight.execute(KEY, SingleFlightTest.this::load);
+            singleFlight.execute(KEY + "/group/INF-A", SingleFlightTest.this::load);
+
+            // Then
+            assertThat(loads.get()).isEqualTo(2);
+            assertThat(singleFlight.getInFlightCount()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Obsługa błędów")
+    class ErrorHandling {
+
+        @Test
+        @DisplayName("Powinien przekazać błąd wszystkim oczekującym i zwolnić klucz")
+        void shouldPropagateFailureToAllWaiters() {
+            // Given
+            CompletableFuture<List<String>> first = singleFlight.execute(KEY, SingleFlightTest.this::load);
+            CompletableFuture<List<String>> second = singleFlight.execute(KEY, SingleFlightTest.this::load);
+
+            // When
+            pending.completeExceptionally(new RuntimeException("Serwer niedostępny"));
+
+            // Then
+            assertThat(first).isCompletedExceptionally();
+            assertThat(second).isCompletedExceptionally();
+            assertThat(singleFlight.getInFlightCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Anulowanie przez jednego wywołującego nie powinno wpływać na pozostałych")
+        void shouldIsolateCancellation() {
+            // Given
+            CompletableFuture<List<String>> first = singleFlight.execute(KEY, SingleFlightTest.this::load);
+            CompletableFuture<List<String>> second = singleFlight.execute(KEY, SingleFlightTest.this::load);
+
+            // When
+            first.cancel(true);
+            pending.complete(List.of("654321"));
+
+            // Then
+            assertThat(second.join()).containsExactly("654321");
+        }
+    }
+
+    @Test
+    @DisplayName("Powinien opisać liczniki dla każdego klucza")
+    void shouldDescribeCounters() {
+        // Given
+        singleFlight.execute(KEY, SingleFlightTest.this::load);
+        singleFlight.execute(KEY, SingleFlightTest.this::load);
+
+        // When & Then
+        assertThat(singleFlight.describe()).isEqualTo(KEY + ": trafienia 1, chybienia 1");
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.javafxfront;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Testy jednostkowe dla klasy SnapshotStore
+ * Testujemy zapis i odczyt migawki oraz odporność na brakujący lub uszkodzony plik
+ */
+@DisplayName("Testy klasy SnapshotStore")
+class SnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SnapshotStore store;
+    private EntityCache source;
+    private EntityCache target;
+
+    @BeforeEach
+    void setUp() {
+        store = new SnapshotStore(tempDir.resolve(SnapshotStore.FILE_NAME));
+        source = new EntityCache(Duration.ofMinutes(1), 16);
+        target = new EntityCache(Duration.ofMinutes(1), 16);
+    }
+
+    @Nested
+    @DisplayName("Zapis i odczyt")
+    class RoundTrip {
+
+        @Test
+        @DisplayName("Powinien odtworzyć grupy i studentów z zachowaniem dat")
+        void shouldRestoreGroupsAndStudents() throws Exception {
+            // Given
+            Group group = new Group("INF-A", "Informatyka");
+            group.setCreatedDate(LocalDateTime.of(2024, 3, 1, 8, 0));
+            Student student = new Student("Jan", "Kowalski", "123456", "INF-A");
+            student.setAddedDate(LocalDateTime.of(2024, 3, 2, 9, 30));
+            Student withoutGroup = new Student("Anna", "Nowak", "654321", null);
+            source.put(EntityCache.Keys.GROUPS_ALL, List.of(group), source.currentGeneration());
+            source.put(EntityCache.Keys.studentsOfGroup("INF-A"), List.of(student), source.currentGeneration());
+            source.put(EntityCache.Keys.STUDENTS_WITHOUT_GROUP, List.of(withoutGroup), source.currentGeneration());
+
+            // When
+            int saved = store.save(source);
+            int restored = store.load(target);
+
+            // Then
+            assertThat(saved).isEqualTo(3);
+            assertThat(restored).isEqualTo(3);
+            List<Group> groups = target.<List<Group>>peek(EntityCache.Keys.GROUPS_ALL).getValue();
+            assertThat(groups).singleElement().satisfies(g -> {
+                assertThat(g.getName()).isEqualTo("INF-A");
+                assertThat(g.getSpecialization()).isEqualTo("Informatyka");
+                assertThat(g.getCreatedDate()).isEqualTo(LocalDateTime.of(2024, 3, 1, 8, 0));
+            });
+            List<Student> students = target.<List<Student>>peek(EntityCache.Keys.studentsOfGroup("INF-A")).getValue();
+            assertThat(students).singleElement().satisfies(s -> {
+                assertThat(s.getFullName()).isEqualTo("Jan Kowalski");
+                assertThat(s.getIndexNumber()).isEqualTo("123456");
+                assertThat(s.getGroupName()).isEqualTo("INF-A");
+                assertThat(s.getAddedDate()).isEqualTo(LocalDateTime.of(2024, 3, 2, 9, 30));
+            });
+            List<Student> ungrouped = target.<List<Student>>peek(EntityCache.Keys.STUDENTS_WITHOUT_GROUP).getValue();
+            assertThat(ungrouped.get(0).getGroupName()).isNull();
+        }
+
+        @Test
+        @DisplayName("Powinien odtworzyć terminy razem z frekwencją")
+        void shouldRestoreSchedulesWithAttendance() throws Exception {
+            // Given
+            ClassSchedule schedule = new ClassSchedule(42L, "Programowanie", "101",
+                    LocalDateTime.of(2024, 3, 15, 10, 0), LocalDateTime.of(2024, 3, 15, 12, 0),
+                    "Dr Nowak", null, "INF-A", LocalDateTime.of(2024, 3, 1, 8, 0));
+            Student student = new Student("Jan", "Kowalski", "123456", "INF-A");
+            Attendance attendance = new Attendance(student, schedule, Attendance.Status.LATE, "Spóźnienie 10 min");
+            attendance.setMarkedAt(LocalDateTime.of(2024, 3, 15, 10, 10));
+            schedule.addAttendance(attendance);
+            source.put(EntityCache.Keys.schedulesOfGroup("INF-A"), List.of(schedule), source.currentGeneration());
+
+            // When
+            store.save(source);
+            store.load(target);
+
+            // Then
+            ClassSchedule restored = target.<List<ClassSchedule>>peek(EntityCache.Keys.schedulesOfGroup("INF-A"))
+                    .getValue().get(0);
+            assertThat(restored.getId()).isEqualTo(42L);
+            assertThat(restored.getSubject()).isEqualTo("Programowanie");
+            assertThat(restored.getNotes()).isNull();
+            assertThat(restored.getFormattedTimeRange()).isEqualTo(schedule.getFormattedTimeRange());
+            assertThat(restored.getAttendances()).singleElement().satisfies(a -> {
+                assertThat(a.getStudent().getIndexNumber()).isEqualTo("123456");
+                assertThat(a.getStatus()).isEqualTo(Attendance.Status.LATE);
+                assertThat(a.getNotes()).isEqualTo("Spóźnienie 10 min");
+                assertThat(a.getMarkedAt()).isEqualTo(LocalDateTime.of(2024, 3, 15, 10, 10));
+                assertThat(a.getSchedule()).isSameAs(restored);
+            });
+        }
+
+        @Test
+        @DisplayName("Odtworzone wpisy powinny być przeterminowane")
+        void shouldRestoreEntriesAsStale() throws Exception {
+            // Given
+            source.put(EntityCache.Keys.GROUPS_ALL, List.of(new Group("INF-A", "Informatyka")),
+                    source.currentGeneration());
+            store.save(source);
+
+            // When
+            store.load(target);
+
+            // Then
+            assertThat(target.peek(EntityCache.Keys.GROUPS_ALL).isFresh()).isFalse();
+            assertThat((Object) target.getIfFresh(EntityCache.Keys.GROUPS_ALL)).isNull();
+        }
+
+        @Test
+        @DisplayName("Nie powinien nadpisać wpisu pobranego już z serwera")
+        void shouldNotOverwriteExistingEntry() throws Exception {
+            // Given
+            source.put(EntityCache.Keys.GROUPS_ALL, List.of(new Group("STARA", "Stara")), source.currentGeneration());
+            store.save(source);
+            target.put(EntityCache.Keys.GROUPS_ALL, List.of(new Group("NOWA", "Nowa")), target.currentGeneration());
+
+            // When
+            int restored = store.load(target);
+
+            // Then
+            assertThat(restored).isZero();
+            List<Group> groups = target.<List<Group>>peek(EntityCache.Keys.GROUPS_ALL).getValue();
+            assertThat(groups.get(0).getName()).isEqualTo("NOWA");
+        }
+    }
+
+    @Nested
+    @DisplayName("Brakujący i uszkodzony plik")
+    class MissingAndCorrupt {
+
+        @Test
+        @DisplayName("Brak pliku nie powinien być błędem")
+        void shouldIgnoreMissingFile() {
+            // When
+            int restored = store.load(target);
+
+            // Then
+            assertThat(restored).isZero();
+            assertThat(target.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Powinien pominąć plik w nieznanym formacie")
+        void shouldIgnoreForeignFile() throws Exception {
+            // Given
+            Files.writeString(store.getFile(), "to nie jest migawka");
+
+            // When
+            int restored = store.load(target);
+
+            // Then
+            assertThat(restored).isZero();
+            assertThat(target.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Powinien pominąć obcięty plik")
+        void shouldIgnoreTruncatedFile() throws Exception {
+            // Given
+            source.put(EntityCache.Keys.GROUPS_ALL, List.of(new Group("INF-A", "Informatyka")),
+                    source.currentGeneration());
+            store.save(source);
+            byte[] bytes = Files.readAllBytes(store.getFile());
+            Files.write(store.getFile(), java.util.Arrays.copyOf(bytes, bytes.length - 4));
+
+            // When
+            int restored = store.load(target);
+
+            // Then
+            assertThat(restored).isZero();
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.javafxfront;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Testy wspólnego harmonogramu synchronizacji obecności
+ * Zegar i odpytywanie są symulowane - bez wątków w tle i bez serwera
+ */
+@DisplayName("Testy harmonogramu synchronizacji")
+class SyncSchedulerTest {
+
+    private static final Duration BASE = Duration.ofSeconds(30);
+    private static final Duration MAX = SyncScheduler.MAX_INTERVAL;
+
+    private AtomicLong now;
+    private Map<Long, List<Attendance>> server;
+    private List<Long> requests;
+    private SyncScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000);
+        server = new HashMap<>();
+        requests = new ArrayList<>();
+        scheduler = new SyncScheduler(id -> {
+            requests.add(id);
+            return CompletableFuture.completedFuture(server.getOrDefault(id, List.of()));
+        }, BASE, now::get, false);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toMillis());
+        scheduler.tick();
+    }
+
+    private static List<Attendance> attendances(Attendance.Status status) {
+        Student student = new Student("Jan", "Kowalski", "123456", "INF-A");
+        ClassSchedule schedule = new ClassSchedule(1L, "Programowanie", "101",
+                LocalDateTime.of(2024, 3, 1, 8, 0), LocalDateTime.of(2024, 3, 1, 10, 0),
+                "Dr Nowak", null, "INF-A", LocalDateTime.of(2024, 2, 1, 8, 0));
+        return List.of(new Attendance(student, schedule, status));
+    }
+
+    @Nested
+    @DisplayName("Wspólne odpytywanie")
+    class SharedPolls {
+
+        @Test
+        @DisplayName("Dwa okna z tym samym terminem dzielą jedno żądanie i oba dostają zmianę")
+        void shouldSharePollBetweenWindows() {
+            // Given
+            List<String> received = new ArrayList<>();
+            SyncScheduler.Subscription first = scheduler.subscribe("INF-A", (id, list) -> received.add("okno 1: " + id));
+            SyncScheduler.Subscription second = scheduler.subscribe("INF-A", (id, list) -> received.add("okno 2: " + id));
+            first.setScheduleIds(List.of(1L, 2L));
+            second.setScheduleIds(List.of(2L, 3L));
+
+            // When
+            advance(BASE);
+
+            // Then
+            assertThat(scheduler.getPolledScheduleCount()).isEqualTo(3);
+            assertThat(requests).containsExactlyInAnyOrder(1L, 2L, 3L);
+            assertThat(received).containsExactlyInAnyOrder("okno 1: 1", "okno 1: 2", "okno 2: 2", "okno 2: 3");
+        }
+
+        @Test
+        @DisplayName("Zamknięcie okna zwalnia jego terminy, a wspólne odpytywane są dalej")
+        void shouldReleaseSchedulesOnClose() {
+            // Given
+            SyncScheduler.Subscription first = scheduler.subscribe("INF-A", (id, list) -> { });
+            SyncScheduler.Subscription second = scheduler.subscribe("INF-B", (id, list) -> { });
+            first.setScheduleIds(List.of(1L, 2L));
+            second.setScheduleIds(List.of(2L));
+
+            // When
+            first.close();
+
+            // Then
+            assertThat(first.isClosed()).isTrue();
+            assertThat(scheduler.getSubscriptionCount()).isEqualTo(1);
+            assertThat(scheduler.getPolledScheduleCount()).isEqualTo(1);
+
+            // When
+            second.close();
+            advance(BASE);
+
+            // Then
+            assertThat(scheduler.getPolledScheduleCount()).isZero();
+            assertThat(requests).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Terminy lokalne (bez ID) nie są odpytywane")
+        void shouldSkipLocalSchedules() {
+            // Given
+            SyncScheduler.Subscription subscription = scheduler.subscribe("INF-A", (id, list) -> { });
+            List<Long> ids = new ArrayList<>();
+            ids.add(null);
+            ids.add(5L);
+
+            // When
+            subscription.setScheduleIds(ids);
+
+            // Then
+            assertThat(scheduler.getPolledScheduleCount()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Powiadomienia")
+    class Notifications {
+
+        @Test
+        @DisplayName("Subskrybent jest powiadamiany tylko o zmianach")
+        void shouldNotifyOnlyOnChange() {
+            // Given
+            List<List<Attendance>> received = new ArrayList<>();
+            scheduler.subscribe("INF-A", (id, list) -> received.add(list)).setScheduleIds(List.of(1L));
+            server.put(1L, attendances(Attendance.Status.PRESENT));
+
+            // When - pierwsza odpowiedź, potem ta sama, potem zmiana
+            advance(BASE);
+            advance(MAX);
+            server.put(1L, attendances(Attendance.Status.LATE));
+            advance(MAX);
+
+            // Then
+            assertThat(requests).hasSize(3);
+            assertThat(received).hasSize(2);
+            assertThat(received.get(1).get(0).getStatus()).isEqualTo(Attendance.Status.LATE);
+            assertThat(scheduler.getChangeCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Okno, które wczytało obecności, nie jest powiadamiane przy pierwszym odpytaniu")
+        void shouldNotNotifyWindowThatAlreadyLoaded() {
+            // Given
+            List<List<Attendance>> received = new ArrayList<>();
+            SyncScheduler.Subscription subscription = scheduler.subscribe("INF-A", (id, list) -> received.add(list));
+            subscription.setScheduleIds(List.of(1L));
+            server.put(1L, attendances(Attendance.Status.PRESENT));
+            subscription.markLoaded(1L, attendances(Attendance.Status.PRESENT));
+
+            // When
+            advance(BASE);
+
+            // Then
+            assertThat(requests).hasSize(1);
+            assertThat(received).isEmpty();
+            assertThat(scheduler.getChangeCount()).isZero();
+
+            // When - zmiana na serwerze dociera do okna
+            server.put(1L, attendances(Attendance.Status.ABSENT));
+            advance(MAX);
+
+            // Then
+            assertThat(received).hasSize(1);
+            assertThat(received.get(0).get(0).getStatus()).isEqualTo(Attendance.Status.ABSENT);
+        }
+
+        @Test
+        @DisplayName("Okno z nieaktualnymi obecnościami dostaje pierwszą odpowiedź")
+        void shouldNotifyWindowWithStaleData() {
+            // Given
+            List<List<Attendance>> received = new ArrayList<>();
+            SyncScheduler.Subscription subscription = scheduler.subscribe("INF-A", (id, list) -> received.add(list));
+            subscription.setScheduleIds(List.of(1L));
+            subscription.markLoaded(1L, attendances(Attendance.Status.PRESENT));
+            server.put(1L, attendances(Attendance.Status.LATE));
+
+            // When
+            advance(BASE);
+
+            // Then
+            assertThat(received).hasSize(1);
+            assertThat(scheduler.getChangeCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Skrót listy nie zależy od kolejności wpisów")
+        void shouldIgnoreOrderInFingerprint() {
+            // Given
+            List<Attendance> present = attendances(Attendance.Status.PRESENT);
+            List<Attendance> absent = attendances(Attendance.Status.ABSENT);
+            List<Attendance> both = List.of(present.get(0), new Attendance(
+                    new Student("Anna", "Nowak", "654321", "INF-A"), present.get(0).getSchedule(), Attendance.Status.LATE));
+
+            // Then
+            assertThat(SyncScheduler.fingerprint(both))
+                    .isEqualTo(SyncScheduler.fingerprint(List.of(both.get(1), both.get(0))));
+            assertThat(SyncScheduler.fingerprint(present)).isNotEqualTo(SyncScheduler.fingerprint(absent));
+        }
+    }
+
+    @Nested
+    @DisplayName("Adaptacyjny odstęp")
+    class AdaptiveInterval {
+
+        @Test
+        @DisplayName("Bez zmian odstęp się podwaja aż do maksimum")
+        void shouldBackOffWithoutChanges() {
+            // Given
+            scheduler.subscribe("INF-A", (id, list) -> { }).setScheduleIds(List.of(1L));
+
+            // When - pierwsza odpowiedź jest punktem odniesienia, kolejne bez zmian
+            advance(BASE);
+            long afterChange = scheduler.getEffectiveIntervalMillis(1L);
+            advance(Duration.ofMillis(afterChange));
+            long afterFirstIdle = scheduler.getEffectiveIntervalMillis(1L);
+            for (int i = 0; i < 10; i++) {
+                advance(Duration.ofMillis(scheduler.getEffectiveIntervalMillis(1L)));
+            }
+
+            // Then
+            assertThat(afterChange).isEqualTo(BASE.toMillis());
+            assertThat(afterFirstIdle).isEqualTo(2 * BASE.toMillis());
+            assertThat(scheduler.getEffectiveIntervalMillis(1L)).isEqualTo(MAX.toMillis());
+        }
+
+        @Test
+        @DisplayName("Okno bez fokusu odpytuje rzadziej, a po odzyskaniu fokusu od razu")
+        void shouldSlowDownWhenUnfocused() {
+            // Given
+            SyncScheduler.Subscription subscription = scheduler.subscribe("INF-A", (id, list) -> { });
+            subscription.setScheduleIds(List.of(1L));
+
+            // When
+            subscription.setFocused(false);
+
+            // Then
+            assertThat(scheduler.getEffectiveIntervalMillis(1L))
+                    .isEqualTo(BASE.toMillis() * SyncScheduler.UNFOCUSED_FACTOR);
+
+            // When
+            subscription.setFocused(true);
+            scheduler.tick();
+
+            // Then
+            assertThat(requests).containsExactly(1L);
+        }
+
+        @Test
+        @DisplayName("Oznaczanie obecności przyspiesza odpytywanie terminów okna")
+        void shouldSpeedUpWhileMarking() {
+            // Given
+            SyncScheduler.Subscription subscription = scheduler.subscribe("INF-A", (id, list) -> { });
+            subscription.setScheduleIds(List.of(1L));
+
+            // When
+            subscription.markActivity();
+            advance(SyncScheduler.ACTIVE_INTERVAL);
+            advance(SyncScheduler.ACTIVE_INTERVAL);
+
+            // Then
+            assertThat(requests).hasSize(2);
+            assertThat(scheduler.getEffectiveIntervalMillis(1L)).isEqualTo(SyncScheduler.ACTIVE_INTERVAL.toMillis());
+
+            // When - po oknie aktywności odstęp wraca do adaptacyjnego
+            now.addAndGet(SyncScheduler.ACTIVITY_WINDOW.toMillis());
+
+            // Then
+            assertThat(scheduler.getEffectiveIntervalMillis(1L)).isGreaterThan(SyncScheduler.ACTIVE_INTERVAL.toMillis());
+        }
+
+        @Test
+        @DisplayName("Trwające żądanie nie jest powtarzane")
+        void shouldNotOverlapRequests() {
+            // Given
+            CompletableFuture<List<Attendance>> pending = new CompletableFuture<>();
+            SyncScheduler slow = new SyncScheduler(id -> {
+                requests.add(id);
+                return pending;
+            }, BASE, now::get, false);
+            List<Long> received = new ArrayList<>();
+            slow.subscribe("INF-A", (id, list) -> received.add(id)).setScheduleIds(List.of(1L));
+
+            // When
+            now.addAndGet(BASE.toMillis());
+            slow.tick();
+            now.addAndGet(BASE.toMillis());
+            slow.tick();
+
+            // Then
+            assertThat(requests).containsExactly(1L);
+
+            // When
+            pending.complete(List.of());
+
+            // Then
+            assertThat(received).containsExactly(1L);
+            assertThat(slow.getEffectiveIntervalMillis(1L)).isEqualTo(BASE.toMillis());
+        }
+    }
+}
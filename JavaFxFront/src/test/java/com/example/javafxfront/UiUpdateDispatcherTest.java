@@ -0,0 +1,227 @@
+package com.example.javafxfront;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testy dyspozytora aktualizacji interfejsu
+ * Klatki są symulowane ręcznymi wywołaniami flush() - bez uruchamiania JavaFX
+ */
+@DisplayName("Testy dyspozytora aktualizacji interfejsu")
+class UiUpdateDispatcherTest {
+
+    private AtomicInteger wakeUps;
+    private UiUpdateDispatcher dispatcher;
+    private List<String> log;
+
+    @BeforeEach
+    void setUp() {
+        wakeUps = new AtomicInteger();
+        dispatcher = new UiUpdateDispatcher(wakeUps::incrementAndGet);
+        log = new ArrayList<>();
+    }
+
+    @Nested
+    @DisplayName("Scalanie odświeżeń")
+    class Coalescing {
+
+        @Test
+        @DisplayName("100 zgłoszeń odświeżenia w jednej klatce daje jedno odświeżenie")
+        void shouldRefreshOncePerFrame() {
+            // Given
+            AtomicInteger refreshes = new AtomicInteger();
+
+            // When
+            for (int i = 0; i < 100; i++) {
+                dispatcher.markDirty("terminy", refreshes::incrementAndGet);
+            }
+            dispatcher.flush();
+
+            // Then
+            assertThat(refreshes).hasValue(1);
+            assertThat(dispatcher.getRefreshRequestCount()).isEqualTo(100);
+            assertThat(dispatcher.getRefreshRunCount()).isEqualTo(1);
+            assertThat(dispatcher.getFrameCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Różne klucze są odświeżane osobno, w kolejności pierwszego zgłoszenia")
+        void shouldRefreshEachKey() {
+            // When
+            dispatcher.markDirty("terminy", () -> log.add("terminy"));
+            dispatcher.markDirty("liczniki", () -> log.add("liczniki"));
+            dispatcher.markDirty("terminy", () -> log.add("terminy-2"));
+            dispatcher.flush();
+
+            // Then - dla powtórzonego klucza wykonana jest ostatnio podana akcja
+            assertThat(log).containsExactly("terminy-2", "liczniki");
+        }
+
+        @Test
+        @DisplayName("Przebudzenie jest zlecane raz na klatkę")
+        void shouldWakeUpOncePerFrame() {
+            // When
+            dispatcher.post(() -> { });
+            dispatcher.markDirty("terminy", () -> { });
+            dispatcher.post(() -> { });
+
+            // Then
+            assertThat(wakeUps).hasValue(1);
+
+            // When - po klatce kolejne zgłoszenie znowu budzi
+            dispatcher.flush();
+            dispatcher.markDirty("terminy", () -> { });
+
+            // Then
+            assertThat(wakeUps).hasValue(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Kolejność w klatce")
+    class Ordering {
+
+        @Test
+        @DisplayName("Wszystkie zmiany modelu są wykonywane w kolejności, przed odświeżeniami")
+        void shouldApplyUpdatesBeforeRefreshes() {
+            // When
+            dispatcher.markDirty("widok", () -> log.add("odświeżenie"));
+            dispatcher.post(() -> log.add("zmiana 1"));
+            dispatcher.post(() -> log.add("zmiana 2"));
+            dispatcher.flush();
+
+            // Then
+            assertThat(log).containsExactly("zmiana 1", "zmiana 2", "odświeżenie");
+            assertThat(dispatcher.getPostedCount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Odświeżenie zgłoszone przez zmianę modelu trafia do tej samej klatki")
+        void shouldRunRefreshRequestedByUpdateInSameFrame() {
+            // When
+            dispatcher.post(() -> {
+                log.add("zmiana");
+                dispatcher.markDirty("widok", () -> log.add("odświeżenie"));
+                dispatcher.post(() -> log.add("zmiana zagnieżdżona"));
+            });
+            dispatcher.flush();
+
+            // Then
+            assertThat(log).containsExactly("zmiana", "zmiana zagnieżdżona", "odświeżenie");
+            assertThat(dispatcher.getFrameCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Odświeżenie zgłoszone podczas odświeżania trafia do następnej klatki")
+        void shouldDeferRefreshRequestedByRefresh() {
+            // Given
+            dispatcher.markDirty("widok", () -> {
+                log.add("odświeżenie 1");
+                dispatcher.markDirty("widok", () -> log.add("odświeżenie 2"));
+            });
+
+            // When
+            dispatcher.flush();
+
+            // Then
+            assertThat(log).containsExactly("odświeżenie 1");
+
+            // When
+            dispatcher.flush();
+
+            // Then
+            assertThat(log).containsExactly("odświeżenie 1", "odświeżenie 2");
+        }
+
+        @Test
+        @DisplayName("Błąd jednej akcji nie blokuje pozostałych")
+        void shouldContinueAfterFailure() {
+            // When
+            dispatcher.post(() -> { throw new IllegalStateException("test"); });
+            dispatcher.post(() -> log.add("zmiana"));
+            dispatcher.markDirty("widok", () -> log.add("odświeżenie"));
+            dispatcher.flush();
+
+            // Then
+            assertThat(log).containsExactly("zmiana", "odświeżenie");
+        }
+    }
+
+    @Nested
+    @DisplayName("Pusta klatka i czyszczenie")
+    class EmptyFrames {
+
+        @Test
+        @DisplayName("Pusta klatka zwraca false")
+        void shouldReportEmptyFrame() {
+            // When
+            dispatcher.markDirty("widok", () -> { });
+
+            // Then
+            assertThat(dispatcher.flush()).isTrue();
+            assertThat(dispatcher.flush()).isFalse();
+            assertThat(dispatcher.getFrameCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("clear() porzuca oczekujące zgłoszenia")
+        void shouldDropPendingOnClear() {
+            // Given
+            dispatcher.post(() -> log.add("zmiana"));
+            dispatcher.markDirty("widok", () -> log.add("odświeżenie"));
+
+            // When
+            dispatcher.clear();
+
+            // Then
+            assertThat(dispatcher.flush()).isFalse();
+            assertThat(log).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Zgłoszenia z wielu wątków w tle nie giną")
+    void shouldAcceptUpdatesFromManyThreads() throws InterruptedException {
+        // Given
+        int threads = 8;
+        int perThread = 500;
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger refreshes = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    dispatcher.post(applied::incrementAndGet);
+                    dispatcher.markDirty("liczniki", refreshes::incrementAndGet);
+                }
+                done.countDown();
+            });
+        }
+        while (done.getCount() > 0) {
+            dispatcher.flush();
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        dispatcher.flush();
+
+        // Then
+        assertThat(applied).hasValue(threads * perThread);
+        assertThat(refreshes.get()).isBetween(1, threads * perThread);
+        assertThat(dispatcher.getRefreshRunCount()).isEqualTo(refreshes.get());
+    }
+}